@@ -0,0 +1,90 @@
+package com.todo.rails.elite.benchmarks;
+
+import com.todo.rails.elite.starter.code.Application;
+import com.todo.rails.elite.starter.code.model.Task;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fixture shared by the benchmarks that need the application: starts it without a web server against an
+ * in-memory H2 database in MySQL mode (profile {@code benchmark}) and generates task data.
+ *
+ * <p>Generated tasks are deterministic: every second task is completed and due dates cycle through the
+ * two years around today, so each filter selects a stable fraction of the table at every size.</p>
+ */
+final class BenchmarkApplication {
+
+	private static final int SEED_CHUNK = 10_000;
+	private static final int DUE_DATE_SPREAD_DAYS = 731;
+
+	private BenchmarkApplication() {
+	}
+
+	/**
+	 * Starts the application.
+	 *
+	 * @param properties Additional {@code key=value} properties, overriding the application and profile ones.
+	 * @return The running context; close it in the benchmark's tear-down.
+	 */
+	static ConfigurableApplicationContext start(String... properties) {
+		String[] args = Arrays.stream(properties).map(property -> "--" + property).toArray(String[]::new);
+		return new SpringApplicationBuilder(Application.class)
+				.profiles("benchmark")
+				.web(WebApplicationType.NONE)
+				.logStartupInfo(false)
+				.run(args);
+	}
+
+	/**
+	 * Inserts generated tasks with plain JDBC batches, bypassing Hibernate and its caches.
+	 *
+	 * @param context The running application.
+	 * @param count   Number of tasks to insert; ids run from 1 to {@code count}.
+	 */
+	static void seedTasks(ConfigurableApplicationContext context, int count) {
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		LocalDate today = LocalDate.now();
+		for (int from = 0; from < count; from += SEED_CHUNK) {
+			List<Object[]> rows = new ArrayList<>(SEED_CHUNK);
+			for (int index = from; index < Math.min(from + SEED_CHUNK, count); index++) {
+				Task task = task(index, today);
+				rows.add(new Object[]{
+						task.getId(), task.getTitle(), task.getDescription(), task.isCompleted(),
+						Date.valueOf(task.getDueDate())
+				});
+			}
+			jdbcTemplate.batchUpdate(
+					"INSERT INTO tasks (id, title, description, completed, due_date, version) VALUES (?, ?, ?, ?, ?, 0)",
+					rows
+			);
+		}
+		jdbcTemplate.execute("ANALYZE");
+	}
+
+	/**
+	 * Builds the generated task with the given index, as stored by {@link #seedTasks}.
+	 *
+	 * @param index Zero-based index of the task.
+	 * @param today The date due dates are spread around.
+	 * @return A detached task with id {@code index + 1} and version 0.
+	 */
+	static Task task(int index, LocalDate today) {
+		Task task = new Task(
+				"Task " + index,
+				"Generated benchmark task number " + index,
+				index % 2 == 0,
+				today.plusDays(index % DUE_DATE_SPREAD_DAYS - DUE_DATE_SPREAD_DAYS / 2)
+		);
+		task.setId(index + 1L);
+		task.setVersion(0L);
+		return task;
+	}
+}
@@ -0,0 +1,54 @@
+package com.todo.rails.elite.benchmarks;
+
+import com.todo.rails.elite.starter.code.model.User;
+import com.todo.rails.elite.starter.code.model.security.SecurityUser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SecurityUser#getAuthorities()}, called by every authorization decision, next to the construction of
+ * the principal, which is where the roles column is parsed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityUserBenchmark {
+
+	@Param({"USER", "USER, ADMIN"})
+	public String roles;
+
+	private User user;
+	private SecurityUser securityUser;
+
+	@Setup
+	public void setUp() {
+		user = new User("benchmark", "$2a$10$hash", "benchmark@example.com", roles);
+		securityUser = new SecurityUser(user);
+	}
+
+	@Benchmark
+	public Collection<? extends GrantedAuthority> getAuthorities() {
+		return securityUser.getAuthorities();
+	}
+
+	@Benchmark
+	public SecurityUser createSecurityUser() {
+		return new SecurityUser(user);
+	}
+}
@@ -0,0 +1,99 @@
+package com.todo.rails.elite.benchmarks;
+
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.TaskCursor;
+import com.todo.rails.elite.starter.code.model.TaskFilter;
+import com.todo.rails.elite.starter.code.model.TaskPage;
+import com.todo.rails.elite.starter.code.model.TaskSort;
+import com.todo.rails.elite.starter.code.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Due-date range queries of {@link TaskService} behind {@code GET /api/tasks/due}: overdue, due within a week and
+ * a month-long window, at increasing table sizes.
+ *
+ * <p>Every range query returns one page of {@value #PAGE_LIMIT} tasks, so its time should stay flat as the table
+ * grows, deep pages included: each is a range scan of the {@code (completed, due_date)} index that stops after
+ * the page. The {@code overdueFromPendingList} baseline filters the unpaged pending list in memory, as the
+ * dashboard's exact-date query path would have to, and grows with the table. Runs against H2 like
+ * {@link TaskFilteringBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TaskDueDateBenchmark {
+
+	private static final int PAGE_LIMIT = 50;
+
+	@Param({"1000", "100000", "1000000"})
+	public int tasks;
+
+	private ConfigurableApplicationContext context;
+	private TaskService taskService;
+	private LocalDate today;
+	private String deepOverdueCursor;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkApplication.start();
+		BenchmarkApplication.seedTasks(context, tasks);
+		taskService = context.getBean(TaskService.class);
+		today = LocalDate.now();
+		// a pending task due half a year ago, in the middle of the overdue range
+		Task middle = BenchmarkApplication.task(183, today);
+		deepOverdueCursor = TaskCursor.after(TaskSort.DUE_DATE, middle).encode();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public TaskPage overdueFirstPage() {
+		return taskService.getOverdueTasks(null, PAGE_LIMIT);
+	}
+
+	@Benchmark
+	public TaskPage overdueDeepPage() {
+		return taskService.getOverdueTasks(deepOverdueCursor, PAGE_LIMIT);
+	}
+
+	@Benchmark
+	public TaskPage dueWithinWeek() {
+		return taskService.getTasksDueWithin(7, null, PAGE_LIMIT);
+	}
+
+	@Benchmark
+	public TaskPage nextMonthAllStatuses() {
+		return taskService.getTasksDueBetween(today, today.plusMonths(1), TaskFilter.ALL, null, PAGE_LIMIT);
+	}
+
+	@Benchmark
+	public List<Task> overdueFromPendingList() {
+		return taskService.getPendingTasks().stream()
+				.filter(task -> task.getDueDate().isBefore(today))
+				.limit(PAGE_LIMIT)
+				.toList();
+	}
+}
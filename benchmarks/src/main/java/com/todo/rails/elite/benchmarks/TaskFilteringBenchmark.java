@@ -0,0 +1,99 @@
+package com.todo.rails.elite.benchmarks;
+
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.TaskCursor;
+import com.todo.rails.elite.starter.code.model.TaskFilter;
+import com.todo.rails.elite.starter.code.model.TaskPage;
+import com.todo.rails.elite.starter.code.model.TaskSort;
+import com.todo.rails.elite.starter.code.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtering paths of {@link TaskService}: the unpaged filter lists behind the dashboard and the keyset pages
+ * behind {@code GET /api/tasks}, at increasing table sizes.
+ *
+ * <p>The unpaged lists grow with the table, pages should not; the deep-page benchmarks start from a cursor in
+ * the middle of the table to show that. Every call goes through the real service, repository, Hibernate
+ * (second-level cache included) and JDBC, against H2 rather than MySQL, so compare results with each other
+ * rather than with production latencies.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TaskFilteringBenchmark {
+
+	private static final int PAGE_LIMIT = 50;
+
+	@Param({"1000", "100000", "1000000"})
+	public int tasks;
+
+	private ConfigurableApplicationContext context;
+	private TaskService taskService;
+	private String middleByIdCursor;
+	private String middleByDueDateCursor;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkApplication.start();
+		BenchmarkApplication.seedTasks(context, tasks);
+		taskService = context.getBean(TaskService.class);
+		Task middle = BenchmarkApplication.task(tasks / 2, LocalDate.now());
+		middleByIdCursor = TaskCursor.after(TaskSort.ID, middle).encode();
+		middleByDueDateCursor = TaskCursor.after(TaskSort.DUE_DATE, middle).encode();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<Task> pendingTasks() {
+		return taskService.getPendingTasks();
+	}
+
+	@Benchmark
+	public List<Task> completedTasks() {
+		return taskService.getCompletedTasks();
+	}
+
+	@Benchmark
+	public List<Task> todayTasks() {
+		return taskService.getTodayTasks();
+	}
+
+	@Benchmark
+	public TaskPage pendingFirstPageByDueDate() {
+		return taskService.getTaskPage(TaskFilter.PENDING, TaskSort.DUE_DATE, null, PAGE_LIMIT);
+	}
+
+	@Benchmark
+	public TaskPage pendingDeepPageByDueDate() {
+		return taskService.getTaskPage(TaskFilter.PENDING, TaskSort.DUE_DATE, middleByDueDateCursor, PAGE_LIMIT);
+	}
+
+	@Benchmark
+	public TaskPage allDeepPageById() {
+		return taskService.getTaskPage(TaskFilter.ALL, TaskSort.ID, middleByIdCursor, PAGE_LIMIT);
+	}
+}
@@ -0,0 +1,87 @@
+package com.todo.rails.elite.benchmarks;
+
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.TaskExportFormat;
+import com.todo.rails.elite.starter.code.model.TaskImportResult;
+import com.todo.rails.elite.starter.code.service.TaskImportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV import through {@link TaskImportService}, batched against row by row.
+ *
+ * <p>{@code batchSize=1} commits and inserts every row on its own, like the import did before it was batched;
+ * larger sizes send one JDBC batch and one commit per batch. Each measured import starts from an empty table.
+ * H2 runs in-process, so the gap measured here is smaller than against MySQL, where every statement and commit
+ * is a network round trip.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TaskImportBenchmark {
+
+	@Param({"1", "500"})
+	public int batchSize;
+
+	@Param("10000")
+	public int rows;
+
+	private ConfigurableApplicationContext context;
+	private TaskImportService taskImportService;
+	private JdbcTemplate jdbcTemplate;
+	private byte[] csv;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkApplication.start("todo.tasks.import.batch-size=" + batchSize);
+		taskImportService = context.getBean(TaskImportService.class);
+		jdbcTemplate = context.getBean(JdbcTemplate.class);
+		LocalDate today = LocalDate.now();
+		StringBuilder builder = new StringBuilder("title,description,completed,dueDate\r\n");
+		for (int index = 0; index < rows; index++) {
+			Task task = BenchmarkApplication.task(index, today);
+			builder.append(task.getTitle()).append(',')
+					.append(task.getDescription()).append(',')
+					.append(task.isCompleted()).append(',')
+					.append(task.getDueDate()).append("\r\n");
+		}
+		csv = builder.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Setup(Level.Invocation)
+	public void emptyTable() {
+		jdbcTemplate.update("DELETE FROM tasks");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public TaskImportResult importCsv() throws IOException {
+		return taskImportService.importTasks(TaskExportFormat.CSV, new ByteArrayInputStream(csv));
+	}
+}
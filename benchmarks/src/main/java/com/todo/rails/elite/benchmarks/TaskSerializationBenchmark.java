@@ -0,0 +1,58 @@
+package com.todo.rails.elite.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.rails.elite.starter.code.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of {@code List<Task>}, as written by the task list endpoints.
+ *
+ * <p>The mapper is built by {@link Jackson2ObjectMapperBuilder} with its defaults, which is what Spring Boot
+ * configures for the application when no {@code spring.jackson.*} properties are set.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskSerializationBenchmark {
+
+	@Param({"10", "1000", "10000"})
+	public int tasks;
+
+	private ObjectMapper objectMapper;
+	private List<Task> list;
+
+	@Setup
+	public void setUp() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		LocalDate today = LocalDate.now();
+		list = new ArrayList<>(tasks);
+		for (int index = 0; index < tasks; index++) {
+			list.add(BenchmarkApplication.task(index, today));
+		}
+	}
+
+	@Benchmark
+	public byte[] writeTaskList() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(list);
+	}
+}
@@ -0,0 +1,387 @@
+package com.todo.rails.elite.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Open-model HTTP load driver for the application running with the {@code loadtest} profile.
+ *
+ * <p>Requests start on a fixed schedule of {@code --rate} per second, each on its own virtual thread, whether or
+ * not earlier ones have completed, and the operation of each is drawn from {@code --mix}:</p>
+ * <ul>
+ *   <li>{@code dashboard}: {@code GET /api/dashboard} with one of the logged-in sessions;</li>
+ *   <li>{@code list}: a page of {@code GET /api/tasks} with a random filter, authenticated by an API access token;</li>
+ *   <li>{@code complete}: {@code GET /api/tasks/{id}} followed by {@code PATCH /api/tasks/{id}/complete} with the
+ *       version read, timed as one operation, authenticated like {@code list};</li>
+ *   <li>{@code login}: a form login of a random seeded user, BCrypt included.</li>
+ * </ul>
+ *
+ * <p>Latency is measured from the moment a request was scheduled to start, not from when it was actually sent.
+ * A closed-loop driver that waits for a slow response before sending the next one silently skips the requests
+ * that would have queued behind it (coordinated omission) and reports percentiles that are far too low; here a
+ * stall shows up in every request scheduled during it. The time from the actual send is reported next to it as
+ * service time, so the gap between the two shows queueing. Unexpected status codes, timeouts and requests
+ * dropped because {@code --max-in-flight} was reached count as errors.</p>
+ */
+public final class LoadDriver {
+
+	private static final Pattern FIRST_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+	private static final Pattern VERSION = Pattern.compile("\"version\"\\s*:\\s*(\\d+)");
+	private static final Pattern ACCESS_TOKEN = Pattern.compile("\"accessToken\"\\s*:\\s*\"([^\"]+)\"");
+	private static final String[] LIST_FILTERS = {"all", "pending", "today"};
+	private static final Duration READINESS_TIMEOUT = Duration.ofMinutes(10);
+	private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+	enum Operation {
+		DASHBOARD, LIST, COMPLETE, LOGIN;
+
+		String key() {
+			return name().toLowerCase(Locale.ROOT);
+		}
+	}
+
+	private static final class Stats {
+		// microseconds from the scheduled start (corrected) and from the actual send (service time)
+		final Histogram latency = new ConcurrentHistogram(3);
+		final Histogram serviceTime = new ConcurrentHistogram(3);
+		final LongAdder requests = new LongAdder();
+		final LongAdder errors = new LongAdder();
+		final LongAdder dropped = new LongAdder();
+	}
+
+	private final LoadDriverOptions options;
+	private final HttpClient client;
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final List<String> sessions = new ArrayList<>();
+	private String authorization;
+	private final Stats total = new Stats();
+	private long firstTaskId;
+	private long maxDispatchLagNanos;
+
+	LoadDriver(LoadDriverOptions options) {
+		this.options = options;
+		this.client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.followRedirects(HttpClient.Redirect.NEVER)
+				.connectTimeout(options.timeout())
+				.build();
+		for (Operation operation : Operation.values()) {
+			stats.put(operation, new Stats());
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		LoadDriverOptions options;
+		try {
+			options = LoadDriverOptions.parse(args);
+		} catch (IllegalArgumentException exception) {
+			System.err.println(exception.getMessage());
+			System.err.print(LoadDriverOptions.USAGE);
+			System.exit(2);
+			return;
+		}
+		LoadDriver driver = new LoadDriver(options);
+		driver.prepare();
+		driver.run();
+		driver.report(System.out);
+		if (options.results() != null) {
+			driver.appendResults();
+		}
+		driver.executor.shutdownNow();
+	}
+
+	/**
+	 * Waits until the application is ready (seeding done), obtains an API access token, finds the seeded task ids
+	 * and logs in the sessions.
+	 */
+	void prepare() throws IOException, InterruptedException {
+		long deadline = System.nanoTime() + READINESS_TIMEOUT.toNanos();
+		while (true) {
+			try {
+				if (client.send(get("/internal/health/readiness").build(), HttpResponse.BodyHandlers.discarding())
+						.statusCode() == 200) {
+					break;
+				}
+			} catch (IOException exception) {
+				// not listening yet
+			}
+			if (System.nanoTime() > deadline) {
+				throw new IllegalStateException("Application at " + options.baseUrl() + " did not become ready");
+			}
+			Thread.sleep(1000);
+		}
+
+		HttpResponse<String> token = client.send(
+				HttpRequest.newBuilder(uri("/api/auth/token"))
+						.timeout(options.timeout())
+						.header("Content-Type", "application/json")
+						.POST(HttpRequest.BodyPublishers.ofString(
+								"{\"username\":\"user-0\",\"password\":\"" + options.password() + "\"}"
+						))
+						.build(),
+				HttpResponse.BodyHandlers.ofString()
+		);
+		Matcher accessToken = ACCESS_TOKEN.matcher(token.body());
+		if (token.statusCode() != 200 || !accessToken.find()) {
+			throw new IllegalStateException("No API access token for user-0: " + token.statusCode());
+		}
+		// one token for the whole run; the loadtest profile keeps it valid for longer than a run
+		authorization = "Bearer " + accessToken.group(1);
+
+		HttpResponse<String> firstPage = client.send(
+				api("/api/tasks?sort=id&limit=1").build(), HttpResponse.BodyHandlers.ofString()
+		);
+		Matcher id = FIRST_ID.matcher(firstPage.body());
+		if (firstPage.statusCode() != 200 || !id.find()) {
+			throw new IllegalStateException("No seeded tasks found: " + firstPage.statusCode() + " " + firstPage.body());
+		}
+		// the seeder inserts all tasks in one run, so their ids are contiguous
+		firstTaskId = Long.parseLong(id.group(1));
+
+		for (int index = 0; index < options.sessions(); index++) {
+			HttpResponse<Void> login = client.send(
+					login("user-" + index % options.users()), HttpResponse.BodyHandlers.discarding()
+			);
+			String session = login.headers().allValues("Set-Cookie").stream()
+					.filter(cookie -> cookie.startsWith("JSESSIONID="))
+					.map(cookie -> cookie.split(";", 2)[0])
+					.findFirst()
+					.orElseThrow(() -> new IllegalStateException("Login failed for session " + login.statusCode()));
+			sessions.add(session);
+		}
+		System.out.printf("Ready: tasks %d..%d, %d sessions%n", firstTaskId, firstTaskId + options.tasks() - 1,
+				sessions.size());
+	}
+
+	/**
+	 * Runs the warm-up and the measured phase, then waits for outstanding requests.
+	 */
+	void run() throws InterruptedException {
+		long intervalNanos = Math.round(1_000_000_000 / options.rate());
+		long start = System.nanoTime();
+		long measureFrom = start + options.warmup().toNanos();
+		long end = measureFrom + options.duration().toNanos();
+		SplittableRandom random = new SplittableRandom(options.randomSeed());
+		System.out.printf("Warming up for %s, then measuring for %s at %.0f requests/s%n",
+				options.warmup(), options.duration(), options.rate());
+
+		for (long sequence = 0; ; sequence++) {
+			long scheduled = start + sequence * intervalNanos;
+			if (scheduled >= end) {
+				break;
+			}
+			long delay;
+			while ((delay = scheduled - System.nanoTime()) > 0) {
+				LockSupport.parkNanos(delay);
+			}
+			maxDispatchLagNanos = Math.max(maxDispatchLagNanos, -delay);
+			Operation operation = options.pick(random.nextDouble());
+			boolean measured = scheduled >= measureFrom;
+			if (inFlight.get() >= options.maxInFlight()) {
+				if (measured) {
+					stats.get(operation).dropped.increment();
+				}
+				continue;
+			}
+			inFlight.incrementAndGet();
+			SplittableRandom requestRandom = random.split();
+			executor.execute(() -> {
+				try {
+					execute(operation, scheduled, measured, requestRandom);
+				} finally {
+					inFlight.decrementAndGet();
+				}
+			});
+		}
+
+		long drainDeadline = System.nanoTime() + options.timeout().toNanos() * 2;
+		while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+			TimeUnit.MILLISECONDS.sleep(10);
+		}
+	}
+
+	private void execute(Operation operation, long scheduled, boolean measured, SplittableRandom random) {
+		long sent = System.nanoTime();
+		boolean success;
+		try {
+			success = switch (operation) {
+				case DASHBOARD -> dashboard(random);
+				case LIST -> list(random);
+				case COMPLETE -> complete(random);
+				case LOGIN -> login(random);
+			};
+		} catch (IOException | RuntimeException exception) {
+			success = false;
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			success = false;
+		}
+		long completed = System.nanoTime();
+		if (measured) {
+			Stats operationStats = stats.get(operation);
+			operationStats.requests.increment();
+			if (!success) {
+				operationStats.errors.increment();
+			}
+			operationStats.latency.recordValue(TimeUnit.NANOSECONDS.toMicros(completed - scheduled));
+			operationStats.serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(completed - sent));
+		}
+	}
+
+	private boolean dashboard(SplittableRandom random) throws IOException, InterruptedException {
+		HttpRequest request = get("/api/dashboard")
+				.header("Cookie", sessions.get(random.nextInt(sessions.size())))
+				.build();
+		return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+	}
+
+	private boolean list(SplittableRandom random) throws IOException, InterruptedException {
+		String filter = LIST_FILTERS[random.nextInt(LIST_FILTERS.length)];
+		HttpRequest request = api("/api/tasks?status=" + filter + "&sort=dueDate&limit=50").build();
+		return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+	}
+
+	private boolean complete(SplittableRandom random) throws IOException, InterruptedException {
+		long id = firstTaskId + random.nextInt(options.tasks());
+		HttpResponse<String> task = client.send(api("/api/tasks/" + id).build(), HttpResponse.BodyHandlers.ofString());
+		Matcher version = VERSION.matcher(task.body());
+		if (task.statusCode() != 200 || !version.find()) {
+			return false;
+		}
+		HttpRequest request = HttpRequest.newBuilder(uri("/api/tasks/" + id + "/complete"))
+				.timeout(options.timeout())
+				.header("Content-Type", "application/json")
+				.header("Authorization", authorization)
+				.method("PATCH", HttpRequest.BodyPublishers.ofString("{\"version\":" + version.group(1) + "}"))
+				.build();
+		return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+	}
+
+	private boolean login(SplittableRandom random) throws IOException, InterruptedException {
+		HttpResponse<Void> response = client.send(
+				login("user-" + random.nextInt(options.users())), HttpResponse.BodyHandlers.discarding()
+		);
+		String location = response.headers().firstValue("Location").orElse("");
+		return response.statusCode() == 302 && !location.contains("error");
+	}
+
+	private HttpRequest login(String username) {
+		String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+				+ "&password=" + URLEncoder.encode(options.password(), StandardCharsets.UTF_8);
+		return HttpRequest.newBuilder(uri("/login"))
+				.timeout(options.timeout())
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.POST(HttpRequest.BodyPublishers.ofString(form))
+				.build();
+	}
+
+	private HttpRequest.Builder get(String path) {
+		return HttpRequest.newBuilder(uri(path)).timeout(options.timeout()).GET();
+	}
+
+	private HttpRequest.Builder api(String path) {
+		return get(path).header("Authorization", authorization);
+	}
+
+	private URI uri(String path) {
+		return URI.create(options.baseUrl() + path);
+	}
+
+	/**
+	 * Prints successful requests per second, error rate and latency percentiles per operation and in total; call
+	 * once, after {@link #run()}.
+	 *
+	 * @param out Where to print the report.
+	 */
+	void report(PrintStream out) {
+		double seconds = options.duration().toNanos() / 1e9;
+		out.printf("%nLabel %s: target %.0f requests/s for %s, max dispatch lag %.1f ms%n",
+				options.label(), options.rate(), options.duration(), maxDispatchLagNanos / 1e6);
+		out.println("Latency in ms from the scheduled start (corrected for coordinated omission); "
+				+ "service p99 is measured from the actual send.");
+		out.printf("%-10s %9s %9s %7s %9s %8s %8s %8s %8s %8s %8s %12s%n",
+				"operation", "requests", "errors", "error%", "dropped", "ok/s",
+				"p50", "p90", "p99", "p99.9", "max", "service p99");
+		for (Operation operation : Operation.values()) {
+			Stats operationStats = stats.get(operation);
+			if (!options.mix().containsKey(operation)) {
+				continue;
+			}
+			printRow(out, operation.key(), operationStats, seconds);
+			total.latency.add(operationStats.latency);
+			total.serviceTime.add(operationStats.serviceTime);
+			total.requests.add(operationStats.requests.sum());
+			total.errors.add(operationStats.errors.sum());
+			total.dropped.add(operationStats.dropped.sum());
+		}
+		printRow(out, "total", total, seconds);
+	}
+
+	private static void printRow(PrintStream out, String name, Stats stats, double seconds) {
+		long requests = stats.requests.sum();
+		long failures = stats.errors.sum() + stats.dropped.sum();
+		out.printf("%-10s %9d %9d %7.2f %9d %8.1f %8.1f %8.1f %8.1f %8.1f %8.1f %12.1f%n",
+				name, requests, stats.errors.sum(),
+				requests + stats.dropped.sum() == 0 ? 0 : 100.0 * failures / (requests + stats.dropped.sum()),
+				stats.dropped.sum(),
+				(requests - stats.errors.sum()) / seconds,
+				millis(stats.latency, PERCENTILES[0]), millis(stats.latency, PERCENTILES[1]),
+				millis(stats.latency, PERCENTILES[2]), millis(stats.latency, PERCENTILES[3]),
+				stats.latency.getMaxValue() / 1000.0,
+				millis(stats.serviceTime, 99));
+	}
+
+	private void appendResults() throws IOException {
+		boolean header = !Files.exists(options.results());
+		StringBuilder csv = new StringBuilder();
+		if (header) {
+			csv.append("label,operation,target_rate,requests,errors,dropped,ok_per_second,p50_ms,p90_ms,p99_ms,p999_ms,max_ms\n");
+		}
+		double seconds = options.duration().toNanos() / 1e9;
+		Map<String, Stats> rows = new LinkedHashMap<>();
+		options.mix().keySet().forEach(operation -> rows.put(operation.key(), stats.get(operation)));
+		rows.put("total", total);
+		for (Map.Entry<String, Stats> entry : rows.entrySet()) {
+			Stats row = entry.getValue();
+			csv.append(String.format(Locale.ROOT, "%s,%s,%.0f,%d,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%.2f%n",
+					options.label(), entry.getKey(), options.rate(),
+					row.requests.sum(), row.errors.sum(), row.dropped.sum(), (row.requests.sum() - row.errors.sum()) / seconds,
+					millis(row.latency, 50), millis(row.latency, 90), millis(row.latency, 99),
+					millis(row.latency, 99.9), row.latency.getMaxValue() / 1000.0));
+		}
+		Files.writeString(options.results(), csv, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+	}
+
+	private static double millis(Histogram histogram, double percentile) {
+		return histogram.getValueAtPercentile(percentile) / 1000.0;
+	}
+}
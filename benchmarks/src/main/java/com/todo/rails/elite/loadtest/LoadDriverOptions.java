@@ -0,0 +1,144 @@
+package com.todo.rails.elite.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command-line options of the {@link LoadDriver}, given as {@code --name=value}.
+ *
+ * @param baseUrl     Root URL of the application under test.
+ * @param rate        Requests started per second, independent of how fast responses arrive.
+ * @param duration    Length of the measured phase.
+ * @param warmup      Length of the unmeasured phase before it, at the same rate.
+ * @param users       Number of seeded users ({@code todo.loadtest.seed.users}).
+ * @param tasks       Number of seeded tasks ({@code todo.loadtest.seed.tasks}).
+ * @param password    Password of every seeded user ({@code todo.loadtest.seed.password}).
+ * @param sessions    Logged-in sessions shared by the dashboard requests.
+ * @param mix         Relative weight of every operation.
+ * @param timeout     Longest wait for one response; slower requests count as errors.
+ * @param maxInFlight Outstanding requests beyond which new ones are dropped and counted as errors.
+ * @param randomSeed  Seed of the operation and parameter choices.
+ * @param label       Name of the run in the results file, such as {@code platform} or {@code virtual}.
+ * @param results     CSV file the summary is appended to, or {@code null}.
+ */
+record LoadDriverOptions(
+		URI baseUrl,
+		double rate,
+		Duration duration,
+		Duration warmup,
+		int users,
+		int tasks,
+		String password,
+		int sessions,
+		Map<LoadDriver.Operation, Integer> mix,
+		Duration timeout,
+		int maxInFlight,
+		long randomSeed,
+		String label,
+		Path results
+) {
+
+	static final String USAGE = """
+			Usage: java -cp benchmarks.jar com.todo.rails.elite.loadtest.LoadDriver [--name=value ...]
+			  --base-url=http://localhost:8080   application under test (loadtest profile)
+			  --rate=200                         requests started per second
+			  --duration=60s  --warmup=15s       measured phase, preceded by an unmeasured one
+			  --users=1000 --tasks=100000 --password=loadtest   seeded dataset
+			  --sessions=50                      logged-in sessions used by dashboard requests
+			  --mix=dashboard:20,list:40,complete:30,login:10   relative operation weights
+			  --timeout=10s --max-in-flight=10000 --seed=1
+			  --label=run --results=results.csv  append the summary to a CSV file
+			""";
+
+	/**
+	 * Parses {@code --name=value} arguments; unspecified options keep their defaults.
+	 *
+	 * @param args The command-line arguments.
+	 * @return The options.
+	 * @throws IllegalArgumentException if an argument is unknown or malformed.
+	 */
+	static LoadDriverOptions parse(String[] args) {
+		Map<String, String> values = new HashMap<>();
+		for (String arg : args) {
+			int separator = arg.indexOf('=');
+			if (!arg.startsWith("--") || separator < 0) {
+				throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+			}
+			values.put(arg.substring(2, separator), arg.substring(separator + 1));
+		}
+		LoadDriverOptions options = new LoadDriverOptions(
+				URI.create(take(values, "base-url", "http://localhost:8080").replaceAll("/+$", "")),
+				Double.parseDouble(take(values, "rate", "200")),
+				DurationStyle.detectAndParse(take(values, "duration", "60s")),
+				DurationStyle.detectAndParse(take(values, "warmup", "15s")),
+				Integer.parseInt(take(values, "users", "1000")),
+				Integer.parseInt(take(values, "tasks", "100000")),
+				take(values, "password", "loadtest"),
+				Integer.parseInt(take(values, "sessions", "50")),
+				parseMix(take(values, "mix", "dashboard:20,list:40,complete:30,login:10")),
+				DurationStyle.detectAndParse(take(values, "timeout", "10s")),
+				Integer.parseInt(take(values, "max-in-flight", "10000")),
+				Long.parseLong(take(values, "seed", "1")),
+				take(values, "label", "run"),
+				values.containsKey("results") ? Path.of(values.remove("results")) : null
+		);
+		if (!values.isEmpty()) {
+			throw new IllegalArgumentException("Unknown options: " + values.keySet());
+		}
+		if (options.rate() <= 0 || options.users() < 1 || options.tasks() < 1 || options.sessions() < 1) {
+			throw new IllegalArgumentException("rate, users, tasks and sessions must be positive");
+		}
+		return options;
+	}
+
+	/**
+	 * Picks the operation whose share of the mix contains the given point.
+	 *
+	 * @param point A uniformly distributed value in [0, 1).
+	 * @return The chosen operation.
+	 */
+	LoadDriver.Operation pick(double point) {
+		int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+		double target = point * total;
+		int cumulative = 0;
+		LoadDriver.Operation last = null;
+		for (Map.Entry<LoadDriver.Operation, Integer> entry : mix.entrySet()) {
+			cumulative += entry.getValue();
+			last = entry.getKey();
+			if (target < cumulative) {
+				return last;
+			}
+		}
+		return last;
+	}
+
+	private static String take(Map<String, String> values, String name, String defaultValue) {
+		String value = values.remove(name);
+		return value == null ? defaultValue : value;
+	}
+
+	private static Map<LoadDriver.Operation, Integer> parseMix(String value) {
+		Map<LoadDriver.Operation, Integer> mix = new EnumMap<>(LoadDriver.Operation.class);
+		for (String part : value.split(",")) {
+			String[] weight = part.split(":");
+			if (weight.length != 2) {
+				throw new IllegalArgumentException("Expected operation:weight in --mix but got: " + part);
+			}
+			int share = Integer.parseInt(weight[1].trim());
+			if (share > 0) {
+				mix.put(LoadDriver.Operation.valueOf(weight[0].trim().toUpperCase(Locale.ROOT)), share);
+			}
+		}
+		if (mix.isEmpty()) {
+			throw new IllegalArgumentException("--mix must give at least one operation a positive weight");
+		}
+		return mix;
+	}
+}
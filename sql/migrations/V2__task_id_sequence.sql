@@ -0,0 +1,18 @@
+-- Migrates an existing todorails database from IDENTITY task ids to the pooled task_id_seq generator.
+-- Run this BEFORE starting the application version that uses task_id_seq; otherwise
+-- spring.jpa.hibernate.ddl-auto=update creates the table seeded with 1 and new ids collide with existing rows.
+
+USE todorails;
+
+CREATE TABLE IF NOT EXISTS task_id_seq (
+                       next_val BIGINT NOT NULL
+);
+
+-- Hibernate's pooled optimizer treats the stored value as the upper end of the next block of
+-- allocationSize (100) ids, so seeding MAX(id) + 100 makes the first generated id MAX(id) + 1.
+DELETE FROM task_id_seq;
+INSERT INTO task_id_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 100 FROM tasks;
+
+-- tasks.id keeps AUTO_INCREMENT; it is unused once ids are assigned by the application,
+-- and MySQL moves the counter past explicitly inserted ids, so rolling back stays possible.
@@ -0,0 +1,8 @@
+-- Adds the optimistic-locking version column to an existing todorails database.
+-- Run this BEFORE starting the application version that maps Task.version; otherwise
+-- spring.jpa.hibernate.ddl-auto=update adds the column without a default and existing rows get NULL versions.
+
+USE todorails;
+
+ALTER TABLE tasks
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,12 @@
+-- Adds the last-write timestamp and its index to an existing todorails database.
+-- Run this BEFORE starting the application version that maps Task.updatedAt; the collection stamp
+-- behind conditional GETs and the delta sync watermark both read the end of idx_task_updated_at.
+
+USE todorails;
+
+-- Existing rows take the migration time as their last write, so clients syncing from an older
+-- watermark receive every task once.
+ALTER TABLE tasks
+    ADD COLUMN updated_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+
+CREATE INDEX idx_task_updated_at ON tasks(updated_at, id);
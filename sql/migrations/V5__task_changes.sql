@@ -0,0 +1,21 @@
+-- Adds the task change outbox to an existing todorails database.
+-- Run this BEFORE starting the application version that records TaskChange rows; every task write
+-- inserts into task_changes in the same transaction, so the table has to exist before the first write.
+
+USE todorails;
+
+CREATE TABLE IF NOT EXISTS task_changes (
+                       id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                       task_id BIGINT NOT NULL,
+                       type VARCHAR(16) NOT NULL, -- CREATED, UPDATED or DELETED
+                       title VARCHAR(255) NOT NULL,
+                       description TEXT NOT NULL,
+                       completed BOOLEAN NOT NULL,
+                       due_date DATE NOT NULL,
+                       recorded_at DATETIME(6) NOT NULL
+);
+
+CREATE INDEX idx_task_change_recorded_at ON task_changes(recorded_at); -- Pruning of relayed changes
+
+-- The outbox starts empty: changes made before the migration are not replayed, and the relay
+-- begins with the first write made by the new application version.
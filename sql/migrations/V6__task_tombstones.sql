@@ -0,0 +1,15 @@
+-- Adds the deleted-task tombstones to an existing todorails database.
+-- Run this BEFORE starting the application version that maps TaskTombstone; deleting a task
+-- inserts its tombstone in the same transaction, so the table has to exist before the first delete.
+
+USE todorails;
+
+CREATE TABLE IF NOT EXISTS task_tombstones (
+                       task_id BIGINT PRIMARY KEY,
+                       deleted_at DATETIME(6) NOT NULL
+);
+
+CREATE INDEX idx_task_tombstone_deleted_at ON task_tombstones(deleted_at, task_id); -- Delta sync of deletions
+
+-- Tasks deleted before the migration have no tombstone; clients holding them should do a full
+-- sync (no watermark) once after the upgrade.
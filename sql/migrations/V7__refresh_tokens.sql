@@ -0,0 +1,17 @@
+-- Adds the stored API refresh tokens to an existing todorails database.
+-- Run this BEFORE starting the application version that issues API tokens; POST /api/auth/token
+-- stores the refresh token it hands out, so the table has to exist before the first login.
+
+USE todorails;
+
+-- Tokens are stored as SHA-256 hashes and deleted when used, revoked or expired
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+                       id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                       token_hash CHAR(64) NOT NULL UNIQUE,
+                       username VARCHAR(255) NOT NULL,
+                       issued_at DATETIME(6) NOT NULL,
+                       expires_at DATETIME(6) NOT NULL
+);
+
+CREATE INDEX idx_refresh_token_username ON refresh_tokens(username); -- Revoking a user's tokens
+CREATE INDEX idx_refresh_token_expires_at ON refresh_tokens(expires_at); -- Purging expired tokens
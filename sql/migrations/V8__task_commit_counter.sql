@@ -0,0 +1,13 @@
+-- Adds the commit counter behind the change stamp of task collections to an existing todorails database.
+-- Run this BEFORE starting the application version that maps TaskCommitCounter; otherwise
+-- spring.jpa.hibernate.ddl-auto=update creates the table empty and the first committing writers race to insert its row.
+
+USE todorails;
+
+CREATE TABLE IF NOT EXISTS task_commit_counter (
+                       id INT PRIMARY KEY,
+                       commits BIGINT NOT NULL
+);
+
+-- A single row, incremented right before every transaction that changes tasks commits
+INSERT IGNORE INTO task_commit_counter (id, commits) VALUES (1, 0);
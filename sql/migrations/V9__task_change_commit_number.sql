@@ -0,0 +1,10 @@
+-- Orders the task change outbox by commit instead of by auto-increment id in an existing todorails database.
+-- Stop every instance of the previous application version first, run this, then start the new version: its relay
+-- starts after the last row, and rows recorded before the migration keep commit number 0.
+
+USE todorails;
+
+ALTER TABLE task_changes ADD COLUMN commit_number BIGINT NOT NULL DEFAULT 0 AFTER due_date;
+ALTER TABLE task_changes ALTER COLUMN commit_number DROP DEFAULT;
+
+CREATE INDEX idx_task_change_commit ON task_changes(commit_number, id); -- Outbox relay and change feed in commit order
@@ -22,11 +22,62 @@ CREATE TABLE tasks (
                        title VARCHAR(255) NOT NULL UNIQUE,
                        description TEXT NOT NULL,
                        completed BOOLEAN NOT NULL,
-                       due_date DATE NOT NULL
+                       due_date DATE NOT NULL,
+                       version BIGINT NOT NULL DEFAULT 0, -- Optimistic lock, bumped by every update
+                       updated_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) -- Last write, set by the application
+);
+
+-- Pooled id generator for tasks (Hibernate keeps the sequence in a table on MySQL).
+-- Ids are handed out in blocks of 100, which lets inserts be sent as JDBC batches.
+CREATE TABLE task_id_seq (
+                       next_val BIGINT NOT NULL
+);
+INSERT INTO task_id_seq (next_val) VALUES (1);
+
+-- Number of committed transactions that changed tasks; incremented right before each of them commits, so it orders
+-- the commits and moves with every one of them (the change stamp of conditional GETs)
+CREATE TABLE task_commit_counter (
+                       id INT PRIMARY KEY,
+                       commits BIGINT NOT NULL
+);
+INSERT INTO task_commit_counter (id, commits) VALUES (1, 0);
+
+-- Ids of deleted tasks, so syncing clients learn about deletions; task ids are never reused
+CREATE TABLE task_tombstones (
+                       task_id BIGINT PRIMARY KEY,
+                       deleted_at DATETIME(6) NOT NULL
+);
+
+-- Task change outbox, written in the same transaction as every task change and read in commit order
+CREATE TABLE task_changes (
+                       id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                       task_id BIGINT NOT NULL,
+                       type VARCHAR(16) NOT NULL, -- CREATED, UPDATED or DELETED
+                       title VARCHAR(255) NOT NULL,
+                       description TEXT NOT NULL,
+                       completed BOOLEAN NOT NULL,
+                       due_date DATE NOT NULL,
+                       commit_number BIGINT NOT NULL, -- commit of the writing transaction; negative until it commits
+                       recorded_at DATETIME(6) NOT NULL
+);
+
+-- API refresh tokens, stored as SHA-256 hashes and deleted when used, revoked or expired
+CREATE TABLE refresh_tokens (
+                       id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                       token_hash CHAR(64) NOT NULL UNIQUE,
+                       username VARCHAR(255) NOT NULL,
+                       issued_at DATETIME(6) NOT NULL,
+                       expires_at DATETIME(6) NOT NULL
 );
 
 CREATE INDEX idx_task_completed ON tasks(completed);
 CREATE INDEX idx_task_due_date ON tasks(due_date);
+CREATE INDEX idx_task_completed_due_date ON tasks(completed, due_date); -- Keyset pages of pending/completed tasks by due date
+CREATE INDEX idx_task_updated_at ON tasks(updated_at, id); -- Conditional GET stamps and delta sync from a watermark
+CREATE INDEX idx_task_tombstone_deleted_at ON task_tombstones(deleted_at, task_id); -- Delta sync of deletions
 CREATE INDEX idx_user_username ON users(username); -- Optional: Index for username lookup
 CREATE INDEX idx_user_email ON users(email); -- Optional: Index for email lookup
-
+CREATE INDEX idx_task_change_commit ON task_changes(commit_number, id); -- Outbox relay and change feed in commit order
+CREATE INDEX idx_task_change_recorded_at ON task_changes(recorded_at); -- Pruning of relayed changes
+CREATE INDEX idx_refresh_token_username ON refresh_tokens(username); -- Revoking a user's tokens
+CREATE INDEX idx_refresh_token_expires_at ON refresh_tokens(expires_at); -- Purging expired tokens
@@ -0,0 +1,67 @@
+package com.todo.rails.elite.starter.code.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of adaptive JDBC connection pool sizing, enabled by the {@code adaptive-pool} profile.
+ *
+ * <p>A database does its work on a limited number of cores and disks; connections beyond what it can run at once
+ * only queue inside the database instead of inside the pool, and add context switching. The pool is therefore
+ * sized as {@code databaseCores * 2 + effectiveSpindles}, but never larger than the number of requests expected to
+ * use the database concurrently, since connections beyond that would stay idle. The pool is fixed-size (minimum
+ * idle equals maximum) so that bursts do not pay for opening connections.</p>
+ *
+ * <p>The computed size replaces {@code spring.datasource.hikari.maximum-pool-size} and {@code minimum-idle} from
+ * any other profile. Whether the size holds up is visible through the {@code connectionpool} endpoint and the
+ * starvation warnings of the connection pool monitor.</p>
+ */
+@Configuration
+public class ConnectionPoolConfig {
+
+	private static final Logger log = LoggerFactory.getLogger(ConnectionPoolConfig.class);
+
+	/**
+	 * Applies the computed pool size to the Hikari data source before its pool starts.
+	 *
+	 * @param databaseCores       Cores of the database server; 0 uses the cores available to this application.
+	 * @param effectiveSpindles   Disks the database can keep busy concurrently; 0 if the working set is cached.
+	 * @param expectedConcurrency Requests per instance expected to use the database at the same time.
+	 * @return The post-processor resizing the data source.
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "todo.datasource.pool.adaptive", havingValue = "true")
+	static BeanPostProcessor adaptiveConnectionPoolSizing(
+			@Value("${todo.datasource.pool.database-cores:0}") int databaseCores,
+			@Value("${todo.datasource.pool.effective-spindles:1}") int effectiveSpindles,
+			@Value("${todo.datasource.pool.expected-concurrency:200}") int expectedConcurrency
+	) {
+		int cores = databaseCores > 0 ? databaseCores : Runtime.getRuntime().availableProcessors();
+		int poolSize = poolSize(cores, effectiveSpindles, expectedConcurrency);
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof HikariDataSource dataSource) {
+					dataSource.setMaximumPoolSize(poolSize);
+					dataSource.setMinimumIdle(poolSize);
+					log.info(
+							"Sized connection pool to {} connections ({} database cores, {} spindles, {} concurrent requests)",
+							poolSize, cores, effectiveSpindles, expectedConcurrency
+					);
+				}
+				return bean;
+			}
+		};
+	}
+
+	private static int poolSize(int databaseCores, int effectiveSpindles, int expectedConcurrency) {
+		int size = Math.min(databaseCores * 2 + Math.max(0, effectiveSpindles), expectedConcurrency);
+		return Math.max(2, size);
+	}
+}
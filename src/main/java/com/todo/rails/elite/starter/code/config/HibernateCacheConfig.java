@@ -0,0 +1,95 @@
+package com.todo.rails.elite.starter.code.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.User;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.Properties;
+
+/**
+ * Configuration of the Hibernate second-level cache.
+ *
+ * <p>Entity, natural-id and query-result regions live in an in-process Caffeine cache exposed through JCache.
+ * The cache manager is created here rather than by Hibernate so that every region is declared with an explicit
+ * size bound (Hibernate is told to fail on undeclared regions) and so that the native Caffeine statistics of each
+ * region, including evictions, can be published as {@code cache.*} metrics tagged {@code cache.manager=hibernate}.
+ * Hit and miss counts per region are also published by Hibernate itself as {@code hibernate.*} metrics.</p>
+ *
+ * <p>Regions are kept consistent by Hibernate: writes through the persistence context update the cached entries,
+ * and bulk HQL statements invalidate the regions of the entity they touch. The write-based expiry only bounds how
+ * long changes made outside the application (manual SQL, migrations) can stay invisible.</p>
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+	private static final String QUERY_RESULTS_REGION = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+	private static final String UPDATE_TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+	@Bean(destroyMethod = "close")
+	CacheManager hibernateCacheManager(
+			@Value("${todo.cache.tasks.maximum-size:10000}") long taskMaximumSize,
+			@Value("${todo.cache.users.maximum-size:1000}") long userMaximumSize,
+			@Value("${todo.cache.queries.maximum-size:1000}") long queryMaximumSize,
+			@Value("${todo.cache.expire-after-write:10m}") Duration expireAfterWrite
+	) {
+		CaffeineCachingProvider provider = (CaffeineCachingProvider) Caching.getCachingProvider(
+				CaffeineCachingProvider.class.getName()
+		);
+		CacheManager cacheManager = provider.getCacheManager(
+				URI.create("todo-hibernate"), getClass().getClassLoader(), new Properties()
+		);
+		cacheManager.createCache(Task.CACHE_REGION, region(taskMaximumSize, expireAfterWrite));
+		cacheManager.createCache(Task.NATURAL_ID_CACHE_REGION, region(taskMaximumSize, expireAfterWrite));
+		cacheManager.createCache(User.CACHE_REGION, region(userMaximumSize, expireAfterWrite));
+		cacheManager.createCache(User.NATURAL_ID_CACHE_REGION, region(userMaximumSize, expireAfterWrite));
+		cacheManager.createCache(QUERY_RESULTS_REGION, region(queryMaximumSize, expireAfterWrite));
+		// one small entry per table; must never be evicted or cached query results could be served stale
+		CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+		timestamps.setNativeStatisticsEnabled(true);
+		cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, timestamps);
+		return cacheManager;
+	}
+
+	@Bean
+	HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+		return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+	}
+
+	@Bean
+	MeterBinder hibernateCacheMetrics(CacheManager hibernateCacheManager) {
+		return registry -> {
+			for (String name : hibernateCacheManager.getCacheNames()) {
+				Cache<?, ?> cache = hibernateCacheManager.getCache(name).unwrap(Cache.class);
+				CaffeineCacheMetrics.monitor(
+						registry,
+						cache,
+						name,
+						"cache.manager", "hibernate"
+				);
+			}
+		};
+	}
+
+	private static CaffeineConfiguration<Object, Object> region(long maximumSize, Duration expireAfterWrite) {
+		CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+		configuration.setMaximumSize(OptionalLong.of(maximumSize));
+		configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+		configuration.setNativeStatisticsEnabled(true);
+		return configuration;
+	}
+}
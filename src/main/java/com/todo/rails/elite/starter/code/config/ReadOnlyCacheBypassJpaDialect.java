@@ -0,0 +1,52 @@
+package com.todo.rails.elite.starter.code.config;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/**
+ * Keeps read-only transactions from putting what they read into the second-level cache.
+ *
+ * <p>With a replica configured, read-only transactions may read from it, and a lagging replica returns rows older
+ * than the primary. The second-level cache is shared by every transaction of the instance and only follows the
+ * writes made through it, so a stale row put there would be served to later read-write transactions too, whose
+ * version checks then fail against data that was never current. Read-only transactions therefore still read from
+ * the cache but never store in it; rows are cached when read-write transactions, which always use the primary,
+ * load or write them. The mode is set as an entity manager property rather than on the session, because Hibernate
+ * resets the session's mode from these properties on every {@code find}, and the previous mode is restored when the
+ * transaction ends, since with open-session-in-view the same entity manager serves the rest of the request.</p>
+ */
+public class ReadOnlyCacheBypassJpaDialect extends HibernateJpaDialect {
+
+	private static final String STORE_MODE = AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE;
+
+	@Override
+	public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+			throws PersistenceException, SQLException {
+		Object transactionData = super.beginTransaction(entityManager, definition);
+		if (!definition.isReadOnly()) {
+			return transactionData;
+		}
+		Object previous = entityManager.getProperties().getOrDefault(STORE_MODE, CacheStoreMode.USE);
+		entityManager.setProperty(STORE_MODE, CacheStoreMode.BYPASS);
+		return new CacheBypass(transactionData, entityManager, previous);
+	}
+
+	@Override
+	public void cleanupTransaction(Object transactionData) {
+		if (transactionData instanceof CacheBypass bypass) {
+			bypass.entityManager().setProperty(STORE_MODE, bypass.previous());
+			super.cleanupTransaction(bypass.transactionData());
+		} else {
+			super.cleanupTransaction(transactionData);
+		}
+	}
+
+	private record CacheBypass(Object transactionData, EntityManager entityManager, Object previous) {
+	}
+}
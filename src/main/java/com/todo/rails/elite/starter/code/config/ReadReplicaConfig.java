@@ -0,0 +1,153 @@
+package com.todo.rails.elite.starter.code.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaVendorAdapter;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Configuration of a read replica, enabled by {@code todo.datasource.replica.enabled=true}.
+ *
+ * <p>Writes and most reads share the primary, which then limits how far reads can scale. With a replica configured,
+ * {@code @Transactional(readOnly = true)} service and repository methods run on the replica through a
+ * {@link ReadWriteRoutingDataSource}, and everything else stays on the primary. Each database has its own pool: the
+ * primary is configured by {@code spring.datasource.*} as before, and the replica by
+ * {@code todo.datasource.replica.*}. Both publish {@code hikaricp.connections.*} metrics, tagged by pool name.</p>
+ *
+ * <p>Hibernate normally keeps a session's connection until the session closes, which with open-session-in-view is
+ * the end of the request; a write after a read-only transaction would then reuse the replica connection. While
+ * routing is enabled, connections are released after every transaction instead.</p>
+ *
+ * <p>Rows read from a lagging replica must not reach the second-level cache, which read-write transactions share, so
+ * read-only transactions only read from it; see {@link ReadOnlyCacheBypassJpaDialect}.</p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "todo.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+	private static final Logger log = LoggerFactory.getLogger(ReadReplicaConfig.class);
+
+	/**
+	 * Creates the pool of the primary database. It keeps the name of the pool it replaces, so components using the
+	 * pool itself, like the connection pool monitor, keep watching the primary.
+	 *
+	 * @param properties The {@code spring.datasource} properties.
+	 * @return The primary pool, configured further by {@code spring.datasource.hikari.*}.
+	 */
+	@Bean(name = "dataSource")
+	@ConfigurationProperties("spring.datasource.hikari")
+	HikariDataSource dataSource(DataSourceProperties properties) {
+		return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+	}
+
+	/**
+	 * Creates the pool of the replica.
+	 *
+	 * @param url             The JDBC URL of the replica.
+	 * @param username        The user of the replica; a read-only user is recommended.
+	 * @param password        The password of the replica user.
+	 * @param driverClassName The JDBC driver; empty to derive it from the URL.
+	 * @return The replica pool, configured further by {@code todo.datasource.replica.hikari.*}.
+	 */
+	@Bean
+	@ConfigurationProperties("todo.datasource.replica.hikari")
+	HikariDataSource replicaDataSource(
+			@Value("${todo.datasource.replica.url}") String url,
+			@Value("${todo.datasource.replica.username:}") String username,
+			@Value("${todo.datasource.replica.password:}") String password,
+			@Value("${todo.datasource.replica.driver-class-name:}") String driverClassName
+	) {
+		HikariDataSource replica = DataSourceBuilder.create()
+				.type(HikariDataSource.class)
+				.url(url)
+				.username(username)
+				.password(password)
+				.driverClassName(driverClassName.isBlank() ? null : driverClassName)
+				.build();
+		replica.setPoolName("todo-replica");
+		return replica;
+	}
+
+	/**
+	 * Creates the data source used by JPA, which routes read-only transactions to the replica.
+	 *
+	 * @param primary              The primary pool.
+	 * @param replica              The replica pool.
+	 * @param readYourWritesWindow How long a user's reads stay on the primary after their write; 0 disables it.
+	 * @param registry             The registry the routing counters are registered in.
+	 * @return The routing data source behind a lazy connection proxy.
+	 */
+	@Bean
+	@Primary
+	DataSource routingDataSource(
+			@Qualifier("dataSource") DataSource primary,
+			@Qualifier("replicaDataSource") DataSource replica,
+			@Value("${todo.datasource.replica.read-your-writes-window:0s}") Duration readYourWritesWindow,
+			MeterRegistry registry
+	) {
+		log.info("Routing read-only transactions to the replica (read-your-writes window {})", readYourWritesWindow);
+		return new LazyConnectionDataSourceProxy(
+				new ReadWriteRoutingDataSource(primary, replica, readYourWritesWindow, registry)
+		);
+	}
+
+	/**
+	 * Replaces Spring Boot's JPA vendor adapter with one whose transactions keep replica reads out of the
+	 * second-level cache. The dialect has to come from the adapter: the transaction manager takes it from there.
+	 *
+	 * @param properties The {@code spring.jpa} properties Spring Boot configures its own adapter with.
+	 * @return The vendor adapter.
+	 */
+	@Bean
+	JpaVendorAdapter jpaVendorAdapter(JpaProperties properties) {
+		HibernateJpaDialect jpaDialect = new ReadOnlyCacheBypassJpaDialect();
+		HibernateJpaVendorAdapter adapter = new HibernateJpaVendorAdapter() {
+			@Override
+			public HibernateJpaDialect getJpaDialect() {
+				return jpaDialect;
+			}
+		};
+		adapter.setShowSql(properties.isShowSql());
+		if (properties.getDatabase() != null) {
+			adapter.setDatabase(properties.getDatabase());
+		}
+		if (properties.getDatabasePlatform() != null) {
+			adapter.setDatabasePlatform(properties.getDatabasePlatform());
+		}
+		adapter.setGenerateDdl(properties.isGenerateDdl());
+		return adapter;
+	}
+
+	/**
+	 * Releases Hibernate's connection after every transaction, so each transaction is routed on its own.
+	 *
+	 * @return The customizer of the Hibernate properties.
+	 */
+	@Bean
+	HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+		return properties -> properties.put(
+				AvailableSettings.CONNECTION_HANDLING,
+				PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION
+		);
+	}
+}
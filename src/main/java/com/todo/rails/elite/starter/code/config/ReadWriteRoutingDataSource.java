@@ -0,0 +1,112 @@
+package com.todo.rails.elite.starter.code.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Routes connections of read-only transactions to a replica and everything else to the primary.
+ *
+ * <p>The route is taken when a connection is requested, so this data source must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction manager asks for the
+ * connection before the transaction is marked read-only, the proxy only when the first statement runs. Work outside
+ * a transaction goes to the primary.</p>
+ *
+ * <p>A replica lags behind the primary, so a user reading right after their own write may not see it. With a
+ * read-your-writes window, the read-only transactions of a user who committed a write within the window go to the
+ * primary as well. Writes are remembered per authenticated user on this instance only. Routes are counted in
+ * {@code todo.datasource.routing}, tagged by target and reason.</p>
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+	enum Route {
+		PRIMARY, REPLICA
+	}
+
+	private final Cache<String, Boolean> recentWriters;
+	private final Counter readWrite;
+	private final Counter readOnly;
+	private final Counter readYourWrites;
+	private final Counter noTransaction;
+
+	/**
+	 * Constructs a ReadWriteRoutingDataSource.
+	 *
+	 * @param primary             The data source of writes and of reads that must see them.
+	 * @param replica             The data source of read-only transactions.
+	 * @param readYourWritesWindow How long a user's read-only transactions go to the primary after their write;
+	 *                            zero disables it.
+	 * @param registry            The registry the routing counters are registered in.
+	 */
+	public ReadWriteRoutingDataSource(
+			DataSource primary,
+			DataSource replica,
+			Duration readYourWritesWindow,
+			MeterRegistry registry
+	) {
+		setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+		setDefaultTargetDataSource(primary);
+		setLenientFallback(false);
+		afterPropertiesSet();
+		this.recentWriters = readYourWritesWindow.isZero() || readYourWritesWindow.isNegative()
+				? null
+				: Caffeine.newBuilder().expireAfterWrite(readYourWritesWindow).maximumSize(100_000).build();
+		this.readWrite = counter(registry, Route.PRIMARY, "read-write");
+		this.readOnly = counter(registry, Route.REPLICA, "read-only");
+		this.readYourWrites = counter(registry, Route.PRIMARY, "read-your-writes");
+		this.noTransaction = counter(registry, Route.PRIMARY, "no-transaction");
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+			noTransaction.increment();
+			return Route.PRIMARY;
+		}
+		String user = currentUser();
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			if (recentWriters != null && user != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+				TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+					@Override
+					public void afterCommit() {
+						recentWriters.put(user, Boolean.TRUE);
+					}
+				});
+			}
+			readWrite.increment();
+			return Route.PRIMARY;
+		}
+		if (recentWriters != null && user != null && recentWriters.getIfPresent(user) != null) {
+			readYourWrites.increment();
+			return Route.PRIMARY;
+		}
+		readOnly.increment();
+		return Route.REPLICA;
+	}
+
+	private static String currentUser() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		return authentication == null || authentication instanceof AnonymousAuthenticationToken
+				? null
+				: authentication.getName();
+	}
+
+	private static Counter counter(MeterRegistry registry, Route target, String reason) {
+		return Counter.builder("todo.datasource.routing")
+				.description("Connections handed out by the read/write routing data source")
+				.tag("target", target.name().toLowerCase())
+				.tag("reason", reason)
+				.register(registry);
+	}
+}
@@ -1,16 +1,39 @@
 package com.todo.rails.elite.starter.code.config;
 
+import com.todo.rails.elite.starter.code.exceptions.PasswordHashingRejectedException;
+import com.todo.rails.elite.starter.code.service.security.ApiTokenAuthenticationFilter;
+import com.todo.rails.elite.starter.code.service.security.ApiTokenService;
+import com.todo.rails.elite.starter.code.service.security.BCryptCostCalibrator;
+import com.todo.rails.elite.starter.code.service.security.BoundedPasswordEncoder;
+import com.todo.rails.elite.starter.code.service.security.PasswordRehashService;
+import com.todo.rails.elite.starter.code.service.security.RehashingAuthenticationProvider;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.filter.HiddenHttpMethodFilter;
 
+import java.time.Duration;
+
 /**
  * Configuration class for security settings in the application.
  *
@@ -23,8 +46,13 @@ import org.springframework.web.filter.HiddenHttpMethodFilter;
  * <ul>
  *   <li><strong>SecurityFilterChain:</strong> Configures which resources are publicly accessible,
  *       sets up custom login and logout pages, and enforces authentication for restricted URLs.</li>
+ *   <li><strong>API:</strong> Authenticates <code>/api/**</code> requests with signed bearer tokens
+ *       issued by {@link ApiTokenService}, without creating sessions; browser sessions are still accepted.</li>
+ *   <li><strong>Internal Endpoints:</strong> Restricts the actuator endpoints under <code>/internal</code>
+ *       (metrics, Prometheus scrape, connection pool) to the <code>ADMIN</code> authority.</li>
  *   <li><strong>Password Encoder:</strong> Provides a {@link BCryptPasswordEncoder}
- *       to securely hash user passwords with configurable strength.</li>
+ *       to securely hash user passwords with configurable strength, run on a bounded
+ *       executor by {@link BoundedPasswordEncoder}.</li>
  *   <li><strong>Hidden HTTP Method Filter:</strong> Enables the use of advanced HTTP methods
  *       in HTML forms, like PUT and DELETE, by translating a hidden field's value into the desired HTTP method.</li>
  * </ul>
@@ -38,19 +66,18 @@ import org.springframework.web.filter.HiddenHttpMethodFilter;
 public class SecurityConfig {
 
 	/**
-	 * Defines the strength level for the password encoder.
+	 * Defines the lowest strength level for the password encoder.
 	 *
-	 * <p>This constant specifies the computational complexity of the
-	 * password hashing process used by the password encoder. The strength
-	 * value influences the time required to hash passwords, providing a balance
-	 * between security and performance.</p>
+	 * <p>This constant specifies the minimum computational complexity of the
+	 * password hashing process used by the password encoder. The actual strength
+	 * is calibrated at startup to a target hash latency and never goes below
+	 * this value, which is also the strength existing hashes were created with.</p>
 	 *
 	 * <h3>Key Details:</h3>
 	 * <ul>
-	 *   <li><strong>Value:</strong> Set to <code>4</code>, representing a moderate
-	 *       level of computational effort.</li>
-	 *   <li><strong>Usage:</strong> Used to configure the {@link BCryptPasswordEncoder}
-	 *       or similar password encoding mechanisms.</li>
+	 *   <li><strong>Value:</strong> Set to <code>4</code>, the lowest cost BCrypt allows.</li>
+	 *   <li><strong>Usage:</strong> Default lower bound of the {@link BCryptCostCalibrator}
+	 *       configuring the {@link BCryptPasswordEncoder}.</li>
 	 *   <li><strong>Security:</strong> Higher values increase security but require
 	 *       more processing time, making brute-force attacks more difficult.</li>
 	 * </ul>
@@ -66,6 +93,98 @@ public class SecurityConfig {
 		this.jpaUserDetailsService = jpaUserDetailsService;
 	}
 
+	/**
+	 * Authority required to read the internal actuator endpoints.
+	 */
+	public static final String INTERNAL_ENDPOINTS_AUTHORITY = "ADMIN";
+
+	/**
+	 * Configures access to the internal actuator endpoints.
+	 *
+	 * <p>This chain handles only the actuator endpoints, served under <code>/internal</code>, and is
+	 * consulted before the application chain. Health stays public for load balancers; every other
+	 * endpoint requires the {@link #INTERNAL_ENDPOINTS_AUTHORITY} authority.</p>
+	 *
+	 * @param http                   an instance of {@link HttpSecurity} scoped to the actuator endpoints.
+	 * @param authenticationProvider the provider verifying credentials against the user details service.
+	 * @return a {@link SecurityFilterChain} protecting the internal endpoints.
+	 * @throws Exception if an error occurs during the security configuration process.
+	 *
+	 *                   <h3>Key Features:</h3>
+	 *                   <ul>
+	 *                     <li><strong>HTTP Basic Authentication:</strong> Enabled so that metric scrapers,
+	 *                         which cannot follow a login form, can authenticate; no session is created
+	 *                         for them. A signed-in administrator's browser session is accepted as well.</li>
+	 *                     <li><strong>Prometheus:</strong> <code>/internal/prometheus</code> serves the
+	 *                         request and service latency distributions, error counts and pool metrics in Prometheus text format.</li>
+	 *                   </ul>
+	 */
+	@Bean
+	@Order(1)
+	SecurityFilterChain internalEndpointsFilterChain(
+			HttpSecurity http,
+			RehashingAuthenticationProvider authenticationProvider
+	) throws Exception {
+		return http
+				.securityMatcher(EndpointRequest.toAnyEndpoint())
+				.authorizeHttpRequests(
+						auth -> auth
+								.requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+								.anyRequest().hasAuthority(INTERNAL_ENDPOINTS_AUTHORITY)
+				)
+				.authenticationProvider(authenticationProvider)
+				.csrf(AbstractHttpConfigurer::disable)
+				.httpBasic(Customizer.withDefaults())
+				.build();
+	}
+
+	/**
+	 * Configures access to the REST API under <code>/api</code>.
+	 *
+	 * <p>This chain is consulted after the internal endpoints and before the application chain. API clients
+	 * authenticate every request with a signed access token, verified in memory by {@link ApiTokenService}, so any
+	 * node can serve any request without sticky sessions, session replication or a database read. Tokens are
+	 * obtained and refreshed under <code>/api/auth</code>. The chain never creates a session, but requests from a
+	 * signed-in browser page are authenticated by their existing session.</p>
+	 *
+	 * @param http            an instance of {@link HttpSecurity} scoped to the API.
+	 * @param apiTokenService the service verifying access tokens.
+	 * @return a {@link SecurityFilterChain} protecting the API.
+	 * @throws Exception if an error occurs during the security configuration process.
+	 *
+	 *                   <h3>Key Features:</h3>
+	 *                   <ul>
+	 *                     <li><strong>Bearer Tokens:</strong> <code>Authorization: Bearer &lt;token&gt;</code> is
+	 *                         verified by {@link ApiTokenAuthenticationFilter}; an invalid token gets <code>401</code>.</li>
+	 *                     <li><strong>Unauthenticated Requests:</strong> Answered with <code>401</code> and
+	 *                         <code>WWW-Authenticate: Bearer</code> instead of a redirect to the login page.</li>
+	 *                   </ul>
+	 */
+	@Bean
+	@Order(2)
+	SecurityFilterChain apiFilterChain(HttpSecurity http, ApiTokenService apiTokenService) throws Exception {
+		return http
+				.securityMatcher("/api/**")
+				.authorizeHttpRequests(
+						auth -> auth
+								.requestMatchers("/api/auth/**").permitAll()
+								.anyRequest().authenticated()
+				)
+				.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.NEVER))
+				.addFilterBefore(new ApiTokenAuthenticationFilter(apiTokenService), UsernamePasswordAuthenticationFilter.class)
+				.exceptionHandling(
+						exceptions -> exceptions.authenticationEntryPoint((request, response, exception) -> {
+							response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+							response.setStatus(HttpStatus.UNAUTHORIZED.value());
+						})
+				)
+				.csrf(AbstractHttpConfigurer::disable)
+				.httpBasic(AbstractHttpConfigurer::disable)
+				.formLogin(AbstractHttpConfigurer::disable)
+				.logout(AbstractHttpConfigurer::disable)
+				.build();
+	}
+
 	/**
 	 * Configures the application's security settings.
 	 *
@@ -74,8 +193,9 @@ public class SecurityConfig {
 	 * and log out. It also sets up a user details service for retrieving
 	 * user information.</p>
 	 *
-	 * @param http an instance of {@link HttpSecurity}, used to configure
-	 *             web-based security for specific HTTP requests.
+	 * @param http                   an instance of {@link HttpSecurity}, used to configure
+	 *                               web-based security for specific HTTP requests.
+	 * @param authenticationProvider the provider verifying form logins against the user details service.
 	 * @return a {@link SecurityFilterChain} object representing the
 	 * configured security filter chain.
 	 * @throws Exception if an error occurs during the security configuration process.
@@ -86,7 +206,9 @@ public class SecurityConfig {
 	 *                         like CSS, JavaScript, images, and the registration page.</li>
 	 *                     <li><strong>Authentication:</strong> Requires authentication for all other requests.</li>
 	 *                     <li><strong>Login:</strong> Configures a custom login page at <code>/login</code>
-	 *                         and redirects to the homepage upon successful login.</li>
+	 *                         and redirects to the homepage upon successful login. A login that cannot be
+	 *                         verified because password hashing is saturated is answered with
+	 *                         <code>503</code> instead of a bad-credentials redirect.</li>
 	 *                     <li><strong>Logout:</strong> Provides a logout URL (<code>/logout</code>)
 	 *                         that clears the session and cookies, redirecting users to the login page.</li>
 	 *                     <li><strong>CSRF Protection: WARNING!</strong> Disables CSRF protection to simplify
@@ -100,19 +222,22 @@ public class SecurityConfig {
 	 *                   particularly with regard to CSRF protection.</p>
 	 */
 	@Bean
-	SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+	SecurityFilterChain securityFilterChain(
+			HttpSecurity http,
+			RehashingAuthenticationProvider authenticationProvider
+	) throws Exception {
 		return http
 				.authorizeHttpRequests(
 						auth -> auth
 								.requestMatchers("/css/**", "/js/**", "/images/**").permitAll()
 								.requestMatchers("/login", "/register").permitAll()
-								.requestMatchers("/api/tasks/**").permitAll()
 								.anyRequest().authenticated()
 				)
 				.formLogin(
 						form -> form
 								.loginPage("/login")
 								.defaultSuccessUrl("/", true)
+								.failureHandler(loginFailureHandler())
 								.permitAll()
 				)
 				.logout(
@@ -123,7 +248,7 @@ public class SecurityConfig {
 								.deleteCookies("JSESSIONID")
 								.permitAll()
 				)
-				.userDetailsService(jpaUserDetailsService)
+				.authenticationProvider(authenticationProvider)
 				.csrf(AbstractHttpConfigurer::disable)
 				.httpBasic(AbstractHttpConfigurer::disable)
 				.build();
@@ -132,29 +257,109 @@ public class SecurityConfig {
 	/**
 	 * Creates and configures a password encoder.
 	 *
-	 * <p>This method provides a {@link BCryptPasswordEncoder} instance,
-	 * which is used to securely encode passwords. The encoder uses the
-	 * BCrypt hashing algorithm, ensuring that passwords are hashed in
-	 * a secure and reliable manner.</p>
+	 * <p>This method provides a {@link BCryptPasswordEncoder} instance wrapped in a
+	 * {@link BoundedPasswordEncoder}. Its strength is either pinned by configuration or
+	 * calibrated at startup by {@link BCryptCostCalibrator} to the highest cost whose hash
+	 * still completes within the target latency on this hardware, so login CPU follows the
+	 * capacity plan rather than a constant. BCrypt is deliberately CPU-bound, so hashing runs on
+	 * a dedicated pool sized to the available cores instead of on request threads; a burst
+	 * of logins or registrations then queues in front of that pool and, once the queue is
+	 * full or the wait too long, is rejected quickly instead of starving every other request.</p>
 	 *
-	 * @return a {@link BCryptPasswordEncoder} object configured with a
-	 * strength value of 13.
+	 * @param cost          pinned BCrypt cost; <code>0</code> means calibrate at startup.
+	 * @param targetLatency intended duration of one hash, used by calibration.
+	 * @param minCost       lowest cost calibration may choose.
+	 * @param maxCost       highest cost calibration may choose.
+	 * @param threads       number of hashing threads; <code>0</code> means one per available core.
+	 * @param queueCapacity number of hashes allowed to wait for a thread.
+	 * @param maxWait       longest time a request waits for its hash, queueing included.
+	 * @param meterRegistry registry receiving hashing latency, rejection and queue-depth metrics.
+	 * @return a {@link PasswordEncoder} hashing with BCrypt at the
+	 * pinned or calibrated strength on a bounded executor.
 	 *
 	 * <h3>Key Details:</h3>
 	 * <ul>
 	 *   <li><strong>BCrypt Algorithm:</strong> A widely used and secure
 	 *       algorithm designed for password hashing, resistant to brute-force attacks.</li>
-	 *   <li><strong>Strength Parameter:</strong> Configured with a strength of 13,
-	 *       which determines the computational complexity of the hashing process.
-	 *       Higher values make it more secure but require more processing power.</li>
+	 *   <li><strong>Strength Parameter:</strong> Pinned or calibrated, never below
+	 *       {@link #PASSWORD_ENCODER_STRENGTH}; it determines the computational complexity
+	 *       of the hashing process. Higher values make it more secure but require more
+	 *       processing power. Hashes stored at a lower strength still verify and are
+	 *       upgraded after login by {@link RehashingAuthenticationProvider}.</li>
+	 *   <li><strong>Backpressure:</strong> Rejected hashes surface as
+	 *       {@link PasswordHashingRejectedException}, mapped to <code>503</code>.</li>
 	 * </ul>
 	 *
 	 * <p><strong>Usage:</strong> This encoder is typically used when handling
 	 * user passwords in authentication and security configurations.</p>
 	 */
 	@Bean
-	BCryptPasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder(PASSWORD_ENCODER_STRENGTH);
+	PasswordEncoder passwordEncoder(
+			@Value("${todo.security.password-hashing.cost:0}") int cost,
+			@Value("${todo.security.password-hashing.target-latency:100ms}") Duration targetLatency,
+			@Value("${todo.security.password-hashing.min-cost:" + PASSWORD_ENCODER_STRENGTH + "}") int minCost,
+			@Value("${todo.security.password-hashing.max-cost:14}") int maxCost,
+			@Value("${todo.security.password-hashing.threads:0}") int threads,
+			@Value("${todo.security.password-hashing.queue-capacity:64}") int queueCapacity,
+			@Value("${todo.security.password-hashing.max-wait:2s}") Duration maxWait,
+			MeterRegistry meterRegistry
+	) {
+		return new BoundedPasswordEncoder(
+				new BCryptPasswordEncoder(
+						cost > 0 ? cost : BCryptCostCalibrator.forBCrypt(minCost, maxCost).calibrate(targetLatency)
+				),
+				threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+				queueCapacity,
+				maxWait,
+				meterRegistry
+		);
+	}
+
+	/**
+	 * Creates the provider that authenticates form logins.
+	 *
+	 * <p>This method provides a {@link RehashingAuthenticationProvider}, which verifies
+	 * credentials like the default provider and, after a successful login against a
+	 * hash stored at an older strength, schedules a rehash at the current strength
+	 * without delaying the login.</p>
+	 *
+	 * @param passwordEncoder the bounded BCrypt encoder.
+	 * @param rehashService   the background service storing upgraded hashes.
+	 * @return a {@link RehashingAuthenticationProvider} backed by the JPA user details service.
+	 */
+	@Bean
+	RehashingAuthenticationProvider authenticationProvider(
+			PasswordEncoder passwordEncoder,
+			PasswordRehashService rehashService
+	) {
+		RehashingAuthenticationProvider provider = new RehashingAuthenticationProvider(passwordEncoder, rehashService);
+		provider.setUserDetailsService(jpaUserDetailsService);
+		return provider;
+	}
+
+	/**
+	 * Handles failed form logins.
+	 *
+	 * <p>Wrong credentials keep the default redirect to <code>/login?error</code>. A login rejected
+	 * because password hashing is saturated gets <code>503</code> with <code>Retry-After</code>, so the
+	 * client retries later rather than being told its password is wrong.</p>
+	 *
+	 * @return the {@link AuthenticationFailureHandler} used by the login form.
+	 */
+	private static AuthenticationFailureHandler loginFailureHandler() {
+		AuthenticationFailureHandler badCredentials = new SimpleUrlAuthenticationFailureHandler("/login?error");
+		return (request, response, exception) -> {
+			// the user-not-found path hashes inside retrieveUser, which wraps the rejection
+			if (exception instanceof PasswordHashingRejectedException
+					|| exception.getCause() instanceof PasswordHashingRejectedException) {
+				response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+				response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+				response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+				response.getWriter().write("Too many sign-ins are being processed; please retry shortly.");
+				return;
+			}
+			badCredentials.onAuthenticationFailure(request, response, exception);
+		};
 	}
 
 	/**
@@ -0,0 +1,78 @@
+package com.todo.rails.elite.starter.code.controller;
+
+import com.todo.rails.elite.starter.code.model.TaskCollectionStamp;
+import com.todo.rails.elite.starter.code.model.TaskStamp;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Conditional GET for task endpoints and pages.
+ * The ETag is derived from a change stamp alone, so a matching {@code If-None-Match} is answered with 304 before
+ * any task is loaded or serialized. Handlers return null in that case; Spring then sends the bare 304.
+ *
+ * <p>A response sent in full is checked once more with the stamp of what it carries: a collection with the stamp
+ * read in the same transaction, a single task with the version it was loaded at. The tag sent is therefore never
+ * newer than the body, even when a lagging replica or the second-level cache served it.</p>
+ *
+ * <p>No {@code Last-Modified} is sent: deletes do not move the latest write time of a collection, and its
+ * one-second resolution cannot tell apart two changes within the same second.</p>
+ */
+final class ConditionalGet {
+
+	// cached copies must be revalidated on every use; setting it also keeps Spring Security from sending no-store
+	private static final String CACHE_CONTROL = "private, no-cache";
+
+	private ConditionalGet() {
+	}
+
+	/**
+	 * Checks a representation built from the whole tasks table. Today's date is part of the tag because lists such
+	 * as today's or overdue tasks change at midnight without any write.
+	 *
+	 * @param variant Anything else the representation depends on besides the URL, such as the user a page greets.
+	 * @return true if the client's copy is current and the response is already a 304.
+	 */
+	static boolean notModified(ServletWebRequest request, TaskCollectionStamp stamp, Object... variant) {
+		return notModified(request, tag(
+				"tasks", stamp.commits(), LocalDate.now(), variant
+		));
+	}
+
+	/**
+	 * Checks a representation of a single task, which changes exactly when its version does.
+	 *
+	 * @param variant Anything else the representation depends on besides the URL, such as the user a page greets.
+	 * @return true if the client's copy is current and the response is already a 304.
+	 */
+	static boolean notModified(ServletWebRequest request, TaskStamp stamp, Object... variant) {
+		String etag = variant.length == 0
+				? "\"" + stamp.id() + "-" + stamp.version() + "\""
+				: tag("task", stamp.id(), stamp.version(), variant);
+		return notModified(request, etag);
+	}
+
+	private static boolean notModified(ServletWebRequest request, String etag) {
+		request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+		// Spring only sets the tag if none is set yet; a second check with the stamp of the body has to replace it
+		request.getResponse().setHeader(HttpHeaders.ETAG, etag);
+		return request.checkNotModified(etag);
+	}
+
+	private static String tag(Object... parts) {
+		StringBuilder source = new StringBuilder();
+		for (Object part : parts) {
+			if (part instanceof Object[] nested) {
+				for (Object value : nested) {
+					source.append(value).append('\u0000');
+				}
+			} else {
+				source.append(part).append('\u0000');
+			}
+		}
+		return "\"" + DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+	}
+}
@@ -0,0 +1,45 @@
+package com.todo.rails.elite.starter.code.controller;
+
+import com.todo.rails.elite.starter.code.model.DashboardSnapshot;
+import com.todo.rails.elite.starter.code.service.DashboardService;
+import com.todo.rails.elite.starter.code.service.DashboardStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+	private final DashboardService dashboardService;
+	private final DashboardStreamService dashboardStreamService;
+
+	@Autowired
+	public DashboardController(DashboardService dashboardService, DashboardStreamService dashboardStreamService) {
+		this.dashboardService = dashboardService;
+		this.dashboardStreamService = dashboardStreamService;
+	}
+
+	@GetMapping
+	public ResponseEntity<DashboardSnapshot> getDashboard() {
+		try {
+			return ResponseEntity.ok(dashboardService.getSnapshot());
+		} catch (Exception exception) {
+			return ResponseEntity.internalServerError().build();
+		}
+	}
+
+	@GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> streamDashboard() {
+		try {
+			return ResponseEntity.ok(dashboardStreamService.subscribe());
+		} catch (IllegalStateException exception) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		}
+	}
+}
@@ -1,35 +1,61 @@
 package com.todo.rails.elite.starter.code.controller;
 
+import com.todo.rails.elite.starter.code.model.DashboardSnapshot;
 import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.TaskStamp;
+import com.todo.rails.elite.starter.code.service.DashboardService;
 import com.todo.rails.elite.starter.code.service.TaskService;
+import com.todo.rails.elite.starter.code.service.TaskStampService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.security.Principal;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 
 @Controller
 public class PageController {
 
 	private final TaskService taskService;
+	private final DashboardService dashboardService;
+	private final TaskStampService taskStampService;
 
 	@Autowired
-	public PageController(TaskService taskService) {
+	public PageController(
+			TaskService taskService,
+			DashboardService dashboardService,
+			TaskStampService taskStampService
+	) {
 		this.taskService = taskService;
+		this.dashboardService = dashboardService;
+		this.taskStampService = taskStampService;
 	}
 
+	// pages greet the user, so the user is part of their tags; null makes Spring send the 304 as is
+
 	@GetMapping("/")
-	public String getHomePage(Model model, Principal principal) {
+	public String getHomePage(Model model, Principal principal, ServletWebRequest request) {
+		if (ConditionalGet.notModified(request, taskStampService.getCollectionStamp(), principal.getName())) {
+			return null;
+		}
+		DashboardSnapshot snapshot = taskStampService.readCollection(stamp ->
+				ConditionalGet.notModified(request, stamp, principal.getName()) ? null : dashboardService.getSnapshot()
+		);
+		if (snapshot == null) {
+			return null;
+		}
 		model.addAttribute("username", principal.getName());
-		model.addAttribute("totalPendingToday", taskService.getTodayTasks().size());
-		model.addAttribute("totalPending", taskService.getPendingTasks().size());
-		model.addAttribute("totalCompleted", taskService.getCompletedTasks().size());
-		model.addAttribute("totalTasks", taskService.getAllTasks());
-		model.addAttribute("todayTasks", taskService.getTodayTasks());
-		model.addAttribute("pendingTasks", taskService.getPendingTasks());
+		model.addAttribute("totalPendingToday", snapshot.totalPendingToday());
+		model.addAttribute("totalPending", snapshot.totalPending());
+		model.addAttribute("totalCompleted", snapshot.totalCompleted());
+		model.addAttribute("todayTasks", snapshot.todayTasks());
+		model.addAttribute("pendingTasks", snapshot.pendingTasks());
+		model.addAttribute("morePending", snapshot.pendingNext() != null);
 		return "index";
 	}
 
@@ -39,16 +65,38 @@ public class PageController {
 	}
 
 	@GetMapping("/tasks")
-	public String getTasksPage(Model model, Principal principal) {
+	public String getTasksPage(Model model, Principal principal, ServletWebRequest request) {
+		if (ConditionalGet.notModified(request, taskStampService.getCollectionStamp(), principal.getName())) {
+			return null;
+		}
+		List<Task> tasks = taskStampService.readCollection(stamp ->
+				ConditionalGet.notModified(request, stamp, principal.getName()) ? null : taskService.getAllTasks()
+		);
+		if (tasks == null) {
+			return null;
+		}
 		model.addAttribute("username", principal.getName());
-		model.addAttribute("tasks", taskService.getAllTasks());
+		model.addAttribute("tasks", tasks);
 		return "tasks";
 	}
 
 	@GetMapping("/tasks/view/{id}")
-	public String viewTaskDetails(@PathVariable("id") Long id, Model model, Principal principal) {
+	public String viewTaskDetails(
+			@PathVariable("id") Long id,
+			Model model,
+			Principal principal,
+			ServletWebRequest request
+	) {
+		Optional<TaskStamp> stamp = taskStampService.getTaskStamp(id);
+		if (stamp.isPresent() && ConditionalGet.notModified(request, stamp.get(), principal.getName())) {
+			return null;
+		}
+		Task task = taskService.getTaskById(id);
+		if (ConditionalGet.notModified(request, TaskStamp.of(task), principal.getName())) {
+			return null;
+		}
 		model.addAttribute("username", principal.getName());
-		model.addAttribute("task", taskService.getTaskById(id));
+		model.addAttribute("task", task);
 		return "details";
 	}
 
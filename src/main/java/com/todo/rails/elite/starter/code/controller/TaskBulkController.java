@@ -0,0 +1,54 @@
+package com.todo.rails.elite.starter.code.controller;
+
+import com.todo.rails.elite.starter.code.model.TaskBulkResult;
+import com.todo.rails.elite.starter.code.model.TaskRescheduleRequest;
+import com.todo.rails.elite.starter.code.service.TaskService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/tasks/bulk")
+public class TaskBulkController {
+
+	private final TaskService taskService;
+
+	@Autowired
+	public TaskBulkController(TaskService taskService) {
+		this.taskService = taskService;
+	}
+
+	@PostMapping("/complete-overdue")
+	public ResponseEntity<TaskBulkResult> completeOverdueTasks() {
+		try {
+			return ResponseEntity.ok(new TaskBulkResult(taskService.completeOverdueTasks()));
+		} catch (Exception exception) {
+			return ResponseEntity.internalServerError().build();
+		}
+	}
+
+	@DeleteMapping("/completed")
+	public ResponseEntity<TaskBulkResult> deleteCompletedTasks(
+			@RequestParam(name = "before") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate before
+	) {
+		try {
+			return ResponseEntity.ok(new TaskBulkResult(taskService.deleteCompletedTasksDueBefore(before)));
+		} catch (Exception exception) {
+			return ResponseEntity.internalServerError().build();
+		}
+	}
+
+	@PostMapping("/reschedule")
+	public ResponseEntity<TaskBulkResult> rescheduleTasks(@RequestBody TaskRescheduleRequest request) {
+		try {
+			return ResponseEntity.ok(new TaskBulkResult(taskService.rescheduleTasks(request.ids(), request.days())));
+		} catch (IllegalArgumentException exception) {
+			return ResponseEntity.badRequest().build();
+		} catch (Exception exception) {
+			return ResponseEntity.internalServerError().build();
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package com.todo.rails.elite.starter.code.controller;
+
+import com.todo.rails.elite.starter.code.exceptions.CursorExpiredException;
+import com.todo.rails.elite.starter.code.model.TaskChangeFeed;
+import com.todo.rails.elite.starter.code.service.TaskOutboxService;
+import com.todo.rails.elite.starter.code.service.TaskService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/tasks/changes")
+public class TaskChangeController {
+
+	private final TaskOutboxService taskOutboxService;
+
+	@Autowired
+	public TaskChangeController(TaskOutboxService taskOutboxService) {
+		this.taskOutboxService = taskOutboxService;
+	}
+
+	@GetMapping
+	public ResponseEntity<TaskChangeFeed> getChanges(
+			@RequestParam(name = "since", required = false) String since,
+			@RequestParam(name = "limit", required = false, defaultValue = "" + TaskService.DEFAULT_PAGE_LIMIT) int limit
+	) {
+		try {
+			return ResponseEntity.ok(taskOutboxService.getChanges(since, limit));
+		} catch (IllegalArgumentException exception) {
+			return ResponseEntity.badRequest().build();
+		} catch (CursorExpiredException exception) {
+			return ResponseEntity.status(HttpStatus.GONE).build();
+		}
+	}
+}
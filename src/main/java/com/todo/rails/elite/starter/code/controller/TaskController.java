@@ -1,49 +1,118 @@
 package com.todo.rails.elite.starter.code.controller;
 
+import com.todo.rails.elite.starter.code.exceptions.ResourceConflictException;
+import com.todo.rails.elite.starter.code.exceptions.ResourceNotFoundException;
 import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.TaskFilter;
+import com.todo.rails.elite.starter.code.model.TaskPage;
+import com.todo.rails.elite.starter.code.model.TaskSort;
+import com.todo.rails.elite.starter.code.model.TaskStamp;
+import com.todo.rails.elite.starter.code.model.TaskTransitionRequest;
+import com.todo.rails.elite.starter.code.model.TaskVersion;
 import com.todo.rails.elite.starter.code.service.TaskService;
+import com.todo.rails.elite.starter.code.service.TaskStampService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/tasks")
 public class TaskController {
 
 	private final TaskService taskService;
+	private final TaskStampService taskStampService;
 
 	@Autowired
-	public TaskController(TaskService taskService) {
+	public TaskController(TaskService taskService, TaskStampService taskStampService) {
 		this.taskService = taskService;
+		this.taskStampService = taskStampService;
 	}
 
-	@GetMapping("/all")
-	public ResponseEntity<List<Task>> getAllTasks() {
+	@GetMapping
+	public ResponseEntity<TaskPage> getTaskPage(
+			@RequestParam(name = "status", required = false) String status,
+			@RequestParam(name = "sort", required = false) String sort,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "limit", required = false) Integer limit,
+			ServletWebRequest request
+	) {
+		if (ConditionalGet.notModified(request, taskStampService.getCollectionStamp())) {
+			return null;
+		}
 		try {
-			return ResponseEntity.ok(taskService.getAllTasks());
+			return taskStampService.readCollection(stamp -> ConditionalGet.notModified(request, stamp)
+					? null
+					: ResponseEntity.ok(
+							taskService.getTaskPage(
+									TaskFilter.fromParameter(status),
+									TaskSort.fromParameter(sort),
+									cursor,
+									limit == null ? TaskService.DEFAULT_PAGE_LIMIT : limit
+							)
+					)
+			);
+		} catch (IllegalArgumentException exception) {
+			return ResponseEntity.badRequest().build();
 		} catch (Exception exception) {
 			return ResponseEntity.notFound().build();
 		}
 	}
 
+	@GetMapping("/all")
+	public ResponseEntity<List<Task>> getAllTasks(
+			@RequestParam(name = "sort", required = false) String sort,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "limit", required = false) Integer limit,
+			ServletWebRequest request
+	) {
+		return getTaskList(TaskFilter.ALL, sort, cursor, limit, request);
+	}
+
 	@GetMapping("/{id}")
-	public ResponseEntity<Task> getTaskById(@PathVariable(name = "id") Long id) {
+	public ResponseEntity<Task> getTaskById(@PathVariable(name = "id") Long id, ServletWebRequest request) {
 		try {
-			return ResponseEntity.ok(taskService.getTaskById(id));
+			Optional<TaskStamp> stamp = taskStampService.getTaskStamp(id);
+			if (stamp.isEmpty()) {
+				return ResponseEntity.notFound().build();
+			}
+			if (ConditionalGet.notModified(request, stamp.get())) {
+				return null;
+			}
+			Task task = taskService.getTaskById(id);
+			if (ConditionalGet.notModified(request, TaskStamp.of(task))) {
+				return null;
+			}
+			return ResponseEntity.ok(task);
 		} catch (Exception exception) {
 			return ResponseEntity.notFound().build();
 		}
 	}
 
 	@GetMapping("/title/{title}")
-	public ResponseEntity<Task> getTaskByTitle(@PathVariable(name = "title") String title) {
+	public ResponseEntity<Task> getTaskByTitle(@PathVariable(name = "title") String title, ServletWebRequest request) {
 		try {
-			return ResponseEntity.ok(taskService.getTaskByTitle(title));
+			Optional<TaskStamp> stamp = taskStampService.getTaskStampByTitle(title);
+			if (stamp.isEmpty()) {
+				return ResponseEntity.notFound().build();
+			}
+			if (ConditionalGet.notModified(request, stamp.get())) {
+				return null;
+			}
+			Task task = taskService.getTaskByTitle(title);
+			if (ConditionalGet.notModified(request, TaskStamp.of(task))) {
+				return null;
+			}
+			return ResponseEntity.ok(task);
 		} catch (Exception exception) {
 			return ResponseEntity.notFound().build();
 		}
@@ -110,30 +179,126 @@ public class TaskController {
 		}
 	}
 
+	@PatchMapping("/{id}/complete")
+	public ResponseEntity<TaskVersion> completeTask(
+			@PathVariable(name = "id") Long id,
+			@RequestBody TaskTransitionRequest request
+	) {
+		return transition(id, () -> taskService.completeTask(id, request.version()));
+	}
+
+	@PatchMapping("/{id}/reopen")
+	public ResponseEntity<TaskVersion> reopenTask(
+			@PathVariable(name = "id") Long id,
+			@RequestBody TaskTransitionRequest request
+	) {
+		return transition(id, () -> taskService.reopenTask(id, request.version()));
+	}
+
+	@PatchMapping("/{id}/reschedule")
+	public ResponseEntity<TaskVersion> rescheduleTask(
+			@PathVariable(name = "id") Long id,
+			@RequestBody TaskTransitionRequest request
+	) {
+		return transition(id, () -> taskService.rescheduleTask(id, request.version(), request.dueDate()));
+	}
+
+	@PatchMapping("/{id}/retitle")
+	public ResponseEntity<TaskVersion> retitleTask(
+			@PathVariable(name = "id") Long id,
+			@RequestBody TaskTransitionRequest request
+	) {
+		return transition(id, () -> taskService.retitleTask(id, request.version(), request.title()));
+	}
+
 	@GetMapping("/pending")
-	public ResponseEntity<List<Task>> getPendingTasks() {
-		try {
-			return ResponseEntity.ok(taskService.getPendingTasks());
-		} catch (Exception exception) {
-			return ResponseEntity.notFound().build();
-		}
+	public ResponseEntity<List<Task>> getPendingTasks(
+			@RequestParam(name = "sort", required = false) String sort,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "limit", required = false) Integer limit,
+			ServletWebRequest request
+	) {
+		return getTaskList(TaskFilter.PENDING, sort, cursor, limit, request);
 	}
 
 	@GetMapping("/completed")
-	public ResponseEntity<List<Task>> getCompletedTasks() {
+	public ResponseEntity<List<Task>> getCompletedTasks(
+			@RequestParam(name = "sort", required = false) String sort,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "limit", required = false) Integer limit,
+			ServletWebRequest request
+	) {
+		return getTaskList(TaskFilter.COMPLETED, sort, cursor, limit, request);
+	}
+
+	@GetMapping("/today")
+	public ResponseEntity<List<Task>> getTodayTasks(
+			@RequestParam(name = "sort", required = false) String sort,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "limit", required = false) Integer limit,
+			ServletWebRequest request
+	) {
+		return getTaskList(TaskFilter.TODAY, sort, cursor, limit, request);
+	}
+
+	/**
+	 * Serves one keyset page of a legacy list endpoint.
+	 * The body stays a plain JSON array so existing clients keep working and see the first page;
+	 * the following page is advertised through an RFC 8288 {@code Link: <...>; rel="next"} header.
+	 * A client whose copy is still current gets a 304 without the page being read.
+	 */
+	private ResponseEntity<List<Task>> getTaskList(
+			TaskFilter filter, String sort, String cursor, Integer limit, ServletWebRequest request
+	) {
+		if (ConditionalGet.notModified(request, taskStampService.getCollectionStamp())) {
+			return null;
+		}
 		try {
-			return ResponseEntity.ok(taskService.getCompletedTasks());
+			TaskSort sortOption = TaskSort.fromParameter(sort);
+			int pageLimit = limit == null ? TaskService.DEFAULT_PAGE_LIMIT : limit;
+			TaskPage page = taskStampService.readCollection(stamp -> ConditionalGet.notModified(request, stamp)
+					? null
+					: taskService.getTaskPage(filter, sortOption, cursor, pageLimit)
+			);
+			if (page == null) {
+				return null;
+			}
+			ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+			if (page.hasNext()) {
+				String nextPage = ServletUriComponentsBuilder.fromCurrentRequestUri()
+						.queryParam("sort", sortOption.getParameter())
+						.queryParam("limit", pageLimit)
+						.queryParam("cursor", page.next())
+						.build()
+						.toUriString();
+				response.header(HttpHeaders.LINK, "<" + nextPage + ">; rel=\"next\"");
+			}
+			return response.body(page.items());
+		} catch (IllegalArgumentException exception) {
+			return ResponseEntity.badRequest().build();
 		} catch (Exception exception) {
 			return ResponseEntity.notFound().build();
 		}
 	}
 
-	@GetMapping("/today")
-	public ResponseEntity<List<Task>> getTodayTasks() {
+	/**
+	 * Runs a versioned transition and maps its outcome: the new version on success,
+	 * 404 for an unknown task, 409 for a stale version or taken title, 400 for a malformed request.
+	 */
+	private ResponseEntity<TaskVersion> transition(Long id, Transition transition) {
 		try {
-			return ResponseEntity.ok(taskService.getTodayTasks());
-		} catch (Exception exception) {
+			return ResponseEntity.ok(new TaskVersion(id, transition.apply()));
+		} catch (IllegalArgumentException exception) {
+			return ResponseEntity.badRequest().build();
+		} catch (ResourceNotFoundException exception) {
 			return ResponseEntity.notFound().build();
+		} catch (ResourceConflictException exception) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).build();
 		}
 	}
+
+	@FunctionalInterface
+	private interface Transition {
+		long apply() throws ResourceNotFoundException, ResourceConflictException;
+	}
 }
@@ -0,0 +1,97 @@
+package com.todo.rails.elite.starter.code.controller;
+
+import com.todo.rails.elite.starter.code.model.TaskFilter;
+import com.todo.rails.elite.starter.code.model.TaskPage;
+import com.todo.rails.elite.starter.code.service.TaskService;
+import com.todo.rails.elite.starter.code.service.TaskStampService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/tasks/due")
+public class TaskDueController {
+
+	private final TaskService taskService;
+	private final TaskStampService taskStampService;
+
+	@Autowired
+	public TaskDueController(TaskService taskService, TaskStampService taskStampService) {
+		this.taskService = taskService;
+		this.taskStampService = taskStampService;
+	}
+
+	@GetMapping
+	public ResponseEntity<TaskPage> getTasksDueBetween(
+			@RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(name = "status", required = false) String status,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "limit", required = false) Integer limit,
+			ServletWebRequest request
+	) {
+		if (ConditionalGet.notModified(request, taskStampService.getCollectionStamp())) {
+			return null;
+		}
+		try {
+			return taskStampService.readCollection(stamp -> ConditionalGet.notModified(request, stamp)
+					? null
+					: ResponseEntity.ok(
+							taskService.getTasksDueBetween(from, to, TaskFilter.fromParameter(status), cursor, pageLimit(limit))
+					)
+			);
+		} catch (IllegalArgumentException exception) {
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
+	@GetMapping("/overdue")
+	public ResponseEntity<TaskPage> getOverdueTasks(
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "limit", required = false) Integer limit,
+			ServletWebRequest request
+	) {
+		if (ConditionalGet.notModified(request, taskStampService.getCollectionStamp())) {
+			return null;
+		}
+		try {
+			return taskStampService.readCollection(stamp -> ConditionalGet.notModified(request, stamp)
+					? null
+					: ResponseEntity.ok(taskService.getOverdueTasks(cursor, pageLimit(limit)))
+			);
+		} catch (IllegalArgumentException exception) {
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
+	@GetMapping("/within")
+	public ResponseEntity<TaskPage> getTasksDueWithin(
+			@RequestParam(name = "days", required = false, defaultValue = "7") int days,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "limit", required = false) Integer limit,
+			ServletWebRequest request
+	) {
+		if (ConditionalGet.notModified(request, taskStampService.getCollectionStamp())) {
+			return null;
+		}
+		try {
+			return taskStampService.readCollection(stamp -> ConditionalGet.notModified(request, stamp)
+					? null
+					: ResponseEntity.ok(taskService.getTasksDueWithin(days, cursor, pageLimit(limit)))
+			);
+		} catch (IllegalArgumentException exception) {
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
+	private static int pageLimit(Integer limit) {
+		return limit == null ? TaskService.DEFAULT_PAGE_LIMIT : limit;
+	}
+}
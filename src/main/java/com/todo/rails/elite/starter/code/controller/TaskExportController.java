@@ -0,0 +1,44 @@
+package com.todo.rails.elite.starter.code.controller;
+
+import com.todo.rails.elite.starter.code.model.TaskExportFormat;
+import com.todo.rails.elite.starter.code.service.TaskExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/tasks/export")
+public class TaskExportController {
+
+	private final TaskExportService taskExportService;
+
+	@Autowired
+	public TaskExportController(TaskExportService taskExportService) {
+		this.taskExportService = taskExportService;
+	}
+
+	@GetMapping
+	public ResponseEntity<StreamingResponseBody> exportTasks(
+			@RequestParam(name = "format", required = false) String format
+	) {
+		TaskExportFormat exportFormat;
+		try {
+			exportFormat = TaskExportFormat.fromParameter(format);
+		} catch (IllegalArgumentException exception) {
+			return ResponseEntity.badRequest().build();
+		}
+		ContentDisposition disposition = ContentDisposition.attachment()
+				.filename("tasks." + exportFormat.getFileExtension())
+				.build();
+		return ResponseEntity.ok()
+				.contentType(exportFormat.getMediaType())
+				.header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+				.body(out -> taskExportService.export(exportFormat, out));
+	}
+}
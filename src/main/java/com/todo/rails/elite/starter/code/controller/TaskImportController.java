@@ -0,0 +1,56 @@
+package com.todo.rails.elite.starter.code.controller;
+
+import com.todo.rails.elite.starter.code.model.TaskExportFormat;
+import com.todo.rails.elite.starter.code.model.TaskImportResult;
+import com.todo.rails.elite.starter.code.service.TaskImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/tasks/import")
+public class TaskImportController {
+
+	private final TaskImportService taskImportService;
+
+	@Autowired
+	public TaskImportController(TaskImportService taskImportService) {
+		this.taskImportService = taskImportService;
+	}
+
+	@PostMapping(consumes = {"application/x-ndjson", "text/csv"})
+	public ResponseEntity<TaskImportResult> importTasks(
+			@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+			InputStream body
+	) {
+		try {
+			return ResponseEntity.ok(taskImportService.importTasks(TaskExportFormat.fromMediaType(contentType), body));
+		} catch (IllegalArgumentException | IOException exception) {
+			return ResponseEntity.badRequest().build();
+		}
+	}
+
+	@PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+	public ResponseEntity<TaskImportResult> importTaskFile(
+			@RequestParam("file") MultipartFile file,
+			@RequestParam(name = "format", required = false) String format
+	) {
+		try (InputStream in = file.getInputStream()) {
+			String resolvedFormat = format != null ? format : StringUtils.getFilenameExtension(file.getOriginalFilename());
+			return ResponseEntity.ok(taskImportService.importTasks(TaskExportFormat.fromParameter(resolvedFormat), in));
+		} catch (IllegalArgumentException | IOException exception) {
+			return ResponseEntity.badRequest().build();
+		}
+	}
+}
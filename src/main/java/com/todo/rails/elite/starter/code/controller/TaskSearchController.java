@@ -0,0 +1,41 @@
+package com.todo.rails.elite.starter.code.controller;
+
+import com.todo.rails.elite.starter.code.model.TaskSearchResult;
+import com.todo.rails.elite.starter.code.service.TaskSearchService;
+import com.todo.rails.elite.starter.code.service.TaskService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/tasks/search")
+public class TaskSearchController {
+
+	private final TaskSearchService taskSearchService;
+
+	@Autowired
+	public TaskSearchController(TaskSearchService taskSearchService) {
+		this.taskSearchService = taskSearchService;
+	}
+
+	@GetMapping
+	public ResponseEntity<TaskSearchResult> searchTasks(
+			@RequestParam(name = "q") String query,
+			@RequestParam(name = "offset", required = false, defaultValue = "0") int offset,
+			@RequestParam(name = "limit", required = false) Integer limit
+	) {
+		try {
+			return ResponseEntity.ok(
+					taskSearchService.search(query, offset, limit == null ? TaskService.DEFAULT_PAGE_LIMIT : limit)
+			);
+		} catch (IllegalArgumentException exception) {
+			return ResponseEntity.badRequest().build();
+		} catch (IllegalStateException exception) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package com.todo.rails.elite.starter.code.controller;
+
+import com.todo.rails.elite.starter.code.model.TaskSuggestion;
+import com.todo.rails.elite.starter.code.service.TaskSuggestionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/tasks/suggestions")
+public class TaskSuggestionController {
+
+	private static final int DEFAULT_LIMIT = 10;
+
+	private final TaskSuggestionService taskSuggestionService;
+
+	@Autowired
+	public TaskSuggestionController(TaskSuggestionService taskSuggestionService) {
+		this.taskSuggestionService = taskSuggestionService;
+	}
+
+	@GetMapping
+	public ResponseEntity<List<TaskSuggestion>> suggestTasks(
+			@RequestParam(name = "prefix") String prefix,
+			@RequestParam(name = "limit", required = false, defaultValue = "" + DEFAULT_LIMIT) int limit
+	) {
+		try {
+			return ResponseEntity.ok(taskSuggestionService.suggest(prefix, limit));
+		} catch (IllegalArgumentException exception) {
+			return ResponseEntity.badRequest().build();
+		} catch (IllegalStateException exception) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		}
+	}
+}
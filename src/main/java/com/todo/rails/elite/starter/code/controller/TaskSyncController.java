@@ -0,0 +1,35 @@
+package com.todo.rails.elite.starter.code.controller;
+
+import com.todo.rails.elite.starter.code.model.TaskSync;
+import com.todo.rails.elite.starter.code.service.TaskService;
+import com.todo.rails.elite.starter.code.service.TaskSyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/tasks/sync")
+public class TaskSyncController {
+
+	private final TaskSyncService taskSyncService;
+
+	@Autowired
+	public TaskSyncController(TaskSyncService taskSyncService) {
+		this.taskSyncService = taskSyncService;
+	}
+
+	@GetMapping
+	public ResponseEntity<TaskSync> sync(
+			@RequestParam(name = "since", required = false) String since,
+			@RequestParam(name = "limit", required = false, defaultValue = "" + TaskService.MAX_PAGE_LIMIT) int limit
+	) {
+		try {
+			return ResponseEntity.ok(taskSyncService.sync(since, limit));
+		} catch (IllegalArgumentException exception) {
+			return ResponseEntity.badRequest().build();
+		}
+	}
+}
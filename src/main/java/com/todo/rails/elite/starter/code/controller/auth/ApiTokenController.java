@@ -0,0 +1,119 @@
+package com.todo.rails.elite.starter.code.controller.auth;
+
+import com.todo.rails.elite.starter.code.exceptions.PasswordHashingRejectedException;
+import com.todo.rails.elite.starter.code.model.security.ApiTokenRequest;
+import com.todo.rails.elite.starter.code.model.security.ApiTokens;
+import com.todo.rails.elite.starter.code.model.security.RefreshTokenRequest;
+import com.todo.rails.elite.starter.code.service.security.ApiTokenService;
+import com.todo.rails.elite.starter.code.service.security.RefreshTokenService;
+import com.todo.rails.elite.starter.code.service.security.RehashingAuthenticationProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Issues the access and refresh tokens of the API.
+ */
+@RestController
+@RequestMapping("/api/auth")
+public class ApiTokenController {
+
+	private static final Logger log = LoggerFactory.getLogger(ApiTokenController.class);
+
+	private final RehashingAuthenticationProvider authenticationProvider;
+	private final UserDetailsService userDetailsService;
+	private final ApiTokenService apiTokenService;
+	private final RefreshTokenService refreshTokenService;
+
+	@Autowired
+	public ApiTokenController(
+			RehashingAuthenticationProvider authenticationProvider,
+			UserDetailsService userDetailsService,
+			ApiTokenService apiTokenService,
+			RefreshTokenService refreshTokenService
+	) {
+		this.authenticationProvider = authenticationProvider;
+		this.userDetailsService = userDetailsService;
+		this.apiTokenService = apiTokenService;
+		this.refreshTokenService = refreshTokenService;
+	}
+
+	/**
+	 * Exchanges a username and password for an access token and a refresh token.
+	 *
+	 * @param request The credentials.
+	 * @return The tokens, {@code 401} for wrong credentials, or {@code 503} while password hashing is saturated.
+	 */
+	@PostMapping("/token")
+	public ResponseEntity<ApiTokens> token(@RequestBody ApiTokenRequest request) {
+		UserDetails user;
+		try {
+			user = (UserDetails) authenticationProvider.authenticate(
+					UsernamePasswordAuthenticationToken.unauthenticated(request.username(), request.password())
+			).getPrincipal();
+		} catch (AuthenticationException exception) {
+			// the user-not-found path hashes inside retrieveUser, which wraps the rejection
+			if (exception instanceof PasswordHashingRejectedException
+					|| exception.getCause() instanceof PasswordHashingRejectedException) {
+				return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+			}
+			log.debug("API token request for {} rejected: {}", request.username(), exception.getMessage());
+			return unauthorized();
+		}
+		return ResponseEntity.ok(tokensFor(user));
+	}
+
+	/**
+	 * Exchanges a refresh token for a new access token and a new refresh token; the old refresh token is used up.
+	 * The user is read again, so role changes and removed users take effect here.
+	 *
+	 * @param request The refresh token.
+	 * @return The new tokens, or {@code 401} if the refresh token is not valid.
+	 */
+	@PostMapping("/refresh")
+	public ResponseEntity<ApiTokens> refresh(@RequestBody RefreshTokenRequest request) {
+		try {
+			String username = refreshTokenService.consume(request.refreshToken());
+			return ResponseEntity.ok(tokensFor(userDetailsService.loadUserByUsername(username)));
+		} catch (AuthenticationException exception) {
+			log.debug("API token refresh rejected: {}", exception.getMessage());
+			return unauthorized();
+		}
+	}
+
+	/**
+	 * Revokes a refresh token, for example when a client signs out.
+	 *
+	 * @param request The refresh token.
+	 * @return {@code 204}, whether or not the token was known.
+	 */
+	@PostMapping("/revoke")
+	public ResponseEntity<Void> revoke(@RequestBody RefreshTokenRequest request) {
+		refreshTokenService.revoke(request.refreshToken());
+		return ResponseEntity.noContent().build();
+	}
+
+	private ApiTokens tokensFor(UserDetails user) {
+		return new ApiTokens(
+				apiTokenService.issue(user),
+				ApiTokens.BEARER,
+				apiTokenService.getAccessTokenTtl().toSeconds(),
+				refreshTokenService.issue(user.getUsername())
+		);
+	}
+
+	private static <T> ResponseEntity<T> unauthorized() {
+		return ResponseEntity.status(HttpStatus.UNAUTHORIZED).header(HttpHeaders.WWW_AUTHENTICATE, ApiTokens.BEARER).build();
+	}
+}
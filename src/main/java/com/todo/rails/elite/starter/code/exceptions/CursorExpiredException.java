@@ -0,0 +1,8 @@
+package com.todo.rails.elite.starter.code.exceptions;
+
+public class CursorExpiredException extends Exception{
+
+    public CursorExpiredException(String message) {
+        super(message);
+    }
+}
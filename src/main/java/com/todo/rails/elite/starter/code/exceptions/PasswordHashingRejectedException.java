@@ -0,0 +1,15 @@
+package com.todo.rails.elite.starter.code.exceptions;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * Thrown when the password-hashing executor is saturated and a hash cannot start within the allowed wait.
+ * It is an {@link AuthenticationServiceException} so that a login attempt fails as "unavailable" rather than
+ * as bad credentials.
+ */
+public class PasswordHashingRejectedException extends AuthenticationServiceException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
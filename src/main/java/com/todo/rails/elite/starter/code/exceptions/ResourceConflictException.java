@@ -0,0 +1,8 @@
+package com.todo.rails.elite.starter.code.exceptions;
+
+public class ResourceConflictException extends Exception{
+
+    public ResourceConflictException(String message) {
+        super(message);
+    }
+}
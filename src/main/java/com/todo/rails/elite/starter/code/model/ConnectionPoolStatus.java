@@ -0,0 +1,43 @@
+package com.todo.rails.elite.starter.code.model;
+
+import java.time.Instant;
+
+/**
+ * Point-in-time view of the JDBC connection pool, served by the {@code connectionpool} actuator endpoint.
+ *
+ * @param poolName                     The name of the Hikari pool.
+ * @param active                       Connections currently borrowed by request or background threads.
+ * @param idle                         Connections open and waiting in the pool.
+ * @param pending                      Threads currently waiting for a connection.
+ * @param maximumPoolSize              Configured upper bound of open connections.
+ * @param minimumIdle                  Configured number of idle connections the pool keeps open.
+ * @param connectionTimeoutMillis      Longest time a thread waits for a connection before failing.
+ * @param leakDetectionThresholdMillis Time a connection may stay borrowed before it is reported as a leak; 0 if off.
+ * @param acquisitions                 Connections handed out since startup.
+ * @param acquireMeanMillis            Mean time spent waiting for a connection since startup.
+ * @param acquireMaxMillis             Longest wait for a connection in the recent past.
+ * @param timeouts                     Requests for a connection that gave up after the connection timeout.
+ * @param leaksDetected                Connections reported as leaked since startup.
+ * @param leaksOutstanding             Reported leaks whose connection has not been returned yet.
+ * @param starvationWarnings           Monitor intervals in which threads were starved waiting for connections.
+ * @param lastStarvedAt                End of the most recent starved interval, or {@code null} if none.
+ */
+public record ConnectionPoolStatus(
+		String poolName,
+		int active,
+		int idle,
+		int pending,
+		int maximumPoolSize,
+		int minimumIdle,
+		long connectionTimeoutMillis,
+		long leakDetectionThresholdMillis,
+		long acquisitions,
+		double acquireMeanMillis,
+		double acquireMaxMillis,
+		long timeouts,
+		long leaksDetected,
+		long leaksOutstanding,
+		long starvationWarnings,
+		Instant lastStarvedAt
+) {
+}
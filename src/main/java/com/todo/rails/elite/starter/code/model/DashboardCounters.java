@@ -0,0 +1,61 @@
+package com.todo.rails.elite.starter.code.model;
+
+import java.time.LocalDate;
+
+/**
+ * The dashboard counters, or the change between two readings of them.
+ *
+ * @param totalPendingToday Number of pending tasks due today.
+ * @param totalPending      Number of pending tasks.
+ * @param totalCompleted    Number of completed tasks.
+ */
+public record DashboardCounters(long totalPendingToday, long totalPending, long totalCompleted) {
+
+	public static final DashboardCounters ZERO = new DashboardCounters(0, 0, 0);
+
+	public static DashboardCounters of(TaskCounts counts) {
+		return new DashboardCounters(counts.pendingToday(), counts.pending(), counts.completed());
+	}
+
+	/**
+	 * The change a single task change makes to the counters, computed from the event alone.
+	 *
+	 * @param event The change.
+	 * @param today The date tasks count as due today for.
+	 * @return The difference to add to the counters; {@link #ZERO} if the task moved within one counter.
+	 */
+	public static DashboardCounters delta(TaskChangedEvent event, LocalDate today) {
+		DashboardCounters current = of(event.completed(), event.dueDate(), today);
+		return switch (event.type()) {
+			case CREATED -> current;
+			case DELETED -> ZERO.minus(current);
+			case UPDATED -> event.previousCompleted() == null
+					? ZERO
+					: current.minus(of(event.previousCompleted(), event.previousDueDate(), today));
+		};
+	}
+
+	private static DashboardCounters of(boolean completed, LocalDate dueDate, LocalDate today) {
+		return new DashboardCounters(
+				!completed && today.equals(dueDate) ? 1 : 0,
+				completed ? 0 : 1,
+				completed ? 1 : 0
+		);
+	}
+
+	public DashboardCounters plus(DashboardCounters other) {
+		return new DashboardCounters(
+				totalPendingToday + other.totalPendingToday,
+				totalPending + other.totalPending,
+				totalCompleted + other.totalCompleted
+		);
+	}
+
+	public DashboardCounters minus(DashboardCounters other) {
+		return new DashboardCounters(
+				totalPendingToday - other.totalPendingToday,
+				totalPending - other.totalPending,
+				totalCompleted - other.totalCompleted
+		);
+	}
+}
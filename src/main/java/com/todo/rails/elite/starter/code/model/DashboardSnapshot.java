@@ -0,0 +1,28 @@
+package com.todo.rails.elite.starter.code.model;
+
+import java.util.List;
+
+/**
+ * Point-in-time view of everything the dashboard renders.
+ * Built once per request so the page and the JSON endpoint share the same data.
+ *
+ * @param totalPendingToday Number of pending tasks due today.
+ * @param totalPending      Number of pending tasks.
+ * @param totalCompleted    Number of completed tasks.
+ * @param todayTasks        The first page of pending tasks due today, in id order.
+ * @param todayNext         The cursor for {@code GET /api/tasks?status=today} continuing after {@code todayTasks},
+ *                          or null when they are all tasks due today.
+ * @param pendingTasks      The first page of pending tasks, in id order.
+ * @param pendingNext       The cursor for {@code GET /api/tasks?status=pending} continuing after
+ *                          {@code pendingTasks}, or null when they are all pending tasks.
+ */
+public record DashboardSnapshot(
+		long totalPendingToday,
+		long totalPending,
+		long totalCompleted,
+		List<Task> todayTasks,
+		String todayNext,
+		List<Task> pendingTasks,
+		String pendingNext
+) {
+}
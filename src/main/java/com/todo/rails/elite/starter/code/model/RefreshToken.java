@@ -0,0 +1,97 @@
+package com.todo.rails.elite.starter.code.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A refresh token handed out with an API access token. Only the SHA-256 hash of the token is stored, so the table
+ * cannot be used to sign in; a token is deleted when it is used, revoked or expired.
+ */
+@Entity
+@Table(
+		name = "refresh_tokens",
+		indexes = {
+				@Index(name = "idx_refresh_token_username", columnList = "username"),
+				@Index(name = "idx_refresh_token_expires_at", columnList = "expires_at")
+		}
+)
+public class RefreshToken {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "token_hash", nullable = false, unique = true, length = 64)
+	private String tokenHash;
+
+	@Column(name = "username", nullable = false)
+	private String username;
+
+	@Column(name = "issued_at", nullable = false)
+	private Instant issuedAt;
+
+	@Column(name = "expires_at", nullable = false)
+	private Instant expiresAt;
+
+	public RefreshToken() {
+	}
+
+	public RefreshToken(String tokenHash, String username, Instant issuedAt, Instant expiresAt) {
+		this.tokenHash = tokenHash;
+		this.username = username;
+		this.issuedAt = issuedAt;
+		this.expiresAt = expiresAt;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getTokenHash() {
+		return tokenHash;
+	}
+
+	public void setTokenHash(String tokenHash) {
+		this.tokenHash = tokenHash;
+	}
+
+	public String getUsername() {
+		return username;
+	}
+
+	public void setUsername(String username) {
+		this.username = username;
+	}
+
+	public Instant getIssuedAt() {
+		return issuedAt;
+	}
+
+	public void setIssuedAt(Instant issuedAt) {
+		this.issuedAt = issuedAt;
+	}
+
+	public Instant getExpiresAt() {
+		return expiresAt;
+	}
+
+	public void setExpiresAt(Instant expiresAt) {
+		this.expiresAt = expiresAt;
+	}
+
+	@Override
+	public String toString() {
+		// the hash is left out so it does not end up in logs
+		return "RefreshToken{" +
+				"id=" + id +
+				", username='" + username + '\'' +
+				", issuedAt=" + issuedAt +
+				", expiresAt=" + expiresAt +
+				'}';
+	}
+}
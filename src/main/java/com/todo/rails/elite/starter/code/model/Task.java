@@ -3,19 +3,49 @@ package com.todo.rails.elite.starter.code.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "tasks")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Task.CACHE_REGION)
+@NaturalIdCache(region = Task.NATURAL_ID_CACHE_REGION)
+@Table(
+		name = "tasks",
+		indexes = {
+				@Index(name = "idx_task_completed", columnList = "completed"),
+				@Index(name = "idx_task_due_date", columnList = "due_date"),
+				@Index(name = "idx_task_completed_due_date", columnList = "completed, due_date"),
+				@Index(name = "idx_task_updated_at", columnList = "updated_at, id")
+		}
+)
 public class Task {
 
+	/**
+	 * Second-level cache region holding tasks by id.
+	 */
+	public static final String CACHE_REGION = "tasks";
+
+	/**
+	 * Second-level cache region resolving task titles to ids.
+	 */
+	public static final String NATURAL_ID_CACHE_REGION = "tasks-natural-id";
+
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_id_seq")
+	@SequenceGenerator(name = "task_id_seq", sequenceName = "task_id_seq", allocationSize = 100)
 	private Long id;
 
 	@NotNull(message = "Title cannot be null")
 	@NotBlank(message = "Title cannot be blank")
+	@NaturalId(mutable = true)
 	@Column(name = "title", unique = true, nullable = false)
 	private String title;
 
@@ -32,6 +62,17 @@ public class Task {
 	@Column(name = "due_date", nullable = false)
 	private LocalDate dueDate;
 
+	@Version
+	@Column(name = "version", nullable = false)
+	private Long version;
+
+	// set by Hibernate on every insert and update; bulk statements set it themselves, and rows written outside
+	// Hibernate get the column default
+	@UpdateTimestamp
+	@ColumnDefault("CURRENT_TIMESTAMP(6)")
+	@Column(name = "updated_at", nullable = false)
+	private Instant updatedAt;
+
 	public Task() {
 	}
 
@@ -82,6 +123,22 @@ public class Task {
 		this.dueDate = dueDate;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
+	public Instant getUpdatedAt() {
+		return updatedAt;
+	}
+
+	public void setUpdatedAt(Instant updatedAt) {
+		this.updatedAt = updatedAt;
+	}
+
 	@Override
 	public String toString() {
 		return "Task{" +
@@ -90,6 +147,8 @@ public class Task {
 				", description='" + description + '\'' +
 				", completed=" + completed +
 				", dueDate=" + dueDate +
+				", version=" + version +
+				", updatedAt=" + updatedAt +
 				'}';
 	}
 }
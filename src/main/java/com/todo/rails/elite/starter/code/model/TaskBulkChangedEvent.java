@@ -0,0 +1,19 @@
+package com.todo.rails.elite.starter.code.model;
+
+/**
+ * Application event published after a set-based bulk statement changed or deleted tasks.
+ * It carries no per-task detail: listeners that keep derived state treat it as "anything may have changed".
+ * Dashboards also receive it as the summary of an import batch, which is published as a {@link TasksImportedEvent}.
+ *
+ * @param type     Which bulk operation ran.
+ * @param affected Number of tasks the statement changed or deleted.
+ */
+public record TaskBulkChangedEvent(Type type, int affected) {
+
+	public enum Type {
+		COMPLETED_OVERDUE,
+		DELETED_COMPLETED,
+		RESCHEDULED,
+		IMPORTED
+	}
+}
@@ -0,0 +1,9 @@
+package com.todo.rails.elite.starter.code.model;
+
+/**
+ * Outcome of a set-based bulk operation on tasks.
+ *
+ * @param affected Number of rows the single UPDATE or DELETE statement changed.
+ */
+public record TaskBulkResult(int affected) {
+}
@@ -0,0 +1,187 @@
+package com.todo.rails.elite.starter.code.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * One row of the task change outbox: the state of a task right after it was created or updated, or right before it
+ * was deleted. Rows are written in the same transaction as the change itself, so a change is recorded exactly when
+ * it commits.
+ *
+ * <p>Consumers read the outbox in commit order: rows are written with the pending number handed out by
+ * {@link com.todo.rails.elite.starter.code.service.TaskCommitService}, which replaces it with the number of the
+ * commit right before the transaction commits. Commit numbers become visible strictly in order, unlike the
+ * auto-increment ids, which are taken at insert time, can commit out of order and leave permanent gaps behind
+ * INSERT ... SELECT statements. The id only orders the rows of one commit.</p>
+ */
+@Entity
+@Table(
+		name = "task_changes",
+		indexes = {
+				@Index(name = "idx_task_change_commit", columnList = "commit_number, id"),
+				@Index(name = "idx_task_change_recorded_at", columnList = "recorded_at")
+		}
+)
+public class TaskChange {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "commit_number", nullable = false)
+	private long commitNumber;
+
+	@Column(name = "task_id", nullable = false)
+	private Long taskId;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "type", nullable = false, length = 16)
+	private TaskChangedEvent.Type type;
+
+	@Column(name = "title", nullable = false)
+	private String title;
+
+	@Column(name = "description", nullable = false)
+	private String description;
+
+	@Column(name = "completed", nullable = false)
+	private boolean completed;
+
+	@Column(name = "due_date", nullable = false)
+	private LocalDate dueDate;
+
+	@Column(name = "recorded_at", nullable = false)
+	private Instant recordedAt;
+
+	public TaskChange() {
+	}
+
+	public TaskChange(
+			TaskChangedEvent.Type type,
+			Long taskId,
+			String title,
+			String description,
+			boolean completed,
+			LocalDate dueDate,
+			long commitNumber,
+			Instant recordedAt
+	) {
+		this.commitNumber = commitNumber;
+		this.type = type;
+		this.taskId = taskId;
+		this.title = title;
+		this.description = description;
+		this.completed = completed;
+		this.dueDate = dueDate;
+		this.recordedAt = recordedAt;
+	}
+
+	/**
+	 * Creates the outbox row for a single task change.
+	 *
+	 * @param event         The change.
+	 * @param pendingCommit The pending commit number of the transaction making the change.
+	 * @param recordedAt    When the change was made.
+	 * @return A new, unsaved row.
+	 */
+	public static TaskChange of(TaskChangedEvent event, long pendingCommit, Instant recordedAt) {
+		return new TaskChange(
+				event.type(),
+				event.id(),
+				event.title(),
+				event.description(),
+				event.completed(),
+				event.dueDate(),
+				pendingCommit,
+				recordedAt
+		);
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public long getCommitNumber() {
+		return commitNumber;
+	}
+
+	public void setCommitNumber(long commitNumber) {
+		this.commitNumber = commitNumber;
+	}
+
+	public Long getTaskId() {
+		return taskId;
+	}
+
+	public void setTaskId(Long taskId) {
+		this.taskId = taskId;
+	}
+
+	public TaskChangedEvent.Type getType() {
+		return type;
+	}
+
+	public void setType(TaskChangedEvent.Type type) {
+		this.type = type;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public void setTitle(String title) {
+		this.title = title;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public void setDescription(String description) {
+		this.description = description;
+	}
+
+	public boolean isCompleted() {
+		return completed;
+	}
+
+	public void setCompleted(boolean completed) {
+		this.completed = completed;
+	}
+
+	public LocalDate getDueDate() {
+		return dueDate;
+	}
+
+	public void setDueDate(LocalDate dueDate) {
+		this.dueDate = dueDate;
+	}
+
+	public Instant getRecordedAt() {
+		return recordedAt;
+	}
+
+	public void setRecordedAt(Instant recordedAt) {
+		this.recordedAt = recordedAt;
+	}
+
+	@Override
+	public String toString() {
+		return "TaskChange{" +
+				"id=" + id +
+				", commitNumber=" + commitNumber +
+				", taskId=" + taskId +
+				", type=" + type +
+				", title='" + title + '\'' +
+				", completed=" + completed +
+				", dueDate=" + dueDate +
+				", recordedAt=" + recordedAt +
+				'}';
+	}
+}
@@ -0,0 +1,49 @@
+package com.todo.rails.elite.starter.code.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque position in the task change feed.
+ * It records when it was handed out, so a position older than the outbox retention can be recognised instead of
+ * silently skipping changes that were pruned in the meantime.
+ *
+ * @param commit   The commit number of the last change the holder has seen.
+ * @param id       The id of that change, which orders the changes of one commit.
+ * @param issuedAt When the position was handed out.
+ */
+public record TaskChangeCursor(long commit, long id, Instant issuedAt) {
+
+	private static final String SEPARATOR = "|";
+
+	/**
+	 * Decodes a cursor previously returned by {@link #encode()}.
+	 *
+	 * @param value The encoded cursor.
+	 * @return The decoded cursor.
+	 * @throws IllegalArgumentException if the cursor is malformed.
+	 */
+	public static TaskChangeCursor decode(String value) {
+		try {
+			String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+			String[] parts = decoded.split("\\" + SEPARATOR, -1);
+			if (parts.length != 3) {
+				throw new IllegalArgumentException("Malformed cursor: " + value);
+			}
+			return new TaskChangeCursor(
+					Long.parseLong(parts[0]), Long.parseLong(parts[1]), Instant.ofEpochMilli(Long.parseLong(parts[2]))
+			);
+		} catch (NumberFormatException exception) {
+			throw new IllegalArgumentException("Malformed cursor: " + value);
+		}
+	}
+
+	/**
+	 * @return The URL-safe string form of this cursor.
+	 */
+	public String encode() {
+		String raw = commit + SEPARATOR + id + SEPARATOR + issuedAt.toEpochMilli();
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,13 @@
+package com.todo.rails.elite.starter.code.model;
+
+import java.util.List;
+
+/**
+ * One read of the task change feed.
+ *
+ * @param changes The changes after the requested position, oldest first.
+ * @param cursor  The position to read from next time; returned even when there were no changes.
+ * @param hasMore Whether more changes are ready to be read right away.
+ */
+public record TaskChangeFeed(List<TaskChange> changes, String cursor, boolean hasMore) {
+}
@@ -0,0 +1,60 @@
+package com.todo.rails.elite.starter.code.model;
+
+import java.time.LocalDate;
+
+/**
+ * Application event published after a single task was created, changed or deleted.
+ * Listeners that keep derived state, such as the search index, use it instead of re-reading the table;
+ * set-based bulk statements publish one {@link TaskBulkChangedEvent} instead.
+ *
+ * @param type              What happened to the task.
+ * @param id                The id of the task.
+ * @param title             The title of the task after the change, or before the deletion.
+ * @param description       The description of the task after the change, or before the deletion.
+ * @param completed         Whether the task is completed after the change, or was before the deletion.
+ * @param dueDate           The due date of the task after the change, or before the deletion.
+ * @param previousCompleted Whether the task was completed before an update; null for other changes.
+ * @param previousDueDate   The due date of the task before an update; null for other changes.
+ */
+public record TaskChangedEvent(
+		Type type,
+		Long id,
+		String title,
+		String description,
+		boolean completed,
+		LocalDate dueDate,
+		Boolean previousCompleted,
+		LocalDate previousDueDate
+) {
+
+	public enum Type {
+		CREATED,
+		UPDATED,
+		DELETED
+	}
+
+	public static TaskChangedEvent created(Task task) {
+		return of(Type.CREATED, task, null, null);
+	}
+
+	public static TaskChangedEvent updated(Task task, boolean previousCompleted, LocalDate previousDueDate) {
+		return of(Type.UPDATED, task, previousCompleted, previousDueDate);
+	}
+
+	public static TaskChangedEvent deleted(Task task) {
+		return of(Type.DELETED, task, null, null);
+	}
+
+	private static TaskChangedEvent of(Type type, Task task, Boolean previousCompleted, LocalDate previousDueDate) {
+		return new TaskChangedEvent(
+				type,
+				task.getId(),
+				task.getTitle(),
+				task.getDescription(),
+				task.isCompleted(),
+				task.getDueDate(),
+				previousCompleted,
+				previousDueDate
+		);
+	}
+}
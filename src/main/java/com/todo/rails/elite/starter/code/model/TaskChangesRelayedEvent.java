@@ -0,0 +1,12 @@
+package com.todo.rails.elite.starter.code.model;
+
+import java.util.List;
+
+/**
+ * Application event published by the outbox relay for every batch of committed task changes it reads, including
+ * changes made through other instances sharing the database. Delivery is at least once and in commit order.
+ *
+ * @param changes The changes, oldest first.
+ */
+public record TaskChangesRelayedEvent(List<TaskChange> changes) {
+}
@@ -0,0 +1,11 @@
+package com.todo.rails.elite.starter.code.model;
+
+/**
+ * Table-level change stamp of the tasks table, read from the single row of {@link TaskCommitCounter}.
+ * Every transaction that changes tasks increments the counter as it commits, so every commit moves the stamp, even
+ * one that committed after a transaction holding higher outbox ids or later write times.
+ *
+ * @param commits The number of committed transactions that changed tasks.
+ */
+public record TaskCollectionStamp(long commits) {
+}
@@ -0,0 +1,57 @@
+package com.todo.rails.elite.starter.code.model;
+
+import jakarta.persistence.*;
+
+/**
+ * The number of committed transactions that changed tasks, kept in a single row.
+ * Every such transaction increments it right before it commits, while holding the row lock until the commit, so the
+ * value moves with every commit and in commit order, whatever ids or write times the transactions used.
+ */
+@Entity
+@Table(name = "task_commit_counter")
+public class TaskCommitCounter {
+
+	/**
+	 * Id of the only row.
+	 */
+	public static final int ID = 1;
+
+	@Id
+	@Column(name = "id")
+	private Integer id;
+
+	@Column(name = "commits", nullable = false)
+	private long commits;
+
+	public TaskCommitCounter() {
+	}
+
+	public TaskCommitCounter(long commits) {
+		this.id = ID;
+		this.commits = commits;
+	}
+
+	public Integer getId() {
+		return id;
+	}
+
+	public void setId(Integer id) {
+		this.id = id;
+	}
+
+	public long getCommits() {
+		return commits;
+	}
+
+	public void setCommits(long commits) {
+		this.commits = commits;
+	}
+
+	@Override
+	public String toString() {
+		return "TaskCommitCounter{" +
+				"id=" + id +
+				", commits=" + commits +
+				'}';
+	}
+}
@@ -0,0 +1,12 @@
+package com.todo.rails.elite.starter.code.model;
+
+/**
+ * Aggregated task counters produced by a single query over the tasks table.
+ *
+ * @param pendingToday Number of pending tasks due today.
+ * @param pending      Number of pending tasks.
+ * @param completed    Number of completed tasks.
+ * @param commits      The commit counter read by the same statement: the counts include exactly the commits up to it.
+ */
+public record TaskCounts(long pendingToday, long pending, long completed, long commits) {
+}
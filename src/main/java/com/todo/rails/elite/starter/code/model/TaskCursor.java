@@ -0,0 +1,80 @@
+package com.todo.rails.elite.starter.code.model;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque keyset cursor pointing just past the last task of a page.
+ * It records the sort it was produced for, so it cannot be replayed against a different ordering.
+ *
+ * @param sort    The ordering the cursor belongs to.
+ * @param dueDate The due date of the last task, only set for {@link TaskSort#DUE_DATE}.
+ * @param id      The id of the last task.
+ */
+public record TaskCursor(TaskSort sort, LocalDate dueDate, long id) {
+
+	private static final String SEPARATOR = "|";
+
+	/**
+	 * Creates the cursor for the last task of a page.
+	 *
+	 * @param sort The ordering of the page.
+	 * @param last The last task on the page.
+	 * @return The cursor for the following page.
+	 */
+	public static TaskCursor after(TaskSort sort, Task last) {
+		return new TaskCursor(sort, sort == TaskSort.DUE_DATE ? last.getDueDate() : null, last.getId());
+	}
+
+	/**
+	 * Decodes a cursor previously returned by {@link #encode()}.
+	 *
+	 * @param value The encoded cursor.
+	 * @param sort  The ordering requested together with the cursor.
+	 * @return The decoded cursor.
+	 * @throws IllegalArgumentException if the cursor is malformed or was produced for another ordering.
+	 */
+	public static TaskCursor decode(String value, TaskSort sort) {
+		try {
+			String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+			String[] parts = decoded.split("\\" + SEPARATOR, -1);
+			if (parts.length != 3 || !parts[0].equals(sort.name())) {
+				throw new IllegalArgumentException("Cursor does not match sort " + sort.getParameter());
+			}
+			LocalDate dueDate = parts[1].isEmpty() ? null : LocalDate.parse(parts[1]);
+			if (sort == TaskSort.DUE_DATE && dueDate == null) {
+				throw new IllegalArgumentException("Cursor is missing its due date");
+			}
+			return new TaskCursor(sort, dueDate, Long.parseLong(parts[2]));
+		} catch (DateTimeParseException | NumberFormatException exception) {
+			throw new IllegalArgumentException("Malformed cursor: " + value);
+		}
+	}
+
+	/**
+	 * @return The URL-safe string form of this cursor.
+	 */
+	public String encode() {
+		String raw = sort.name() + SEPARATOR + (dueDate == null ? "" : dueDate) + SEPARATOR + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @return The keyset position that resumes right after the task this cursor points at.
+	 */
+	public KeysetScrollPosition toScrollPosition() {
+		Map<String, Object> keys = new LinkedHashMap<>();
+		if (sort == TaskSort.DUE_DATE) {
+			keys.put("dueDate", dueDate);
+		}
+		keys.put("id", id);
+		return ScrollPosition.forward(keys);
+	}
+}
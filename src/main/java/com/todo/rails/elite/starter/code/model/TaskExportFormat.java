@@ -0,0 +1,71 @@
+package com.todo.rails.elite.starter.code.model;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * Wire formats supported by the task export and accepted by the bulk import.
+ */
+public enum TaskExportFormat {
+
+	/**
+	 * Newline-delimited JSON, one task object per line.
+	 */
+	NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+
+	/**
+	 * RFC 4180 comma-separated values with a header row.
+	 */
+	CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+	private final MediaType mediaType;
+	private final String fileExtension;
+
+	TaskExportFormat(MediaType mediaType, String fileExtension) {
+		this.mediaType = mediaType;
+		this.fileExtension = fileExtension;
+	}
+
+	public MediaType getMediaType() {
+		return mediaType;
+	}
+
+	public String getFileExtension() {
+		return fileExtension;
+	}
+
+	/**
+	 * Resolves the format of an uploaded body from its content type.
+	 *
+	 * @param contentType The request content type, parameters such as charset are ignored.
+	 * @return The matching format.
+	 * @throws IllegalArgumentException if the content type is not a supported format.
+	 */
+	public static TaskExportFormat fromMediaType(MediaType contentType) {
+		for (TaskExportFormat format : values()) {
+			if (format.mediaType.equalsTypeAndSubtype(contentType)) {
+				return format;
+			}
+		}
+		throw new IllegalArgumentException("Unsupported content type: " + contentType);
+	}
+
+	/**
+	 * Parses a request parameter such as {@code csv} into a format.
+	 *
+	 * @param value The parameter value, case-insensitive. Null selects {@link #NDJSON}.
+	 * @return The matching format.
+	 * @throws IllegalArgumentException if the value does not name a format.
+	 */
+	public static TaskExportFormat fromParameter(String value) {
+		if (value == null || value.isBlank()) {
+			return NDJSON;
+		}
+		try {
+			return valueOf(value.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException exception) {
+			throw new IllegalArgumentException("Unknown export format: " + value);
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package com.todo.rails.elite.starter.code.model;
+
+import java.util.Locale;
+
+/**
+ * Subsets of tasks that can be listed page by page.
+ */
+public enum TaskFilter {
+	ALL,
+	PENDING,
+	COMPLETED,
+	TODAY;
+
+	/**
+	 * Parses a request parameter such as {@code pending} into a filter.
+	 *
+	 * @param value The parameter value, case-insensitive. Null selects {@link #ALL}.
+	 * @return The matching filter.
+	 * @throws IllegalArgumentException if the value does not name a filter.
+	 */
+	public static TaskFilter fromParameter(String value) {
+		if (value == null || value.isBlank()) {
+			return ALL;
+		}
+		try {
+			return valueOf(value.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException exception) {
+			throw new IllegalArgumentException("Unknown task filter: " + value);
+		}
+	}
+}
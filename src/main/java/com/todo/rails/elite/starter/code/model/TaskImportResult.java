@@ -0,0 +1,21 @@
+package com.todo.rails.elite.starter.code.model;
+
+/**
+ * Outcome of a bulk task import.
+ *
+ * @param imported          Number of tasks inserted.
+ * @param duplicates        Rows skipped because their title already exists, in the table or earlier in the file.
+ * @param rejected          Rows skipped because they failed validation.
+ * @param batches           Number of JDBC batches (and transactions) used for the inserts.
+ * @param elapsedMillis     Wall-clock duration of the import.
+ * @param rowsPerSecond     Throughput over all rows read, including skipped ones.
+ */
+public record TaskImportResult(
+		long imported,
+		long duplicates,
+		long rejected,
+		long batches,
+		long elapsedMillis,
+		double rowsPerSecond
+) {
+}
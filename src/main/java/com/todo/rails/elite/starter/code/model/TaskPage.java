@@ -0,0 +1,19 @@
+package com.todo.rails.elite.starter.code.model;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated task listing.
+ *
+ * @param items The tasks on this page, in the requested order.
+ * @param next  The cursor for the following page, or null when this is the last page.
+ */
+public record TaskPage(List<Task> items, String next) {
+
+	/**
+	 * @return Whether another page follows this one.
+	 */
+	public boolean hasNext() {
+		return next != null;
+	}
+}
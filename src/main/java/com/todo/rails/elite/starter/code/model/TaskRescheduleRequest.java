@@ -0,0 +1,12 @@
+package com.todo.rails.elite.starter.code.model;
+
+import java.util.List;
+
+/**
+ * Request body for shifting the due dates of selected tasks.
+ *
+ * @param ids  Ids of the tasks to reschedule.
+ * @param days Number of days to move each due date by; negative values move it earlier.
+ */
+public record TaskRescheduleRequest(List<Long> ids, int days) {
+}
@@ -0,0 +1,20 @@
+package com.todo.rails.elite.starter.code.model;
+
+import java.util.List;
+
+/**
+ * One page of full-text search results.
+ *
+ * @param items  The matching tasks on this page, best match first.
+ * @param total  The number of tasks matching the query.
+ * @param offset The position of the first item among all matches.
+ */
+public record TaskSearchResult(List<Task> items, int total, int offset) {
+
+	/**
+	 * @return Whether more matches follow this page.
+	 */
+	public boolean hasNext() {
+		return offset + items.size() < total;
+	}
+}
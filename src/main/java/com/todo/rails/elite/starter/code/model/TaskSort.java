@@ -0,0 +1,56 @@
+package com.todo.rails.elite.starter.code.model;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Index-backed orderings available for paginated task listings.
+ * Every ordering ends with the primary key so that it is total and usable as a keyset.
+ */
+public enum TaskSort {
+
+	/**
+	 * Insertion order, served by the primary key.
+	 */
+	ID("id", Sort.by("id")),
+
+	/**
+	 * Earliest due date first, served by {@code idx_task_due_date}
+	 * and {@code idx_task_completed_due_date} (InnoDB appends the primary key to both).
+	 */
+	DUE_DATE("dueDate", Sort.by("dueDate", "id"));
+
+	private final String parameter;
+	private final Sort sort;
+
+	TaskSort(String parameter, Sort sort) {
+		this.parameter = parameter;
+		this.sort = sort;
+	}
+
+	public String getParameter() {
+		return parameter;
+	}
+
+	public Sort getSort() {
+		return sort;
+	}
+
+	/**
+	 * Parses a request parameter such as {@code dueDate} into a sort option.
+	 *
+	 * @param value The parameter value. Null selects {@link #ID}.
+	 * @return The matching sort option.
+	 * @throws IllegalArgumentException if the value does not name a sort option.
+	 */
+	public static TaskSort fromParameter(String value) {
+		if (value == null || value.isBlank()) {
+			return ID;
+		}
+		for (TaskSort option : values()) {
+			if (option.parameter.equalsIgnoreCase(value.trim())) {
+				return option;
+			}
+		}
+		throw new IllegalArgumentException("Unknown task sort: " + value);
+	}
+}
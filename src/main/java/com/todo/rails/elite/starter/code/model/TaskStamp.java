@@ -0,0 +1,23 @@
+package com.todo.rails.elite.starter.code.model;
+
+import java.time.Instant;
+
+/**
+ * What changes whenever a single task changes, read without loading the entity or taken from a loaded one.
+ *
+ * @param id        The id of the task.
+ * @param version   The optimistic-locking version of the task.
+ * @param updatedAt When the task was last written.
+ */
+public record TaskStamp(Long id, Long version, Instant updatedAt) {
+
+	/**
+	 * Creates the stamp of a loaded task.
+	 *
+	 * @param task The task.
+	 * @return The stamp of the task as loaded.
+	 */
+	public static TaskStamp of(Task task) {
+		return new TaskStamp(task.getId(), task.getVersion(), task.getUpdatedAt());
+	}
+}
@@ -0,0 +1,12 @@
+package com.todo.rails.elite.starter.code.model;
+
+import java.time.LocalDate;
+
+/**
+ * The stored status and due date of a task, read without loading the entity.
+ *
+ * @param completed Whether the task is completed.
+ * @param dueDate   The due date of the task.
+ */
+public record TaskState(boolean completed, LocalDate dueDate) {
+}
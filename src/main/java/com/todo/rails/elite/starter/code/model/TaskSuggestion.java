@@ -0,0 +1,14 @@
+package com.todo.rails.elite.starter.code.model;
+
+import java.time.LocalDate;
+
+/**
+ * A task offered as a title completion, read without loading the entity.
+ *
+ * @param id        The id of the task.
+ * @param title     The title of the task.
+ * @param completed Whether the task is completed.
+ * @param dueDate   The due date of the task.
+ */
+public record TaskSuggestion(Long id, String title, boolean completed, LocalDate dueDate) {
+}
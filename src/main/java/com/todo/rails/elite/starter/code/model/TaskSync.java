@@ -0,0 +1,16 @@
+package com.todo.rails.elite.starter.code.model;
+
+import java.util.List;
+
+/**
+ * One response of the delta sync.
+ *
+ * @param full      Whether the client must discard what it has and rebuild from this and the following responses;
+ *                  set when it had no watermark or one older than the tombstones are kept.
+ * @param changed   Tasks created or updated after the watermark, in write order.
+ * @param deleted   Ids of tasks deleted after the watermark.
+ * @param watermark The watermark to send with the next sync.
+ * @param hasMore   Whether more changes are ready; if so, sync again right away with the new watermark.
+ */
+public record TaskSync(boolean full, List<TaskSyncItem> changed, List<Long> deleted, String watermark, boolean hasMore) {
+}
@@ -0,0 +1,28 @@
+package com.todo.rails.elite.starter.code.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A created or updated task as sent to syncing clients: the fields a client stores, read as a projection.
+ *
+ * @param id          The id of the task.
+ * @param title       The title of the task.
+ * @param description The description of the task.
+ * @param completed   Whether the task is completed.
+ * @param dueDate     The due date of the task.
+ * @param version     The version of the task, for later versioned transitions.
+ * @param updatedAt   When the task was last written; it orders the sync and is not sent.
+ */
+public record TaskSyncItem(
+		long id,
+		String title,
+		String description,
+		boolean completed,
+		LocalDate dueDate,
+		long version,
+		@JsonIgnore Instant updatedAt
+) {
+}
@@ -0,0 +1,78 @@
+package com.todo.rails.elite.starter.code.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque sync position: everything written at or before it, in {@code (updated_at, id)} order, has been sent.
+ *
+ * <p>While a client pages through more changes than fit one response, the position it reads on from can pass
+ * writes that have not committed yet. The watermark then also carries the settle point of the pass: only what was
+ * written up to it is known to be complete, and the pass starts over from there once it has caught up.</p>
+ *
+ * @param writtenAt The write time of the last task or tombstone sent.
+ * @param id        Its task id, which breaks ties between writes at the same time.
+ * @param settledAt The settle point of the pass while paging past it; null once everything sent is settled.
+ */
+public record TaskSyncWatermark(Instant writtenAt, long id, Instant settledAt) {
+
+	/**
+	 * The position before every write; a sync from here sends every task.
+	 */
+	public static final TaskSyncWatermark START = new TaskSyncWatermark(Instant.EPOCH, 0);
+
+	public TaskSyncWatermark(Instant writtenAt, long id) {
+		this(writtenAt, id, null);
+	}
+
+	private static final String SEPARATOR = "|";
+
+	/**
+	 * Decodes a watermark previously returned by {@link #encode()}.
+	 *
+	 * @param value The encoded watermark.
+	 * @return The decoded watermark.
+	 * @throws IllegalArgumentException if the watermark is malformed.
+	 */
+	public static TaskSyncWatermark decode(String value) {
+		try {
+			String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+			String[] parts = decoded.split("\\" + SEPARATOR, -1);
+			if (parts.length != 2 && parts.length != 3) {
+				throw new IllegalArgumentException("Malformed watermark: " + value);
+			}
+			return new TaskSyncWatermark(
+					Instant.parse(parts[0]),
+					Long.parseLong(parts[1]),
+					parts.length == 3 ? Instant.parse(parts[2]) : null
+			);
+		} catch (DateTimeParseException | NumberFormatException exception) {
+			throw new IllegalArgumentException("Malformed watermark: " + value);
+		}
+	}
+
+	/**
+	 * @return The URL-safe string form of this watermark.
+	 */
+	public String encode() {
+		String raw = writtenAt + SEPARATOR + id + (settledAt == null ? "" : SEPARATOR + settledAt);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @return The time up to which every write is known to have been sent.
+	 */
+	public Instant syncedTo() {
+		return settledAt == null ? writtenAt : settledAt;
+	}
+
+	/**
+	 * @return Whether this position comes after the given write in sync order.
+	 */
+	public boolean isAfter(Instant otherWrittenAt, long otherId) {
+		int byTime = writtenAt.compareTo(otherWrittenAt);
+		return byTime > 0 || (byTime == 0 && id > otherId);
+	}
+}
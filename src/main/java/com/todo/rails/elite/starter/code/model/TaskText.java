@@ -0,0 +1,11 @@
+package com.todo.rails.elite.starter.code.model;
+
+/**
+ * The searchable text of a task, read without loading the entity.
+ *
+ * @param id          The id of the task.
+ * @param title       The title of the task.
+ * @param description The description of the task.
+ */
+public record TaskText(Long id, String title, String description) {
+}
@@ -0,0 +1,82 @@
+package com.todo.rails.elite.starter.code.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Marker left behind by a deleted task, so clients syncing since an earlier point learn about the deletion.
+ * Task ids are never reused, which makes the task id alone a sufficient key.
+ *
+ * <p>The key is assigned by the caller, so Spring Data cannot tell a new tombstone from a stored one by its id;
+ * {@link #isNew()} tells it instead, so that saving a fresh tombstone is a plain insert rather than a merge that
+ * first selects the row.</p>
+ */
+@Entity
+@Table(
+		name = "task_tombstones",
+		indexes = {
+				@Index(name = "idx_task_tombstone_deleted_at", columnList = "deleted_at, task_id")
+		}
+)
+public class TaskTombstone implements Persistable<Long> {
+
+	@Id
+	@Column(name = "task_id")
+	private Long taskId;
+
+	@Column(name = "deleted_at", nullable = false)
+	private Instant deletedAt;
+
+	@Transient
+	private boolean persisted;
+
+	public TaskTombstone() {
+	}
+
+	public TaskTombstone(Long taskId, Instant deletedAt) {
+		this.taskId = taskId;
+		this.deletedAt = deletedAt;
+	}
+
+	public Long getTaskId() {
+		return taskId;
+	}
+
+	public void setTaskId(Long taskId) {
+		this.taskId = taskId;
+	}
+
+	public Instant getDeletedAt() {
+		return deletedAt;
+	}
+
+	public void setDeletedAt(Instant deletedAt) {
+		this.deletedAt = deletedAt;
+	}
+
+	@Override
+	public Long getId() {
+		return taskId;
+	}
+
+	@Override
+	public boolean isNew() {
+		return !persisted;
+	}
+
+	@PostLoad
+	@PostPersist
+	void markPersisted() {
+		persisted = true;
+	}
+
+	@Override
+	public String toString() {
+		return "TaskTombstone{" +
+				"taskId=" + taskId +
+				", deletedAt=" + deletedAt +
+				'}';
+	}
+}
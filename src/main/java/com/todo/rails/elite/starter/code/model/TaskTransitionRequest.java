@@ -0,0 +1,13 @@
+package com.todo.rails.elite.starter.code.model;
+
+import java.time.LocalDate;
+
+/**
+ * Request body for a single-task state transition.
+ *
+ * @param version The version of the task the client last saw; the transition only applies if it is still current.
+ * @param dueDate The new due date, used by the reschedule transition.
+ * @param title   The new title, used by the retitle transition.
+ */
+public record TaskTransitionRequest(Long version, LocalDate dueDate, String title) {
+}
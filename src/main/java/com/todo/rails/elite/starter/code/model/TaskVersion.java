@@ -0,0 +1,10 @@
+package com.todo.rails.elite.starter.code.model;
+
+/**
+ * Identity and current optimistic-locking version of a task after a transition.
+ *
+ * @param id      The id of the task.
+ * @param version The version the task now has; send it with the next transition.
+ */
+public record TaskVersion(Long id, Long version) {
+}
@@ -0,0 +1,12 @@
+package com.todo.rails.elite.starter.code.model;
+
+import java.util.List;
+
+/**
+ * Application event published once per committed import batch, instead of one {@link TaskChangedEvent} per row.
+ * Listeners that keep per-task state apply every change; listeners that fan out to clients send one summary.
+ *
+ * @param changes The creation of every task in the batch, in insertion order.
+ */
+public record TasksImportedEvent(List<TaskChangedEvent> changes) {
+}
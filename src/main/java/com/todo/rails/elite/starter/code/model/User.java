@@ -3,14 +3,33 @@ package com.todo.rails.elite.starter.code.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
 @Table(name = "users")
 public class User {
+
+	/**
+	 * Second-level cache region holding users by id.
+	 */
+	public static final String CACHE_REGION = "users";
+
+	/**
+	 * Second-level cache region resolving usernames to ids.
+	 */
+	public static final String NATURAL_ID_CACHE_REGION = "users-natural-id";
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
 
+	@NaturalId
 	@Column(name = "username", unique = true, nullable = false)
 	@NotNull(message = "Username cannot be null")
 	@NotBlank(message = "Username cannot be blank")
@@ -0,0 +1,15 @@
+package com.todo.rails.elite.starter.code.model.security;
+
+/**
+ * Credentials exchanged for API tokens at {@code POST /api/auth/token}.
+ *
+ * @param username The username.
+ * @param password The password.
+ */
+public record ApiTokenRequest(String username, String password) {
+
+	@Override
+	public String toString() {
+		return "ApiTokenRequest{username='" + username + "'}";
+	}
+}
@@ -0,0 +1,15 @@
+package com.todo.rails.elite.starter.code.model.security;
+
+/**
+ * A signed access token for the API and the refresh token to replace it with, in the shape of an OAuth 2.0
+ * token response.
+ *
+ * @param accessToken  The access token, sent as {@code Authorization: Bearer <token>}.
+ * @param tokenType    Always {@code Bearer}.
+ * @param expiresIn    Seconds until the access token expires.
+ * @param refreshToken The single-use refresh token.
+ */
+public record ApiTokens(String accessToken, String tokenType, long expiresIn, String refreshToken) {
+
+	public static final String BEARER = "Bearer";
+}
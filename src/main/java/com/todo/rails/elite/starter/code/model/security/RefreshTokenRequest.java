@@ -0,0 +1,9 @@
+package com.todo.rails.elite.starter.code.model.security;
+
+/**
+ * A refresh token sent to {@code POST /api/auth/refresh} or {@code POST /api/auth/revoke}.
+ *
+ * @param refreshToken The refresh token returned with the last access token.
+ */
+public record RefreshTokenRequest(String refreshToken) {
+}
@@ -9,29 +9,42 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
+/**
+ * Immutable snapshot of a {@link User} as seen by Spring Security.
+ *
+ * <p>The roles string is parsed into authorities once, when the snapshot is taken, so instances can be
+ * cached and shared between authentications. The class deliberately does not implement
+ * {@code CredentialsContainer}: erasing the password after authentication would corrupt the cached copy.</p>
+ */
 public class SecurityUser implements UserDetails {
 
-	private final User user;
+	private final String username;
+	private final String password;
+	private final List<GrantedAuthority> authorities;
 
 	public SecurityUser(User user) {
-		this.user = user;
+		this.username = user.getUsername();
+		this.password = user.getPassword();
+		this.authorities = Arrays.stream(user.getRoles().split(","))
+				.map(String::trim)
+				.filter(role -> !role.isEmpty())
+				.<GrantedAuthority>map(SimpleGrantedAuthority::new)
+				.toList();
 	}
 
 	@Override
 	public Collection<? extends GrantedAuthority> getAuthorities() {
-		return Arrays.stream(user.getRoles().split(","))
-				.map(SimpleGrantedAuthority::new)
-				.toList();
+		return authorities;
 	}
 
 	@Override
 	public String getPassword() {
-		return user.getPassword();
+		return password;
 	}
 
 	@Override
 	public String getUsername() {
-		return user.getUsername();
+		return username;
 	}
 
 }
@@ -0,0 +1,41 @@
+package com.todo.rails.elite.starter.code.repository;
+
+import com.todo.rails.elite.starter.code.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+	Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+	// single use: of two concurrent refreshes with the same token, only one deletes the row
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM RefreshToken r WHERE r.id = :id")
+	int consume(@Param("id") long id);
+
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM RefreshToken r WHERE r.tokenHash = :tokenHash")
+	int deleteByHash(@Param("tokenHash") String tokenHash);
+
+	// served by idx_refresh_token_username
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM RefreshToken r WHERE r.username = :username")
+	int deleteAllOf(@Param("username") String username);
+
+	// served by idx_refresh_token_expires_at
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :before")
+	int deleteExpiredBefore(@Param("before") Instant before);
+}
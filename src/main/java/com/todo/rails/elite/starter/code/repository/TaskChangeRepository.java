@@ -0,0 +1,89 @@
+package com.todo.rails.elite.starter.code.repository;
+
+import com.todo.rails.elite.starter.code.model.TaskChange;
+import com.todo.rails.elite.starter.code.model.TaskChangedEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TaskChangeRepository extends JpaRepository<TaskChange, Long> {
+
+	// relay and change feed: a range scan of idx_task_change_commit; pending rows have negative numbers
+	@Query("""
+			SELECT c FROM TaskChange c
+			WHERE c.commitNumber >= :commit AND (c.commitNumber > :commit OR c.id > :id)
+			ORDER BY c.commitNumber, c.id
+			""")
+	List<TaskChange> findCommittedAfter(@Param("commit") long commit, @Param("id") long id, Limit limit);
+
+	// the current end of the outbox
+	Optional<TaskChange> findFirstByOrderByCommitNumberDescIdDesc();
+
+	// runs right before the commit, under the lock of the commit counter, so commit numbers become visible in order
+	@Modifying(flushAutomatically = true)
+	@Query("UPDATE TaskChange c SET c.commitNumber = :commit WHERE c.commitNumber = :pending")
+	int assignCommit(@Param("pending") long pendingCommit, @Param("commit") long commit);
+
+	// set-based recording: one INSERT ... SELECT per statement or batch, run in the caller's transaction;
+	// tasks are read as they are at that point, so callers record updates after and deletions before the change
+
+	@Modifying(flushAutomatically = true)
+	@Query("""
+			INSERT INTO TaskChange (taskId, type, title, description, completed, dueDate, commitNumber, recordedAt)
+			SELECT t.id, :type, t.title, t.description, t.completed, t.dueDate, :commit, :recordedAt
+			FROM Task t
+			WHERE t.id IN :ids
+			""")
+	int recordChanges(
+			@Param("type") TaskChangedEvent.Type type,
+			@Param("ids") Collection<Long> ids,
+			@Param("commit") long pendingCommit,
+			@Param("recordedAt") Instant recordedAt
+	);
+
+	// runs before the UPDATE it describes, since completed tasks can no longer be told apart afterwards
+	@Modifying(flushAutomatically = true)
+	@Query("""
+			INSERT INTO TaskChange (taskId, type, title, description, completed, dueDate, commitNumber, recordedAt)
+			SELECT t.id, :type, t.title, t.description, true, t.dueDate, :commit, :recordedAt
+			FROM Task t
+			WHERE t.completed = false AND t.dueDate < :today
+			""")
+	int recordOverdueCompletion(
+			@Param("type") TaskChangedEvent.Type type,
+			@Param("today") LocalDate today,
+			@Param("commit") long pendingCommit,
+			@Param("recordedAt") Instant recordedAt
+	);
+
+	@Modifying(flushAutomatically = true)
+	@Query("""
+			INSERT INTO TaskChange (taskId, type, title, description, completed, dueDate, commitNumber, recordedAt)
+			SELECT t.id, :type, t.title, t.description, t.completed, t.dueDate, :commit, :recordedAt
+			FROM Task t
+			WHERE t.completed = true AND t.dueDate < :before
+			""")
+	int recordCompletedDeletion(
+			@Param("type") TaskChangedEvent.Type type,
+			@Param("before") LocalDate before,
+			@Param("commit") long pendingCommit,
+			@Param("recordedAt") Instant recordedAt
+	);
+
+	// served by idx_task_change_recorded_at
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM TaskChange c WHERE c.commitNumber <= :through AND c.recordedAt < :before")
+	int deleteRelayedBefore(@Param("through") long through, @Param("before") Instant before);
+}
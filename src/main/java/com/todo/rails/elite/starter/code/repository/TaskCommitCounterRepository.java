@@ -0,0 +1,27 @@
+package com.todo.rails.elite.starter.code.repository;
+
+import com.todo.rails.elite.starter.code.model.TaskCollectionStamp;
+import com.todo.rails.elite.starter.code.model.TaskCommitCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TaskCommitCounterRepository extends JpaRepository<TaskCommitCounter, Integer> {
+
+	// runs in the caller's transaction, after its own writes are flushed; the row stays locked until it commits
+	@Modifying(flushAutomatically = true)
+	@Query("UPDATE TaskCommitCounter c SET c.commits = c.commits + 1")
+	int increment();
+
+	@Query("SELECT c.commits FROM TaskCommitCounter c")
+	long findCommits();
+
+	// conditional GET: one row read by its primary key, whatever the size of the tasks table
+	@Query("""
+			SELECT new com.todo.rails.elite.starter.code.model.TaskCollectionStamp(COALESCE(MAX(c.commits), 0))
+			FROM TaskCommitCounter c
+			""")
+	TaskCollectionStamp findCollectionStamp();
+}
@@ -0,0 +1,12 @@
+package com.todo.rails.elite.starter.code.repository;
+
+import com.todo.rails.elite.starter.code.model.Task;
+
+import java.util.List;
+
+/**
+ * Loads of several tasks by id that consult the second-level cache before the database.
+ */
+public interface TaskMultiLoadRepository {
+	List<Task> findAllByIdInOrder(List<Long> ids);
+}
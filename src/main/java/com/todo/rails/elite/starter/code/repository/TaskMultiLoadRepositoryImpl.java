@@ -0,0 +1,33 @@
+package com.todo.rails.elite.starter.code.repository;
+
+import com.todo.rails.elite.starter.code.model.Task;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Objects;
+
+class TaskMultiLoadRepositoryImpl implements TaskMultiLoadRepository {
+
+	private final EntityManager entityManager;
+
+	@Autowired
+	TaskMultiLoadRepositoryImpl(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<Task> findAllByIdInOrder(List<Long> ids) {
+		// cached tasks come from the entity region; the rest in one IN query; missing ids are dropped
+		return entityManager.unwrap(Session.class)
+				.byMultipleIds(Task.class)
+				.enableOrderedReturn(true)
+				.multiLoad(ids)
+				.stream()
+				.filter(Objects::nonNull)
+				.toList();
+	}
+}
@@ -0,0 +1,12 @@
+package com.todo.rails.elite.starter.code.repository;
+
+import com.todo.rails.elite.starter.code.model.Task;
+
+import java.util.Optional;
+
+/**
+ * Title lookups resolved through the natural-id cache instead of a derived query.
+ */
+public interface TaskNaturalIdRepository {
+	Optional<Task> findByTitle(String title);
+}
@@ -0,0 +1,28 @@
+package com.todo.rails.elite.starter.code.repository;
+
+import com.todo.rails.elite.starter.code.model.Task;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+class TaskNaturalIdRepositoryImpl implements TaskNaturalIdRepository {
+
+	private final EntityManager entityManager;
+
+	@Autowired
+	TaskNaturalIdRepositoryImpl(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<Task> findByTitle(String title) {
+		// title -> id comes from the natural-id region, the task itself from the entity region
+		return entityManager.unwrap(Session.class)
+				.bySimpleNaturalId(Task.class)
+				.loadOptional(title);
+	}
+}
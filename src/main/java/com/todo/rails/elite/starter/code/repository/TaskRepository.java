@@ -1,12 +1,147 @@
 package com.todo.rails.elite.starter.code.repository;
 
 import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.TaskCounts;
+import com.todo.rails.elite.starter.code.model.TaskStamp;
+import com.todo.rails.elite.starter.code.model.TaskState;
+import com.todo.rails.elite.starter.code.model.TaskSuggestion;
+import com.todo.rails.elite.starter.code.model.TaskSyncItem;
+import com.todo.rails.elite.starter.code.model.TaskText;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
-	Optional<Task> findByTitle(String title);
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskNaturalIdRepository, TaskMultiLoadRepository {
+
+	// served by idx_task_completed
+	List<Task> findByCompleted(boolean completed);
+
+	// served by idx_task_due_date; the flag is bound as a parameter so it stays sargable
+	List<Task> findByCompletedAndDueDate(boolean completed, LocalDate dueDate);
+
+	@Query("""
+			SELECT new com.todo.rails.elite.starter.code.model.TaskCounts(
+				COUNT(CASE WHEN t.completed = false AND t.dueDate = :today THEN 1 END),
+				COUNT(CASE WHEN t.completed = false THEN 1 END),
+				COUNT(CASE WHEN t.completed = true THEN 1 END),
+				(SELECT COALESCE(MAX(c.commits), 0) FROM TaskCommitCounter c))
+			FROM Task t
+			""")
+	TaskCounts countByStatus(@Param("today") LocalDate today);
+
+	Window<Task> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+	Window<Task> findByCompleted(boolean completed, ScrollPosition position, Sort sort, Limit limit);
+
+	Window<Task> findByCompletedAndDueDate(boolean completed, LocalDate dueDate, ScrollPosition position, Sort sort, Limit limit);
+
+	// due-date ranges: one range scan of idx_task_completed_due_date (or idx_task_due_date without the flag),
+	// read in (due_date, id) order, which InnoDB secondary indexes already are
+	Window<Task> findByCompletedAndDueDateBefore(
+			boolean completed, LocalDate before, ScrollPosition position, Sort sort, Limit limit
+	);
+
+	Window<Task> findByCompletedAndDueDateGreaterThanEqualAndDueDateBefore(
+			boolean completed, LocalDate from, LocalDate to, ScrollPosition position, Sort sort, Limit limit
+	);
+
+	Window<Task> findByDueDateGreaterThanEqualAndDueDateBefore(
+			LocalDate from, LocalDate to, ScrollPosition position, Sort sort, Limit limit
+	);
+
+	// one probe of the unique title index per batch instead of one findByTitle per row
+	@Query("SELECT t.title FROM Task t WHERE t.title IN :titles")
+	Set<String> findExistingTitles(@Param("titles") Collection<String> titles);
+
+	// search index rebuild: text only, read in id ranges that can be scanned in parallel
+	@Query("SELECT MIN(t.id) FROM Task t")
+	Long findMinId();
+
+	@Query("SELECT MAX(t.id) FROM Task t")
+	Long findMaxId();
+
+	@Query("""
+			SELECT new com.todo.rails.elite.starter.code.model.TaskText(t.id, t.title, t.description)
+			FROM Task t
+			WHERE t.id >= :from AND t.id < :to
+			""")
+	List<TaskText> findTextByIdRange(@Param("from") long from, @Param("to") long to);
+
+	// relayed changes: the current text of the tasks a relay batch names; deleted tasks are simply missing
+	@Query("SELECT new com.todo.rails.elite.starter.code.model.TaskText(t.id, t.title, t.description) FROM Task t WHERE t.id IN :ids")
+	List<TaskText> findTextByIds(@Param("ids") Collection<Long> ids);
+
+	// set-based bulk operations: one statement each, no entities loaded into the persistence context;
+	// updates bump the version and the write time themselves, as Hibernate does for an entity, taking the time
+	// from the application clock like @UpdateTimestamp so that sync watermarks compare writes from one clock
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("""
+			UPDATE Task t SET t.completed = true, t.version = t.version + 1, t.updatedAt = :updatedAt
+			WHERE t.completed = false AND t.dueDate < :today
+			""")
+	int completeOverdue(@Param("today") LocalDate today, @Param("updatedAt") Instant updatedAt);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("DELETE FROM Task t WHERE t.completed = true AND t.dueDate < :before")
+	int deleteCompletedDueBefore(@Param("before") LocalDate before);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("""
+			UPDATE Task t SET t.dueDate = t.dueDate + :days day, t.version = t.version + 1, t.updatedAt = :updatedAt
+			WHERE t.id IN :ids
+			""")
+	int shiftDueDates(
+			@Param("ids") Collection<Long> ids, @Param("days") long days, @Param("updatedAt") Instant updatedAt
+	);
+
+	// title suggestion index rebuild: the few columns a suggestion shows, no entities
+	@Query("""
+			SELECT new com.todo.rails.elite.starter.code.model.TaskSuggestion(t.id, t.title, t.completed, t.dueDate)
+			FROM Task t
+			""")
+	List<TaskSuggestion> findAllSuggestions();
+
+	@Query("""
+			SELECT new com.todo.rails.elite.starter.code.model.TaskSuggestion(t.id, t.title, t.completed, t.dueDate)
+			FROM Task t
+			WHERE t.id IN :ids
+			""")
+	List<TaskSuggestion> findSuggestionsByIds(@Param("ids") Collection<Long> ids);
+
+	// conditional GET: change stamps read without loading tasks
+	@Query("SELECT new com.todo.rails.elite.starter.code.model.TaskStamp(t.id, t.version, t.updatedAt) FROM Task t WHERE t.id = :id")
+	Optional<TaskStamp> findStampById(@Param("id") Long id);
+
+	// served by the unique title index
+	@Query("SELECT new com.todo.rails.elite.starter.code.model.TaskStamp(t.id, t.version, t.updatedAt) FROM Task t WHERE t.title = :title")
+	Optional<TaskStamp> findStampByTitle(@Param("title") String title);
+
+	// delta sync: one range scan of idx_task_updated_at from the watermark on, projected to what clients store
+	@Query("""
+			SELECT new com.todo.rails.elite.starter.code.model.TaskSyncItem(
+				t.id, t.title, t.description, t.completed, t.dueDate, t.version, t.updatedAt)
+			FROM Task t
+			WHERE t.updatedAt >= :after AND (t.updatedAt > :after OR t.id > :id)
+			ORDER BY t.updatedAt, t.id
+			""")
+	List<TaskSyncItem> findChangedAfter(@Param("after") Instant after, @Param("id") long id, Limit limit);
+
+	// what is stored, even when a managed instance of the task has already been changed in memory
+	@Query("SELECT new com.todo.rails.elite.starter.code.model.TaskState(t.completed, t.dueDate) FROM Task t WHERE t.id = :id")
+	Optional<TaskState> findStateById(@Param("id") Long id);
 }
@@ -0,0 +1,40 @@
+package com.todo.rails.elite.starter.code.repository;
+
+import com.todo.rails.elite.starter.code.model.TaskTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+	// delta sync: one range scan of idx_task_tombstone_deleted_at from the watermark on
+	@Query("""
+			SELECT d FROM TaskTombstone d
+			WHERE d.deletedAt >= :after AND (d.deletedAt > :after OR d.taskId > :id)
+			ORDER BY d.deletedAt, d.taskId
+			""")
+	List<TaskTombstone> findDeletedAfter(@Param("after") Instant after, @Param("id") long id, Limit limit);
+
+	// runs before the DELETE it describes, in the caller's transaction
+	@Modifying(flushAutomatically = true)
+	@Query("""
+			INSERT INTO TaskTombstone (taskId, deletedAt)
+			SELECT t.id, :deletedAt FROM Task t
+			WHERE t.completed = true AND t.dueDate < :before
+			""")
+	int recordCompletedDeletion(@Param("before") LocalDate before, @Param("deletedAt") Instant deletedAt);
+
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM TaskTombstone d WHERE d.deletedAt < :before")
+	int deleteDeletedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,12 @@
+package com.todo.rails.elite.starter.code.repository;
+
+import com.todo.rails.elite.starter.code.model.User;
+
+import java.util.Optional;
+
+/**
+ * Username lookups resolved through the natural-id cache instead of a derived query.
+ */
+public interface UserNaturalIdRepository {
+	Optional<User> findByUsername(String username);
+}
@@ -1,14 +1,32 @@
 package com.todo.rails.elite.starter.code.repository;
 
 import com.todo.rails.elite.starter.code.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-	Optional<User> findByUsername(String username);
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
 
+	// email is not the natural id, so its lookups go through the query cache (invalidated on any users write)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
 	Optional<User> findByEmail(String email);
+
+	// compare-and-set on the hash: a password changed since it was verified is left alone
+	@Transactional
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE User u SET u.password = :newHash WHERE u.username = :username AND u.password = :currentHash")
+	int updatePasswordIfUnchanged(
+			@Param("username") String username,
+			@Param("currentHash") String currentHash,
+			@Param("newHash") String newHash
+	);
 }
@@ -0,0 +1,206 @@
+package com.todo.rails.elite.starter.code.service;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import com.todo.rails.elite.starter.code.model.ConnectionPoolStatus;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the Hikari connection pool for starvation and leaks and serves its state on the
+ * {@code connectionpool} actuator endpoint.
+ *
+ * <p>Hikari itself publishes the {@code hikaricp.connections.*} metrics: active, idle and pending gauges, the
+ * {@code acquire} and {@code usage} timers and the {@code timeout} counter. Every monitor interval this service
+ * compares the acquire timer and timeout counter with the previous interval; if connections were handed out
+ * slower than the configured threshold on average, or any request gave up waiting, request threads were starved
+ * and a warning with the pool state is logged and counted in {@code connection.pool.starved}.</p>
+ *
+ * <p>Hikari reports leaks (connections borrowed for longer than {@code leak-detection-threshold}) only through
+ * its log, so those log events are also counted in {@code connection.pool.leaks}, tagged {@code detected} or
+ * {@code returned} when the connection finally comes back.</p>
+ */
+@Service
+@Endpoint(id = "connectionpool")
+public class ConnectionPoolMonitor implements DisposableBean {
+
+	private static final Logger log = LoggerFactory.getLogger(ConnectionPoolMonitor.class);
+
+	static final String LEAK_TASK_LOGGER = "com.zaxxer.hikari.pool.ProxyLeakTask";
+	private static final String ACQUIRE_METRIC = "hikaricp.connections.acquire";
+	private static final String TIMEOUT_METRIC = "hikaricp.connections.timeout";
+
+	private final HikariDataSource dataSource;
+	private final MeterRegistry registry;
+	private final long acquireWarnThresholdNanos;
+	private final Counter starved;
+	private final Counter leaksDetected;
+	private final Counter leaksReturned;
+	private final LeakReportAppender leakReportAppender;
+
+	// only touched by the scheduled check, which never runs concurrently with itself
+	private long previousAcquisitions;
+	private double previousAcquireNanos;
+	private long previousTimeouts;
+	private volatile Instant lastStarvedAt;
+
+	@Autowired
+	public ConnectionPoolMonitor(
+			HikariDataSource dataSource,
+			MeterRegistry registry,
+			@Value("${todo.datasource.monitor.acquire-warn-threshold:50ms}") Duration acquireWarnThreshold
+	) {
+		this.dataSource = dataSource;
+		this.registry = registry;
+		this.acquireWarnThresholdNanos = acquireWarnThreshold.toNanos();
+		this.starved = Counter.builder("connection.pool.starved").tag("pool", poolName()).register(registry);
+		this.leaksDetected = Counter.builder("connection.pool.leaks").tag("pool", poolName()).tag("state", "detected")
+				.register(registry);
+		this.leaksReturned = Counter.builder("connection.pool.leaks").tag("pool", poolName()).tag("state", "returned")
+				.register(registry);
+		this.leakReportAppender = new LeakReportAppender();
+		leakReportAppender.attach();
+	}
+
+	/**
+	 * Logs a warning when threads waited too long for connections, or timed out, since the previous check.
+	 */
+	@Scheduled(
+			initialDelayString = "${todo.datasource.monitor.interval:PT10S}",
+			fixedDelayString = "${todo.datasource.monitor.interval:PT10S}"
+	)
+	public void check() {
+		HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+		if (pool == null) {
+			return; // the pool starts with the first connection request
+		}
+		Timer acquire = acquireTimer();
+		long acquisitions = acquire == null ? 0 : acquire.count();
+		double acquireNanos = acquire == null ? 0 : acquire.totalTime(TimeUnit.NANOSECONDS);
+		long timeouts = timeouts();
+
+		long intervalAcquisitions = acquisitions - previousAcquisitions;
+		double intervalMeanNanos = intervalAcquisitions > 0
+				? (acquireNanos - previousAcquireNanos) / intervalAcquisitions
+				: 0;
+		long intervalTimeouts = timeouts - previousTimeouts;
+		previousAcquisitions = acquisitions;
+		previousAcquireNanos = acquireNanos;
+		previousTimeouts = timeouts;
+
+		if (intervalTimeouts > 0 || intervalMeanNanos >= acquireWarnThresholdNanos) {
+			starved.increment();
+			lastStarvedAt = Instant.now();
+			log.warn(
+					"Connection pool {} is starving request threads: {} connections waited {} ms on average, "
+							+ "{} requests timed out (active={}, idle={}, pending={}, max={})",
+					poolName(),
+					intervalAcquisitions,
+					String.format("%.1f", intervalMeanNanos / 1_000_000),
+					intervalTimeouts,
+					pool.getActiveConnections(),
+					pool.getIdleConnections(),
+					pool.getThreadsAwaitingConnection(),
+					dataSource.getMaximumPoolSize()
+			);
+		}
+	}
+
+	/**
+	 * Returns the current state of the pool and the monitor's counters.
+	 *
+	 * @return The pool status; connection counts are 0 until the pool has started.
+	 */
+	@ReadOperation
+	public ConnectionPoolStatus status() {
+		HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+		Timer acquire = acquireTimer();
+		long detected = (long) leaksDetected.count();
+		return new ConnectionPoolStatus(
+				poolName(),
+				pool == null ? 0 : pool.getActiveConnections(),
+				pool == null ? 0 : pool.getIdleConnections(),
+				pool == null ? 0 : pool.getThreadsAwaitingConnection(),
+				dataSource.getMaximumPoolSize(),
+				dataSource.getMinimumIdle(),
+				dataSource.getConnectionTimeout(),
+				dataSource.getLeakDetectionThreshold(),
+				acquire == null ? 0 : acquire.count(),
+				acquire == null ? 0 : acquire.mean(TimeUnit.MILLISECONDS),
+				acquire == null ? 0 : acquire.max(TimeUnit.MILLISECONDS),
+				timeouts(),
+				detected,
+				Math.max(0, detected - (long) leaksReturned.count()),
+				(long) starved.count(),
+				lastStarvedAt
+		);
+	}
+
+	@Override
+	public void destroy() {
+		leakReportAppender.detach();
+	}
+
+	private String poolName() {
+		return dataSource.getPoolName() == null ? "default" : dataSource.getPoolName();
+	}
+
+	private Timer acquireTimer() {
+		return registry.find(ACQUIRE_METRIC).tag("pool", poolName()).timer();
+	}
+
+	private long timeouts() {
+		Counter timeouts = registry.find(TIMEOUT_METRIC).tag("pool", poolName()).counter();
+		return timeouts == null ? 0 : (long) timeouts.count();
+	}
+
+	/**
+	 * Counts the leak reports Hikari logs; it has no other hook for them.
+	 */
+	private final class LeakReportAppender extends AppenderBase<ILoggingEvent> {
+
+		private final ch.qos.logback.classic.Logger logger =
+				(ch.qos.logback.classic.Logger) LoggerFactory.getLogger(LEAK_TASK_LOGGER);
+
+		void attach() {
+			setContext(logger.getLoggerContext());
+			setName("connection-pool-leaks");
+			start();
+			logger.addAppender(this);
+		}
+
+		void detach() {
+			logger.detachAppender(this);
+			stop();
+		}
+
+		@Override
+		protected void append(ILoggingEvent event) {
+			String message = event.getMessage();
+			if (message == null) {
+				return;
+			}
+			if (message.startsWith("Connection leak detection triggered")) {
+				leaksDetected.increment();
+			} else if (message.startsWith("Previously reported leaked connection")) {
+				leaksReturned.increment();
+			}
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.DashboardSnapshot;
+import com.todo.rails.elite.starter.code.model.TaskCounts;
+import com.todo.rails.elite.starter.code.model.TaskFilter;
+import com.todo.rails.elite.starter.code.model.TaskPage;
+import com.todo.rails.elite.starter.code.model.TaskSort;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Service layer that assembles the dashboard view.
+ * All counters come from one aggregate query and each task list is loaded once,
+ * so rendering the dashboard costs three statements regardless of how it is displayed.
+ * Each list is only the first keyset page: {@code todo.dashboard.today-limit} tasks due today and
+ * {@code todo.dashboard.pending-limit} pending tasks. The rest is paged through {@code GET /api/tasks?status=today}
+ * and {@code GET /api/tasks?status=pending} from the cursors in the snapshot.
+ */
+@Service
+public class DashboardService {
+
+	private static final Logger log = LoggerFactory.getLogger(DashboardService.class);
+	private final TaskRepository taskRepository;
+	private final TaskService taskService;
+	private final int todayLimit;
+	private final int pendingLimit;
+
+	/**
+	 * Constructs a DashboardService with the necessary dependencies.
+	 *
+	 * @param taskRepository The repository for task data access.
+	 * @param taskService    The service the task pages are read through.
+	 * @param todayLimit     Tasks due today shown on the dashboard, clamped to [1, {@value TaskService#MAX_PAGE_LIMIT}].
+	 * @param pendingLimit   Pending tasks shown on the dashboard, clamped to [1, {@value TaskService#MAX_PAGE_LIMIT}].
+	 */
+	@Autowired
+	public DashboardService(
+			TaskRepository taskRepository,
+			TaskService taskService,
+			@Value("${todo.dashboard.today-limit:50}") int todayLimit,
+			@Value("${todo.dashboard.pending-limit:50}") int pendingLimit
+	) {
+		this.taskRepository = taskRepository;
+		this.taskService = taskService;
+		this.todayLimit = todayLimit;
+		this.pendingLimit = pendingLimit;
+	}
+
+	/**
+	 * Builds a snapshot of the dashboard counters and task lists.
+	 * The statements run in one read-only transaction so the counters and lists agree with each other.
+	 *
+	 * @return The dashboard snapshot for today's date.
+	 */
+	@Transactional(readOnly = true)
+	public DashboardSnapshot getSnapshot() {
+		LocalDate today = LocalDate.now();
+		log.debug("Building dashboard snapshot for {}", today);
+		TaskCounts counts = taskRepository.countByStatus(today);
+		TaskPage todayPage = taskService.getTaskPage(TaskFilter.TODAY, TaskSort.ID, null, todayLimit);
+		TaskPage pendingPage = taskService.getTaskPage(TaskFilter.PENDING, TaskSort.ID, null, pendingLimit);
+		return new DashboardSnapshot(
+				counts.pendingToday(),
+				counts.pending(),
+				counts.completed(),
+				todayPage.items(),
+				todayPage.next(),
+				pendingPage.items(),
+				pendingPage.next()
+		);
+	}
+}
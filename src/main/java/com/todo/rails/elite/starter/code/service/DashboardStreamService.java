@@ -0,0 +1,441 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.rails.elite.starter.code.model.DashboardCounters;
+import com.todo.rails.elite.starter.code.model.TaskBulkChangedEvent;
+import com.todo.rails.elite.starter.code.model.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.model.TaskCounts;
+import com.todo.rails.elite.starter.code.model.TasksImportedEvent;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes dashboard counter changes and task changes to open dashboards as Server-Sent Events.
+ *
+ * <p>A subscriber first receives a {@code snapshot} event with the current counters. Afterwards every committed
+ * {@link TaskChangedEvent} is forwarded as a {@code task} event and, if it moved a task between counters, preceded
+ * by a {@code counters} event holding the difference, computed from the event alone. Counters are read together with
+ * the commit counter of {@link TaskCommitService}, and a difference is only added if its transaction committed after
+ * that reading, so a change that commits just before a reading is not counted twice. A
+ * {@link TaskBulkChangedEvent} carries no per-task detail, so the counters are re-read with one aggregate query
+ * and a {@code bulk} event tells clients to reload their task lists. An import batch arrives as one
+ * {@link TasksImportedEvent} and is sent as one {@code counters} event summing its rows and one {@code bulk} event,
+ * so an import sends a few frames per batch rather than two per row. The same re-read runs every heartbeat
+ * interval while anyone is subscribed, correcting the counters after midnight or after changes made through
+ * other instances; when nothing changed a comment line keeps idle connections open instead.</p>
+ *
+ * <p>Each event is serialized and encoded once and the same bytes are queued for every subscriber. Every subscriber
+ * has its own bounded queue, written in order by a background thread while it holds frames; writes to an emitter
+ * block while its client is slow, so a slow client only holds up its own queue. A subscriber whose queue overflows
+ * is disconnected on its own; its {@code EventSource} reconnects and starts again from a fresh snapshot. Counters are
+ * only tracked while at least one dashboard is open. The number of subscribers is published as the
+ * {@code todo.dashboard.stream.subscribers} gauge and disconnected slow subscribers are counted in
+ * {@code todo.dashboard.stream.overflows}.</p>
+ */
+@Service
+@Timed("todo.service")
+public class DashboardStreamService implements DisposableBean {
+
+	private static final Logger log = LoggerFactory.getLogger(DashboardStreamService.class);
+	private static final Set<DataWithMediaType> HEARTBEAT = Set.of(
+			new DataWithMediaType(":\n\n".getBytes(StandardCharsets.UTF_8), MediaType.TEXT_EVENT_STREAM)
+	);
+	private static final Subscriber[] NO_SUBSCRIBERS = new Subscriber[0];
+
+	private final TaskRepository taskRepository;
+	private final TaskCommitService taskCommitService;
+	private final ObjectMapper objectMapper;
+	private final long timeoutMillis;
+	private final int maxSubscribers;
+	private final int queueCapacity;
+	private final ThreadPoolExecutor sender;
+	private final Counter overflows;
+
+	// guards the subscribers and counters, and orders events so every subscriber sees them as they were applied
+	private final Lock lock = new ReentrantLock();
+	private volatile Subscriber[] subscribers = NO_SUBSCRIBERS;
+	private DashboardCounters counters;
+	private LocalDate countedFor;
+	// the commit counter the counters were last read at; later commits are added as differences
+	private long countedAt;
+
+	@Autowired
+	public DashboardStreamService(
+			TaskRepository taskRepository,
+			TaskCommitService taskCommitService,
+			ObjectMapper objectMapper,
+			@Value("${todo.dashboard.stream.timeout:30m}") Duration timeout,
+			@Value("${todo.dashboard.stream.max-subscribers:1000}") int maxSubscribers,
+			@Value("${todo.dashboard.stream.queue-capacity:1024}") int queueCapacity,
+			MeterRegistry registry
+	) {
+		this.taskRepository = taskRepository;
+		this.taskCommitService = taskCommitService;
+		this.objectMapper = objectMapper;
+		this.timeoutMillis = timeout.toMillis();
+		this.maxSubscribers = maxSubscribers;
+		this.queueCapacity = queueCapacity;
+		// each subscriber has at most one task queued or running, so the queue stays below max-subscribers and
+		// idle threads go away. Platform rather than virtual threads, since emitters block inside synchronized methods.
+		this.sender = new ThreadPoolExecutor(
+				maxSubscribers,
+				maxSubscribers,
+				60L,
+				TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(),
+				Thread.ofPlatform().name("dashboard-stream-", 0).daemon(true).factory(),
+				new ThreadPoolExecutor.AbortPolicy()
+		);
+		this.sender.allowCoreThreadTimeOut(true);
+		Gauge.builder("todo.dashboard.stream.subscribers", this, service -> service.subscribers.length)
+				.description("Open dashboard event streams")
+				.register(registry);
+		this.overflows = Counter.builder("todo.dashboard.stream.overflows")
+				.description("Dashboard streams dropped because their client could not keep up with the events")
+				.register(registry);
+	}
+
+	/**
+	 * Opens a stream for one dashboard, starting with a snapshot of the counters.
+	 *
+	 * @return The emitter to return from the request handler.
+	 * @throws IllegalStateException if the maximum number of subscribers is reached.
+	 */
+	public SseEmitter subscribe() throws IllegalStateException {
+		SseEmitter emitter = new SseEmitter(timeoutMillis);
+		Subscriber subscriber = new Subscriber(emitter);
+		lock.lock();
+		try {
+			if (subscribers.length >= maxSubscribers) {
+				throw new IllegalStateException("Dashboard stream is at its limit of " + maxSubscribers + " subscribers");
+			}
+			LocalDate today = LocalDate.now();
+			if (counters == null || !today.equals(countedFor)) {
+				count(today);
+			}
+			subscribers = append(subscribers, subscriber);
+			dispatch(frame("snapshot", counters), new Subscriber[]{subscriber});
+		} finally {
+			lock.unlock();
+		}
+		emitter.onTimeout(emitter::complete);
+		emitter.onError(error -> unsubscribe(emitter));
+		emitter.onCompletion(() -> unsubscribe(emitter));
+		log.debug("Dashboard stream subscribed; {} open", subscribers.length);
+		return emitter;
+	}
+
+	/**
+	 * Forwards a change of a single task once its transaction commits, with the counter difference it makes.
+	 *
+	 * @param event The change.
+	 * @throws IllegalStateException if no transaction is active.
+	 */
+	@EventListener
+	public void onTaskChanged(TaskChangedEvent event) throws IllegalStateException {
+		// also without subscribers: one may subscribe, and read the counters, before this transaction commits
+		taskCommitService.afterCommit(commit -> taskChanged(event, commit));
+	}
+
+	/**
+	 * Forwards an import batch once its transaction commits, as the sum of its counter differences and one reload.
+	 *
+	 * @param event The batch.
+	 * @throws IllegalStateException if no transaction is active.
+	 */
+	@EventListener
+	public void onTasksImported(TasksImportedEvent event) throws IllegalStateException {
+		taskCommitService.afterCommit(commit -> tasksImported(event, commit));
+	}
+
+	private void taskChanged(TaskChangedEvent event, long commit) {
+		lock.lock();
+		try {
+			if (subscribers.length == 0) {
+				return;
+			}
+			LocalDate today = LocalDate.now();
+			if (today.equals(countedFor)) {
+				DashboardCounters delta = commit > countedAt ? DashboardCounters.delta(event, today) : DashboardCounters.ZERO;
+				if (!delta.equals(DashboardCounters.ZERO)) {
+					counters = counters.plus(delta);
+					broadcast("counters", delta);
+				}
+			} else {
+				resync(today);
+			}
+			broadcast("task", event);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void tasksImported(TasksImportedEvent event, long commit) {
+		lock.lock();
+		try {
+			if (subscribers.length == 0) {
+				return;
+			}
+			LocalDate today = LocalDate.now();
+			if (today.equals(countedFor)) {
+				DashboardCounters delta = DashboardCounters.ZERO;
+				// a reading taken after this commit already counts the batch
+				if (commit > countedAt) {
+					for (TaskChangedEvent change : event.changes()) {
+						delta = delta.plus(DashboardCounters.delta(change, today));
+					}
+				}
+				if (!delta.equals(DashboardCounters.ZERO)) {
+					counters = counters.plus(delta);
+					broadcast("counters", delta);
+				}
+			} else {
+				resync(today);
+			}
+			broadcast("bulk", new TaskBulkChangedEvent(TaskBulkChangedEvent.Type.IMPORTED, event.changes().size()));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Re-reads the counters after a committed bulk statement and tells clients to reload their lists.
+	 *
+	 * @param event The change.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onTasksChangedInBulk(TaskBulkChangedEvent event) {
+		lock.lock();
+		try {
+			if (subscribers.length == 0) {
+				return;
+			}
+			resync(LocalDate.now());
+			broadcast("bulk", event);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Corrects the counters from the table while anyone is subscribed, or keeps the connections alive.
+	 */
+	@Scheduled(
+			initialDelayString = "${todo.dashboard.stream.heartbeat-interval:PT30S}",
+			fixedDelayString = "${todo.dashboard.stream.heartbeat-interval:PT30S}"
+	)
+	public void heartbeat() {
+		lock.lock();
+		try {
+			if (subscribers.length == 0) {
+				return;
+			}
+			if (!resync(LocalDate.now())) {
+				dispatch(HEARTBEAT, subscribers);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void destroy() {
+		for (Subscriber subscriber : subscribers) {
+			subscriber.emitter.complete();
+		}
+		sender.shutdownNow();
+	}
+
+	// caller holds the lock; one statement reads the counters and the commit they include
+	private void count(LocalDate today) {
+		TaskCounts counts = taskRepository.countByStatus(today);
+		counters = DashboardCounters.of(counts);
+		countedFor = today;
+		countedAt = counts.commits();
+	}
+
+	// caller holds the lock; returns whether a counters event was sent
+	private boolean resync(LocalDate today) {
+		DashboardCounters previous = counters;
+		count(today);
+		DashboardCounters delta = counters.minus(previous);
+		if (delta.equals(DashboardCounters.ZERO)) {
+			return false;
+		}
+		broadcast("counters", delta);
+		return true;
+	}
+
+	private void unsubscribe(SseEmitter emitter) {
+		lock.lock();
+		try {
+			for (Subscriber subscriber : subscribers) {
+				if (subscriber.emitter == emitter) {
+					remove(subscriber);
+					return;
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// caller holds the lock
+	private void remove(Subscriber subscriber) {
+		Subscriber[] current = subscribers;
+		int index = Arrays.asList(current).indexOf(subscriber);
+		if (index < 0) {
+			return;
+		}
+		Subscriber[] remaining = new Subscriber[current.length - 1];
+		System.arraycopy(current, 0, remaining, 0, index);
+		System.arraycopy(current, index + 1, remaining, index, remaining.length - index);
+		subscribers = remaining;
+		if (remaining.length == 0) {
+			// nobody is watching; the next subscriber reads the counters afresh
+			counters = null;
+			countedFor = null;
+		}
+	}
+
+	// caller holds the lock, so frames are queued in the order their changes were applied
+	private void broadcast(String event, Object data) {
+		dispatch(frame(event, data), subscribers);
+	}
+
+	// caller holds the lock
+	private void dispatch(Set<DataWithMediaType> frame, Subscriber[] targets) {
+		for (Subscriber subscriber : targets) {
+			if (!subscriber.offer(frame)) {
+				log.warn("Dashboard stream subscriber cannot keep up; disconnecting it");
+				overflows.increment();
+				remove(subscriber);
+				subscriber.drop();
+			}
+		}
+	}
+
+	// the whole event, encoded once and shared by every subscriber
+	private Set<DataWithMediaType> frame(String event, Object data) {
+		try {
+			String text = "event: " + event + "\ndata: " + objectMapper.writeValueAsString(data) + "\n\n";
+			return Set.of(new DataWithMediaType(text.getBytes(StandardCharsets.UTF_8), MediaType.TEXT_EVENT_STREAM));
+		} catch (JsonProcessingException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	private static Subscriber[] append(Subscriber[] current, Subscriber subscriber) {
+		Subscriber[] extended = Arrays.copyOf(current, current.length + 1);
+		extended[current.length] = subscriber;
+		return extended;
+	}
+
+	// one open stream: its own queue of frames, written by at most one sender thread at a time
+	private final class Subscriber implements Runnable {
+
+		private final SseEmitter emitter;
+		private final BlockingQueue<Set<DataWithMediaType>> frames = new ArrayBlockingQueue<>(queueCapacity);
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+		private volatile boolean dropped;
+
+		private Subscriber(SseEmitter emitter) {
+			this.emitter = emitter;
+		}
+
+		// returns false if the queue is full, or the service is shutting down
+		private boolean offer(Set<DataWithMediaType> frame) {
+			if (dropped) {
+				// on its way out already; its callbacks unsubscribe it
+				return true;
+			}
+			if (!frames.offer(frame)) {
+				return false;
+			}
+			try {
+				schedule();
+				return true;
+			} catch (RejectedExecutionException exception) {
+				return false;
+			}
+		}
+
+		// completing the emitter waits for a write in progress, so the sender thread does it once that returns
+		private void drop() {
+			dropped = true;
+			frames.clear();
+			try {
+				schedule();
+			} catch (RejectedExecutionException exception) {
+				emitter.complete();
+			}
+		}
+
+		private void schedule() throws RejectedExecutionException {
+			if (scheduled.compareAndSet(false, true)) {
+				try {
+					sender.execute(this);
+				} catch (RejectedExecutionException exception) {
+					scheduled.set(false);
+					throw exception;
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			do {
+				for (Set<DataWithMediaType> frame = frames.poll(); frame != null && !dropped; frame = frames.poll()) {
+					try {
+						emitter.send(frame);
+					} catch (IOException | IllegalStateException exception) {
+						// the client went away or the emitter already completed; its callbacks unsubscribe it
+						dropped = true;
+						frames.clear();
+						emitter.completeWithError(exception);
+						return;
+					}
+				}
+				if (dropped) {
+					emitter.complete();
+					return;
+				}
+				scheduled.set(false);
+				// a frame queued after the last poll but before the flag was cleared found it still set
+			} while (!frames.isEmpty() && scheduled.compareAndSet(false, true));
+		}
+	}
+}
@@ -0,0 +1,160 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.User;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import com.todo.rails.elite.starter.code.repository.UserRepository;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.SpecHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills an empty database with a synthetic dataset when the {@code loadtest} profile is active.
+ *
+ * <p>Users are named {@code user-0} to {@code user-(N-1)}, all with the password
+ * {@code todo.loadtest.seed.password}; {@code user-0} is also an administrator. The password is hashed once
+ * at the configured cost and shared, so logins cost the same as in production without hashing N times at
+ * startup. Tasks follow a fixed, seeded distribution of due dates: a quarter completed in the past half year,
+ * about a tenth overdue, a few due today and the rest due in the coming weeks, most of them soon. Tasks are
+ * persisted in JDBC batches like an import; the database is left untouched if it already has data.</p>
+ */
+@Service
+@Profile("loadtest")
+public class LoadTestDataSeeder implements ApplicationRunner {
+
+	private static final Logger log = LoggerFactory.getLogger(LoadTestDataSeeder.class);
+
+	private static final String[] VERBS = {"Review", "Write", "Fix", "Plan", "Call", "Email", "Update", "Prepare"};
+	private static final String[] SUBJECTS = {
+			"quarterly report", "release notes", "login page", "team meeting", "supplier", "budget",
+			"onboarding guide", "database backup", "client proposal", "test plan"
+	};
+
+	private final TaskRepository taskRepository;
+	private final UserRepository userRepository;
+	private final EntityManager entityManager;
+	private final TransactionTemplate transactionTemplate;
+	private final PasswordEncoder passwordEncoder;
+	private final int users;
+	private final int tasks;
+	private final long randomSeed;
+	private final String password;
+	private final int batchSize;
+
+	@Autowired
+	public LoadTestDataSeeder(
+			TaskRepository taskRepository,
+			UserRepository userRepository,
+			EntityManager entityManager,
+			PlatformTransactionManager transactionManager,
+			PasswordEncoder passwordEncoder,
+			@Value("${todo.loadtest.seed.users:1000}") int users,
+			@Value("${todo.loadtest.seed.tasks:100000}") int tasks,
+			@Value("${todo.loadtest.seed.random-seed:42}") long randomSeed,
+			@Value("${todo.loadtest.seed.password:loadtest}") String password,
+			@Value("${todo.tasks.import.batch-size:500}") int batchSize
+	) {
+		this.taskRepository = taskRepository;
+		this.userRepository = userRepository;
+		this.entityManager = entityManager;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.passwordEncoder = passwordEncoder;
+		this.users = users;
+		this.tasks = tasks;
+		this.randomSeed = randomSeed;
+		this.password = password;
+		this.batchSize = batchSize;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		seed();
+	}
+
+	/**
+	 * Generates and stores the dataset, unless users or tasks already exist.
+	 */
+	public void seed() {
+		if (userRepository.count() > 0 || taskRepository.count() > 0) {
+			log.info("Database already has data; skipping load-test seeding");
+			return;
+		}
+		long started = System.nanoTime();
+		String passwordHash = passwordEncoder.encode(password);
+		List<User> generatedUsers = new ArrayList<>(users);
+		for (int index = 0; index < users; index++) {
+			generatedUsers.add(new User(
+					"user-" + index, passwordHash, "user-" + index + "@loadtest.local", index == 0 ? "USER, ADMIN" : "USER"
+			));
+		}
+		userRepository.saveAll(generatedUsers);
+
+		Random random = new Random(randomSeed);
+		LocalDate today = LocalDate.now();
+		List<Task> batch = new ArrayList<>(batchSize);
+		for (int index = 0; index < tasks; index++) {
+			batch.add(generateTask(index, random, today));
+			if (batch.size() == batchSize) {
+				persist(batch);
+			}
+		}
+		persist(batch);
+		log.info("Seeded {} users and {} tasks in {} ms", users, tasks, (System.nanoTime() - started) / 1_000_000);
+	}
+
+	/**
+	 * Generates one synthetic task.
+	 *
+	 * @param index  Position of the task in the dataset, which makes its title unique.
+	 * @param random Source of randomness; the same seed yields the same dataset.
+	 * @param today  The date due dates are spread around.
+	 * @return A new, unsaved task.
+	 */
+	static Task generateTask(int index, Random random, LocalDate today) {
+		String title = VERBS[random.nextInt(VERBS.length)] + " " + SUBJECTS[random.nextInt(SUBJECTS.length)]
+				+ " #" + index;
+		String description = "Synthetic load-test task " + index;
+		double kind = random.nextDouble();
+		if (kind < 0.25) {
+			return new Task(title, description, true, today.minusDays(random.nextInt(181)));
+		}
+		if (kind < 0.35) {
+			return new Task(title, description, false, today.minusDays(1 + random.nextInt(30)));
+		}
+		if (kind < 0.38) {
+			return new Task(title, description, false, today);
+		}
+		// upcoming work clusters in the next days and thins out over the year (mean two weeks)
+		long daysAhead = 1 + Math.min(364, (long) (-14 * Math.log(1 - random.nextDouble())));
+		return new Task(title, description, false, today.plusDays(daysAhead));
+	}
+
+	private void persist(List<Task> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		transactionTemplate.executeWithoutResult(status -> {
+			entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+			batch.forEach(entityManager::persist);
+			entityManager.flush();
+			entityManager.clear();
+		});
+		batch.clear();
+	}
+}
@@ -0,0 +1,121 @@
+package com.todo.rails.elite.starter.code.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Holder of an in-memory index that follows committed changes and can be rebuilt from the tasks table.
+ *
+ * <p>Only one rebuild runs at a time, and the current index keeps answering until the new one is complete. Changes
+ * that arrive while a rebuild reads the table are applied to the current index and also recorded; once the new
+ * index is loaded they are replayed onto it before it replaces the current one, under the lock changes take. A
+ * change therefore reaches the new index whether the rebuild read its row before or after it committed, as long as
+ * applying a change twice leaves the index as applying it once.</p>
+ *
+ * @param <T> The type of index, which must be safe for concurrent reads and changes.
+ */
+final class RebuildableIndex<T> {
+
+	/**
+	 * Loads a new index from the table.
+	 *
+	 * @param <T> The type of index.
+	 * @param <E> The exception loading may throw.
+	 */
+	@FunctionalInterface
+	interface Loader<T, E extends Exception> {
+
+		T load() throws E;
+	}
+
+	// one rebuild at a time; lock orders the hand-over between a rebuild and concurrent changes
+	private final Lock rebuildLock = new ReentrantLock();
+	private final Lock lock = new ReentrantLock();
+
+	private volatile T current;
+	private volatile boolean ready;
+	// changes committed while a rebuild reads the table, replayed onto the new index; guarded by lock
+	private List<Consumer<T>> changesDuringRebuild;
+
+	/**
+	 * @param empty The index to answer with, and apply changes to, until the first rebuild completes.
+	 */
+	RebuildableIndex(T empty) {
+		this.current = empty;
+	}
+
+	/**
+	 * @return The index to answer from.
+	 */
+	T current() {
+		return current;
+	}
+
+	/**
+	 * @return Whether a rebuild has completed, so the current index holds every task.
+	 */
+	boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * Applies a change to the current index, and to the one being rebuilt once it is complete.
+	 *
+	 * @param change The change.
+	 */
+	void update(Consumer<T> change) {
+		lock.lock();
+		try {
+			if (changesDuringRebuild != null) {
+				changesDuringRebuild.add(change);
+			}
+			change.accept(current);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Loads a new index and makes it current with the changes that arrived meanwhile; waits for a running rebuild.
+	 *
+	 * @param loader Loads the new index.
+	 * @param <E>    The exception loading may throw.
+	 * @return The new index.
+	 * @throws E if loading failed; the current index is kept.
+	 */
+	<E extends Exception> T rebuild(Loader<T, E> loader) throws E {
+		rebuildLock.lock();
+		try {
+			lock.lock();
+			try {
+				changesDuringRebuild = new ArrayList<>();
+			} finally {
+				lock.unlock();
+			}
+			try {
+				T rebuilt = loader.load();
+				lock.lock();
+				try {
+					changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+					current = rebuilt;
+					ready = true;
+				} finally {
+					lock.unlock();
+				}
+				return rebuilt;
+			} finally {
+				lock.lock();
+				try {
+					changesDuringRebuild = null;
+				} finally {
+					lock.unlock();
+				}
+			}
+		} finally {
+			rebuildLock.unlock();
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.TaskChange;
+import com.todo.rails.elite.starter.code.model.TaskCommitCounter;
+import com.todo.rails.elite.starter.code.repository.TaskChangeRepository;
+import com.todo.rails.elite.starter.code.repository.TaskCommitCounterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongConsumer;
+
+/**
+ * Service layer for the commit counter of the tasks table.
+ *
+ * <p>Every transaction that changes tasks enlists here, and right before it commits it increments the single
+ * {@link TaskCommitCounter} row. The row stays locked until the commit, so concurrent writers increment it one after
+ * the other in the order they commit: the counter moves with every commit, unlike auto-increment ids or write times,
+ * which are taken when a row is written and can become visible out of order. The increment runs after everything
+ * else the transaction writes, so a transaction waiting for the counter never holds it while waiting for a row.</p>
+ *
+ * <p>The new value is also the commit number of the transaction's {@link TaskChange} rows: they are written with a
+ * pending, negative number unique to the transaction, and replaced with the commit number while the counter is
+ * still locked. Outbox readers therefore see commit numbers appear strictly in order and never wait on a gap.</p>
+ *
+ * <p>Listeners that combine a reading of the table with the changes committed after it can ask for the commit number
+ * of the transaction that made a change, and compare it with the counter value read alongside the table.</p>
+ */
+@Service
+public class TaskCommitService {
+
+	private static final Logger log = LoggerFactory.getLogger(TaskCommitService.class);
+
+	private final TaskCommitCounterRepository taskCommitCounterRepository;
+	private final TaskChangeRepository taskChangeRepository;
+
+	/**
+	 * Constructs a TaskCommitService.
+	 *
+	 * @param taskCommitCounterRepository The repository of the counter row.
+	 * @param taskChangeRepository        The outbox whose rows are numbered with their commit.
+	 */
+	@Autowired
+	public TaskCommitService(
+			TaskCommitCounterRepository taskCommitCounterRepository,
+			TaskChangeRepository taskChangeRepository
+	) {
+		this.taskCommitCounterRepository = taskCommitCounterRepository;
+		this.taskChangeRepository = taskChangeRepository;
+	}
+
+	/**
+	 * Counts the current transaction as one that changes tasks; enlisting again in the same transaction is a no-op.
+	 *
+	 * @return The pending commit number to write the transaction's outbox rows with.
+	 * @throws IllegalStateException if no transaction is active.
+	 */
+	public long enlist() throws IllegalStateException {
+		return enlistment().pendingCommit;
+	}
+
+	/**
+	 * Runs an action once the current transaction has committed, enlisting the transaction if it has not yet.
+	 * Actions run in the order they were added; one that fails is logged and does not affect the others.
+	 *
+	 * @param action Receives the commit number of the transaction.
+	 * @throws IllegalStateException if no transaction is active.
+	 */
+	public void afterCommit(LongConsumer action) throws IllegalStateException {
+		enlistment().actions.add(action);
+	}
+
+	private Enlistment enlistment() throws IllegalStateException {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			throw new IllegalStateException("Tasks can only be changed within a transaction");
+		}
+		// synchronizations are suspended with their transaction, so a nested REQUIRES_NEW transaction enlists anew
+		for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			if (synchronization instanceof Enlistment enlistment) {
+				return enlistment;
+			}
+		}
+		// random rather than sequential, since transactions on other instances hand out pending numbers too
+		Enlistment enlistment = new Enlistment(ThreadLocalRandom.current().nextLong(Long.MIN_VALUE, 0));
+		TransactionSynchronizationManager.registerSynchronization(enlistment);
+		return enlistment;
+	}
+
+	private long commit(long pendingCommit) {
+		long commit;
+		// schema.sql and the migrations create the row; a schema created by Hibernate gets it on its first commit
+		if (taskCommitCounterRepository.increment() == 0) {
+			commit = taskCommitCounterRepository.save(new TaskCommitCounter(1)).getCommits();
+		} else {
+			commit = taskCommitCounterRepository.findCommits();
+		}
+		taskChangeRepository.assignCommit(pendingCommit, commit);
+		return commit;
+	}
+
+	private final class Enlistment implements TransactionSynchronization {
+
+		private final long pendingCommit;
+		private final List<LongConsumer> actions = new ArrayList<>();
+		private long commit;
+
+		private Enlistment(long pendingCommit) {
+			this.pendingCommit = pendingCommit;
+		}
+
+		@Override
+		public void beforeCommit(boolean readOnly) {
+			commit = commit(pendingCommit);
+		}
+
+		@Override
+		public void afterCommit() {
+			for (LongConsumer action : actions) {
+				try {
+					action.accept(commit);
+				} catch (RuntimeException exception) {
+					// the transaction is committed already; its caller should not see a listener's failure
+					log.error("After-commit action of commit {} failed", commit, exception);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package com.todo.rails.elite.starter.code.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: quoted fields may contain commas, doubled quotes and line breaks.
+ * Records are read one at a time so arbitrarily large uploads never need to fit in memory.
+ */
+class TaskCsvReader {
+
+	private final Reader reader;
+	private int pending = -2;
+
+	TaskCsvReader(Reader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * @return The fields of the next record, or null at end of input.
+	 * @throws IOException if reading fails or a quoted field is not terminated.
+	 */
+	List<String> readRecord() throws IOException {
+		int c = next();
+		if (c == -1) {
+			return null;
+		}
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		while (true) {
+			if (quoted) {
+				if (c == -1) {
+					throw new IOException("Unterminated quoted field");
+				}
+				if (c == '"') {
+					int following = next();
+					if (following == '"') {
+						field.append('"');
+					} else {
+						quoted = false;
+						c = following;
+						continue;
+					}
+				} else {
+					field.append((char) c);
+				}
+			} else if (c == '"' && field.isEmpty()) {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else if (c == '\r' || c == '\n' || c == -1) {
+				if (c == '\r') {
+					int following = next();
+					if (following != '\n') {
+						pending = following;
+					}
+				}
+				fields.add(field.toString());
+				return fields;
+			} else {
+				field.append((char) c);
+			}
+			c = next();
+		}
+	}
+
+	private int next() throws IOException {
+		if (pending != -2) {
+			int c = pending;
+			pending = -2;
+			return c;
+		}
+		return reader.read();
+	}
+}
@@ -0,0 +1,162 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.TaskExportFormat;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service layer for exporting the whole tasks table.
+ * Rows are read through a forward-only JDBC cursor and written out one at a time,
+ * so heap usage stays flat regardless of how many tasks exist.
+ */
+@Service
+public class TaskExportService {
+
+	private static final Logger log = LoggerFactory.getLogger(TaskExportService.class);
+	private static final String CSV_HEADER = "id,title,description,completed,dueDate";
+
+	private final EntityManager entityManager;
+	private final TransactionTemplate readOnlyTransaction;
+	private final ObjectMapper objectMapper;
+	private final int fetchSize;
+
+	/**
+	 * Constructs a TaskExportService.
+	 *
+	 * @param entityManager      The shared entity manager used to open the streaming query.
+	 * @param transactionManager The transaction manager used to hold the cursor open while streaming.
+	 * @param objectMapper       The mapper used for NDJSON rows, so exports match the REST API's JSON.
+	 * @param fetchSize          Rows fetched from the database per round trip
+	 *                           (property {@code todo.tasks.export.fetch-size}).
+	 */
+	@Autowired
+	public TaskExportService(
+			EntityManager entityManager,
+			PlatformTransactionManager transactionManager,
+			ObjectMapper objectMapper,
+			@Value("${todo.tasks.export.fetch-size:500}") int fetchSize
+	) {
+		this.entityManager = entityManager;
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+		this.objectMapper = objectMapper;
+		this.fetchSize = fetchSize;
+	}
+
+	/**
+	 * Writes every task, ordered by id, to the given stream.
+	 * Each entity is detached right after it is written so the persistence context never grows.
+	 *
+	 * @param format The output format. Must not be null.
+	 * @param out    The stream to write to; it is flushed but not closed.
+	 * @return The number of exported tasks.
+	 * @throws IOException if writing to the stream fails.
+	 */
+	public long export(
+			@NotNull(message = "Format cannot be null") TaskExportFormat format,
+			@NotNull(message = "Output cannot be null") OutputStream out
+	) throws IOException {
+		try {
+			Long exported = readOnlyTransaction.execute(status -> {
+				try (Stream<Task> tasks = openCursor()) {
+					return switch (format) {
+						case NDJSON -> writeNdjson(tasks.iterator(), out);
+						case CSV -> writeCsv(tasks.iterator(), out);
+					};
+				} catch (IOException exception) {
+					throw new UncheckedIOException(exception);
+				}
+			});
+			log.info("Exported {} tasks as {}", exported, format);
+			return exported == null ? 0 : exported;
+		} catch (UncheckedIOException exception) {
+			throw exception.getCause();
+		}
+	}
+
+	private Stream<Task> openCursor() {
+		return entityManager.createQuery("SELECT t FROM Task t ORDER BY t.id", Task.class)
+				.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+				.setHint(HibernateHints.HINT_READ_ONLY, true)
+				// a full scan must not flush the hot tasks out of the second-level cache
+				.setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+				.getResultStream();
+	}
+
+	private long writeNdjson(Iterator<Task> tasks, OutputStream out) throws IOException {
+		long count = 0;
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			generator.setRootValueSeparator(null);
+			while (tasks.hasNext()) {
+				Task task = tasks.next();
+				generator.writeObject(task);
+				generator.writeRaw('\n');
+				entityManager.detach(task);
+				if (++count % fetchSize == 0) {
+					generator.flush();
+				}
+			}
+		}
+		return count;
+	}
+
+	private long writeCsv(Iterator<Task> tasks, OutputStream out) throws IOException {
+		long count = 0;
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		writer.write(CSV_HEADER);
+		writer.write("\r\n");
+		while (tasks.hasNext()) {
+			Task task = tasks.next();
+			writer.write(String.valueOf(task.getId()));
+			writer.write(',');
+			writer.write(csvField(task.getTitle()));
+			writer.write(',');
+			writer.write(csvField(task.getDescription()));
+			writer.write(',');
+			writer.write(String.valueOf(task.isCompleted()));
+			writer.write(',');
+			writer.write(String.valueOf(task.getDueDate()));
+			writer.write("\r\n");
+			entityManager.detach(task);
+			if (++count % fetchSize == 0) {
+				writer.flush();
+			}
+		}
+		writer.flush();
+		return count;
+	}
+
+	static String csvField(String value) {
+		if (value == null) {
+			return "";
+		}
+		boolean needsQuoting = value.indexOf(',') >= 0
+				|| value.indexOf('"') >= 0
+				|| value.indexOf('\n') >= 0
+				|| value.indexOf('\r') >= 0;
+		return needsQuoting ? '"' + value.replace("\"", "\"\"") + '"' : value;
+	}
+}
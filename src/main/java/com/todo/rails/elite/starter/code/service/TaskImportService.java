@@ -0,0 +1,270 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.model.TaskExportFormat;
+import com.todo.rails.elite.starter.code.model.TaskImportResult;
+import com.todo.rails.elite.starter.code.model.TasksImportedEvent;
+import com.todo.rails.elite.starter.code.repository.TaskChangeRepository;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.jpa.SpecHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service layer for importing large numbers of tasks at once.
+ *
+ * <p>Rows are read from the upload one at a time and collected into batches of
+ * {@code todo.tasks.import.batch-size}. For each batch, existing titles are found with a single
+ * {@code IN} query, and the remaining tasks are persisted in one transaction that Hibernate sends as
+ * one JDBC batch. This relies on the pooled {@code task_id_seq} generator on {@link Task}:
+ * with {@code IDENTITY} ids Hibernate has to execute every insert on its own. Each committed batch is published as
+ * one {@link TasksImportedEvent}, so listeners handle an import in a few events rather than one per row.</p>
+ */
+@Service
+public class TaskImportService {
+
+	private static final Logger log = LoggerFactory.getLogger(TaskImportService.class);
+
+	private final TaskRepository taskRepository;
+	private final TaskChangeRepository taskChangeRepository;
+	private final TaskCommitService taskCommitService;
+	private final EntityManager entityManager;
+	private final TransactionTemplate transactionTemplate;
+	private final ObjectMapper objectMapper;
+	private final Validator validator;
+	private final ApplicationEventPublisher eventPublisher;
+	private final int batchSize;
+
+	/**
+	 * Constructs a TaskImportService.
+	 *
+	 * @param taskRepository       The repository used for the set-based duplicate check.
+	 * @param taskChangeRepository The outbox each batch is recorded in, within the batch's transaction.
+	 * @param taskCommitService    The counter every batch's transaction is counted in.
+	 * @param entityManager        The shared entity manager used to persist and clear each batch.
+	 * @param transactionManager   The transaction manager; every batch commits on its own.
+	 * @param objectMapper         The mapper used to read NDJSON rows.
+	 * @param validator            The validator applied to every row before it is queued.
+	 * @param eventPublisher       The publisher of a {@link TasksImportedEvent} per imported batch.
+	 * @param batchSize            Rows per JDBC batch (property {@code todo.tasks.import.batch-size}).
+	 */
+	@Autowired
+	public TaskImportService(
+			TaskRepository taskRepository,
+			TaskChangeRepository taskChangeRepository,
+			TaskCommitService taskCommitService,
+			EntityManager entityManager,
+			PlatformTransactionManager transactionManager,
+			ObjectMapper objectMapper,
+			Validator validator,
+			ApplicationEventPublisher eventPublisher,
+			@Value("${todo.tasks.import.batch-size:500}") int batchSize
+	) {
+		this.taskRepository = taskRepository;
+		this.taskChangeRepository = taskChangeRepository;
+		this.taskCommitService = taskCommitService;
+		this.entityManager = entityManager;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.objectMapper = objectMapper;
+		this.validator = validator;
+		this.eventPublisher = eventPublisher;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Imports every row of an NDJSON or CSV upload.
+	 * Rows with a title that already exists, in the table or earlier in the upload, are skipped,
+	 * and rows that fail validation are rejected; neither aborts the import.
+	 * Batches that were already committed stay committed if a later batch fails.
+	 *
+	 * @param format The format of the upload. Must not be null.
+	 * @param in     The upload; it is read to the end but not closed.
+	 * @return Counters and throughput of the import.
+	 * @throws IOException if the upload cannot be read or is malformed.
+	 */
+	public TaskImportResult importTasks(
+			@NotNull(message = "Format cannot be null") TaskExportFormat format,
+			@NotNull(message = "Input cannot be null") InputStream in
+	) throws IOException {
+		long started = System.nanoTime();
+		Counters counters = new Counters();
+		Map<String, Task> batch = new LinkedHashMap<>();
+
+		RowSource rows = switch (format) {
+			case NDJSON -> ndjsonRows(in);
+			case CSV -> csvRows(in);
+		};
+		Task task;
+		while ((task = rows.next()) != null) {
+			counters.read++;
+			task.setId(null);
+			task.setVersion(null);
+			if (!validator.validate(task).isEmpty()) {
+				counters.rejected++;
+				continue;
+			}
+			if (batch.putIfAbsent(task.getTitle(), task) != null) {
+				counters.duplicates++;
+				continue;
+			}
+			if (batch.size() == batchSize) {
+				flush(batch, counters);
+			}
+		}
+		flush(batch, counters);
+
+		long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+		double rowsPerSecond = counters.read * 1000.0 / elapsedMillis;
+		log.info("Imported {} tasks from {} rows ({} duplicates, {} rejected) in {} ms, {} rows/s",
+				counters.imported, counters.read, counters.duplicates, counters.rejected,
+				elapsedMillis, Math.round(rowsPerSecond));
+		return new TaskImportResult(
+				counters.imported,
+				counters.duplicates,
+				counters.rejected,
+				counters.batches,
+				elapsedMillis,
+				rowsPerSecond
+		);
+	}
+
+	private void flush(Map<String, Task> batch, Counters counters) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		// Earlier batches are already committed, so this one query also catches repeats across batches.
+		Set<String> existingTitles = taskRepository.findExistingTitles(batch.keySet());
+		List<Task> newTasks = new ArrayList<>(batch.size());
+		for (Task candidate : batch.values()) {
+			if (existingTitles.contains(candidate.getTitle())) {
+				counters.duplicates++;
+			} else {
+				newTasks.add(candidate);
+			}
+		}
+		if (!newTasks.isEmpty()) {
+			transactionTemplate.executeWithoutResult(status -> {
+				// imported rows are not known to be hot; keep them out of the second-level cache
+				entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+				newTasks.forEach(entityManager::persist);
+				// one event per batch, delivered to listeners after the batch commits
+				eventPublisher.publishEvent(new TasksImportedEvent(
+						newTasks.stream().map(TaskChangedEvent::created).toList()
+				));
+				entityManager.flush();
+				// one INSERT ... SELECT records the whole batch in the outbox
+				long pendingCommit = taskCommitService.enlist();
+				taskChangeRepository.recordChanges(
+						TaskChangedEvent.Type.CREATED,
+						newTasks.stream().map(Task::getId).toList(),
+						pendingCommit,
+						Instant.now()
+				);
+				entityManager.clear();
+			});
+			counters.imported += newTasks.size();
+			counters.batches++;
+		}
+		log.debug("Flushed import batch: {} inserted, {} already present", newTasks.size(), existingTitles.size());
+		batch.clear();
+	}
+
+	private RowSource ndjsonRows(InputStream in) throws IOException {
+		MappingIterator<Task> iterator = objectMapper.readerFor(Task.class).readValues(in);
+		return () -> {
+			try {
+				return iterator.hasNextValue() ? iterator.nextValue() : null;
+			} catch (RuntimeException exception) {
+				throw new IOException("Malformed NDJSON row: " + exception.getMessage(), exception);
+			}
+		};
+	}
+
+	private RowSource csvRows(InputStream in) throws IOException {
+		TaskCsvReader reader = new TaskCsvReader(
+				new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))
+		);
+		List<String> header = reader.readRecord();
+		if (header == null) {
+			return () -> null;
+		}
+		Map<String, Integer> columns = new HashMap<>();
+		for (int i = 0; i < header.size(); i++) {
+			columns.put(header.get(i).trim().toLowerCase(Locale.ROOT).replace("_", ""), i);
+		}
+		for (String required : List.of("title", "description", "completed", "duedate")) {
+			if (!columns.containsKey(required)) {
+				throw new IOException("CSV header is missing column: " + required);
+			}
+		}
+		return () -> {
+			List<String> record = reader.readRecord();
+			while (record != null && record.size() == 1 && record.get(0).isEmpty()) {
+				record = reader.readRecord(); // skip blank lines
+			}
+			if (record == null) {
+				return null;
+			}
+			return new Task(
+					column(record, columns.get("title")),
+					column(record, columns.get("description")),
+					Boolean.parseBoolean(column(record, columns.get("completed"))),
+					parseDate(column(record, columns.get("duedate")))
+			);
+		};
+	}
+
+	private static String column(List<String> record, int index) {
+		return index < record.size() ? record.get(index) : null;
+	}
+
+	private static LocalDate parseDate(String value) {
+		try {
+			return value == null || value.isBlank() ? null : LocalDate.parse(value.trim());
+		} catch (DateTimeParseException exception) {
+			return null; // rejected by validation
+		}
+	}
+
+	@FunctionalInterface
+	private interface RowSource {
+		Task next() throws IOException;
+	}
+
+	private static final class Counters {
+		long read;
+		long imported;
+		long duplicates;
+		long rejected;
+		long batches;
+	}
+}
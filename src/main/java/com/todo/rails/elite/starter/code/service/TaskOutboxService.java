@@ -0,0 +1,165 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.exceptions.CursorExpiredException;
+import com.todo.rails.elite.starter.code.model.TaskChange;
+import com.todo.rails.elite.starter.code.model.TaskChangeCursor;
+import com.todo.rails.elite.starter.code.model.TaskChangeFeed;
+import com.todo.rails.elite.starter.code.model.TaskChangesRelayedEvent;
+import com.todo.rails.elite.starter.code.repository.TaskChangeRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Service layer for the task change outbox written by {@link TaskService} and {@link TaskImportService}.
+ *
+ * <p>A relay reads the outbox in commit order every relay interval, in batches, and publishes each batch as a
+ * {@link TaskChangesRelayedEvent}. It starts at the end of the outbox when the application starts. The in-memory
+ * search and suggestion indexes follow these events, so they also see changes made through other instances. Once
+ * relayed, rows are kept for the retention period so the change feed can serve them, then deleted by the relay.</p>
+ *
+ * <p>Rows are numbered by {@link TaskCommitService} with the commit of their transaction, and commit numbers become
+ * visible strictly in order, so both the relay and the feed read everything after their position without waiting:
+ * a later commit never brings rows in front of it. The auto-increment ids only order the rows of one commit; gaps
+ * in them, whether from rolled back transactions or from INSERT ... SELECT statements, mean nothing.
+ * Relayed batches are counted in {@code todo.tasks.outbox.relayed}.</p>
+ */
+@Service
+@Timed("todo.service")
+public class TaskOutboxService {
+
+	private static final Logger log = LoggerFactory.getLogger(TaskOutboxService.class);
+
+	private final TaskChangeRepository taskChangeRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final int relayBatchSize;
+	private final Duration transactionTimeout;
+	private final Duration retention;
+	private final Counter relayed;
+
+	// only touched by the scheduler thread; the commit is negative until the first run found the end of the outbox
+	private long relayedCommit = -1;
+	private long relayedId;
+
+	/**
+	 * Constructs a TaskOutboxService.
+	 *
+	 * @param taskChangeRepository The repository of the outbox.
+	 * @param eventPublisher       The publisher of {@link TaskChangesRelayedEvent}s.
+	 * @param relayBatchSize       Rows read and published at a time.
+	 * @param transactionTimeout   How long a task transaction may run between recording a change and committing it.
+	 * @param retention            How long relayed rows are kept for the change feed.
+	 * @param registry             The registry the relay counter is registered in.
+	 */
+	@Autowired
+	public TaskOutboxService(
+			TaskChangeRepository taskChangeRepository,
+			ApplicationEventPublisher eventPublisher,
+			@Value("${todo.tasks.outbox.relay.batch-size:500}") int relayBatchSize,
+			@Value("${todo.tasks.outbox.transaction-timeout:10s}") Duration transactionTimeout,
+			@Value("${todo.tasks.outbox.retention:24h}") Duration retention,
+			MeterRegistry registry
+	) {
+		this.taskChangeRepository = taskChangeRepository;
+		this.eventPublisher = eventPublisher;
+		this.relayBatchSize = relayBatchSize;
+		this.transactionTimeout = transactionTimeout;
+		this.retention = retention;
+		this.relayed = Counter.builder("todo.tasks.outbox.relayed")
+				.description("Task changes published by the outbox relay")
+				.register(registry);
+	}
+
+	/**
+	 * Retrieves the task changes committed after a position of the change feed.
+	 * Without a position, nothing is returned and the cursor points at the current end of the feed: take it before
+	 * loading the tasks in full, and changes made while loading are read again afterwards.
+	 *
+	 * @param since The cursor returned by the previous read, or null to start at the end.
+	 * @param limit The maximum number of changes, clamped to [1, {@value TaskService#MAX_PAGE_LIMIT}].
+	 * @return The changes and the cursor to continue from.
+	 * @throws IllegalArgumentException if the cursor is malformed.
+	 * @throws CursorExpiredException   if changes after the cursor may have been pruned; load the tasks in full
+	 *                                  and start again without a cursor.
+	 */
+	public TaskChangeFeed getChanges(String since, int limit) throws IllegalArgumentException, CursorExpiredException {
+		Instant now = Instant.now();
+		if (since == null || since.isBlank()) {
+			TaskChangeCursor end = taskChangeRepository.findFirstByOrderByCommitNumberDescIdDesc()
+					.map(change -> new TaskChangeCursor(change.getCommitNumber(), change.getId(), now))
+					.orElse(new TaskChangeCursor(0, 0, now));
+			return new TaskChangeFeed(List.of(), end.encode(), false);
+		}
+		TaskChangeCursor cursor = TaskChangeCursor.decode(since);
+		// anything the holder has not seen committed after issuedAt, so it was recorded after issuedAt minus the
+		// transaction timeout, and rows are pruned by when they were recorded
+		if (cursor.issuedAt().isBefore(now.minus(retention).plus(transactionTimeout))) {
+			throw new CursorExpiredException("Change feed position from " + cursor.issuedAt() + " has expired");
+		}
+		int pageLimit = Math.max(1, Math.min(limit, TaskService.MAX_PAGE_LIMIT));
+		List<TaskChange> changes = taskChangeRepository.findCommittedAfter(cursor.commit(), cursor.id(), Limit.of(pageLimit));
+		TaskChangeCursor next = new TaskChangeCursor(cursor.commit(), cursor.id(), now);
+		if (!changes.isEmpty()) {
+			TaskChange last = changes.get(changes.size() - 1);
+			next = new TaskChangeCursor(last.getCommitNumber(), last.getId(), now);
+		}
+		log.debug("Read {} task changes after commit {}", changes.size(), cursor.commit());
+		return new TaskChangeFeed(changes, next.encode(), changes.size() == pageLimit);
+	}
+
+	/**
+	 * Publishes the changes committed since the last run, then deletes relayed rows past their retention.
+	 * A batch whose listeners fail is published again on the next run.
+	 */
+	@Scheduled(
+			initialDelayString = "${todo.tasks.outbox.relay-interval:PT1S}",
+			fixedDelayString = "${todo.tasks.outbox.relay-interval:PT1S}"
+	)
+	public void relay() {
+		Instant now = Instant.now();
+		if (relayedCommit < 0) {
+			taskChangeRepository.findFirstByOrderByCommitNumberDescIdDesc().ifPresentOrElse(
+					end -> {
+						relayedCommit = end.getCommitNumber();
+						relayedId = end.getId();
+					},
+					() -> relayedCommit = 0
+			);
+			log.info("Task outbox relay starting after commit {}", relayedCommit);
+		}
+		List<TaskChange> batch;
+		do {
+			batch = taskChangeRepository.findCommittedAfter(relayedCommit, relayedId, Limit.of(relayBatchSize));
+			if (batch.isEmpty()) {
+				break;
+			}
+			try {
+				eventPublisher.publishEvent(new TaskChangesRelayedEvent(batch));
+			} catch (RuntimeException exception) {
+				log.warn("Task change listener failed; retrying changes after commit {} on the next run", relayedCommit, exception);
+				return;
+			}
+			TaskChange last = batch.get(batch.size() - 1);
+			relayedCommit = last.getCommitNumber();
+			relayedId = last.getId();
+			relayed.increment(batch.size());
+		} while (batch.size() == relayBatchSize);
+
+		int pruned = taskChangeRepository.deleteRelayedBefore(relayedCommit, now.minus(retention));
+		if (pruned > 0) {
+			log.debug("Pruned {} relayed task changes", pruned);
+		}
+	}
+}
@@ -0,0 +1,393 @@
+package com.todo.rails.elite.starter.code.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over task titles and descriptions, ranked with BM25.
+ *
+ * <p>Text is folded to lower case without accents and split on anything that is not a letter or digit; a few
+ * English stop words are dropped. Every term maps to the tasks containing it and a term frequency in which a title
+ * occurrence counts {@value #TITLE_WEIGHT} times. Tasks are numbered densely in the order they are added, and every
+ * posting list is a pair of ascending primitive arrays, so a query matching the tasks that contain all of its terms
+ * walks the shortest list once and gallops forward through the others. Replacing or removing a task only marks its
+ * old entries dead; they are dropped when dead entries outnumber live ones. Any number of searches run
+ * concurrently; changes take a short exclusive lock.</p>
+ */
+class TaskSearchIndex {
+
+	/**
+	 * How many description occurrences one title occurrence is worth.
+	 */
+	static final int TITLE_WEIGHT = 3;
+
+	private static final int MAX_TOKEN_LENGTH = 64;
+	private static final int COMPACTION_MIN_REMOVED = 1024;
+	private static final double K1 = 1.2;
+	private static final double B = 0.75;
+	private static final Set<String> STOP_WORDS = Set.of(
+			"a", "an", "and", "are", "as", "at", "be", "by", "for", "in", "is", "it", "of", "on", "or", "the", "to", "with"
+	);
+
+	// worst match first, so the heap evicts it when a better one arrives
+	private static final Comparator<Match> WORST_FIRST = Comparator.comparingDouble(Match::score)
+			.thenComparing(Match::id, Comparator.reverseOrder());
+
+	/**
+	 * Ids of one page of matches, best first, and the number of all matches.
+	 */
+	record Hits(List<Long> ids, int total) {
+		static final Hits EMPTY = new Hits(List.of(), 0);
+	}
+
+	private record Match(long id, double score) {
+	}
+
+	private record Document(long id, String[] terms, int[] frequencies, int length) {
+	}
+
+	/**
+	 * Documents containing one term, as ascending ordinals with their term frequencies.
+	 * Entries of removed documents stay until the next compaction; {@code live} counts the others.
+	 */
+	private static final class Postings {
+		int[] ordinals = new int[2];
+		int[] frequencies = new int[2];
+		int size;
+		int live;
+
+		void append(int ordinal, int frequency) {
+			if (size == ordinals.length) {
+				ordinals = Arrays.copyOf(ordinals, size * 2);
+				frequencies = Arrays.copyOf(frequencies, size * 2);
+			}
+			ordinals[size] = ordinal;
+			frequencies[size++] = frequency;
+			live++;
+		}
+	}
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<String, Postings> postings = new HashMap<>();
+	private final Map<Long, Integer> ordinalsById = new HashMap<>();
+	// by ordinal; a removed document is null with length 0, and ordinals only grow until compaction renumbers them
+	private Document[] documents = new Document[16];
+	private long[] ids = new long[16];
+	private int[] lengths = new int[16];
+	private int nextOrdinal;
+	private int removed;
+	private long totalLength;
+
+	/**
+	 * Splits text into index terms.
+	 *
+	 * @param text The text to split; null yields no terms.
+	 * @return The terms in order of appearance, repeats included.
+	 */
+	static List<String> tokenize(String text) {
+		if (text == null || text.isEmpty()) {
+			return List.of();
+		}
+		String decomposed = Normalizer.normalize(text, Normalizer.Form.NFKD);
+		List<String> tokens = new ArrayList<>();
+		StringBuilder token = new StringBuilder();
+		for (int index = 0; index < decomposed.length(); ) {
+			int codePoint = decomposed.codePointAt(index);
+			index += Character.charCount(codePoint);
+			if (Character.isLetterOrDigit(codePoint)) {
+				if (token.length() < MAX_TOKEN_LENGTH) {
+					token.appendCodePoint(Character.toLowerCase(codePoint));
+				}
+			} else if (Character.getType(codePoint) != Character.NON_SPACING_MARK) {
+				addToken(tokens, token);
+			}
+		}
+		addToken(tokens, token);
+		return tokens;
+	}
+
+	private static void addToken(List<String> tokens, StringBuilder token) {
+		if (!token.isEmpty()) {
+			String term = token.toString();
+			if (!STOP_WORDS.contains(term)) {
+				tokens.add(term);
+			}
+			token.setLength(0);
+		}
+	}
+
+	/**
+	 * Adds a task, replacing what was indexed for it before.
+	 *
+	 * @param id          The id of the task.
+	 * @param title       The title of the task.
+	 * @param description The description of the task.
+	 */
+	void index(long id, String title, String description) {
+		Document document = analyze(id, title, description);
+		lock.writeLock().lock();
+		try {
+			removeLocked(id);
+			addLocked(document);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes a task; unknown ids are ignored.
+	 *
+	 * @param id The id of the task.
+	 */
+	void remove(long id) {
+		lock.writeLock().lock();
+		try {
+			removeLocked(id);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Moves every task of another index into this one, replacing tasks with the same id.
+	 * Used to combine indexes built in parallel over disjoint parts of the table.
+	 *
+	 * @param other The index to take the tasks from; it must not change meanwhile.
+	 */
+	void addAll(TaskSearchIndex other) {
+		lock.writeLock().lock();
+		try {
+			for (int ordinal = 0; ordinal < other.nextOrdinal; ordinal++) {
+				Document document = other.documents[ordinal];
+				if (document != null) {
+					removeLocked(document.id());
+					addLocked(document);
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * @return The number of indexed tasks.
+	 */
+	int size() {
+		lock.readLock().lock();
+		try {
+			return ordinalsById.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Finds the tasks containing every term of the query, best match first; ties go to the lower id.
+	 *
+	 * @param query  Free text, tokenized like the indexed text.
+	 * @param offset Number of best matches to skip.
+	 * @param limit  Maximum number of ids to return.
+	 * @return The requested page of ids and the total number of matches.
+	 */
+	Hits search(String query, int offset, int limit) {
+		List<String> terms = List.copyOf(new LinkedHashSet<>(tokenize(query)));
+		if (terms.isEmpty() || limit <= 0) {
+			return Hits.EMPTY;
+		}
+		lock.readLock().lock();
+		try {
+			Postings[] lists = new Postings[terms.size()];
+			for (int i = 0; i < lists.length; i++) {
+				lists[i] = postings.get(terms.get(i));
+				if (lists[i] == null) {
+					return Hits.EMPTY;
+				}
+			}
+			Arrays.sort(lists, Comparator.comparingInt(list -> list.live));
+
+			int count = ordinalsById.size();
+			double averageLength = (double) totalLength / count;
+			double[] idf = new double[lists.length];
+			for (int i = 0; i < lists.length; i++) {
+				idf[i] = Math.log(1 + (count - lists[i].live + 0.5) / (lists[i].live + 0.5));
+			}
+
+			int wanted = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+			PriorityQueue<Match> best = new PriorityQueue<>(Math.min(wanted, 1024), WORST_FIRST);
+			int[] cursors = new int[lists.length];
+			int total = 0;
+			Postings shortest = lists[0];
+			candidates:
+			for (int entry = 0; entry < shortest.size; entry++) {
+				int ordinal = shortest.ordinals[entry];
+				int length = lengths[ordinal];
+				if (length == 0) {
+					continue;
+				}
+				double norm = K1 * (1 - B + B * length / averageLength);
+				double score = idf[0] * weight(shortest.frequencies[entry], norm);
+				for (int i = 1; i < lists.length; i++) {
+					// both lists ascend, so each cursor only moves forward
+					Postings list = lists[i];
+					int position = advance(list, cursors[i], ordinal);
+					cursors[i] = position;
+					if (position == list.size) {
+						break candidates;
+					}
+					if (list.ordinals[position] != ordinal) {
+						continue candidates;
+					}
+					score += idf[i] * weight(list.frequencies[position], norm);
+				}
+				total++;
+				long id = ids[ordinal];
+				if (best.size() < wanted) {
+					best.add(new Match(id, score));
+				} else {
+					Match worst = best.peek();
+					if (score > worst.score() || score == worst.score() && id < worst.id()) {
+						best.poll();
+						best.add(new Match(id, score));
+					}
+				}
+			}
+
+			List<Match> ranked = new ArrayList<>(best);
+			ranked.sort(WORST_FIRST.reversed());
+			List<Long> ids = new ArrayList<>(Math.max(0, ranked.size() - offset));
+			for (int i = offset; i < ranked.size(); i++) {
+				ids.add(ranked.get(i).id());
+			}
+			return new Hits(ids, total);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return The first position at or after {@code from} whose ordinal is not below {@code ordinal}, found by
+	 * galloping so that sparse probes into long lists stay logarithmic.
+	 */
+	private static int advance(Postings list, int from, int ordinal) {
+		int low = from;
+		int step = 1;
+		int high = from;
+		while (high < list.size && list.ordinals[high] < ordinal) {
+			low = high + 1;
+			high += step;
+			step <<= 1;
+		}
+		high = Math.min(high, list.size);
+		int found = Arrays.binarySearch(list.ordinals, low, high, ordinal);
+		return found >= 0 ? found : -found - 1;
+	}
+
+	private static double weight(int frequency, double norm) {
+		return frequency * (K1 + 1) / (frequency + norm);
+	}
+
+	private static Document analyze(long id, String title, String description) {
+		Map<String, Integer> frequencies = new LinkedHashMap<>();
+		tokenize(title).forEach(term -> frequencies.merge(term, TITLE_WEIGHT, Integer::sum));
+		tokenize(description).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+		String[] terms = new String[frequencies.size()];
+		int[] counts = new int[frequencies.size()];
+		int length = 0;
+		int index = 0;
+		for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+			terms[index] = entry.getKey();
+			counts[index++] = entry.getValue();
+			length += entry.getValue();
+		}
+		return new Document(id, terms, counts, Math.max(1, length));
+	}
+
+	private void addLocked(Document document) {
+		if (nextOrdinal == documents.length) {
+			documents = Arrays.copyOf(documents, nextOrdinal * 2);
+			ids = Arrays.copyOf(ids, nextOrdinal * 2);
+			lengths = Arrays.copyOf(lengths, nextOrdinal * 2);
+		}
+		int ordinal = nextOrdinal++;
+		documents[ordinal] = document;
+		ids[ordinal] = document.id();
+		lengths[ordinal] = document.length();
+		ordinalsById.put(document.id(), ordinal);
+		totalLength += document.length();
+		for (int i = 0; i < document.terms().length; i++) {
+			postings.computeIfAbsent(document.terms()[i], term -> new Postings())
+					.append(ordinal, document.frequencies()[i]);
+		}
+	}
+
+	private void removeLocked(long id) {
+		Integer ordinal = ordinalsById.remove(id);
+		if (ordinal == null) {
+			return;
+		}
+		Document document = documents[ordinal];
+		documents[ordinal] = null;
+		lengths[ordinal] = 0;
+		totalLength -= document.length();
+		for (String term : document.terms()) {
+			Postings list = postings.get(term);
+			if (--list.live == 0) {
+				postings.remove(term);
+			}
+		}
+		if (++removed > COMPACTION_MIN_REMOVED && removed > ordinalsById.size()) {
+			compactLocked();
+		}
+	}
+
+	/**
+	 * Renumbers the remaining documents densely and drops the entries of removed ones from every posting list.
+	 */
+	private void compactLocked() {
+		int[] renumbered = new int[nextOrdinal];
+		int capacity = Math.max(16, ordinalsById.size() * 2);
+		Document[] compacted = new Document[capacity];
+		long[] compactedIds = new long[capacity];
+		int[] compactedLengths = new int[capacity];
+		int next = 0;
+		for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+			Document document = documents[ordinal];
+			if (document == null) {
+				renumbered[ordinal] = -1;
+			} else {
+				renumbered[ordinal] = next;
+				compacted[next] = document;
+				compactedIds[next] = document.id();
+				compactedLengths[next] = document.length();
+				ordinalsById.put(document.id(), next++);
+			}
+		}
+		for (Postings list : postings.values()) {
+			int kept = 0;
+			for (int entry = 0; entry < list.size; entry++) {
+				int ordinal = renumbered[list.ordinals[entry]];
+				if (ordinal >= 0) {
+					list.ordinals[kept] = ordinal;
+					list.frequencies[kept++] = list.frequencies[entry];
+				}
+			}
+			list.size = kept;
+		}
+		documents = compacted;
+		ids = compactedIds;
+		lengths = compactedLengths;
+		nextOrdinal = next;
+		removed = 0;
+	}
+}
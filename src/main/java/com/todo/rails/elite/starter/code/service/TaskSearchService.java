@@ -0,0 +1,228 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.TaskChange;
+import com.todo.rails.elite.starter.code.model.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.model.TaskChangesRelayedEvent;
+import com.todo.rails.elite.starter.code.model.TaskSearchResult;
+import com.todo.rails.elite.starter.code.model.TaskText;
+import com.todo.rails.elite.starter.code.model.TasksImportedEvent;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.constraints.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Service layer for full-text search over task titles and descriptions.
+ *
+ * <p>Searches are answered from an in-memory {@link TaskSearchIndex}; the database is only used to load the tasks
+ * of the requested page, by id and through the second-level cache, so no {@code LIKE '%...%'} scan ever runs.
+ * The index is built when the application is ready, from id ranges of {@code todo.search.rebuild.chunk-size}
+ * tasks read and tokenized by {@code todo.search.rebuild.parallelism} threads (0 means one per processor, each
+ * holding a pooled connection while its range is read). Afterwards it follows the {@link TaskChangedEvent}s
+ * published by {@link TaskService} and the {@link TasksImportedEvent}s published by {@link TaskImportService} once
+ * their transactions commit.</p>
+ *
+ * <p>Those events only cover changes committed through this instance. Every change, including bulk statements and
+ * changes made through other instances sharing the database, also reaches the index from the outbox relay as a
+ * {@link TaskChangesRelayedEvent}, for which the named tasks are read again; so the index converges on the table
+ * within a relay interval. Until then, a task removed behind the index is dropped when a search finds it missing.</p>
+ */
+@Service
+@Timed("todo.service")
+public class TaskSearchService {
+
+	private static final Logger log = LoggerFactory.getLogger(TaskSearchService.class);
+
+	private final TaskRepository taskRepository;
+	private final int chunkSize;
+	private final int parallelism;
+	private final RebuildableIndex<TaskSearchIndex> index = new RebuildableIndex<>(new TaskSearchIndex());
+
+	/**
+	 * Constructs a TaskSearchService.
+	 *
+	 * @param taskRepository The repository the index is built from and results are loaded from.
+	 * @param chunkSize      Ids per range read during a rebuild (property {@code todo.search.rebuild.chunk-size}).
+	 * @param parallelism    Ranges read at once (property {@code todo.search.rebuild.parallelism}), 0 for one per processor.
+	 */
+	@Autowired
+	public TaskSearchService(
+			TaskRepository taskRepository,
+			@Value("${todo.search.rebuild.chunk-size:5000}") int chunkSize,
+			@Value("${todo.search.rebuild.parallelism:0}") int parallelism
+	) {
+		this.taskRepository = taskRepository;
+		this.chunkSize = Math.max(1, chunkSize);
+		this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * Builds the index once the application has started.
+	 * Readiness is only reported after this returns, so a load balancer sends no searches before.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() throws InterruptedException {
+		rebuild();
+	}
+
+	/**
+	 * Applies a committed change of a single task to the index.
+	 *
+	 * @param event The change.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onTaskChanged(TaskChangedEvent event) {
+		index.update(target -> apply(target, event));
+	}
+
+	/**
+	 * Applies a committed import batch to the index.
+	 *
+	 * @param event The batch.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onTasksImported(TasksImportedEvent event) {
+		event.changes().forEach(this::onTaskChanged);
+	}
+
+	/**
+	 * Brings the tasks named by relayed outbox changes up to date, including changes made through other instances.
+	 * The tasks are read again rather than taken from the changes, so the index ends up with their committed state
+	 * whatever order the changes were relayed in; tasks no longer in the table are removed.
+	 *
+	 * @param event The changes.
+	 */
+	@EventListener
+	public void onTaskChangesRelayed(TaskChangesRelayedEvent event) {
+		Set<Long> ids = new HashSet<>();
+		for (TaskChange change : event.changes()) {
+			ids.add(change.getTaskId());
+		}
+		List<TaskText> current = taskRepository.findTextByIds(ids);
+		index.update(target -> {
+			Set<Long> deleted = new HashSet<>(ids);
+			for (TaskText text : current) {
+				target.index(text.id(), text.title(), text.description());
+				deleted.remove(text.id());
+			}
+			deleted.forEach(target::remove);
+		});
+	}
+
+	/**
+	 * Rebuilds the index from the tasks table, reading id ranges in parallel.
+	 * Searches keep using the previous index until the new one is complete.
+	 *
+	 * @return The number of indexed tasks.
+	 * @throws InterruptedException if interrupted while waiting for the readers.
+	 */
+	public int rebuild() throws InterruptedException {
+		long started = System.nanoTime();
+		int size = index.rebuild(this::load).size();
+		log.info("Built search index of {} tasks in {} ms with {} threads",
+				size, (System.nanoTime() - started) / 1_000_000, parallelism);
+		return size;
+	}
+
+	private TaskSearchIndex load() throws InterruptedException {
+		TaskSearchIndex loaded = new TaskSearchIndex();
+		Long min = taskRepository.findMinId();
+		Long max = taskRepository.findMaxId();
+		if (min == null || max == null) {
+			return loaded;
+		}
+		List<Future<TaskSearchIndex>> parts = new ArrayList<>();
+		try (ExecutorService readers = Executors.newFixedThreadPool(parallelism)) {
+			for (long from = min; from <= max; from += chunkSize) {
+				long start = from;
+				long end = Math.min(from + chunkSize, max + 1);
+				parts.add(readers.submit(() -> indexRange(start, end)));
+			}
+			for (Future<TaskSearchIndex> part : parts) {
+				loaded.addAll(part.get());
+			}
+		} catch (ExecutionException exception) {
+			throw new IllegalStateException("Search index rebuild failed", exception.getCause());
+		}
+		return loaded;
+	}
+
+	/**
+	 * Finds the tasks whose title or description contain every word of the query, best match first.
+	 * Title matches rank above description matches.
+	 *
+	 * @param query  Free text. Must not be null.
+	 * @param offset The number of best matches to skip; negative values count as 0.
+	 * @param limit  The page size, clamped to [1, {@value TaskService#MAX_PAGE_LIMIT}].
+	 * @return The requested page of matches and their total number.
+	 * @throws IllegalArgumentException if the query has no searchable words.
+	 * @throws IllegalStateException    if the index has not been built yet.
+	 */
+	public TaskSearchResult search(@NotNull(message = "Query cannot be null") String query, int offset, int limit)
+			throws IllegalArgumentException, IllegalStateException {
+		if (TaskSearchIndex.tokenize(query).isEmpty()) {
+			throw new IllegalArgumentException("Query has no searchable words: " + query);
+		}
+		if (!index.isReady()) {
+			throw new IllegalStateException("Search index is still being built");
+		}
+		int first = Math.max(0, offset);
+		int pageLimit = Math.max(1, Math.min(limit, TaskService.MAX_PAGE_LIMIT));
+		TaskSearchIndex current = index.current();
+		TaskSearchIndex.Hits hits = current.search(query, first, pageLimit);
+		log.debug("Search for '{}' matched {} tasks", query, hits.total());
+		if (hits.ids().isEmpty()) {
+			return new TaskSearchResult(List.of(), hits.total(), first);
+		}
+
+		List<Task> tasks = taskRepository.findAllByIdInOrder(hits.ids());
+		int total = hits.total();
+		if (tasks.size() < hits.ids().size()) {
+			Set<Long> found = new HashSet<>();
+			tasks.forEach(task -> found.add(task.getId()));
+			for (Long id : hits.ids()) {
+				if (!found.contains(id)) {
+					log.debug("Dropping task {} from the search index: no longer in the database", id);
+					current.remove(id);
+					total--;
+				}
+			}
+		}
+		return new TaskSearchResult(tasks, total, first);
+	}
+
+	private TaskSearchIndex indexRange(long from, long to) {
+		TaskSearchIndex part = new TaskSearchIndex();
+		for (TaskText text : taskRepository.findTextByIdRange(from, to)) {
+			part.index(text.id(), text.title(), text.description());
+		}
+		return part;
+	}
+
+	private static void apply(TaskSearchIndex target, TaskChangedEvent event) {
+		if (event.id() == null) {
+			return;
+		}
+		switch (event.type()) {
+			case CREATED, UPDATED -> target.index(event.id(), event.title(), event.description());
+			case DELETED -> target.remove(event.id());
+		}
+	}
+}
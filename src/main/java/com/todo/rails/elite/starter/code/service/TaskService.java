@@ -1,38 +1,107 @@
 package com.todo.rails.elite.starter.code.service;
 
+import com.todo.rails.elite.starter.code.exceptions.ResourceConflictException;
+import com.todo.rails.elite.starter.code.exceptions.ResourceNotFoundException;
 import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.TaskBulkChangedEvent;
+import com.todo.rails.elite.starter.code.model.TaskChange;
+import com.todo.rails.elite.starter.code.model.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.model.TaskCursor;
+import com.todo.rails.elite.starter.code.model.TaskFilter;
+import com.todo.rails.elite.starter.code.model.TaskPage;
+import com.todo.rails.elite.starter.code.model.TaskSort;
+import com.todo.rails.elite.starter.code.model.TaskState;
+import com.todo.rails.elite.starter.code.model.TaskTombstone;
+import com.todo.rails.elite.starter.code.repository.TaskChangeRepository;
 import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import com.todo.rails.elite.starter.code.repository.TaskTombstoneRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import org.slf4j.LoggerFactory;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Service layer for handling business logic related to Tasks.
  * Provides methods for creating, retrieving, updating, and deleting tasks,
  * as well as retrieving filtered lists of tasks.
+ * Every public method is timed in the {@code todo.service} metric, tagged by class, method and exception.
+ * Changes to a single task publish a {@link TaskChangedEvent}; set-based bulk statements that changed any task
+ * publish one {@link TaskBulkChangedEvent}. Every change, bulk or not, is also recorded per task in the
+ * {@link TaskChange} outbox within the same transaction, every deletion leaves a {@link TaskTombstone}, and every
+ * transaction that changes tasks is counted by {@link TaskCommitService} as it commits.
  */
 @Service
+@Timed("todo.service")
 public class TaskService {
 
+	/**
+	 * Number of tasks returned per page when the client does not ask for a specific limit.
+	 */
+	public static final int DEFAULT_PAGE_LIMIT = 50;
+
+	/**
+	 * Upper bound on the page size a client may request, keeping response bodies bounded.
+	 */
+	public static final int MAX_PAGE_LIMIT = 500;
+
+	/**
+	 * Upper bound on the number of ids a single bulk reschedule may target, keeping the IN list bounded.
+	 */
+	public static final int MAX_BULK_IDS = 1000;
+
+	/**
+	 * Upper bound on the number of days a due-within query may look ahead.
+	 */
+	public static final int MAX_DUE_WITHIN_DAYS = 366;
+
 	private static final Logger log = (Logger) LoggerFactory.getLogger(TaskService.class);
 	private final TaskRepository taskRepository;
+	private final TaskChangeRepository taskChangeRepository;
+	private final TaskTombstoneRepository taskTombstoneRepository;
+	private final TaskCommitService taskCommitService;
+	private final ApplicationEventPublisher eventPublisher;
 
 	/**
 	 * Constructs a TaskService with the necessary TaskRepository dependency.
 	 *
-	 * @param taskRepository The repository for task data access.
+	 * @param taskRepository          The repository for task data access.
+	 * @param taskChangeRepository    The outbox every change is recorded in.
+	 * @param taskTombstoneRepository The tombstones every deletion leaves.
+	 * @param taskCommitService       The counter of transactions that change tasks.
+	 * @param eventPublisher          The publisher of {@link TaskChangedEvent}s.
 	 */
 	@Autowired
-	public TaskService(TaskRepository taskRepository) {
+	public TaskService(
+			TaskRepository taskRepository,
+			TaskChangeRepository taskChangeRepository,
+			TaskTombstoneRepository taskTombstoneRepository,
+			TaskCommitService taskCommitService,
+			ApplicationEventPublisher eventPublisher
+	) {
 		this.taskRepository = taskRepository;
+		this.taskChangeRepository = taskChangeRepository;
+		this.taskTombstoneRepository = taskTombstoneRepository;
+		this.taskCommitService = taskCommitService;
+		this.eventPublisher = eventPublisher;
 	}
 
 	/**
@@ -43,13 +112,16 @@ public class TaskService {
 	 * @return The saved task object with its generated ID.
 	 * @throws RuntimeException if a task with the same title already exists.
 	 */
+	@Transactional
 	public Task addTask(@NotNull(message = "Task cannot be null") Task task) throws RuntimeException {
 		if (taskRepository.findByTitle(task.getTitle()).isPresent()) {
 			log.warn("Attempted to add task with existing title: {}", task.getTitle());
 			throw new RuntimeException("Task already exists with title: " + task.getTitle());
 		}
 		log.info("Adding new task with title: {}", task.getTitle());
-		return taskRepository.save(task);
+		Task saved = taskRepository.save(task);
+		record(TaskChangedEvent.created(saved));
+		return saved;
 	}
 
 	/**
@@ -59,6 +131,7 @@ public class TaskService {
 	 * @return The found task object.
 	 * @throws RuntimeException if no task is found with the given ID.
 	 */
+	@Transactional(readOnly = true)
 	public Task getTaskById(@NotNull(message = "Id cannot be null") Long id) throws RuntimeException {
 		log.debug("Attempting to get task by id: {}", id);
 		return taskRepository.findById(id)
@@ -75,6 +148,7 @@ public class TaskService {
 	 * @return The found task object.
 	 * @throws RuntimeException if no task is found with the given title.
 	 */
+	@Transactional(readOnly = true)
 	public Task getTaskByTitle(
 			@NotNull(message = "Title cannot be null")
 			@NotBlank(message = "Title cannot be blank")
@@ -93,6 +167,7 @@ public class TaskService {
 	 *
 	 * @return A list of all tasks, or an empty list if none exist.
 	 */
+	@Transactional(readOnly = true)
 	public List<Task> getAllTasks() {
 		log.debug("Retrieving all tasks.");
 		List<Task> tasks = taskRepository.findAll();
@@ -111,6 +186,7 @@ public class TaskService {
 	 * @return The updated task object.
 	 * @throws RuntimeException if no task is found with the title specified in the input task object.
 	 */
+	@Transactional
 	public Task updateTask(@NotNull(message = "Task cannot be null") Task task) throws RuntimeException {
 		Optional<Task> existingTaskOptional = taskRepository.findByTitle(task.getTitle());
 
@@ -121,13 +197,18 @@ public class TaskService {
 
 		log.info("Updating task with id: {}", task.getId());
 		Task taskToUpdate = existingTaskOptional.get();
+		// callers may pass the managed instance itself, already changed, so the previous state is read from the table
+		TaskState previous = taskRepository.findStateById(taskToUpdate.getId())
+				.orElseGet(() -> new TaskState(taskToUpdate.isCompleted(), taskToUpdate.getDueDate()));
 
 		taskToUpdate.setTitle(task.getTitle());
 		taskToUpdate.setDescription(task.getDescription());
 		taskToUpdate.setCompleted(task.isCompleted());
 		taskToUpdate.setDueDate(task.getDueDate());
 
-		return taskRepository.save(taskToUpdate);
+		Task saved = taskRepository.save(taskToUpdate);
+		record(TaskChangedEvent.updated(saved, previous.completed(), previous.dueDate()));
+		return saved;
 	}
 
 	/**
@@ -137,6 +218,7 @@ public class TaskService {
 	 * @param task The task object to delete. It must contain the title of the task to be deleted and must not be null.
 	 * @throws RuntimeException if no task is found with the title specified in the input task object.
 	 */
+	@Transactional
 	public void deleteTask(@NotNull(message = "Task cannot be null") Task task) throws RuntimeException {
 		Optional<Task> taskToDeleteOptional = taskRepository.findByTitle(task.getTitle());
 
@@ -148,55 +230,372 @@ public class TaskService {
 		// It's safer to delete by ID if available, or use the found entity
 		Task taskToDelete = taskToDeleteOptional.get();
 		taskRepository.delete(taskToDelete); // Delete the actual entity found
+		taskTombstoneRepository.save(new TaskTombstone(taskToDelete.getId(), Instant.now()));
+		record(TaskChangedEvent.deleted(taskToDelete));
 	}
 
 	/**
 	 * Retrieves a list of all tasks that are not yet completed.
+	 * The filter is evaluated by the database rather than in memory.
 	 *
 	 * @return A list of pending tasks, or an empty list if none are found.
 	 */
+	@Transactional(readOnly = true)
 	public List<Task> getPendingTasks() {
 		log.debug("Retrieving pending tasks.");
-		List<Task> allTasks = getAllTasks(); // Less efficient if many tasks exist
-		if (allTasks.isEmpty()) {
-			return List.of();
-		}
-		return allTasks.stream()
-				.filter(task -> !task.isCompleted())
-				.toList();
+		return taskRepository.findByCompleted(false);
 	}
 
 	/**
 	 * Retrieves a list of all tasks that have been completed.
+	 * The filter is evaluated by the database rather than in memory.
 	 *
 	 * @return A list of completed tasks, or an empty list if none are found.
 	 */
+	@Transactional(readOnly = true)
 	public List<Task> getCompletedTasks() {
 		log.debug("Retrieving completed tasks.");
-		List<Task> allTasks = getAllTasks(); // Less efficient if many tasks exist
-		if (allTasks.isEmpty()) {
-			return List.of();
-		}
-		return allTasks.stream()
-				.filter(Task::isCompleted)
-				.toList();
+		return taskRepository.findByCompleted(true);
 	}
 
 	/**
 	 * Retrieves a list of tasks that are due today and are not yet completed.
+	 * The filter is evaluated by the database rather than in memory.
 	 *
 	 * @return A list of pending tasks due today, or an empty list if none are found.
 	 */
+	@Transactional(readOnly = true)
 	public List<Task> getTodayTasks() {
 		log.debug("Retrieving task due to today.");
+		return taskRepository.findByCompletedAndDueDate(false, LocalDate.now());
+	}
+
+	/**
+	 * Retrieves one page of tasks using keyset pagination.
+	 * Each page seeks directly to the cursor position through an index, so deep pages
+	 * cost the same as the first one, unlike OFFSET pagination.
+	 *
+	 * @param filter The subset of tasks to list. Must not be null.
+	 * @param sort   The ordering of the listing. Must not be null.
+	 * @param cursor The cursor returned with the previous page, or null for the first page.
+	 * @param limit  The requested page size, clamped to [1, {@value #MAX_PAGE_LIMIT}].
+	 * @return The requested page and the cursor of the next one.
+	 * @throws IllegalArgumentException if the cursor is malformed or belongs to another sort.
+	 */
+	@Transactional(readOnly = true)
+	public TaskPage getTaskPage(
+			@NotNull(message = "Filter cannot be null") TaskFilter filter,
+			@NotNull(message = "Sort cannot be null") TaskSort sort,
+			String cursor,
+			int limit
+	) throws IllegalArgumentException {
+		ScrollPosition position = scrollPosition(cursor, sort);
+		Limit pageLimit = pageLimit(limit);
+		log.debug("Retrieving {} tasks page sorted by {} with limit {}", filter, sort, pageLimit.max());
+
+		Window<Task> window = switch (filter) {
+			case ALL -> taskRepository.findAllBy(position, sort.getSort(), pageLimit);
+			case PENDING -> taskRepository.findByCompleted(false, position, sort.getSort(), pageLimit);
+			case COMPLETED -> taskRepository.findByCompleted(true, position, sort.getSort(), pageLimit);
+			case TODAY -> taskRepository.findByCompletedAndDueDate(false, LocalDate.now(), position, sort.getSort(), pageLimit);
+		};
+		return toPage(window, sort);
+	}
+
+	/**
+	 * Retrieves one page of the pending tasks whose due date has passed, earliest due date first.
+	 * Each page is a range scan of {@code idx_task_completed_due_date} that stops after the page,
+	 * so its cost follows the page size rather than the number of tasks.
+	 *
+	 * @param cursor The cursor returned with the previous page, or null for the first page.
+	 * @param limit  The requested page size, clamped to [1, {@value #MAX_PAGE_LIMIT}].
+	 * @return The requested page and the cursor of the next one.
+	 * @throws IllegalArgumentException if the cursor is malformed or belongs to another sort.
+	 */
+	@Transactional(readOnly = true)
+	public TaskPage getOverdueTasks(String cursor, int limit) throws IllegalArgumentException {
+		ScrollPosition position = scrollPosition(cursor, TaskSort.DUE_DATE);
+		Limit pageLimit = pageLimit(limit);
+		log.debug("Retrieving overdue tasks page with limit {}", pageLimit.max());
+		return toPage(
+				taskRepository.findByCompletedAndDueDateBefore(
+						false, LocalDate.now(), position, TaskSort.DUE_DATE.getSort(), pageLimit
+				),
+				TaskSort.DUE_DATE
+		);
+	}
+
+	/**
+	 * Retrieves one page of the pending tasks due from today on, within the given number of days,
+	 * earliest due date first. Served like {@link #getOverdueTasks(String, int)}.
+	 *
+	 * @param days   The number of days to look ahead, today included: 7 covers today and the six days after it.
+	 *               Must be between 1 and {@value #MAX_DUE_WITHIN_DAYS}.
+	 * @param cursor The cursor returned with the previous page, or null for the first page.
+	 * @param limit  The requested page size, clamped to [1, {@value #MAX_PAGE_LIMIT}].
+	 * @return The requested page and the cursor of the next one.
+	 * @throws IllegalArgumentException if the number of days is out of range or the cursor is invalid.
+	 */
+	@Transactional(readOnly = true)
+	public TaskPage getTasksDueWithin(int days, String cursor, int limit) throws IllegalArgumentException {
+		if (days < 1 || days > MAX_DUE_WITHIN_DAYS) {
+			throw new IllegalArgumentException("Days must be between 1 and " + MAX_DUE_WITHIN_DAYS);
+		}
 		LocalDate today = LocalDate.now();
-		List<Task> allTasks = getAllTasks();
-		if (allTasks.isEmpty()) {
-			return List.of();
-		}
-		return allTasks.stream()
-				.filter(task -> !task.isCompleted()) // Filter for pending tasks
-				.filter(task -> task.getDueDate() != null && task.getDueDate().isEqual(today)) // Filter for today's due date
-				.toList();
+		return getTasksDueBetween(today, today.plusDays(days), TaskFilter.PENDING, cursor, limit);
+	}
+
+	/**
+	 * Retrieves one page of the tasks due in the half-open window [from, to), earliest due date first.
+	 * Pending and completed tasks are served by {@code idx_task_completed_due_date}, all tasks by
+	 * {@code idx_task_due_date}; either way each page is one range scan that stops after the page.
+	 *
+	 * @param from   The first due date in the window. Must not be null.
+	 * @param to     The first due date after the window. Must not be null and must be after {@code from}.
+	 * @param filter {@link TaskFilter#ALL}, {@link TaskFilter#PENDING} or {@link TaskFilter#COMPLETED}. Must not be null.
+	 * @param cursor The cursor returned with the previous page, or null for the first page.
+	 * @param limit  The requested page size, clamped to [1, {@value #MAX_PAGE_LIMIT}].
+	 * @return The requested page and the cursor of the next one.
+	 * @throws IllegalArgumentException if the window is empty, the filter is {@link TaskFilter#TODAY}
+	 *                                  or the cursor is invalid.
+	 */
+	@Transactional(readOnly = true)
+	public TaskPage getTasksDueBetween(
+			@NotNull(message = "From cannot be null") LocalDate from,
+			@NotNull(message = "To cannot be null") LocalDate to,
+			@NotNull(message = "Filter cannot be null") TaskFilter filter,
+			String cursor,
+			int limit
+	) throws IllegalArgumentException {
+		if (!from.isBefore(to)) {
+			throw new IllegalArgumentException("Window start " + from + " must be before its end " + to);
+		}
+		ScrollPosition position = scrollPosition(cursor, TaskSort.DUE_DATE);
+		Limit pageLimit = pageLimit(limit);
+		Sort sort = TaskSort.DUE_DATE.getSort();
+		log.debug("Retrieving {} tasks due in [{}, {}) with limit {}", filter, from, to, pageLimit.max());
+
+		Window<Task> window = switch (filter) {
+			case ALL -> taskRepository.findByDueDateGreaterThanEqualAndDueDateBefore(from, to, position, sort, pageLimit);
+			case PENDING -> taskRepository.findByCompletedAndDueDateGreaterThanEqualAndDueDateBefore(
+					false, from, to, position, sort, pageLimit
+			);
+			case COMPLETED -> taskRepository.findByCompletedAndDueDateGreaterThanEqualAndDueDateBefore(
+					true, from, to, position, sort, pageLimit
+			);
+			case TODAY -> throw new IllegalArgumentException("Filter today cannot be combined with a due date window");
+		};
+		return toPage(window, TaskSort.DUE_DATE);
+	}
+
+	/**
+	 * Marks every pending task whose due date has passed as completed.
+	 * Runs as a single UPDATE statement, recorded in the outbox by one INSERT ... SELECT; no tasks are loaded.
+	 *
+	 * @return The number of tasks that were completed.
+	 */
+	@Transactional
+	public int completeOverdueTasks() {
+		LocalDate today = LocalDate.now();
+		Instant now = Instant.now();
+		long pendingCommit = taskCommitService.enlist();
+		taskChangeRepository.recordOverdueCompletion(TaskChangedEvent.Type.UPDATED, today, pendingCommit, now);
+		int affected = taskRepository.completeOverdue(today, now);
+		log.info("Completed {} overdue tasks", affected);
+		publishBulkChange(TaskBulkChangedEvent.Type.COMPLETED_OVERDUE, affected);
+		return affected;
+	}
+
+	/**
+	 * Deletes every completed task due strictly before the given date.
+	 * Runs as a single DELETE statement, recorded in the outbox and the tombstones by one INSERT ... SELECT each;
+	 * no tasks are loaded.
+	 *
+	 * @param before The exclusive upper bound on the due date. Must not be null.
+	 * @return The number of tasks that were deleted.
+	 */
+	@Transactional
+	public int deleteCompletedTasksDueBefore(@NotNull(message = "Date cannot be null") LocalDate before) {
+		Instant now = Instant.now();
+		long pendingCommit = taskCommitService.enlist();
+		taskChangeRepository.recordCompletedDeletion(TaskChangedEvent.Type.DELETED, before, pendingCommit, now);
+		taskTombstoneRepository.recordCompletedDeletion(before, now);
+		int affected = taskRepository.deleteCompletedDueBefore(before);
+		log.info("Deleted {} completed tasks due before {}", affected, before);
+		publishBulkChange(TaskBulkChangedEvent.Type.DELETED_COMPLETED, affected);
+		return affected;
+	}
+
+	/**
+	 * Moves the due dates of the selected tasks by a number of days.
+	 * Runs as a single UPDATE statement, recorded in the outbox by one INSERT ... SELECT;
+	 * ids that do not exist are ignored.
+	 *
+	 * @param ids  The ids of the tasks to reschedule. Must contain between 1 and {@value #MAX_BULK_IDS} ids.
+	 * @param days The number of days to shift by; negative values move due dates earlier.
+	 * @return The number of tasks that were rescheduled.
+	 * @throws IllegalArgumentException if no ids or too many ids are given.
+	 */
+	@Transactional
+	public int rescheduleTasks(Collection<Long> ids, int days) throws IllegalArgumentException {
+		if (ids == null || ids.isEmpty()) {
+			throw new IllegalArgumentException("At least one task id is required");
+		}
+		if (ids.size() > MAX_BULK_IDS) {
+			throw new IllegalArgumentException("At most " + MAX_BULK_IDS + " task ids can be rescheduled at once");
+		}
+		if (days == 0) {
+			return 0;
+		}
+		Instant now = Instant.now();
+		int affected = taskRepository.shiftDueDates(ids, days, now);
+		long pendingCommit = taskCommitService.enlist();
+		taskChangeRepository.recordChanges(TaskChangedEvent.Type.UPDATED, ids, pendingCommit, now);
+		log.info("Rescheduled {} of {} requested tasks by {} days", affected, ids.size(), days);
+		publishBulkChange(TaskBulkChangedEvent.Type.RESCHEDULED, affected);
+		return affected;
+	}
+
+	/**
+	 * Marks a task as completed if it is still at the given version.
+	 * The task is read from the second-level cache and written back with one versioned UPDATE.
+	 *
+	 * @param id      The id of the task. Must not be null.
+	 * @param version The version the caller last saw. Must not be null.
+	 * @return The current version of the task.
+	 * @throws ResourceNotFoundException if no task exists with the given id.
+	 * @throws ResourceConflictException if the task was changed since the given version.
+	 */
+	@Transactional(rollbackFor = Exception.class)
+	public long completeTask(Long id, Long version) throws ResourceNotFoundException, ResourceConflictException {
+		return transition(id, version, task -> task.setCompleted(true));
+	}
+
+	/**
+	 * Marks a completed task as pending again if it is still at the given version.
+	 * The task is read from the second-level cache and written back with one versioned UPDATE.
+	 *
+	 * @param id      The id of the task. Must not be null.
+	 * @param version The version the caller last saw. Must not be null.
+	 * @return The current version of the task.
+	 * @throws ResourceNotFoundException if no task exists with the given id.
+	 * @throws ResourceConflictException if the task was changed since the given version.
+	 */
+	@Transactional(rollbackFor = Exception.class)
+	public long reopenTask(Long id, Long version) throws ResourceNotFoundException, ResourceConflictException {
+		return transition(id, version, task -> task.setCompleted(false));
+	}
+
+	/**
+	 * Moves a task to a new due date if it is still at the given version.
+	 * The task is read from the second-level cache and written back with one versioned UPDATE.
+	 *
+	 * @param id      The id of the task. Must not be null.
+	 * @param version The version the caller last saw. Must not be null.
+	 * @param dueDate The new due date. Must not be null.
+	 * @return The current version of the task.
+	 * @throws ResourceNotFoundException if no task exists with the given id.
+	 * @throws ResourceConflictException if the task was changed since the given version.
+	 */
+	@Transactional(rollbackFor = Exception.class)
+	public long rescheduleTask(Long id, Long version, LocalDate dueDate)
+			throws ResourceNotFoundException, ResourceConflictException {
+		if (dueDate == null) {
+			throw new IllegalArgumentException("Due date cannot be null");
+		}
+		return transition(id, version, task -> task.setDueDate(dueDate));
+	}
+
+	/**
+	 * Renames a task if it is still at the given version.
+	 * The task is read from the second-level cache and written back with one versioned UPDATE;
+	 * the unique title index rejects names already in use.
+	 *
+	 * @param id      The id of the task. Must not be null.
+	 * @param version The version the caller last saw. Must not be null.
+	 * @param title   The new title. Must not be blank.
+	 * @return The current version of the task.
+	 * @throws ResourceNotFoundException if no task exists with the given id.
+	 * @throws ResourceConflictException if the task was changed since the given version, or the title is taken.
+	 */
+	@Transactional(rollbackFor = Exception.class)
+	public long retitleTask(Long id, Long version, String title)
+			throws ResourceNotFoundException, ResourceConflictException {
+		if (title == null || title.isBlank()) {
+			throw new IllegalArgumentException("Title cannot be blank");
+		}
+		try {
+			return transition(id, version, task -> task.setTitle(title));
+		} catch (DataIntegrityViolationException exception) {
+			log.warn("Rejected retitle of task {}: title already in use: {}", id, title);
+			throw new ResourceConflictException("Task already exists with title: " + title);
+		}
+	}
+
+	/**
+	 * Applies a change to a task the caller saw at the given version.
+	 * A version mismatch against the cached copy is rejected without touching the database; a concurrent
+	 * write that lands between the read and the flush makes the versioned UPDATE match no row and is rejected too.
+	 * A change that leaves the task as it was issues no UPDATE and keeps the version.
+	 */
+	private long transition(Long id, Long version, Consumer<Task> change)
+			throws ResourceNotFoundException, ResourceConflictException {
+		if (id == null) {
+			throw new IllegalArgumentException("Id cannot be null");
+		}
+		if (version == null) {
+			throw new IllegalArgumentException("Version cannot be null");
+		}
+		Task task = taskRepository.findById(id)
+				.orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
+		if (!version.equals(task.getVersion())) {
+			log.warn("Rejected stale transition of task {} at version {}, current is {}", id, version, task.getVersion());
+			throw new ResourceConflictException("Task " + id + " was modified concurrently; reload it and retry");
+		}
+		boolean previousCompleted = task.isCompleted();
+		LocalDate previousDueDate = task.getDueDate();
+		change.accept(task);
+		try {
+			Task saved = taskRepository.saveAndFlush(task);
+			Long current = saved.getVersion();
+			log.info("Task {} moved from version {} to {}", id, version, current);
+			record(TaskChangedEvent.updated(saved, previousCompleted, previousDueDate));
+			return current;
+		} catch (OptimisticLockingFailureException exception) {
+			log.warn("Rejected stale transition of task {} at version {}", id, version);
+			throw new ResourceConflictException("Task " + id + " was modified concurrently; reload it and retry");
+		}
+	}
+
+	// the outbox row commits with the change; listeners run once the transaction commits
+	private void record(TaskChangedEvent event) {
+		long pendingCommit = taskCommitService.enlist();
+		taskChangeRepository.save(TaskChange.of(event, pendingCommit, Instant.now()));
+		eventPublisher.publishEvent(event);
+	}
+
+	// listeners run once the transaction commits; a statement that matched nothing changed nothing to react to
+	private void publishBulkChange(TaskBulkChangedEvent.Type type, int affected) {
+		if (affected > 0) {
+			eventPublisher.publishEvent(new TaskBulkChangedEvent(type, affected));
+		}
+	}
+
+	private static ScrollPosition scrollPosition(String cursor, TaskSort sort) throws IllegalArgumentException {
+		return cursor == null || cursor.isBlank()
+				? ScrollPosition.keyset()
+				: TaskCursor.decode(cursor, sort).toScrollPosition();
+	}
+
+	private static Limit pageLimit(int limit) {
+		return Limit.of(Math.max(1, Math.min(limit, MAX_PAGE_LIMIT)));
+	}
+
+	private static TaskPage toPage(Window<Task> window, TaskSort sort) {
+		List<Task> items = window.getContent();
+		String next = window.hasNext() && !items.isEmpty()
+				? TaskCursor.after(sort, items.get(items.size() - 1)).encode()
+				: null;
+		return new TaskPage(items, next);
 	}
 }
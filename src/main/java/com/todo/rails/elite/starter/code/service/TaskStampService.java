@@ -0,0 +1,170 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.TaskBulkChangedEvent;
+import com.todo.rails.elite.starter.code.model.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.model.TaskChangesRelayedEvent;
+import com.todo.rails.elite.starter.code.model.TaskCollectionStamp;
+import com.todo.rails.elite.starter.code.model.TaskStamp;
+import com.todo.rails.elite.starter.code.model.TasksImportedEvent;
+import com.todo.rails.elite.starter.code.repository.TaskCommitCounterRepository;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Service layer for the change stamps behind conditional GETs of tasks.
+ *
+ * <p>A stamp is read with a single projection query and never loads or serializes a task, so a client polling an
+ * unchanged collection costs one query at most. The collection stamp is the single row of the commit counter, which
+ * every transaction that changes tasks increments as it commits, so its cost does not grow with the table. It is
+ * additionally kept for a short time-to-live and dropped as soon as a {@link TaskChangedEvent},
+ * {@link TasksImportedEvent} or {@link TaskBulkChangedEvent} commits, so changes made through this instance are
+ * visible immediately. Changes made through other instances sharing the database are visible once the outbox relay
+ * delivers them as a {@link TaskChangesRelayedEvent}, and after at most the time-to-live in any case.</p>
+ *
+ * <p>Cached stamps only decide whether a client's copy is still current. A collection sent in full is tagged with
+ * the stamp read by {@link #readCollection} in the same read-only transaction that loads it, so the stamp and the
+ * tasks come from the same database: a stamp from the primary on tasks from a lagging replica would have the client
+ * revalidate stale tasks as current.</p>
+ */
+@Service
+@Timed("todo.service")
+public class TaskStampService {
+
+	private final TaskRepository taskRepository;
+	private final TaskCommitCounterRepository taskCommitCounterRepository;
+	private final long ttlNanos;
+	// bumped on every committed change; a cached stamp is only valid for the generation it was read in
+	private final AtomicLong generation = new AtomicLong();
+
+	private volatile CachedStamp cached;
+
+	/**
+	 * Constructs a TaskStampService.
+	 *
+	 * @param taskRepository              The repository the stamps of single tasks are read from.
+	 * @param taskCommitCounterRepository The repository the collection stamp is read from.
+	 * @param ttl                         How long a collection stamp is reused; zero reads it on every call.
+	 */
+	@Autowired
+	public TaskStampService(
+			TaskRepository taskRepository,
+			TaskCommitCounterRepository taskCommitCounterRepository,
+			@Value("${todo.tasks.stamp.ttl:1s}") Duration ttl
+	) {
+		this.taskRepository = taskRepository;
+		this.taskCommitCounterRepository = taskCommitCounterRepository;
+		this.ttlNanos = Math.max(0, ttl.toNanos());
+	}
+
+	/**
+	 * Retrieves the change stamp of the whole tasks table.
+	 *
+	 * @return The current stamp, or one read at most the configured time-to-live ago with no local change since.
+	 */
+	public TaskCollectionStamp getCollectionStamp() {
+		CachedStamp current = cached;
+		long now = System.nanoTime();
+		long currentGeneration = generation.get();
+		if (current != null && current.generation() == currentGeneration && now - current.readAt() < ttlNanos) {
+			return current.stamp();
+		}
+		TaskCollectionStamp stamp = taskCommitCounterRepository.findCollectionStamp();
+		if (ttlNanos > 0) {
+			// a change committed while the query ran has already moved the generation, so this entry is never used
+			cached = new CachedStamp(stamp, currentGeneration, now);
+		}
+		return stamp;
+	}
+
+	/**
+	 * Reads tasks together with the change stamp of the whole table, both in one read-only transaction and therefore
+	 * from the same database, whichever one the transaction is routed to. The stamp is read first and never cached,
+	 * so it never claims changes the tasks read after it miss.
+	 *
+	 * @param read Loads the tasks, given the stamp that describes them; exceptions pass through unchanged.
+	 * @return The result of the read.
+	 */
+	@Transactional(readOnly = true)
+	public <T> T readCollection(Function<TaskCollectionStamp, T> read) {
+		return read.apply(taskCommitCounterRepository.findCollectionStamp());
+	}
+
+	/**
+	 * Retrieves the change stamp of a single task.
+	 *
+	 * @param id The ID of the task. Must not be null.
+	 * @return The stamp, or empty if no task exists with the given ID.
+	 */
+	public Optional<TaskStamp> getTaskStamp(@NotNull(message = "Id cannot be null") Long id) {
+		return taskRepository.findStampById(id);
+	}
+
+	/**
+	 * Retrieves the change stamp of a single task by its title.
+	 *
+	 * @param title The title of the task. Must not be null.
+	 * @return The stamp, or empty if no task exists with the given title.
+	 */
+	public Optional<TaskStamp> getTaskStampByTitle(@NotNull(message = "Title cannot be null") String title) {
+		return taskRepository.findStampByTitle(title);
+	}
+
+	/**
+	 * Drops the cached collection stamp after a single task changed.
+	 *
+	 * @param event The change.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onTaskChanged(TaskChangedEvent event) {
+		invalidate();
+	}
+
+	/**
+	 * Drops the cached collection stamp after an import batch added tasks.
+	 *
+	 * @param event The batch.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onTasksImported(TasksImportedEvent event) {
+		invalidate();
+	}
+
+	/**
+	 * Drops the cached collection stamp after a bulk statement changed tasks.
+	 *
+	 * @param event The change.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onTasksChangedInBulk(TaskBulkChangedEvent event) {
+		invalidate();
+	}
+
+	/**
+	 * Drops the cached collection stamp when the outbox relay delivers changes, which may come from other instances.
+	 *
+	 * @param event The changes.
+	 */
+	@EventListener
+	public void onTaskChangesRelayed(TaskChangesRelayedEvent event) {
+		invalidate();
+	}
+
+	private void invalidate() {
+		generation.incrementAndGet();
+	}
+
+	private record CachedStamp(TaskCollectionStamp stamp, long generation, long readAt) {
+	}
+}
@@ -0,0 +1,488 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.TaskSuggestion;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory radix trie over task titles for prefix completion.
+ *
+ * <p>Titles are folded to lower case without accents, with runs of whitespace collapsed. Chains of single-child
+ * nodes are merged into one edge, so the trie has at most two nodes per title, and titles sharing a beginning share
+ * its characters. Every node caches the best {@value #MAX_SUGGESTIONS} tasks below it in {@link #RANKING} order,
+ * which makes a lookup a walk down the prefix however many titles share it; a change recomputes the caches on the
+ * path of its title only. Any number of lookups run concurrently; changes take a short exclusive lock.</p>
+ */
+class TaskSuggestionIndex {
+
+	/**
+	 * Most suggestions a lookup can return, and the number cached per node.
+	 */
+	static final int MAX_SUGGESTIONS = 10;
+
+	/**
+	 * Pending tasks first, then the earliest due date, then title and id for a stable order.
+	 */
+	static final Comparator<TaskSuggestion> RANKING = TaskSuggestionIndex::compareRank;
+
+	private static final TaskSuggestion[] NO_TASKS = new TaskSuggestion[0];
+	private static final Node[] NO_CHILDREN = new Node[0];
+
+	// rough HotSpot sizes with compressed references, for the footprint estimate
+	private static final int OBJECT_HEADER_BYTES = 12;
+	private static final int ARRAY_HEADER_BYTES = 16;
+	private static final int REFERENCE_BYTES = 4;
+
+	private static final class Node {
+		// the edge from the parent; empty only at the root
+		char[] label;
+		// sorted by first label character
+		Node[] children = NO_CHILDREN;
+		// tasks with a key ending exactly here, in ranking order
+		TaskSuggestion[] tasks = NO_TASKS;
+		// best tasks in this subtree, in ranking order; the tasks array itself at most leaves
+		TaskSuggestion[] best = NO_TASKS;
+
+		Node(char[] label) {
+			this.label = label;
+		}
+	}
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Node root = new Node(new char[0]);
+	private final Map<Long, TaskSuggestion> tasksById = new HashMap<>();
+
+	/**
+	 * Folds text the way titles are indexed: lower case, accents removed and whitespace runs as one space.
+	 *
+	 * @param text The text to fold; null yields an empty string.
+	 * @return The folded text.
+	 */
+	static String fold(String text) {
+		if (text == null || text.isEmpty()) {
+			return "";
+		}
+		String decomposed = Normalizer.normalize(text, Normalizer.Form.NFKD);
+		StringBuilder folded = new StringBuilder(decomposed.length());
+		boolean space = false;
+		for (int index = 0; index < decomposed.length(); ) {
+			int codePoint = decomposed.codePointAt(index);
+			index += Character.charCount(codePoint);
+			if (Character.isWhitespace(codePoint)) {
+				space = true;
+			} else if (Character.getType(codePoint) != Character.NON_SPACING_MARK) {
+				if (space && !folded.isEmpty()) {
+					folded.append(' ');
+				}
+				space = false;
+				folded.appendCodePoint(Character.toLowerCase(codePoint));
+			}
+		}
+		return folded.toString();
+	}
+
+	/**
+	 * Turns what a user typed into a title prefix. Trailing whitespace is kept as one space, so "review " only
+	 * matches titles whose first word is "review".
+	 *
+	 * @param typed The typed text.
+	 * @return The prefix to look up, empty if the text is blank.
+	 */
+	static String prefixOf(String typed) {
+		String folded = fold(typed);
+		if (folded.isEmpty()) {
+			return "";
+		}
+		return Character.isWhitespace(typed.charAt(typed.length() - 1)) ? folded + ' ' : folded;
+	}
+
+	/**
+	 * Adds a task, replacing what was indexed for it before.
+	 *
+	 * @param task The task; tasks without id or title are ignored.
+	 */
+	void put(TaskSuggestion task) {
+		if (task.id() == null || task.title() == null) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			removeLocked(task.id());
+			tasksById.put(task.id(), task);
+			List<Node> path = new ArrayList<>();
+			insert(fold(task.title()), task, path);
+			refreshBest(path);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds many tasks at once, recomputing the cached rankings in one pass at the end.
+	 *
+	 * @param tasks The tasks; tasks without id or title are ignored.
+	 */
+	void putAll(Collection<TaskSuggestion> tasks) {
+		lock.writeLock().lock();
+		try {
+			List<Node> path = new ArrayList<>();
+			for (TaskSuggestion task : tasks) {
+				if (task.id() == null || task.title() == null) {
+					continue;
+				}
+				removeLocked(task.id());
+				tasksById.put(task.id(), task);
+				insert(fold(task.title()), task, path);
+				path.clear();
+			}
+			refreshAll(root);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes a task; unknown ids are ignored.
+	 *
+	 * @param id The id of the task.
+	 */
+	void remove(long id) {
+		lock.writeLock().lock();
+		try {
+			removeLocked(id);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Finds the best tasks whose title starts with the prefix.
+	 *
+	 * @param prefix A prefix as returned by {@link #prefixOf(String)}.
+	 * @param limit  Maximum number of tasks, at most {@value #MAX_SUGGESTIONS}.
+	 * @return The tasks in {@link #RANKING} order.
+	 */
+	List<TaskSuggestion> suggest(String prefix, int limit) {
+		lock.readLock().lock();
+		try {
+			Node node = root;
+			int matched = 0;
+			while (matched < prefix.length()) {
+				int index = childIndex(node, prefix.charAt(matched));
+				if (index < 0) {
+					return List.of();
+				}
+				node = node.children[index];
+				int length = Math.min(node.label.length, prefix.length() - matched);
+				for (int i = 1; i < length; i++) {
+					if (node.label[i] != prefix.charAt(matched + i)) {
+						return List.of();
+					}
+				}
+				matched += length;
+			}
+			return List.of(Arrays.copyOf(node.best, Math.min(node.best.length, Math.max(0, limit))));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return The number of indexed tasks.
+	 */
+	int size() {
+		lock.readLock().lock();
+		try {
+			return tasksById.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Estimates the heap retained by the index: nodes, edge labels, the arrays referencing tasks, and the tasks
+	 * themselves with their titles and the id lookup. Walks the whole trie, so call it for reporting only.
+	 *
+	 * @return The estimated size in bytes.
+	 */
+	long estimatedBytes() {
+		lock.readLock().lock();
+		try {
+			long bytes = nodeBytes(root);
+			for (TaskSuggestion task : tasksById.values()) {
+				// record, boxed id, due date, title string with its Latin-1 bytes, hash map entry and table slot
+				bytes += align(OBJECT_HEADER_BYTES + 3 * REFERENCE_BYTES + 1)
+						+ align(OBJECT_HEADER_BYTES + Long.BYTES)
+						+ align(OBJECT_HEADER_BYTES + Integer.BYTES + 2 * Short.BYTES)
+						+ align(OBJECT_HEADER_BYTES + REFERENCE_BYTES + Integer.BYTES + 2)
+						+ align(ARRAY_HEADER_BYTES + task.title().length())
+						+ align(OBJECT_HEADER_BYTES + 3 * REFERENCE_BYTES + Integer.BYTES)
+						+ REFERENCE_BYTES;
+			}
+			return bytes;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private static long nodeBytes(Node root) {
+		long bytes = 0;
+		List<Node> pending = new ArrayList<>();
+		pending.add(root);
+		while (!pending.isEmpty()) {
+			Node node = pending.remove(pending.size() - 1);
+			bytes += align(OBJECT_HEADER_BYTES + 4 * REFERENCE_BYTES)
+					+ align(ARRAY_HEADER_BYTES + (long) Character.BYTES * node.label.length);
+			bytes += referenceArrayBytes(node.children, NO_CHILDREN)
+					+ referenceArrayBytes(node.tasks, NO_TASKS)
+					+ (node.best == node.tasks ? 0 : referenceArrayBytes(node.best, NO_TASKS));
+			pending.addAll(Arrays.asList(node.children));
+		}
+		return bytes;
+	}
+
+	private static long referenceArrayBytes(Object[] array, Object[] shared) {
+		return array == shared ? 0 : align(ARRAY_HEADER_BYTES + (long) REFERENCE_BYTES * array.length);
+	}
+
+	private static long align(long bytes) {
+		return (bytes + 7) & ~7L;
+	}
+
+	/**
+	 * Inserts a folded title without touching the cached rankings; the nodes it passed are appended to {@code path}.
+	 */
+	private void insert(String key, TaskSuggestion task, List<Node> path) {
+		Node node = root;
+		path.add(node);
+		int matched = 0;
+		while (matched < key.length()) {
+			int index = childIndex(node, key.charAt(matched));
+			if (index < 0) {
+				Node leaf = new Node(key.substring(matched).toCharArray());
+				leaf.tasks = new TaskSuggestion[]{task};
+				node.children = insertAt(node.children, -index - 1, leaf);
+				path.add(leaf);
+				return;
+			}
+			Node child = node.children[index];
+			int common = 1;
+			while (common < child.label.length && matched + common < key.length()
+					&& child.label[common] == key.charAt(matched + common)) {
+				common++;
+			}
+			if (common < child.label.length) {
+				// the key leaves the edge part way: split it at the last shared character
+				Node split = new Node(Arrays.copyOf(child.label, common));
+				child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+				split.children = new Node[]{child};
+				split.best = child.best;
+				node.children[index] = split;
+				child = split;
+			}
+			matched += common;
+			node = child;
+			path.add(node);
+		}
+		node.tasks = insertRanked(node.tasks, task);
+	}
+
+	private void removeLocked(long id) {
+		TaskSuggestion task = tasksById.remove(id);
+		if (task == null) {
+			return;
+		}
+		List<Node> path = new ArrayList<>();
+		if (removeKey(fold(task.title()), id, path)) {
+			refreshBest(path);
+		}
+	}
+
+	private boolean removeKey(String key, long id, List<Node> path) {
+		Node node = root;
+		path.add(node);
+		int matched = 0;
+		while (matched < key.length()) {
+			int index = childIndex(node, key.charAt(matched));
+			if (index < 0) {
+				return false;
+			}
+			node = node.children[index];
+			if (node.label.length > key.length() - matched) {
+				return false;
+			}
+			for (int i = 1; i < node.label.length; i++) {
+				if (node.label[i] != key.charAt(matched + i)) {
+					return false;
+				}
+			}
+			matched += node.label.length;
+			path.add(node);
+		}
+		node.tasks = withoutTask(node.tasks, id);
+
+		// drop nodes left empty and merge a node left with a single child and no tasks into that child
+		for (int depth = path.size() - 1; depth > 0; depth--) {
+			Node current = path.get(depth);
+			Node parent = path.get(depth - 1);
+			if (current.tasks.length > 0 || current.children.length > 1) {
+				break;
+			}
+			int index = childIndex(parent, current.label[0]);
+			path.remove(depth);
+			if (current.children.length == 0) {
+				parent.children = removeAt(parent.children, index);
+				continue;
+			}
+			Node only = current.children[0];
+			char[] label = Arrays.copyOf(current.label, current.label.length + only.label.length);
+			System.arraycopy(only.label, 0, label, current.label.length, only.label.length);
+			only.label = label;
+			parent.children[index] = only;
+			break;
+		}
+		return true;
+	}
+
+	private static void refreshBest(List<Node> path) {
+		for (int depth = path.size() - 1; depth >= 0; depth--) {
+			Node node = path.get(depth);
+			node.best = best(node);
+		}
+	}
+
+	private static void refreshAll(Node root) {
+		// children before parents, without recursing as deep as the longest title
+		List<Node> order = new ArrayList<>();
+		order.add(root);
+		for (int i = 0; i < order.size(); i++) {
+			order.addAll(Arrays.asList(order.get(i).children));
+		}
+		for (int i = order.size() - 1; i >= 0; i--) {
+			Node node = order.get(i);
+			node.best = best(node);
+		}
+	}
+
+	/**
+	 * Merges the ranked tasks of a node with the cached rankings of its children.
+	 */
+	private static TaskSuggestion[] best(Node node) {
+		if (node.children.length == 0 && node.tasks.length <= MAX_SUGGESTIONS) {
+			return node.tasks;
+		}
+		int sources = node.children.length + 1;
+		int[] positions = new int[sources];
+		TaskSuggestion[] best = new TaskSuggestion[MAX_SUGGESTIONS];
+		int size = 0;
+		while (size < MAX_SUGGESTIONS) {
+			TaskSuggestion next = null;
+			int from = -1;
+			for (int source = 0; source < sources; source++) {
+				TaskSuggestion[] ranked = source == 0 ? node.tasks : node.children[source - 1].best;
+				if (positions[source] < ranked.length) {
+					TaskSuggestion candidate = ranked[positions[source]];
+					if (next == null || RANKING.compare(candidate, next) < 0) {
+						next = candidate;
+						from = source;
+					}
+				}
+			}
+			if (next == null) {
+				break;
+			}
+			positions[from]++;
+			best[size++] = next;
+		}
+		return size == 0 ? NO_TASKS : size == best.length ? best : Arrays.copyOf(best, size);
+	}
+
+	// spelled out rather than chained: merging rankings compares a lot, and this compares without boxing
+	private static int compareRank(TaskSuggestion left, TaskSuggestion right) {
+		if (left.completed() != right.completed()) {
+			return left.completed() ? 1 : -1;
+		}
+		if (left.dueDate() != right.dueDate()) {
+			if (left.dueDate() == null || right.dueDate() == null) {
+				return left.dueDate() == null ? 1 : -1;
+			}
+			int byDueDate = left.dueDate().compareTo(right.dueDate());
+			if (byDueDate != 0) {
+				return byDueDate;
+			}
+		}
+		int byTitle = left.title().compareTo(right.title());
+		return byTitle != 0 ? byTitle : Long.compare(left.id(), right.id());
+	}
+
+	private static int childIndex(Node node, char first) {
+		int low = 0;
+		int high = node.children.length - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			char candidate = node.children[middle].label[0];
+			if (candidate < first) {
+				low = middle + 1;
+			} else if (candidate > first) {
+				high = middle - 1;
+			} else {
+				return middle;
+			}
+		}
+		return -low - 1;
+	}
+
+	private static Node[] insertAt(Node[] children, int index, Node child) {
+		Node[] result = new Node[children.length + 1];
+		System.arraycopy(children, 0, result, 0, index);
+		result[index] = child;
+		System.arraycopy(children, index, result, index + 1, children.length - index);
+		return result;
+	}
+
+	private static Node[] removeAt(Node[] children, int index) {
+		if (children.length == 1) {
+			return NO_CHILDREN;
+		}
+		Node[] result = new Node[children.length - 1];
+		System.arraycopy(children, 0, result, 0, index);
+		System.arraycopy(children, index + 1, result, index, children.length - index - 1);
+		return result;
+	}
+
+	private static TaskSuggestion[] insertRanked(TaskSuggestion[] tasks, TaskSuggestion task) {
+		int index = 0;
+		while (index < tasks.length && RANKING.compare(tasks[index], task) < 0) {
+			index++;
+		}
+		TaskSuggestion[] result = new TaskSuggestion[tasks.length + 1];
+		System.arraycopy(tasks, 0, result, 0, index);
+		result[index] = task;
+		System.arraycopy(tasks, index, result, index + 1, tasks.length - index);
+		return result;
+	}
+
+	private static TaskSuggestion[] withoutTask(TaskSuggestion[] tasks, long id) {
+		for (int index = 0; index < tasks.length; index++) {
+			if (tasks[index].id() == id) {
+				if (tasks.length == 1) {
+					return NO_TASKS;
+				}
+				TaskSuggestion[] result = new TaskSuggestion[tasks.length - 1];
+				System.arraycopy(tasks, 0, result, 0, index);
+				System.arraycopy(tasks, index + 1, result, index, tasks.length - index - 1);
+				return result;
+			}
+		}
+		return tasks;
+	}
+}
@@ -0,0 +1,206 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.TaskChange;
+import com.todo.rails.elite.starter.code.model.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.model.TaskChangesRelayedEvent;
+import com.todo.rails.elite.starter.code.model.TaskSuggestion;
+import com.todo.rails.elite.starter.code.model.TasksImportedEvent;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.validation.constraints.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Service layer for title suggestions while a user types.
+ *
+ * <p>Suggestions come from an in-memory {@link TaskSuggestionIndex} holding the id, title, status and due date of
+ * every task, so a keystroke costs a walk down a trie and no query. The index is loaded with one projection query
+ * when the application is ready and afterwards follows the {@link TaskChangedEvent}s and
+ * {@link TasksImportedEvent}s published once their transactions commit. Bulk statements and changes made through
+ * other instances sharing the database arrive from the outbox relay as {@link TaskChangesRelayedEvent}s, for which
+ * the named tasks are read again, so they show up within a relay interval.</p>
+ *
+ * <p>The index size is published as the {@code todo.suggest.index.tasks} gauge and its estimated heap footprint as
+ * {@code todo.suggest.index.memory}, in bytes. Estimating walks the whole trie, so the footprint is computed when
+ * the index is rebuilt and, after changes, again at most once a minute rather than on every scrape.</p>
+ */
+@Service
+@Timed("todo.service")
+public class TaskSuggestionService implements MeterBinder {
+
+	private static final Logger log = LoggerFactory.getLogger(TaskSuggestionService.class);
+	private static final long MEMORY_ESTIMATE_TTL_NANOS = Duration.ofMinutes(1).toNanos();
+
+	private final TaskRepository taskRepository;
+	private final RebuildableIndex<TaskSuggestionIndex> index = new RebuildableIndex<>(new TaskSuggestionIndex());
+
+	// the last footprint estimate, recomputed once it is stale and the index has changed since
+	private volatile MemoryEstimate memoryEstimate = new MemoryEstimate(null, 0, 0);
+	private volatile boolean changedSinceEstimate;
+
+	/**
+	 * Constructs a TaskSuggestionService.
+	 *
+	 * @param taskRepository The repository the index is loaded from.
+	 */
+	@Autowired
+	public TaskSuggestionService(TaskRepository taskRepository) {
+		this.taskRepository = taskRepository;
+	}
+
+	/**
+	 * Loads the index once the application has started.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		rebuild();
+	}
+
+	/**
+	 * Applies a committed change of a single task to the index.
+	 *
+	 * @param event The change.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onTaskChanged(TaskChangedEvent event) {
+		update(target -> apply(target, event));
+	}
+
+	/**
+	 * Applies a committed import batch to the index.
+	 *
+	 * @param event The batch.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onTasksImported(TasksImportedEvent event) {
+		event.changes().forEach(this::onTaskChanged);
+	}
+
+	/**
+	 * Brings the tasks named by relayed outbox changes up to date, including changes made through other instances.
+	 * The tasks are read again, so the index ends up with their committed state whatever order the changes were
+	 * relayed in; tasks no longer in the table are removed.
+	 *
+	 * @param event The changes.
+	 */
+	@EventListener
+	public void onTaskChangesRelayed(TaskChangesRelayedEvent event) {
+		Set<Long> ids = new HashSet<>();
+		for (TaskChange change : event.changes()) {
+			ids.add(change.getTaskId());
+		}
+		List<TaskSuggestion> current = taskRepository.findSuggestionsByIds(ids);
+		update(target -> {
+			Set<Long> deleted = new HashSet<>(ids);
+			for (TaskSuggestion suggestion : current) {
+				target.put(suggestion);
+				deleted.remove(suggestion.id());
+			}
+			deleted.forEach(target::remove);
+		});
+	}
+
+	/**
+	 * Reloads the index from the tasks table. Suggestions keep using the previous index until the new one is complete.
+	 *
+	 * @return The number of indexed tasks.
+	 */
+	public int rebuild() {
+		long started = System.nanoTime();
+		TaskSuggestionIndex rebuilt = index.rebuild(() -> {
+			TaskSuggestionIndex loaded = new TaskSuggestionIndex();
+			loaded.putAll(taskRepository.findAllSuggestions());
+			return loaded;
+		});
+		int size = rebuilt.size();
+		MemoryEstimate estimate = estimate(rebuilt);
+		log.info("Built suggestion index of {} tasks in {} ms, about {} KiB",
+				size, (System.nanoTime() - started) / 1_000_000, estimate.bytes() / 1024);
+		return size;
+	}
+
+	/**
+	 * Suggests tasks whose title starts with the typed text; pending tasks and earlier due dates first.
+	 * Matching ignores case, accents and repeated whitespace.
+	 *
+	 * @param typed What the user typed so far. Must not be null.
+	 * @param limit The number of suggestions, clamped to [1, {@value TaskSuggestionIndex#MAX_SUGGESTIONS}].
+	 * @return The suggestions, best first.
+	 * @throws IllegalArgumentException if the typed text is blank.
+	 * @throws IllegalStateException    if the index has not been loaded yet.
+	 */
+	public List<TaskSuggestion> suggest(@NotNull(message = "Prefix cannot be null") String typed, int limit)
+			throws IllegalArgumentException, IllegalStateException {
+		String prefix = TaskSuggestionIndex.prefixOf(typed);
+		if (prefix.isEmpty()) {
+			throw new IllegalArgumentException("Prefix cannot be blank");
+		}
+		if (!index.isReady()) {
+			throw new IllegalStateException("Suggestion index is still being built");
+		}
+		return index.current().suggest(prefix, Math.max(1, Math.min(limit, TaskSuggestionIndex.MAX_SUGGESTIONS)));
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("todo.suggest.index.tasks", this, service -> service.index.current().size())
+				.description("Tasks in the title suggestion index")
+				.register(registry);
+		Gauge.builder("todo.suggest.index.memory", this, TaskSuggestionService::estimatedBytes)
+				.description("Estimated heap retained by the title suggestion index")
+				.baseUnit("bytes")
+				.register(registry);
+	}
+
+	// applies a change and marks the footprint estimate as out of date
+	private void update(Consumer<TaskSuggestionIndex> change) {
+		index.update(change);
+		changedSinceEstimate = true;
+	}
+
+	private long estimatedBytes() {
+		TaskSuggestionIndex current = index.current();
+		MemoryEstimate estimate = memoryEstimate;
+		boolean stale = estimate.index() != current
+				|| changedSinceEstimate && System.nanoTime() - estimate.nanoTime() >= MEMORY_ESTIMATE_TTL_NANOS;
+		return stale ? estimate(current).bytes() : estimate.bytes();
+	}
+
+	private MemoryEstimate estimate(TaskSuggestionIndex target) {
+		// cleared first: a change made during the walk may or may not be counted, so it marks the estimate stale
+		changedSinceEstimate = false;
+		MemoryEstimate estimate = new MemoryEstimate(target, target.estimatedBytes(), System.nanoTime());
+		memoryEstimate = estimate;
+		return estimate;
+	}
+
+	private record MemoryEstimate(TaskSuggestionIndex index, long bytes, long nanoTime) {
+	}
+
+	private static void apply(TaskSuggestionIndex target, TaskChangedEvent event) {
+		if (event.id() == null) {
+			return;
+		}
+		switch (event.type()) {
+			case CREATED, UPDATED -> target.put(
+					new TaskSuggestion(event.id(), event.title(), event.completed(), event.dueDate())
+			);
+			case DELETED -> target.remove(event.id());
+		}
+	}
+}
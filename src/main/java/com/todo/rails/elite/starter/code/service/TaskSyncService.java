@@ -0,0 +1,152 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.TaskSync;
+import com.todo.rails.elite.starter.code.model.TaskSyncItem;
+import com.todo.rails.elite.starter.code.model.TaskSyncWatermark;
+import com.todo.rails.elite.starter.code.model.TaskTombstone;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import com.todo.rails.elite.starter.code.repository.TaskTombstoneRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service layer for the delta sync of offline and mobile clients.
+ *
+ * <p>A client keeps the watermark of its last sync and receives only the tasks written and the tombstones left
+ * after it, both read as range scans of their {@code (write time, id)} indexes. Reads and payload therefore follow
+ * the number of changes since the last sync rather than the number of tasks; a full sync is only needed for a new
+ * client or one that has not synced for longer than tombstones are kept.</p>
+ *
+ * <p>Write times are taken when a transaction writes, not when it commits, so a write can become visible behind a
+ * later one that a client has already received. The watermark a sync settles on is therefore never newer than the
+ * time the sync pass started minus the settle window, which must exceed the longest transaction that writes tasks.
+ * A pass that pages past that point reads on from the last entry sent, and once it has caught up, its watermark
+ * returns to the settle point of its first page; the next sync sends the writes since then again, and clients apply
+ * them idempotently.</p>
+ */
+@Service
+@Timed("todo.service")
+public class TaskSyncService {
+
+	private static final Logger log = LoggerFactory.getLogger(TaskSyncService.class);
+
+	private final TaskRepository taskRepository;
+	private final TaskTombstoneRepository taskTombstoneRepository;
+	private final Duration settleWindow;
+	private final Duration tombstoneRetention;
+
+	/**
+	 * Constructs a TaskSyncService.
+	 *
+	 * @param taskRepository          The repository the changed tasks are read from.
+	 * @param taskTombstoneRepository The repository the tombstones of deleted tasks are read from.
+	 * @param settleWindow            How far returned watermarks are held back behind the time of the sync.
+	 * @param tombstoneRetention      How long tombstones are kept; older watermarks get a full sync.
+	 */
+	@Autowired
+	public TaskSyncService(
+			TaskRepository taskRepository,
+			TaskTombstoneRepository taskTombstoneRepository,
+			@Value("${todo.tasks.sync.settle-window:10s}") Duration settleWindow,
+			@Value("${todo.tasks.sync.tombstone-retention:30d}") Duration tombstoneRetention
+	) {
+		this.taskRepository = taskRepository;
+		this.taskTombstoneRepository = taskTombstoneRepository;
+		this.settleWindow = settleWindow;
+		this.tombstoneRetention = tombstoneRetention;
+	}
+
+	/**
+	 * Retrieves the tasks created, updated or deleted after a watermark, in write order.
+	 *
+	 * @param watermark The watermark returned by the previous sync, or null for a full sync.
+	 * @param limit     The maximum number of changed and deleted tasks together,
+	 *                  clamped to [1, {@value TaskService#MAX_PAGE_LIMIT}].
+	 * @return The changes and the watermark to sync from next.
+	 * @throws IllegalArgumentException if the watermark is malformed.
+	 */
+	public TaskSync sync(String watermark, int limit) throws IllegalArgumentException {
+		Instant now = Instant.now();
+		boolean full = watermark == null || watermark.isBlank();
+		TaskSyncWatermark since = full ? TaskSyncWatermark.START : TaskSyncWatermark.decode(watermark);
+		if (!full && since.syncedTo().isBefore(now.minus(tombstoneRetention))) {
+			log.info("Sync watermark {} predates the kept tombstones; sending a full sync", since.syncedTo());
+			full = true;
+			since = TaskSyncWatermark.START;
+		}
+		int pageLimit = Math.max(1, Math.min(limit, TaskService.MAX_PAGE_LIMIT));
+
+		List<TaskSyncItem> tasks = taskRepository.findChangedAfter(since.writtenAt(), since.id(), Limit.of(pageLimit));
+		// a client rebuilding from scratch has nothing to delete
+		List<TaskTombstone> tombstones = full
+				? List.of()
+				: taskTombstoneRepository.findDeletedAfter(since.writtenAt(), since.id(), Limit.of(pageLimit));
+
+		// merge both write-ordered lists; a list that filled its limit is never used up before the page is full,
+		// so nothing written between the two lists' last entries is skipped
+		List<TaskSyncItem> changed = new ArrayList<>();
+		List<Long> deleted = new ArrayList<>();
+		TaskSyncWatermark position = since;
+		int nextTask = 0;
+		int nextTombstone = 0;
+		while (changed.size() + deleted.size() < pageLimit
+				&& (nextTask < tasks.size() || nextTombstone < tombstones.size())) {
+			TaskSyncItem task = nextTask < tasks.size() ? tasks.get(nextTask) : null;
+			TaskTombstone tombstone = nextTombstone < tombstones.size() ? tombstones.get(nextTombstone) : null;
+			if (tombstone == null || (task != null && writtenBefore(task, tombstone))) {
+				changed.add(task);
+				position = new TaskSyncWatermark(task.updatedAt(), task.id());
+				nextTask++;
+			} else {
+				deleted.add(tombstone.getTaskId());
+				position = new TaskSyncWatermark(tombstone.getDeletedAt(), tombstone.getTaskId());
+				nextTombstone++;
+			}
+		}
+		boolean hasMore = nextTask < tasks.size() || nextTombstone < tombstones.size()
+				|| tasks.size() == pageLimit || tombstones.size() == pageLimit;
+
+		Instant settled = now.minus(settleWindow);
+		if (since.settledAt() != null && since.settledAt().isBefore(settled)) {
+			// later pages of a pass keep the settle point of its first; writes they passed may still commit behind
+			settled = since.settledAt();
+		}
+		if (position.isAfter(settled, 0)) {
+			// writes still in flight may land behind the last one sent: page on from it, but settle before them
+			position = hasMore
+					? new TaskSyncWatermark(position.writtenAt(), position.id(), settled)
+					: new TaskSyncWatermark(settled, 0);
+		}
+		log.debug("Synced {} changed and {} deleted tasks after {}", changed.size(), deleted.size(), since);
+		return new TaskSync(full, changed, deleted, position.encode(), hasMore);
+	}
+
+	/**
+	 * Deletes the tombstones older than their retention. Clients that last synced before that get a full sync.
+	 */
+	@Scheduled(
+			initialDelayString = "${todo.tasks.sync.tombstone-purge-interval:PT1H}",
+			fixedDelayString = "${todo.tasks.sync.tombstone-purge-interval:PT1H}"
+	)
+	public void purgeTombstones() {
+		int purged = taskTombstoneRepository.deleteDeletedBefore(Instant.now().minus(tombstoneRetention));
+		if (purged > 0) {
+			log.info("Purged {} task tombstones older than {}", purged, tombstoneRetention);
+		}
+	}
+
+	private static boolean writtenBefore(TaskSyncItem task, TaskTombstone tombstone) {
+		return new TaskSyncWatermark(tombstone.getDeletedAt(), tombstone.getTaskId()).isAfter(task.updatedAt(), task.id());
+	}
+}
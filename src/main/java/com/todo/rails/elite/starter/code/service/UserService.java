@@ -4,36 +4,52 @@ import com.todo.rails.elite.starter.code.exceptions.ResourceAlreadyExistsExcepti
 import com.todo.rails.elite.starter.code.exceptions.ResourceNotFoundException;
 import com.todo.rails.elite.starter.code.model.User;
 import com.todo.rails.elite.starter.code.repository.UserRepository;
+import com.todo.rails.elite.starter.code.service.security.JpaUserDetailsService;
+import com.todo.rails.elite.starter.code.service.security.RefreshTokenService;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional; // Import Optional
 
 @Service
+@Timed("todo.service")
 public class UserService {
 
 	private static final Logger log = LoggerFactory.getLogger(UserService.class);
 
 	private final UserRepository userRepository;
-	private final BCryptPasswordEncoder passwordEncoder;
+	private final PasswordEncoder passwordEncoder;
+	private final JpaUserDetailsService userDetailsService;
+	private final RefreshTokenService refreshTokenService;
 
 	/**
 	 * Constructs the UserService with required dependencies.
 	 *
-	 * @param userRepository  The repository for user data access.
-	 * @param passwordEncoder The encoder for hashing passwords.
+	 * @param userRepository     The repository for user data access.
+	 * @param passwordEncoder    The encoder for hashing passwords.
+	 * @param userDetailsService  The principal cache to evict when a user changes.
+	 * @param refreshTokenService The API refresh tokens to revoke when a user changes.
 	 */
 	@Autowired
-	public UserService(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder) {
+	public UserService(
+			UserRepository userRepository,
+			PasswordEncoder passwordEncoder,
+			JpaUserDetailsService userDetailsService,
+			RefreshTokenService refreshTokenService
+	) {
 		this.userRepository = userRepository;
 		this.passwordEncoder = passwordEncoder;
+		this.userDetailsService = userDetailsService;
+		this.refreshTokenService = refreshTokenService;
 	}
 
 	/**
@@ -66,6 +82,7 @@ public class UserService {
 	 * @throws RuntimeException if no user is found with the given username.
 	 */
 	// get a user by username
+	@Transactional(readOnly = true)
 	public User getUserByUsername(
 			@NotNull(message = "Username cannot be null")
 			@NotBlank(message = "Username cannot be blank")
@@ -87,6 +104,7 @@ public class UserService {
 	 * @throws RuntimeException if no user is found with the given email.
 	 */
 	// get a user by email
+	@Transactional(readOnly = true)
 	public User getUserByEmail(
 			@NotNull(message = "Email cannot be null")
 			@NotBlank(message = "Email cannot be blank")
@@ -109,6 +127,7 @@ public class UserService {
 	 * @throws RuntimeException if no user is found with the given ID.
 	 */
 	// get a user by id
+	@Transactional(readOnly = true)
 	public User getUserById(
 			@NotNull(message = "Id cannot be null")
 			Long id
@@ -122,7 +141,8 @@ public class UserService {
 	}
 
 	/**
-	 * Updates an existing user. Finds the user by username before saving the provided user object.
+	 * Updates an existing user. Finds the user by username before saving the provided user object,
+	 * then evicts the user's cached principal and revokes the user's API refresh tokens.
 	 * Note: This method saves the passed user object directly. Consider fetching the existing user
 	 * by ID and updating specific fields for more robust update logic.
 	 *
@@ -140,12 +160,15 @@ public class UserService {
 			throw new RuntimeException("User not found for update with username: " + user.getUsername());
 		}
 		User updatedUser = userRepository.save(user); // Saves the passed object
+		userDetailsService.evict(updatedUser.getUsername());
+		refreshTokenService.revokeAll(updatedUser.getUsername());
 		log.info("Successfully updated user with username: {}", updatedUser.getUsername());
 		return updatedUser;
 	}
 
 	/**
-	 * Deletes a user. Finds the user by username before attempting deletion.
+	 * Deletes a user. Finds the user by username before attempting deletion,
+	 * then evicts the user's cached principal and revokes the user's API refresh tokens.
 	 * Note: This method deletes the passed user object. Consider finding the user by ID
 	 * and deleting that specific entity for safer deletion.
 	 *
@@ -164,6 +187,8 @@ public class UserService {
 		// It's generally safer to delete the entity found by ID or username
 		// userRepository.delete(userToDeleteOpt.get()); // Example: Delete the found user
 		userRepository.delete(user); // Deletes based on the passed object (requires ID to be correct)
+		userDetailsService.evict(user.getUsername());
+		refreshTokenService.revokeAll(user.getUsername());
 		log.info("Successfully deleted user with username: {}", user.getUsername());
 	}
 
@@ -173,6 +198,7 @@ public class UserService {
 	 * @return A list of all users.
 	 * @throws RuntimeException if no users are found in the repository. (Note: Returning an empty list is often preferred).
 	 */
+	@Transactional(readOnly = true)
 	public List<User> getAllUsers() {
 		log.debug("Attempting to retrieve all users.");
 		List<User> users = userRepository.findAll();
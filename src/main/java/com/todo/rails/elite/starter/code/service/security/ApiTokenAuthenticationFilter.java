@@ -0,0 +1,61 @@
+package com.todo.rails.elite.starter.code.service.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Authenticates API requests carrying {@code Authorization: Bearer <access token>}.
+ *
+ * <p>The token is verified by {@link ApiTokenService} and the authentication is kept for the request only, never in
+ * a session. Requests without a bearer token pass through unchanged, so browser pages calling the API with their
+ * session keep working; a request with an invalid token is answered with {@code 401} right away. The filter is
+ * added to the API security filter chain and deliberately not a bean, which would register it for every request.</p>
+ */
+public class ApiTokenAuthenticationFilter extends OncePerRequestFilter {
+
+	private static final String BEARER_PREFIX = "Bearer ";
+
+	private final ApiTokenService apiTokenService;
+	private final SecurityContextHolderStrategy securityContextHolderStrategy =
+			SecurityContextHolder.getContextHolderStrategy();
+
+	public ApiTokenAuthenticationFilter(ApiTokenService apiTokenService) {
+		this.apiTokenService = apiTokenService;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+		if (authorization == null
+				|| !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+			chain.doFilter(request, response);
+			return;
+		}
+		try {
+			SecurityContext context = securityContextHolderStrategy.createEmptyContext();
+			context.setAuthentication(
+					apiTokenService.authenticate(authorization.substring(BEARER_PREFIX.length()).trim())
+			);
+			securityContextHolderStrategy.setContext(context);
+		} catch (BadCredentialsException exception) {
+			securityContextHolderStrategy.clearContext();
+			response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+			// not sendError: the error page is outside the API chain and would redirect to the login page
+			response.setStatus(HttpStatus.UNAUTHORIZED.value());
+			return;
+		}
+		chain.doFilter(request, response);
+	}
+}
@@ -0,0 +1,237 @@
+package com.todo.rails.elite.starter.code.service.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Issues and verifies the signed access tokens of the API.
+ *
+ * <p>Tokens are compact JWTs signed with HMAC-SHA256 and carry the username, the authorities and the expiry, so a
+ * request is authenticated from the token and the in-memory keys alone, without a session or a database read, on
+ * any node that has the same keys. The header names the key a token was signed with: new tokens are signed with
+ * the active key, and every configured key is accepted, so keys are rotated by adding a new key, making it active
+ * once every node has it, and removing the old one after the access token TTL. Without configured keys a random key
+ * is generated at startup, which only suits a single node. Verifications are counted in {@code api.token} tagged by
+ * result.</p>
+ *
+ * <p>Access tokens cannot be revoked; changes to a user take effect when the token expires and is refreshed, so the
+ * TTL should stay short.</p>
+ */
+@Service
+public class ApiTokenService {
+
+	private static final Logger log = LoggerFactory.getLogger(ApiTokenService.class);
+
+	private static final String ALGORITHM = "HmacSHA256";
+	private static final int MIN_KEY_BYTES = 32;
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	private final ObjectMapper objectMapper;
+	private final Map<String, SecretKeySpec> keys;
+	private final String activeKeyId;
+	private final String activeHeader;
+	private final Duration accessTokenTtl;
+	private final Counter accepted;
+	private final Counter rejected;
+
+	/**
+	 * Constructs an ApiTokenService.
+	 *
+	 * @param objectMapper   The mapper of token headers and claims.
+	 * @param keys           Signing keys as {@code id:base64-secret}, each secret at least 32 bytes; empty for a random key.
+	 * @param activeKeyId    The id of the key new tokens are signed with; empty for the first key.
+	 * @param accessTokenTtl How long an access token is valid.
+	 * @param registry       The registry the verification counters are registered in.
+	 */
+	@Autowired
+	public ApiTokenService(
+			ObjectMapper objectMapper,
+			@Value("${todo.security.api-token.keys:}") List<String> keys,
+			@Value("${todo.security.api-token.active-key:}") String activeKeyId,
+			@Value("${todo.security.api-token.access-token-ttl:15m}") Duration accessTokenTtl,
+			MeterRegistry registry
+	) {
+		this.objectMapper = objectMapper;
+		this.keys = parseKeys(keys);
+		this.activeKeyId = activeKeyId == null || activeKeyId.isBlank()
+				? this.keys.keySet().iterator().next()
+				: activeKeyId.trim();
+		if (!this.keys.containsKey(this.activeKeyId)) {
+			throw new IllegalStateException("Active API token key '" + this.activeKeyId + "' is not configured");
+		}
+		this.activeHeader = encodeJson(objectMapper.createObjectNode()
+				.put("alg", "HS256")
+				.put("typ", "JWT")
+				.put("kid", this.activeKeyId));
+		this.accessTokenTtl = accessTokenTtl;
+		this.accepted = Counter.builder("api.token").tag("result", "accepted").register(registry);
+		this.rejected = Counter.builder("api.token").tag("result", "rejected").register(registry);
+	}
+
+	/**
+	 * Issues an access token for a user.
+	 *
+	 * @param user The authenticated user.
+	 * @return The signed token.
+	 */
+	public String issue(UserDetails user) {
+		Instant now = Instant.now();
+		ObjectNode claims = objectMapper.createObjectNode()
+				.put("sub", user.getUsername())
+				.put("iat", now.getEpochSecond())
+				.put("exp", now.plus(accessTokenTtl).getEpochSecond());
+		user.getAuthorities().forEach(authority -> claims.withArray("roles").add(authority.getAuthority()));
+		String signingInput = activeHeader + "." + encodeJson(claims);
+		return signingInput + "." + ENCODER.encodeToString(sign(keys.get(activeKeyId), signingInput));
+	}
+
+	/**
+	 * Verifies an access token.
+	 *
+	 * @param token The token from the {@code Authorization} header.
+	 * @return The authentication the token stands for.
+	 * @throws BadCredentialsException if the token is malformed, not signed with a configured key, or expired.
+	 */
+	public Authentication authenticate(String token) throws BadCredentialsException {
+		try {
+			Authentication authentication = verify(token);
+			accepted.increment();
+			return authentication;
+		} catch (BadCredentialsException exception) {
+			rejected.increment();
+			throw exception;
+		}
+	}
+
+	/**
+	 * @return How long an access token is valid.
+	 */
+	public Duration getAccessTokenTtl() {
+		return accessTokenTtl;
+	}
+
+	private Authentication verify(String token) {
+		String[] parts = token.split("\\.", -1);
+		if (parts.length != 3) {
+			throw new BadCredentialsException("Malformed access token");
+		}
+		JsonNode header = decodeJson(parts[0]);
+		if (!"HS256".equals(header.path("alg").asText())) {
+			throw new BadCredentialsException("Unsupported access token algorithm");
+		}
+		SecretKeySpec key = keys.get(header.path("kid").asText());
+		if (key == null) {
+			throw new BadCredentialsException("Access token signed with an unknown key");
+		}
+		byte[] signature;
+		try {
+			signature = DECODER.decode(parts[2]);
+		} catch (IllegalArgumentException exception) {
+			throw new BadCredentialsException("Malformed access token");
+		}
+		if (!MessageDigest.isEqual(signature, sign(key, parts[0] + "." + parts[1]))) {
+			throw new BadCredentialsException("Invalid access token signature");
+		}
+		// claims are only parsed once the signature is known to be ours
+		JsonNode claims = decodeJson(parts[1]);
+		if (!claims.path("exp").canConvertToLong()
+				|| Instant.now().getEpochSecond() >= claims.path("exp").asLong()) {
+			throw new BadCredentialsException("Access token has expired");
+		}
+		String username = claims.path("sub").asText();
+		if (username.isEmpty()) {
+			throw new BadCredentialsException("Access token has no subject");
+		}
+		List<GrantedAuthority> authorities = new ArrayList<>();
+		claims.path("roles").forEach(role -> authorities.add(new SimpleGrantedAuthority(role.asText())));
+		return UsernamePasswordAuthenticationToken.authenticated(username, null, authorities);
+	}
+
+	private static byte[] sign(SecretKeySpec key, String signingInput) {
+		try {
+			// Mac instances are not thread-safe, and getting one is cheap next to the request
+			Mac mac = Mac.getInstance(ALGORITHM);
+			mac.init(key);
+			return mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+		} catch (GeneralSecurityException exception) {
+			throw new IllegalStateException("HMAC-SHA256 is not available", exception);
+		}
+	}
+
+	private String encodeJson(JsonNode node) {
+		try {
+			return ENCODER.encodeToString(objectMapper.writeValueAsBytes(node));
+		} catch (JsonProcessingException exception) {
+			throw new IllegalStateException("Cannot serialize access token", exception);
+		}
+	}
+
+	private JsonNode decodeJson(String part) {
+		try {
+			JsonNode node = objectMapper.readTree(DECODER.decode(part));
+			if (node == null || !node.isObject()) {
+				throw new BadCredentialsException("Malformed access token");
+			}
+			return node;
+		} catch (IllegalArgumentException | IOException exception) {
+			throw new BadCredentialsException("Malformed access token");
+		}
+	}
+
+	private static Map<String, SecretKeySpec> parseKeys(List<String> configured) {
+		Map<String, SecretKeySpec> keys = new LinkedHashMap<>();
+		for (String entry : configured) {
+			if (entry.isBlank()) {
+				continue;
+			}
+			int separator = entry.indexOf(':');
+			if (separator <= 0) {
+				throw new IllegalStateException("API token keys must be configured as id:base64-secret");
+			}
+			byte[] secret = Base64.getDecoder().decode(entry.substring(separator + 1).trim());
+			if (secret.length < MIN_KEY_BYTES) {
+				throw new IllegalStateException("API token keys must be at least " + MIN_KEY_BYTES + " bytes");
+			}
+			keys.put(entry.substring(0, separator).trim(), new SecretKeySpec(secret, ALGORITHM));
+		}
+		if (keys.isEmpty()) {
+			log.warn("No API token keys configured; tokens are signed with a random key and only valid on this node "
+					+ "until it restarts. Set todo.security.api-token.keys to share keys between nodes.");
+			byte[] secret = new byte[MIN_KEY_BYTES];
+			new SecureRandom().nextBytes(secret);
+			keys.put("local", new SecretKeySpec(secret, ALGORITHM));
+		}
+		return keys;
+	}
+}
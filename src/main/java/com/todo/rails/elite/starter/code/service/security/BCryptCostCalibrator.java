@@ -0,0 +1,92 @@
+package com.todo.rails.elite.starter.code.service.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Picks the BCrypt cost that meets a target hash latency on the current hardware.
+ *
+ * <p>Every cost step doubles the work of a hash, so costs are measured upward from the minimum and the
+ * highest one whose measured latency stays within the target wins. Measurement stops as soon as the next
+ * cost is expected (twice the last latency) or measured to exceed the target, which keeps calibration to
+ * a few multiples of the target latency.</p>
+ */
+public class BCryptCostCalibrator {
+
+	private static final Logger log = LoggerFactory.getLogger(BCryptCostCalibrator.class);
+	private static final int SAMPLES = 2;
+
+	private final IntToLongFunction hashNanos;
+	private final int minCost;
+	private final int maxCost;
+
+	/**
+	 * Creates a calibrator.
+	 *
+	 * @param hashNanos Measures one hash at the given cost, in nanoseconds.
+	 * @param minCost   Lowest cost that may be chosen, even if it misses the target.
+	 * @param maxCost   Highest cost that may be chosen, even if the target allows more.
+	 */
+	public BCryptCostCalibrator(IntToLongFunction hashNanos, int minCost, int maxCost) {
+		if (minCost < 4 || maxCost > 31 || minCost > maxCost) {
+			throw new IllegalArgumentException("BCrypt cost range must satisfy 4 <= min <= max <= 31");
+		}
+		this.hashNanos = hashNanos;
+		this.minCost = minCost;
+		this.maxCost = maxCost;
+	}
+
+	/**
+	 * Creates a calibrator timing real BCrypt hashes.
+	 *
+	 * @param minCost Lowest cost that may be chosen.
+	 * @param maxCost Highest cost that may be chosen.
+	 * @return A calibrator for the current hardware.
+	 */
+	public static BCryptCostCalibrator forBCrypt(int minCost, int maxCost) {
+		return new BCryptCostCalibrator(BCryptCostCalibrator::timeHash, minCost, maxCost);
+	}
+
+	/**
+	 * Finds the highest cost within the range whose hash latency does not exceed the target.
+	 *
+	 * @param targetLatency The intended duration of one hash.
+	 * @return The chosen cost, never below the minimum.
+	 */
+	public int calibrate(Duration targetLatency) {
+		long targetNanos = targetLatency.toNanos();
+		measure(minCost); // warm-up, so the JIT does not inflate the first sample
+		int chosen = minCost;
+		long chosenNanos = measure(minCost);
+		for (int cost = minCost + 1; cost <= maxCost && chosenNanos * 2 <= targetNanos; cost++) {
+			long nanos = measure(cost);
+			if (nanos > targetNanos) {
+				break;
+			}
+			chosen = cost;
+			chosenNanos = nanos;
+		}
+		log.info("Calibrated BCrypt cost {} ({} ms per hash, target {} ms)",
+				chosen, Duration.ofNanos(chosenNanos).toMillis(), targetLatency.toMillis());
+		return chosen;
+	}
+
+	private long measure(int cost) {
+		long best = Long.MAX_VALUE;
+		for (int sample = 0; sample < SAMPLES; sample++) {
+			best = Math.min(best, hashNanos.applyAsLong(cost));
+		}
+		return best;
+	}
+
+	private static long timeHash(int cost) {
+		String salt = BCrypt.gensalt(cost);
+		long start = System.nanoTime();
+		BCrypt.hashpw("calibration", salt);
+		return System.nanoTime() - start;
+	}
+}
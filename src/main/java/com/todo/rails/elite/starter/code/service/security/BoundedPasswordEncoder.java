@@ -0,0 +1,134 @@
+package com.todo.rails.elite.starter.code.service.security;
+
+import com.todo.rails.elite.starter.code.exceptions.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Password encoder that runs the CPU-bound hashing of a delegate on a dedicated, bounded executor.
+ *
+ * <p>At most {@code threads} hashes run at once and at most {@code queueCapacity} wait for a thread, so a burst of
+ * logins or registrations cannot occupy every request thread with hashing and starve unrelated requests. A call
+ * that finds the queue full, or that cannot finish within {@code maxWait}, fails immediately with
+ * {@link PasswordHashingRejectedException}, which the web layer maps to {@code 503 Service Unavailable}.</p>
+ *
+ * <p>Published metrics: {@code password.hashing.duration} (time spent hashing, tagged by operation),
+ * {@code password.hashing.wait} (time queued before a thread picked the hash up),
+ * {@code password.hashing.rejected} (tagged by reason) and the {@code executor.*} gauges of the pool,
+ * including {@code executor.queued} for the queue depth.</p>
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+	private static final String EXECUTOR_NAME = "password-hashing";
+
+	private final PasswordEncoder delegate;
+	private final ThreadPoolExecutor executor;
+	private final Duration maxWait;
+	private final Timer encodeTimer;
+	private final Timer matchesTimer;
+	private final Timer waitTimer;
+	private final Counter queueFullCounter;
+	private final Counter timeoutCounter;
+
+	/**
+	 * Creates the encoder and its executor.
+	 *
+	 * @param delegate      The encoder doing the actual hashing.
+	 * @param threads       Number of hashing threads; typically the number of available cores.
+	 * @param queueCapacity Number of hashes that may wait for a thread before new ones are rejected;
+	 *                      0 hands hashes directly to an idle thread or rejects them.
+	 * @param maxWait       Longest time a caller waits for its hash, queueing included.
+	 * @param registry      Registry receiving the hashing and executor metrics.
+	 */
+	public BoundedPasswordEncoder(
+			PasswordEncoder delegate,
+			int threads,
+			int queueCapacity,
+			Duration maxWait,
+			MeterRegistry registry
+	) {
+		this.delegate = delegate;
+		this.maxWait = maxWait;
+		this.executor = new ThreadPoolExecutor(
+				threads,
+				threads,
+				0L,
+				TimeUnit.MILLISECONDS,
+				queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>(),
+				Thread.ofPlatform().name(EXECUTOR_NAME + "-", 1).daemon(true).factory(),
+				new ThreadPoolExecutor.AbortPolicy()
+		);
+		this.encodeTimer = Timer.builder("password.hashing.duration").tag("operation", "encode").register(registry);
+		this.matchesTimer = Timer.builder("password.hashing.duration").tag("operation", "matches").register(registry);
+		this.waitTimer = Timer.builder("password.hashing.wait").register(registry);
+		this.queueFullCounter = Counter.builder("password.hashing.rejected").tag("reason", "queue-full").register(registry);
+		this.timeoutCounter = Counter.builder("password.hashing.rejected").tag("reason", "timeout").register(registry);
+		new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(registry);
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return submit(encodeTimer, () -> delegate.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return submit(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return delegate.upgradeEncoding(encodedPassword);
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	private <T> T submit(Timer timer, Callable<T> hash) {
+		long queuedAt = System.nanoTime();
+		Future<T> future;
+		try {
+			future = executor.submit(() -> {
+				waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+				return timer.recordCallable(hash);
+			});
+		} catch (RejectedExecutionException exception) {
+			queueFullCounter.increment();
+			throw new PasswordHashingRejectedException("Password hashing is saturated; retry shortly");
+		}
+		try {
+			return future.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException exception) {
+			future.cancel(true);
+			timeoutCounter.increment();
+			throw new PasswordHashingRejectedException("Password hashing did not complete in " + maxWait + "; retry shortly");
+		} catch (InterruptedException exception) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new PasswordHashingRejectedException("Interrupted while waiting for password hashing");
+		} catch (ExecutionException exception) {
+			if (exception.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IllegalStateException("Password hashing failed", exception.getCause());
+		}
+	}
+}
@@ -1,27 +1,72 @@
 package com.todo.rails.elite.starter.code.service.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.todo.rails.elite.starter.code.model.security.SecurityUser;
 import com.todo.rails.elite.starter.code.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
+/**
+ * Resolves principals from the users table through a bounded, time-limited cache.
+ *
+ * <p>Entries are immutable {@link SecurityUser} snapshots, so repeated logins and any future per-request
+ * authentication reuse the parsed authorities instead of querying and parsing again. Only existing users are
+ * cached; {@link #evict(String)} must be called whenever a user's credentials or roles change, and the TTL
+ * bounds staleness for changes made elsewhere. Concurrent lookups of a user share one read of the table. Cache
+ * statistics are published as {@code cache.*} metrics tagged {@code cache=user-details}.</p>
+ */
 @Service
-public class JpaUserDetailsService implements UserDetailsService {
+public class JpaUserDetailsService implements UserDetailsService, MeterBinder {
 
 	private final UserRepository userRepository;
+	private final Cache<String, SecurityUser> cache;
 
 	@Autowired
-	public JpaUserDetailsService(UserRepository userRepository) {
+	public JpaUserDetailsService(
+			UserRepository userRepository,
+			@Value("${todo.security.user-cache.maximum-size:10000}") long maximumSize,
+			@Value("${todo.security.user-cache.ttl:5m}") Duration ttl
+	) {
 		this.userRepository = userRepository;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.build();
 	}
 
 	@Override
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-		return userRepository.findByUsername(username)
+		// loaded under the entry's lock, so an eviction during the read waits and removes the result instead of
+		// being undone by it
+		return cache.get(username, key -> userRepository.findByUsername(key)
 				.map(SecurityUser::new)
-				.orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+				.orElseThrow(() -> new UsernameNotFoundException("User not found: " + key)));
+	}
+
+	/**
+	 * Drops the cached principal of a user so the next authentication reads it again.
+	 *
+	 * @param username The username of the user that was changed or removed.
+	 */
+	public void evict(String username) {
+		if (username != null) {
+			cache.invalidate(username);
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, cache, "user-details");
 	}
 }
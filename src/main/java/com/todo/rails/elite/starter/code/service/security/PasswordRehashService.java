@@ -0,0 +1,105 @@
+package com.todo.rails.elite.starter.code.service.security;
+
+import com.todo.rails.elite.starter.code.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Re-hashes stored passwords at the current BCrypt cost after successful logins, off the request path.
+ *
+ * <p>Work runs on a single background thread with a bounded queue; when the queue is full the rehash is
+ * dropped and simply happens on a later login. The new hash itself goes through the bounded password
+ * encoder, so rehashing never adds more hashing concurrency than logins are allowed. The stored hash is
+ * replaced only if it is still the one that was verified, so a password changed in the meantime is never
+ * overwritten. Outcomes are counted in {@code password.rehash} tagged by result.</p>
+ */
+@Service
+public class PasswordRehashService implements DisposableBean {
+
+	private static final Logger log = LoggerFactory.getLogger(PasswordRehashService.class);
+
+	private final UserRepository userRepository;
+	private final PasswordEncoder passwordEncoder;
+	private final JpaUserDetailsService userDetailsService;
+	private final ThreadPoolExecutor executor;
+	private final Counter rehashed;
+	private final Counter skipped;
+	private final Counter dropped;
+	private final Counter failed;
+
+	@Autowired
+	public PasswordRehashService(
+			UserRepository userRepository,
+			PasswordEncoder passwordEncoder,
+			JpaUserDetailsService userDetailsService,
+			@Value("${todo.security.password-rehash.queue-capacity:256}") int queueCapacity,
+			MeterRegistry registry
+	) {
+		this.userRepository = userRepository;
+		this.passwordEncoder = passwordEncoder;
+		this.userDetailsService = userDetailsService;
+		this.executor = new ThreadPoolExecutor(
+				1,
+				1,
+				0L,
+				TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				Thread.ofPlatform().name("password-rehash").daemon(true).factory(),
+				new ThreadPoolExecutor.AbortPolicy()
+		);
+		this.rehashed = Counter.builder("password.rehash").tag("result", "rehashed").register(registry);
+		this.skipped = Counter.builder("password.rehash").tag("result", "changed-meanwhile").register(registry);
+		this.dropped = Counter.builder("password.rehash").tag("result", "dropped").register(registry);
+		this.failed = Counter.builder("password.rehash").tag("result", "failed").register(registry);
+	}
+
+	/**
+	 * Queues a rehash of a user's password; returns immediately.
+	 *
+	 * @param username     The user that just authenticated.
+	 * @param verifiedHash The stored hash the password was verified against.
+	 * @param rawPassword  The password that was verified.
+	 */
+	public void rehashLater(String username, String verifiedHash, String rawPassword) {
+		try {
+			executor.execute(() -> rehash(username, verifiedHash, rawPassword));
+		} catch (RejectedExecutionException exception) {
+			dropped.increment();
+			log.debug("Rehash queue full; password of {} will be rehashed on a later login", username);
+		}
+	}
+
+	void rehash(String username, String verifiedHash, String rawPassword) {
+		try {
+			String newHash = passwordEncoder.encode(rawPassword);
+			if (userRepository.updatePasswordIfUnchanged(username, verifiedHash, newHash) == 1) {
+				userDetailsService.evict(username);
+				rehashed.increment();
+				log.info("Rehashed password of {} at the current cost", username);
+			} else {
+				skipped.increment();
+			}
+		} catch (RuntimeException exception) {
+			// includes a saturated hashing pool: the next login retries
+			failed.increment();
+			log.warn("Could not rehash password of {}: {}", username, exception.getMessage());
+		}
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+}
@@ -0,0 +1,138 @@
+package com.todo.rails.elite.starter.code.service.security;
+
+import com.todo.rails.elite.starter.code.model.RefreshToken;
+import com.todo.rails.elite.starter.code.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Issues, rotates and revokes the refresh tokens of the API.
+ *
+ * <p>Refresh tokens are random and single use: each refresh deletes the token it was given and issues a new one,
+ * so a stolen token stops working once either holder uses it. They are the only API credential kept in the
+ * database, and are read only when an access token is refreshed. Tokens are stored as SHA-256 hashes, revoked
+ * along with every other token of the user when the user changes, and purged once expired.</p>
+ */
+@Service
+public class RefreshTokenService {
+
+	private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+	private static final int TOKEN_BYTES = 32;
+
+	private final RefreshTokenRepository refreshTokenRepository;
+	private final Duration refreshTokenTtl;
+	private final SecureRandom random = new SecureRandom();
+
+	/**
+	 * Constructs a RefreshTokenService.
+	 *
+	 * @param refreshTokenRepository The repository the token hashes are stored in.
+	 * @param refreshTokenTtl        How long a refresh token can be used.
+	 */
+	@Autowired
+	public RefreshTokenService(
+			RefreshTokenRepository refreshTokenRepository,
+			@Value("${todo.security.api-token.refresh-token-ttl:30d}") Duration refreshTokenTtl
+	) {
+		this.refreshTokenRepository = refreshTokenRepository;
+		this.refreshTokenTtl = refreshTokenTtl;
+	}
+
+	/**
+	 * Issues a refresh token for a user.
+	 *
+	 * @param username The user the token is issued to.
+	 * @return The token; only its hash is stored.
+	 */
+	public String issue(String username) {
+		byte[] bytes = new byte[TOKEN_BYTES];
+		random.nextBytes(bytes);
+		String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+		Instant now = Instant.now();
+		refreshTokenRepository.save(new RefreshToken(hash(token), username, now, now.plus(refreshTokenTtl)));
+		return token;
+	}
+
+	/**
+	 * Uses up a refresh token.
+	 *
+	 * @param token The refresh token.
+	 * @return The username the token was issued to.
+	 * @throws BadCredentialsException if the token is unknown, already used, revoked or expired.
+	 */
+	public String consume(String token) throws BadCredentialsException {
+		if (token == null || token.isBlank()) {
+			throw new BadCredentialsException("Missing refresh token");
+		}
+		RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(hash(token))
+				.orElseThrow(() -> new BadCredentialsException("Unknown refresh token"));
+		if (refreshTokenRepository.consume(refreshToken.getId()) == 0) {
+			throw new BadCredentialsException("Refresh token was already used");
+		}
+		if (!refreshToken.getExpiresAt().isAfter(Instant.now())) {
+			throw new BadCredentialsException("Refresh token has expired");
+		}
+		return refreshToken.getUsername();
+	}
+
+	/**
+	 * Revokes a refresh token; unknown tokens are ignored.
+	 *
+	 * @param token The refresh token.
+	 */
+	public void revoke(String token) {
+		if (token != null && !token.isBlank()) {
+			refreshTokenRepository.deleteByHash(hash(token));
+		}
+	}
+
+	/**
+	 * Revokes every refresh token of a user, so the user signs in again once the current access tokens expire.
+	 *
+	 * @param username The user that was changed or removed.
+	 */
+	public void revokeAll(String username) {
+		int revoked = refreshTokenRepository.deleteAllOf(username);
+		if (revoked > 0) {
+			log.info("Revoked {} refresh tokens of {}", revoked, username);
+		}
+	}
+
+	/**
+	 * Deletes expired refresh tokens.
+	 */
+	@Scheduled(
+			initialDelayString = "${todo.security.api-token.refresh-token-purge-interval:PT1H}",
+			fixedDelayString = "${todo.security.api-token.refresh-token-purge-interval:PT1H}"
+	)
+	public void purgeExpired() {
+		int purged = refreshTokenRepository.deleteExpiredBefore(Instant.now());
+		if (purged > 0) {
+			log.info("Purged {} expired refresh tokens", purged);
+		}
+	}
+
+	private static String hash(String token) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+		} catch (NoSuchAlgorithmException exception) {
+			throw new IllegalStateException("SHA-256 is not available", exception);
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package com.todo.rails.elite.starter.code.service.security;
+
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Username/password authentication that upgrades hashes stored at an older BCrypt cost.
+ *
+ * <p>Verification works for any cost because BCrypt hashes carry their own cost. After a successful login
+ * whose stored hash the encoder reports as outdated, the presented password is handed to
+ * {@link PasswordRehashService} and the login completes without waiting for the new hash.</p>
+ */
+public class RehashingAuthenticationProvider extends DaoAuthenticationProvider {
+
+	private final PasswordEncoder passwordEncoder;
+	private final PasswordRehashService rehashService;
+
+	public RehashingAuthenticationProvider(PasswordEncoder passwordEncoder, PasswordRehashService rehashService) {
+		super(passwordEncoder);
+		this.passwordEncoder = passwordEncoder;
+		this.rehashService = rehashService;
+	}
+
+	@Override
+	protected Authentication createSuccessAuthentication(
+			Object principal,
+			Authentication authentication,
+			UserDetails user
+	) {
+		if (authentication.getCredentials() != null && passwordEncoder.upgradeEncoding(user.getPassword())) {
+			rehashService.rehashLater(
+					user.getUsername(),
+					user.getPassword(),
+					authentication.getCredentials().toString()
+			);
+		}
+		return super.createSuccessAuthentication(principal, authentication, user);
+	}
+}
@@ -0,0 +1,57 @@
+// Keeps the dashboard counters and pending task table current from /api/dashboard/stream.
+// The counters start from the snapshot sent on every (re)connect and then follow the pushed differences.
+
+const counterElements = {
+    totalPendingToday: document.getElementById("tasks-pending-today"),
+    totalPending: document.getElementById("tasks-pending-total"),
+    totalCompleted: document.getElementById("tasks-completed-total")
+}
+
+let counters = null
+
+function showCounters() {
+    for (const [name, element] of Object.entries(counterElements)) {
+        element.textContent = counters[name]
+    }
+}
+
+function taskRow(id) {
+    return document.querySelector(`#table-body tr[data-task-id="${id}"]`)
+}
+
+if (window.EventSource) {
+    const stream = new EventSource("/api/dashboard/stream")
+
+    stream.addEventListener("snapshot", (event) => {
+        counters = JSON.parse(event.data)
+        showCounters()
+    })
+
+    stream.addEventListener("counters", (event) => {
+        if (counters === null) {
+            return
+        }
+        const delta = JSON.parse(event.data)
+        for (const name of Object.keys(counterElements)) {
+            counters[name] += delta[name]
+        }
+        showCounters()
+    })
+
+    stream.addEventListener("task", (event) => {
+        const task = JSON.parse(event.data)
+        const row = taskRow(task.id)
+        if (row === null) {
+            return
+        }
+        if (task.type === "DELETED" || task.completed) {
+            row.remove()
+        } else {
+            row.querySelector(".task-title").textContent = task.title
+            row.querySelector(".task-due-date").textContent = task.dueDate
+        }
+    })
+
+    // bulk changes carry no per-task detail
+    stream.addEventListener("bulk", () => window.location.reload())
+}
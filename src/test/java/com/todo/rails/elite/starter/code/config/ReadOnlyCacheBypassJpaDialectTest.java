@@ -0,0 +1,142 @@
+package com.todo.rails.elite.starter.code.config;
+
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// a primary and a lagging replica on separate embedded databases, routed and cached as in production;
+// the context is closed afterwards since its JCache manager is shared by the whole JVM
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReadReplicaConfig.class, HibernateCacheConfig.class, ReadOnlyCacheBypassJpaDialectTest.Metrics.class})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cache-primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "todo.datasource.replica.enabled=true",
+        "todo.datasource.replica.url=jdbc:h2:mem:cache-replica;DB_CLOSE_DELAY=-1",
+        "todo.datasource.replica.username=sa"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+class ReadOnlyCacheBypassJpaDialectTest {
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("dataSource")
+    private DataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    // the replica as of now: the same schema and rows as the primary, and no later writes
+    private void replicate() {
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("DROP ALL OBJECTS");
+        for (String statement : new JdbcTemplate(primary).queryForList("SCRIPT", String.class)) {
+            replicaJdbc.execute(statement);
+        }
+    }
+
+    private Long createTask(String title) {
+        return readWrite.execute(status -> {
+            Task task = new Task(title, "Desc", false, LocalDate.now());
+            task.setUpdatedAt(Instant.now());
+            return taskRepository.save(task).getId();
+        });
+    }
+
+    private void retitle(Long id, String title) {
+        readWrite.executeWithoutResult(status -> taskRepository.findById(id).orElseThrow().setTitle(title));
+    }
+
+    @Test
+    void readOnlyTransaction_OnLaggingReplica_LeavesCacheAlone() {
+        Long id = createTask("Before");
+        replicate();
+        retitle(id, "After");
+        // as if the write had been made through another instance
+        entityManagerFactory.getCache().evictAll();
+
+        Task fromReplica = readOnly.execute(status -> taskRepository.findById(id).orElseThrow());
+
+        assertEquals("Before", fromReplica.getTitle());
+        assertFalse(entityManagerFactory.getCache().contains(Task.class, id));
+        // lists load tasks through queries rather than by id
+        assertTrue(readOnly.execute(status -> taskRepository.findByCompleted(false)).stream()
+                .anyMatch(task -> task.getId().equals(id) && task.getTitle().equals("Before")));
+        assertFalse(entityManagerFactory.getCache().contains(Task.class, id));
+        // a read-write transaction loads the current row and can write it
+        Task current = readWrite.execute(status -> taskRepository.findById(id).orElseThrow());
+        assertEquals("After", current.getTitle());
+        assertEquals(fromReplica.getVersion() + 1, current.getVersion());
+        assertTrue(entityManagerFactory.getCache().contains(Task.class, id));
+        retitle(id, "Again");
+    }
+
+    @Test
+    void readOnlyTransaction_StillReadsFromCache() {
+        Long id = createTask("Cached");
+        replicate();
+        readWrite.execute(status -> taskRepository.findById(id).orElseThrow());
+        retitle(id, "Cached and changed");
+
+        // the cache follows this instance's writes, so it is fresher than the replica
+        Task read = readOnly.execute(status -> taskRepository.findById(id).orElseThrow());
+
+        assertEquals("Cached and changed", read.getTitle());
+    }
+}
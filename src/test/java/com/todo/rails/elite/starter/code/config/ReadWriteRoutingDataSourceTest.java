@@ -0,0 +1,145 @@
+package com.todo.rails.elite.starter.code.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    // each database names itself, so a read shows where it was routed
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+        return database;
+    }
+
+    private DataSource routing(Duration readYourWritesWindow) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica, readYourWritesWindow, registry)
+        );
+    }
+
+    private static String nodeIn(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static void writeIn(DataSource dataSource) {
+        new TransactionTemplate(new DataSourceTransactionManager(dataSource)).executeWithoutResult(status ->
+                new JdbcTemplate(dataSource).update("UPDATE node SET name = name"));
+    }
+
+    private static void signIn(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private double routed(String target, String reason) {
+        return registry.get("todo.datasource.routing").tag("target", target).tag("reason", reason).counter().count();
+    }
+
+    @Test
+    void readOnlyTransaction_RoutesToReplica() {
+        DataSource dataSource = routing(Duration.ZERO);
+
+        assertEquals("replica", nodeIn(dataSource, true));
+        assertEquals(1.0, routed("replica", "read-only"));
+    }
+
+    @Test
+    void readWriteTransaction_RoutesToPrimary() {
+        DataSource dataSource = routing(Duration.ZERO);
+
+        assertEquals("primary", nodeIn(dataSource, false));
+        assertEquals(1.0, routed("primary", "read-write"));
+    }
+
+    @Test
+    void noTransaction_RoutesToPrimary() {
+        DataSource dataSource = routing(Duration.ZERO);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        // the first connection also reads the proxy's connection defaults
+        jdbc.execute("SELECT 1");
+        double before = routed("primary", "no-transaction");
+
+        assertEquals("primary", jdbc.queryForObject("SELECT name FROM node", String.class));
+        assertEquals(before + 1, routed("primary", "no-transaction"));
+    }
+
+    @Test
+    void readAfterOwnWrite_WithinWindow_RoutesToPrimaryForWriterOnly() {
+        DataSource dataSource = routing(Duration.ofMinutes(1));
+        signIn("alice");
+        writeIn(dataSource);
+
+        assertEquals("primary", nodeIn(dataSource, true));
+
+        signIn("bob");
+        assertEquals("replica", nodeIn(dataSource, true));
+        assertEquals(1.0, routed("primary", "read-your-writes"));
+        assertEquals(1.0, routed("replica", "read-only"));
+    }
+
+    @Test
+    void readAfterOwnWrite_WithoutWindow_RoutesToReplica() {
+        DataSource dataSource = routing(Duration.ZERO);
+        signIn("alice");
+        writeIn(dataSource);
+
+        assertEquals("replica", nodeIn(dataSource, true));
+    }
+
+    @Test
+    void readAfterRolledBackWrite_RoutesToReplica() {
+        DataSource dataSource = routing(Duration.ofMinutes(1));
+        signIn("alice");
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.executeWithoutResult(status -> {
+            new JdbcTemplate(dataSource).update("UPDATE node SET name = name");
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", nodeIn(dataSource, true));
+    }
+}
@@ -0,0 +1,90 @@
+package com.todo.rails.elite.starter.code.controller;
+
+import com.todo.rails.elite.starter.code.model.DashboardSnapshot;
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.service.DashboardService;
+import com.todo.rails.elite.starter.code.service.DashboardStreamService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardControllerTest {
+
+    @Mock
+    private DashboardService dashboardService;
+
+    @Mock
+    private DashboardStreamService dashboardStreamService;
+
+    @InjectMocks
+    private DashboardController dashboardController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(dashboardController).build();
+    }
+
+    @Test
+    void getDashboard_Success() throws Exception {
+        Task todayTask = new Task("Today Task", "Desc", false, LocalDate.now());
+        todayTask.setId(1L);
+        when(dashboardService.getSnapshot())
+                .thenReturn(new DashboardSnapshot(1, 3, 7, List.of(todayTask), null, List.of(todayTask), "next"));
+
+        mockMvc.perform(get("/api/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.totalPendingToday", is(1)))
+                .andExpect(jsonPath("$.totalPending", is(3)))
+                .andExpect(jsonPath("$.totalCompleted", is(7)))
+                .andExpect(jsonPath("$.todayTasks", hasSize(1)))
+                .andExpect(jsonPath("$.pendingTasks[0].title", is("Today Task")))
+                .andExpect(jsonPath("$.pendingNext", is("next")));
+
+        verify(dashboardService, times(1)).getSnapshot();
+    }
+
+    @Test
+    void getDashboard_Failure() throws Exception {
+        when(dashboardService.getSnapshot()).thenThrow(new RuntimeException("Database unavailable"));
+
+        mockMvc.perform(get("/api/dashboard"))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    void streamDashboard_Subscribes() throws Exception {
+        when(dashboardStreamService.subscribe()).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/dashboard/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(dashboardStreamService, times(1)).subscribe();
+    }
+
+    @Test
+    void streamDashboard_TooManySubscribers() throws Exception {
+        when(dashboardStreamService.subscribe()).thenThrow(new IllegalStateException("limit"));
+
+        mockMvc.perform(get("/api/dashboard/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
@@ -0,0 +1,85 @@
+package com.todo.rails.elite.starter.code.controller;
+
+import com.todo.rails.elite.starter.code.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskBulkControllerTest {
+
+    @Mock
+    private TaskService taskService;
+
+    @InjectMocks
+    private TaskBulkController taskBulkController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(taskBulkController).build();
+    }
+
+    @Test
+    void completeOverdueTasks_Success() throws Exception {
+        when(taskService.completeOverdueTasks()).thenReturn(5);
+
+        mockMvc.perform(post("/api/tasks/bulk/complete-overdue"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(5)));
+    }
+
+    @Test
+    void deleteCompletedTasks_Success() throws Exception {
+        when(taskService.deleteCompletedTasksDueBefore(LocalDate.of(2025, 1, 31))).thenReturn(3);
+
+        mockMvc.perform(delete("/api/tasks/bulk/completed").param("before", "2025-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(3)));
+    }
+
+    @Test
+    void deleteCompletedTasks_MissingDate() throws Exception {
+        mockMvc.perform(delete("/api/tasks/bulk/completed"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void rescheduleTasks_Success() throws Exception {
+        when(taskService.rescheduleTasks(List.of(1L, 2L), 7)).thenReturn(2);
+
+        mockMvc.perform(post("/api/tasks/bulk/reschedule")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1,2],\"days\":7}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(2)));
+    }
+
+    @Test
+    void rescheduleTasks_EmptySelection() throws Exception {
+        when(taskService.rescheduleTasks(List.of(), 7)).thenThrow(new IllegalArgumentException("At least one task id is required"));
+
+        mockMvc.perform(post("/api/tasks/bulk/reschedule")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[],\"days\":7}"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,82 @@
+package com.todo.rails.elite.starter.code.controller;
+
+import com.todo.rails.elite.starter.code.exceptions.CursorExpiredException;
+import com.todo.rails.elite.starter.code.model.TaskChange;
+import com.todo.rails.elite.starter.code.model.TaskChangeFeed;
+import com.todo.rails.elite.starter.code.model.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.service.TaskOutboxService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskChangeControllerTest {
+
+    @Mock
+    private TaskOutboxService taskOutboxService;
+
+    @InjectMocks
+    private TaskChangeController taskChangeController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(taskChangeController).build();
+    }
+
+    @Test
+    void getChanges_ReturnsFeed() throws Exception {
+        TaskChange change = new TaskChange(
+                TaskChangedEvent.Type.DELETED, 7L, "Review budget", "Desc", true, LocalDate.of(2025, 3, 10), 4L, Instant.now()
+        );
+        change.setId(12L);
+        when(taskOutboxService.getChanges("abc", 20)).thenReturn(new TaskChangeFeed(List.of(change), "def", false));
+
+        mockMvc.perform(get("/api/tasks/changes").param("since", "abc").param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].taskId", is(7)))
+                .andExpect(jsonPath("$.changes[0].type", is("DELETED")))
+                .andExpect(jsonPath("$.cursor", is("def")))
+                .andExpect(jsonPath("$.hasMore", is(false)));
+    }
+
+    @Test
+    void getChanges_WithoutCursor_UsesDefaultLimit() throws Exception {
+        when(taskOutboxService.getChanges(null, 50)).thenReturn(new TaskChangeFeed(List.of(), "end", false));
+
+        mockMvc.perform(get("/api/tasks/changes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cursor", is("end")));
+    }
+
+    @Test
+    void getChanges_MalformedCursor() throws Exception {
+        when(taskOutboxService.getChanges("bad", 50)).thenThrow(new IllegalArgumentException("Malformed cursor: bad"));
+
+        mockMvc.perform(get("/api/tasks/changes").param("since", "bad"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getChanges_ExpiredCursor() throws Exception {
+        when(taskOutboxService.getChanges("old", 50)).thenThrow(new CursorExpiredException("expired"));
+
+        mockMvc.perform(get("/api/tasks/changes").param("since", "old"))
+                .andExpect(status().isGone());
+    }
+}
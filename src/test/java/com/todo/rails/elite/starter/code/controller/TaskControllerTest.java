@@ -1,7 +1,15 @@
 package com.todo.rails.elite.starter.code.controller;
 
+import com.todo.rails.elite.starter.code.exceptions.ResourceConflictException;
+import com.todo.rails.elite.starter.code.exceptions.ResourceNotFoundException;
 import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.TaskCollectionStamp;
+import com.todo.rails.elite.starter.code.model.TaskFilter;
+import com.todo.rails.elite.starter.code.model.TaskPage;
+import com.todo.rails.elite.starter.code.model.TaskSort;
+import com.todo.rails.elite.starter.code.model.TaskStamp;
 import com.todo.rails.elite.starter.code.service.TaskService;
+import com.todo.rails.elite.starter.code.service.TaskStampService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,11 +21,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -29,9 +40,14 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @ExtendWith(MockitoExtension.class)
 class TaskControllerTest {
 
+    private static final Instant UPDATED_AT = Instant.parse("2030-01-01T10:15:30.123456Z");
+
     @Mock
     private TaskService taskService;
 
+    @Mock
+    private TaskStampService taskStampService;
+
     @InjectMocks
     private TaskController taskController;
 
@@ -40,6 +56,14 @@ class TaskControllerTest {
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders.standaloneSetup(taskController).build();
+        lenient().when(taskStampService.getCollectionStamp()).thenReturn(new TaskCollectionStamp(2));
+        // the stamp read with the body; by default the same as the cached one
+        lenient().when(taskStampService.readCollection(any())).thenAnswer(invocation ->
+                invocation.<Function<TaskCollectionStamp, ?>>getArgument(0).apply(taskStampService.getCollectionStamp()));
+        lenient().when(taskStampService.getTaskStamp(anyLong()))
+                .thenAnswer(invocation -> Optional.of(new TaskStamp(invocation.getArgument(0), 3L, UPDATED_AT)));
+        lenient().when(taskStampService.getTaskStampByTitle(anyString()))
+                .thenReturn(Optional.of(new TaskStamp(1L, 3L, UPDATED_AT)));
     }
 
     @Test
@@ -49,24 +73,85 @@ class TaskControllerTest {
         Task task2 = new Task("Task 2", null, true, LocalDate.now().plusDays(1));
         task2.setId(2L);
         List<Task> tasks = Arrays.asList(task1, task2);
-        when(taskService.getAllTasks()).thenReturn(tasks);
+        when(taskService.getTaskPage(TaskFilter.ALL, TaskSort.ID, null, TaskService.DEFAULT_PAGE_LIMIT))
+                .thenReturn(new TaskPage(tasks, null));
 
         mockMvc.perform(get("/api/tasks/all"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].id", is(1)))
-                .andExpect(jsonPath("$[0].title", is("Task 1")));
+                .andExpect(jsonPath("$[0].title", is("Task 1")))
+                .andExpect(header().doesNotExist("Link"));
     }
 
     @Test
     void getAllTasks_NotFound() throws Exception {
-        when(taskService.getAllTasks()).thenThrow(new RuntimeException("No tasks found"));
+        when(taskService.getTaskPage(org.mockito.ArgumentMatchers.any(TaskFilter.class), org.mockito.ArgumentMatchers.any(TaskSort.class), org.mockito.ArgumentMatchers.any(), anyInt()))
+                .thenThrow(new RuntimeException("No tasks found"));
 
         mockMvc.perform(get("/api/tasks/all"))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getAllTasks_AdvertisesNextPage() throws Exception {
+        Task task1 = new Task("Task 1", null, false, LocalDate.now());
+        task1.setId(1L);
+        when(taskService.getTaskPage(TaskFilter.ALL, TaskSort.DUE_DATE, null, 1))
+                .thenReturn(new TaskPage(List.of(task1), "next-cursor"));
+
+        mockMvc.perform(get("/api/tasks/all").param("sort", "dueDate").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string("Link", allOf(
+                        containsString("cursor=next-cursor"),
+                        containsString("sort=dueDate"),
+                        containsString("limit=1"),
+                        org.hamcrest.Matchers.endsWith("rel=\"next\""))));
+    }
+
+    @Test
+    void getAllTasks_InvalidSort() throws Exception {
+        mockMvc.perform(get("/api/tasks/all").param("sort", "title"))
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, never()).getTaskPage(org.mockito.ArgumentMatchers.any(), org.mockito.ArgumentMatchers.any(), org.mockito.ArgumentMatchers.any(), anyInt());
+    }
+
+    @Test
+    void getAllTasks_InvalidCursor() throws Exception {
+        when(taskService.getTaskPage(TaskFilter.ALL, TaskSort.ID, "garbage", TaskService.DEFAULT_PAGE_LIMIT))
+                .thenThrow(new IllegalArgumentException("Malformed cursor: garbage"));
+
+        mockMvc.perform(get("/api/tasks/all").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getTaskPage_ReturnsItemsAndCursor() throws Exception {
+        Task pendingTask = new Task("Pending Task", null, false, LocalDate.now());
+        pendingTask.setId(4L);
+        when(taskService.getTaskPage(TaskFilter.PENDING, TaskSort.ID, "cursor-1", 10))
+                .thenReturn(new TaskPage(List.of(pendingTask), "cursor-2"));
+
+        mockMvc.perform(get("/api/tasks")
+                        .param("status", "pending")
+                        .param("cursor", "cursor-1")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is(4)))
+                .andExpect(jsonPath("$.next", is("cursor-2")));
+    }
+
+    @Test
+    void getTaskPage_InvalidStatus() throws Exception {
+        mockMvc.perform(get("/api/tasks").param("status", "archived"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getTaskById_Success() throws Exception {
         Task task = new Task("Task 1", null, false, LocalDate.now());
@@ -234,7 +319,8 @@ class TaskControllerTest {
         Task pendingTask = new Task("Pending Task", null, false, LocalDate.now());
         pendingTask.setId(1L);
         List<Task> pendingTasks = Collections.singletonList(pendingTask);
-        when(taskService.getPendingTasks()).thenReturn(pendingTasks);
+        when(taskService.getTaskPage(TaskFilter.PENDING, TaskSort.ID, null, TaskService.DEFAULT_PAGE_LIMIT))
+                .thenReturn(new TaskPage(pendingTasks, null));
 
         mockMvc.perform(get("/api/tasks/pending"))
                 .andExpect(status().isOk())
@@ -246,7 +332,8 @@ class TaskControllerTest {
 
     @Test
     void getPendingTasks_NotFound() throws Exception {
-        when(taskService.getPendingTasks()).thenThrow(new RuntimeException("No pending tasks found"));
+        when(taskService.getTaskPage(eq(TaskFilter.PENDING), org.mockito.ArgumentMatchers.any(TaskSort.class), org.mockito.ArgumentMatchers.any(), anyInt()))
+                .thenThrow(new RuntimeException("No pending tasks found"));
 
         mockMvc.perform(get("/api/tasks/pending"))
                 .andExpect(status().isNotFound());
@@ -257,7 +344,8 @@ class TaskControllerTest {
         Task completedTask = new Task("Completed Task", null, true, LocalDate.now().minusDays(1));
         completedTask.setId(2L);
         List<Task> completedTasks = Collections.singletonList(completedTask);
-        when(taskService.getCompletedTasks()).thenReturn(completedTasks);
+        when(taskService.getTaskPage(TaskFilter.COMPLETED, TaskSort.ID, null, TaskService.DEFAULT_PAGE_LIMIT))
+                .thenReturn(new TaskPage(completedTasks, null));
 
         mockMvc.perform(get("/api/tasks/completed"))
                 .andExpect(status().isOk())
@@ -269,7 +357,8 @@ class TaskControllerTest {
 
     @Test
     void getCompletedTasks_NotFound() throws Exception {
-        when(taskService.getCompletedTasks()).thenThrow(new RuntimeException("No completed tasks found"));
+        when(taskService.getTaskPage(eq(TaskFilter.COMPLETED), org.mockito.ArgumentMatchers.any(TaskSort.class), org.mockito.ArgumentMatchers.any(), anyInt()))
+                .thenThrow(new RuntimeException("No completed tasks found"));
 
         mockMvc.perform(get("/api/tasks/completed"))
                 .andExpect(status().isNotFound());
@@ -280,7 +369,8 @@ class TaskControllerTest {
         Task todayTask = new Task("Today's Task", null, false, LocalDate.now());
         todayTask.setId(3L);
         List<Task> todayTasks = Collections.singletonList(todayTask);
-        when(taskService.getTodayTasks()).thenReturn(todayTasks);
+        when(taskService.getTaskPage(TaskFilter.TODAY, TaskSort.ID, null, TaskService.DEFAULT_PAGE_LIMIT))
+                .thenReturn(new TaskPage(todayTasks, null));
 
         mockMvc.perform(get("/api/tasks/today"))
                 .andExpect(status().isOk())
@@ -291,9 +381,172 @@ class TaskControllerTest {
 
     @Test
     void getTodayTasks_NotFound() throws Exception {
-        when(taskService.getTodayTasks()).thenThrow(new RuntimeException("No tasks for today found"));
+        when(taskService.getTaskPage(eq(TaskFilter.TODAY), org.mockito.ArgumentMatchers.any(TaskSort.class), org.mockito.ArgumentMatchers.any(), anyInt()))
+                .thenThrow(new RuntimeException("No tasks for today found"));
 
         mockMvc.perform(get("/api/tasks/today"))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    void patchComplete_ReturnsNewVersion() throws Exception {
+        when(taskService.completeTask(1L, 3L)).thenReturn(4L);
+
+        mockMvc.perform(patch("/api/tasks/1/complete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"version\":3}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.version", is(4)));
+    }
+
+    @Test
+    void patchReopen_StaleVersion() throws Exception {
+        when(taskService.reopenTask(1L, 3L)).thenThrow(new ResourceConflictException("Task 1 was modified concurrently"));
+
+        mockMvc.perform(patch("/api/tasks/1/reopen")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"version\":3}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void patchReschedule_NotFound() throws Exception {
+        when(taskService.rescheduleTask(9L, 0L, LocalDate.of(2030, 1, 1)))
+                .thenThrow(new ResourceNotFoundException("Task not found with id: 9"));
+
+        mockMvc.perform(patch("/api/tasks/9/reschedule")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"version\":0,\"dueDate\":\"2030-01-01\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void patchRetitle_MissingVersion() throws Exception {
+        when(taskService.retitleTask(1L, null, "New title")).thenThrow(new IllegalArgumentException("Version cannot be null"));
+
+        mockMvc.perform(patch("/api/tasks/1/retitle")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"New title\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllTasks_SendsETag() throws Exception {
+        when(taskService.getTaskPage(TaskFilter.ALL, TaskSort.ID, null, TaskService.DEFAULT_PAGE_LIMIT))
+                .thenReturn(new TaskPage(List.of(), null));
+
+        mockMvc.perform(get("/api/tasks/all"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", matchesPattern("\"[0-9a-f]{32}\"")))
+                .andExpect(header().string("Cache-Control", "private, no-cache"));
+    }
+
+    @Test
+    void getAllTasks_NotModified() throws Exception {
+        when(taskService.getTaskPage(TaskFilter.ALL, TaskSort.ID, null, TaskService.DEFAULT_PAGE_LIMIT))
+                .thenReturn(new TaskPage(List.of(), null));
+        String etag = mockMvc.perform(get("/api/tasks/all"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/tasks/all").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        verify(taskService, times(1)).getTaskPage(org.mockito.ArgumentMatchers.any(), org.mockito.ArgumentMatchers.any(), org.mockito.ArgumentMatchers.any(), anyInt());
+    }
+
+    @Test
+    void getPendingTasks_ChangedTable_ReturnsBody() throws Exception {
+        when(taskService.getTaskPage(TaskFilter.PENDING, TaskSort.ID, null, TaskService.DEFAULT_PAGE_LIMIT))
+                .thenReturn(new TaskPage(List.of(), null));
+        String etag = mockMvc.perform(get("/api/tasks/pending"))
+                .andReturn().getResponse().getHeader("ETag");
+        // a delete lowers the count without moving the latest write time
+        when(taskStampService.getCollectionStamp()).thenReturn(new TaskCollectionStamp(1));
+
+        mockMvc.perform(get("/api/tasks/pending").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+    }
+
+    @Test
+    void getTaskById_NotModified() throws Exception {
+        mockMvc.perform(get("/api/tasks/1").header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1-3\""));
+
+        verify(taskService, never()).getTaskById(anyLong());
+    }
+
+    @Test
+    void getTaskById_StaleVersion_ReturnsBody() throws Exception {
+        Task task = new Task("Task 1", "Description", false, LocalDate.now());
+        task.setId(1L);
+        task.setVersion(3L);
+        when(taskService.getTaskById(1L)).thenReturn(task);
+
+        mockMvc.perform(get("/api/tasks/1").header("If-None-Match", "\"1-2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3\""))
+                .andExpect(jsonPath("$.version", is(3)));
+    }
+
+    @Test
+    void getPendingTasks_ReplicaBehindCachedStamp_TagsBodyWithStampReadWithIt() throws Exception {
+        when(taskService.getTaskPage(TaskFilter.PENDING, TaskSort.ID, null, TaskService.DEFAULT_PAGE_LIMIT))
+                .thenReturn(new TaskPage(List.of(), null));
+        String etag = mockMvc.perform(get("/api/tasks/pending"))
+                .andReturn().getResponse().getHeader("ETag");
+        // the primary has moved on, the replica serving the body has not
+        when(taskStampService.getCollectionStamp()).thenReturn(new TaskCollectionStamp(3));
+        doAnswer(invocation -> invocation.<Function<TaskCollectionStamp, ?>>getArgument(0).apply(new TaskCollectionStamp(2)))
+                .when(taskStampService).readCollection(any());
+
+        mockMvc.perform(get("/api/tasks/pending").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+        // once the replica catches up the client gets the new body, tagged with the new stamp
+        doAnswer(invocation -> invocation.<Function<TaskCollectionStamp, ?>>getArgument(0).apply(new TaskCollectionStamp(3)))
+                .when(taskStampService).readCollection(any());
+        mockMvc.perform(get("/api/tasks/pending").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+
+        verify(taskService, times(2)).getTaskPage(TaskFilter.PENDING, TaskSort.ID, null, TaskService.DEFAULT_PAGE_LIMIT);
+    }
+
+    @Test
+    void getTaskById_BodyOlderThanStamp_TagsBodyVersion() throws Exception {
+        // the stamp comes from the primary, the task from a lagging replica or the second-level cache
+        when(taskStampService.getTaskStamp(1L)).thenReturn(Optional.of(new TaskStamp(1L, 4L, UPDATED_AT)));
+        Task task = new Task("Task 1", "Description", false, LocalDate.now());
+        task.setId(1L);
+        task.setVersion(3L);
+        when(taskService.getTaskById(1L)).thenReturn(task);
+
+        mockMvc.perform(get("/api/tasks/1").header("If-None-Match", "\"1-2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3\""))
+                .andExpect(jsonPath("$.version", is(3)));
+    }
+
+    @Test
+    void getTaskById_UnknownId_NotFoundWithoutLoading() throws Exception {
+        when(taskStampService.getTaskStamp(9L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/tasks/9"))
+                .andExpect(status().isNotFound());
+
+        verify(taskService, never()).getTaskById(anyLong());
+    }
+
+    @Test
+    void getTaskByTitle_NotModified() throws Exception {
+        mockMvc.perform(get("/api/tasks/title/Test Task").header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isNotModified());
+
+        verify(taskService, never()).getTaskByTitle(anyString());
+    }
+}
@@ -0,0 +1,124 @@
+package com.todo.rails.elite.starter.code.controller;
+
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.TaskCollectionStamp;
+import com.todo.rails.elite.starter.code.model.TaskFilter;
+import com.todo.rails.elite.starter.code.model.TaskPage;
+import com.todo.rails.elite.starter.code.service.TaskService;
+import com.todo.rails.elite.starter.code.service.TaskStampService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskDueControllerTest {
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private TaskStampService taskStampService;
+
+    @InjectMocks
+    private TaskDueController taskDueController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(taskDueController).build();
+        lenient().when(taskStampService.getCollectionStamp())
+                .thenReturn(new TaskCollectionStamp(10));
+        // the stamp read with the body; by default the same as the cached one
+        lenient().when(taskStampService.readCollection(any())).thenAnswer(invocation ->
+                invocation.<Function<TaskCollectionStamp, ?>>getArgument(0).apply(taskStampService.getCollectionStamp()));
+    }
+
+    @Test
+    void getTasksDueBetween_ParsesWindowAndStatus() throws Exception {
+        Task task = new Task("Pay rent", "Desc", false, LocalDate.of(2025, 3, 1));
+        task.setId(3L);
+        when(taskService.getTasksDueBetween(
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 4, 1), TaskFilter.PENDING, "abc", 25))
+                .thenReturn(new TaskPage(List.of(task), "next-cursor"));
+
+        mockMvc.perform(get("/api/tasks/due")
+                        .param("from", "2025-03-01").param("to", "2025-04-01")
+                        .param("status", "pending").param("cursor", "abc").param("limit", "25"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id", is(3)))
+                .andExpect(jsonPath("$.next", is("next-cursor")));
+    }
+
+    @Test
+    void getTasksDueBetween_DefaultsToAllStatusesAndDefaultLimit() throws Exception {
+        when(taskService.getTasksDueBetween(any(), any(), eq(TaskFilter.ALL), isNull(), eq(TaskService.DEFAULT_PAGE_LIMIT)))
+                .thenReturn(new TaskPage(List.of(), null));
+
+        mockMvc.perform(get("/api/tasks/due").param("from", "2025-03-01").param("to", "2025-03-08"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getTasksDueBetween_InvalidInput_BadRequest() throws Exception {
+        when(taskService.getTasksDueBetween(any(), any(), any(), any(), anyInt()))
+                .thenThrow(new IllegalArgumentException("empty window"));
+
+        mockMvc.perform(get("/api/tasks/due").param("from", "2025-03-08").param("to", "2025-03-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks/due").param("from", "2025-03-01").param("to", "2025-03-08").param("status", "soon"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks/due").param("from", "March").param("to", "2025-03-08"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks/due").param("from", "2025-03-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getOverdueTasks_ReturnsPage() throws Exception {
+        when(taskService.getOverdueTasks(null, TaskService.DEFAULT_PAGE_LIMIT)).thenReturn(new TaskPage(List.of(), null));
+
+        mockMvc.perform(get("/api/tasks/due/overdue"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()", is(0)));
+    }
+
+    @Test
+    void getTasksDueWithin_DefaultsToAWeek() throws Exception {
+        when(taskService.getTasksDueWithin(7, null, TaskService.DEFAULT_PAGE_LIMIT)).thenReturn(new TaskPage(List.of(), null));
+        when(taskService.getTasksDueWithin(0, null, TaskService.DEFAULT_PAGE_LIMIT))
+                .thenThrow(new IllegalArgumentException("days"));
+
+        mockMvc.perform(get("/api/tasks/due/within")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/tasks/due/within").param("days", "0")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getOverdueTasks_NotModified() throws Exception {
+        when(taskService.getOverdueTasks(null, TaskService.DEFAULT_PAGE_LIMIT)).thenReturn(new TaskPage(List.of(), null));
+        String etag = mockMvc.perform(get("/api/tasks/due/overdue"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/tasks/due/overdue").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        verify(taskService, times(1)).getOverdueTasks(any(), anyInt());
+    }
+}
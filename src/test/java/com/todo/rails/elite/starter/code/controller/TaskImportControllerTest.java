@@ -0,0 +1,78 @@
+package com.todo.rails.elite.starter.code.controller;
+
+import com.todo.rails.elite.starter.code.model.TaskExportFormat;
+import com.todo.rails.elite.starter.code.model.TaskImportResult;
+import com.todo.rails.elite.starter.code.service.TaskImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskImportControllerTest {
+
+    @Mock
+    private TaskImportService taskImportService;
+
+    @InjectMocks
+    private TaskImportController taskImportController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(taskImportController).build();
+    }
+
+    @Test
+    void importTasks_NdjsonBody() throws Exception {
+        when(taskImportService.importTasks(eq(TaskExportFormat.NDJSON), any(InputStream.class)))
+                .thenReturn(new TaskImportResult(2, 1, 0, 1, 10, 300.0));
+
+        mockMvc.perform(post("/api/tasks/import")
+                        .contentType("application/x-ndjson")
+                        .content("{}\n{}\n{}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(2)))
+                .andExpect(jsonPath("$.duplicates", is(1)));
+    }
+
+    @Test
+    void importTasks_CsvFileUpload() throws Exception {
+        when(taskImportService.importTasks(eq(TaskExportFormat.CSV), any(InputStream.class)))
+                .thenReturn(new TaskImportResult(1, 0, 0, 1, 5, 200.0));
+        MockMultipartFile file = new MockMultipartFile("file", "tasks.csv", "text/csv",
+                "title,description,completed,dueDate\r\nA,B,false,2025-01-01\r\n".getBytes());
+
+        mockMvc.perform(multipart("/api/tasks/import").file(file))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)));
+    }
+
+    @Test
+    void importTasks_MalformedUpload() throws Exception {
+        when(taskImportService.importTasks(eq(TaskExportFormat.CSV), any(InputStream.class)))
+                .thenThrow(new IOException("CSV header is missing column: title"));
+
+        mockMvc.perform(post("/api/tasks/import")
+                        .contentType("text/csv")
+                        .content("nope\r\n"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,79 @@
+package com.todo.rails.elite.starter.code.controller;
+
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.TaskSearchResult;
+import com.todo.rails.elite.starter.code.service.TaskSearchService;
+import com.todo.rails.elite.starter.code.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSearchControllerTest {
+
+    @Mock
+    private TaskSearchService taskSearchService;
+
+    @InjectMocks
+    private TaskSearchController taskSearchController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(taskSearchController).build();
+    }
+
+    @Test
+    void searchTasks_ReturnsRankedPage() throws Exception {
+        Task task = new Task("Quarterly report", "Desc", false, LocalDate.now());
+        task.setId(7L);
+        when(taskSearchService.search("report", 0, TaskService.DEFAULT_PAGE_LIMIT))
+                .thenReturn(new TaskSearchResult(List.of(task), 12, 0));
+
+        mockMvc.perform(get("/api/tasks/search").param("q", "report"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id", is(7)))
+                .andExpect(jsonPath("$.total", is(12)))
+                .andExpect(jsonPath("$.offset", is(0)));
+    }
+
+    @Test
+    void searchTasks_PassesPaging() throws Exception {
+        when(taskSearchService.search("report", 20, 10)).thenReturn(new TaskSearchResult(List.of(), 12, 20));
+
+        mockMvc.perform(get("/api/tasks/search").param("q", "report").param("offset", "20").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(12)));
+    }
+
+    @Test
+    void searchTasks_MissingOrEmptyQuery_BadRequest() throws Exception {
+        when(taskSearchService.search(anyString(), anyInt(), anyInt())).thenThrow(new IllegalArgumentException("empty"));
+
+        mockMvc.perform(get("/api/tasks/search")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks/search").param("q", "  ")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchTasks_IndexNotBuilt_ServiceUnavailable() throws Exception {
+        when(taskSearchService.search(anyString(), anyInt(), anyInt())).thenThrow(new IllegalStateException("building"));
+
+        mockMvc.perform(get("/api/tasks/search").param("q", "report")).andExpect(status().isServiceUnavailable());
+    }
+}
@@ -0,0 +1,76 @@
+package com.todo.rails.elite.starter.code.controller;
+
+import com.todo.rails.elite.starter.code.model.TaskSuggestion;
+import com.todo.rails.elite.starter.code.service.TaskSuggestionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSuggestionControllerTest {
+
+    @Mock
+    private TaskSuggestionService taskSuggestionService;
+
+    @InjectMocks
+    private TaskSuggestionController taskSuggestionController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(taskSuggestionController).build();
+    }
+
+    @Test
+    void suggestTasks_ReturnsSuggestions() throws Exception {
+        when(taskSuggestionService.suggest("rev", 10))
+                .thenReturn(List.of(new TaskSuggestion(7L, "Review budget", false, LocalDate.of(2025, 3, 10))));
+
+        mockMvc.perform(get("/api/tasks/suggestions").param("prefix", "rev"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(7)))
+                .andExpect(jsonPath("$[0].title", is("Review budget")))
+                .andExpect(jsonPath("$[0].completed", is(false)));
+    }
+
+    @Test
+    void suggestTasks_PassesLimit() throws Exception {
+        when(taskSuggestionService.suggest("rev", 3)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/tasks/suggestions").param("prefix", "rev").param("limit", "3"))
+                .andExpect(status().isOk());
+        verify(taskSuggestionService).suggest("rev", 3);
+    }
+
+    @Test
+    void suggestTasks_MissingOrEmptyPrefix_BadRequest() throws Exception {
+        when(taskSuggestionService.suggest(anyString(), anyInt())).thenThrow(new IllegalArgumentException("empty"));
+
+        mockMvc.perform(get("/api/tasks/suggestions")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks/suggestions").param("prefix", " ")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void suggestTasks_IndexNotBuilt_ServiceUnavailable() throws Exception {
+        when(taskSuggestionService.suggest(anyString(), anyInt())).thenThrow(new IllegalStateException("building"));
+
+        mockMvc.perform(get("/api/tasks/suggestions").param("prefix", "rev"))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
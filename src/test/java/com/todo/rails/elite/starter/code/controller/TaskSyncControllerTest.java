@@ -0,0 +1,71 @@
+package com.todo.rails.elite.starter.code.controller;
+
+import com.todo.rails.elite.starter.code.model.TaskSync;
+import com.todo.rails.elite.starter.code.model.TaskSyncItem;
+import com.todo.rails.elite.starter.code.service.TaskSyncService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSyncControllerTest {
+
+    @Mock
+    private TaskSyncService taskSyncService;
+
+    @InjectMocks
+    private TaskSyncController taskSyncController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(taskSyncController).build();
+    }
+
+    @Test
+    void sync_ReturnsCompactDelta() throws Exception {
+        TaskSyncItem item = new TaskSyncItem(3L, "Review budget", "Desc", true, LocalDate.of(2025, 3, 10), 2, Instant.now());
+        when(taskSyncService.sync("abc", 100)).thenReturn(new TaskSync(false, List.of(item), List.of(9L), "def", false));
+
+        mockMvc.perform(get("/api/tasks/sync").param("since", "abc").param("limit", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.full", is(false)))
+                .andExpect(jsonPath("$.changed[0].id", is(3)))
+                .andExpect(jsonPath("$.changed[0].version", is(2)))
+                .andExpect(jsonPath("$.changed[0].updatedAt").doesNotExist())
+                .andExpect(jsonPath("$.deleted", contains(9)))
+                .andExpect(jsonPath("$.watermark", is("def")));
+    }
+
+    @Test
+    void sync_WithoutWatermark_UsesMaxLimit() throws Exception {
+        when(taskSyncService.sync(null, 500)).thenReturn(new TaskSync(true, List.of(), List.of(), "start", false));
+
+        mockMvc.perform(get("/api/tasks/sync"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.full", is(true)));
+    }
+
+    @Test
+    void sync_MalformedWatermark() throws Exception {
+        when(taskSyncService.sync("bad", 500)).thenThrow(new IllegalArgumentException("Malformed watermark: bad"));
+
+        mockMvc.perform(get("/api/tasks/sync").param("since", "bad"))
+                .andExpect(status().isBadRequest());
+    }
+}
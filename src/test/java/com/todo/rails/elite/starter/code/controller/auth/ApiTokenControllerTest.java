@@ -0,0 +1,134 @@
+package com.todo.rails.elite.starter.code.controller.auth;
+
+import com.todo.rails.elite.starter.code.exceptions.PasswordHashingRejectedException;
+import com.todo.rails.elite.starter.code.model.User;
+import com.todo.rails.elite.starter.code.model.security.SecurityUser;
+import com.todo.rails.elite.starter.code.service.security.ApiTokenService;
+import com.todo.rails.elite.starter.code.service.security.RefreshTokenService;
+import com.todo.rails.elite.starter.code.service.security.RehashingAuthenticationProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApiTokenControllerTest {
+
+    @Mock
+    private RehashingAuthenticationProvider authenticationProvider;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private ApiTokenService apiTokenService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @InjectMocks
+    private ApiTokenController apiTokenController;
+
+    private MockMvc mockMvc;
+
+    private final SecurityUser alice = new SecurityUser(new User("alice", "$2a$04$hash", "alice@example.com", "USER"));
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(apiTokenController).build();
+    }
+
+    @Test
+    void token_IssuesAccessAndRefreshToken() throws Exception {
+        when(authenticationProvider.authenticate(any()))
+                .thenReturn(UsernamePasswordAuthenticationToken.authenticated(alice, null, alice.getAuthorities()));
+        when(apiTokenService.issue(alice)).thenReturn("access");
+        when(apiTokenService.getAccessTokenTtl()).thenReturn(Duration.ofMinutes(15));
+        when(refreshTokenService.issue("alice")).thenReturn("refresh");
+
+        mockMvc.perform(post("/api/auth/token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"alice\",\"password\":\"secret\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken", is("access")))
+                .andExpect(jsonPath("$.tokenType", is("Bearer")))
+                .andExpect(jsonPath("$.expiresIn", is(900)))
+                .andExpect(jsonPath("$.refreshToken", is("refresh")));
+    }
+
+    @Test
+    void token_WrongCredentials() throws Exception {
+        when(authenticationProvider.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        mockMvc.perform(post("/api/auth/token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"alice\",\"password\":\"wrong\"}"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string("WWW-Authenticate", "Bearer"));
+        verifyNoInteractions(apiTokenService, refreshTokenService);
+    }
+
+    @Test
+    void token_HashingSaturated() throws Exception {
+        when(authenticationProvider.authenticate(any()))
+                .thenThrow(new PasswordHashingRejectedException("Password hashing is saturated"));
+
+        mockMvc.perform(post("/api/auth/token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"alice\",\"password\":\"secret\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void refresh_RotatesTokens() throws Exception {
+        when(refreshTokenService.consume("old")).thenReturn("alice");
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(alice);
+        when(apiTokenService.issue(alice)).thenReturn("access");
+        when(apiTokenService.getAccessTokenTtl()).thenReturn(Duration.ofMinutes(15));
+        when(refreshTokenService.issue("alice")).thenReturn("new");
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"old\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken", is("access")))
+                .andExpect(jsonPath("$.refreshToken", is("new")));
+    }
+
+    @Test
+    void refresh_InvalidToken() throws Exception {
+        when(refreshTokenService.consume("used")).thenThrow(new BadCredentialsException("Refresh token was already used"));
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"used\"}"))
+                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(apiTokenService);
+    }
+
+    @Test
+    void revoke_NoContent() throws Exception {
+        mockMvc.perform(post("/api/auth/revoke")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"token\"}"))
+                .andExpect(status().isNoContent());
+        verify(refreshTokenService).revoke("token");
+    }
+}
@@ -0,0 +1,129 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.ConnectionPoolStatus;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionPoolMonitorTest {
+
+    @Mock
+    private HikariDataSource dataSource;
+
+    @Mock
+    private HikariPoolMXBean pool;
+
+    private MeterRegistry registry;
+    private Timer acquire;
+    private Counter timeouts;
+    private ConnectionPoolMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        acquire = Timer.builder("hikaricp.connections.acquire").tag("pool", "todo").register(registry);
+        timeouts = Counter.builder("hikaricp.connections.timeout").tag("pool", "todo").register(registry);
+        lenient().when(dataSource.getPoolName()).thenReturn("todo");
+        monitor = new ConnectionPoolMonitor(dataSource, registry, Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.destroy();
+    }
+
+    @Test
+    void check_DoesNothingBeforePoolStarts() {
+        acquire.record(Duration.ofSeconds(1));
+
+        monitor.check();
+
+        assertEquals(0, starved());
+    }
+
+    @Test
+    void check_FastAcquisitions_NoWarning() {
+        when(dataSource.getHikariPoolMXBean()).thenReturn(pool);
+        acquire.record(Duration.ofMillis(1));
+        acquire.record(Duration.ofMillis(3));
+
+        monitor.check();
+
+        assertEquals(0, starved());
+    }
+
+    @Test
+    void check_SlowAcquisitions_WarnsOnce() {
+        when(dataSource.getHikariPoolMXBean()).thenReturn(pool);
+        acquire.record(Duration.ofMillis(20));
+        acquire.record(Duration.ofMillis(180));
+
+        monitor.check();
+        acquire.record(Duration.ofMillis(2));
+        monitor.check();
+
+        assertEquals(1, starved());
+        assertNotNull(monitor.status().lastStarvedAt());
+    }
+
+    @Test
+    void check_Timeouts_Warns() {
+        when(dataSource.getHikariPoolMXBean()).thenReturn(pool);
+        timeouts.increment();
+
+        monitor.check();
+
+        assertEquals(1, starved());
+    }
+
+    @Test
+    void status_ReportsPoolStateAndLeaks() {
+        when(dataSource.getHikariPoolMXBean()).thenReturn(pool);
+        when(pool.getActiveConnections()).thenReturn(4);
+        when(pool.getIdleConnections()).thenReturn(6);
+        when(pool.getThreadsAwaitingConnection()).thenReturn(2);
+        when(dataSource.getMaximumPoolSize()).thenReturn(10);
+        when(dataSource.getLeakDetectionThreshold()).thenReturn(60_000L);
+        acquire.record(Duration.ofMillis(4));
+        timeouts.increment();
+        org.slf4j.Logger leakTask = LoggerFactory.getLogger(ConnectionPoolMonitor.LEAK_TASK_LOGGER);
+        leakTask.warn("Connection leak detection triggered for {} on thread {}, stack trace follows", "conn1", "main");
+        leakTask.warn("Connection leak detection triggered for {} on thread {}, stack trace follows", "conn2", "main");
+        leakTask.info("Previously reported leaked connection {} on thread {} was returned to the pool (unleaked)",
+                "conn1", "main");
+
+        ConnectionPoolStatus status = monitor.status();
+
+        assertEquals("todo", status.poolName());
+        assertEquals(4, status.active());
+        assertEquals(6, status.idle());
+        assertEquals(2, status.pending());
+        assertEquals(10, status.maximumPoolSize());
+        assertEquals(60_000L, status.leakDetectionThresholdMillis());
+        assertEquals(1, status.acquisitions());
+        assertEquals(1, status.timeouts());
+        assertEquals(2, status.leaksDetected());
+        assertEquals(1, status.leaksOutstanding());
+        assertNull(status.lastStarvedAt());
+    }
+
+    private double starved() {
+        return registry.get("connection.pool.starved").counter().count();
+    }
+}
@@ -0,0 +1,118 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.DashboardSnapshot;
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.TaskCounts;
+import com.todo.rails.elite.starter.code.model.TaskFilter;
+import com.todo.rails.elite.starter.code.model.TaskPage;
+import com.todo.rails.elite.starter.code.model.TaskSort;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskService taskService;
+
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        dashboardService = new DashboardService(taskRepository, taskService, 1, 2);
+    }
+
+    @Test
+    void getSnapshot_UsesOneAggregateQueryAndLoadsEachListOnce() {
+        LocalDate today = LocalDate.now();
+        Task todayPending = new Task("Today Pending", "Desc", false, today);
+        Task laterPending = new Task("Later Pending", "Desc", false, today.plusDays(2));
+
+        when(taskRepository.countByStatus(today)).thenReturn(new TaskCounts(1, 2, 5, 0));
+        when(taskService.getTaskPage(TaskFilter.TODAY, TaskSort.ID, null, 1))
+                .thenReturn(new TaskPage(List.of(todayPending), null));
+        when(taskService.getTaskPage(TaskFilter.PENDING, TaskSort.ID, null, 2))
+                .thenReturn(new TaskPage(List.of(todayPending, laterPending), null));
+
+        DashboardSnapshot snapshot = dashboardService.getSnapshot();
+
+        assertEquals(1, snapshot.totalPendingToday());
+        assertEquals(2, snapshot.totalPending());
+        assertEquals(5, snapshot.totalCompleted());
+        assertEquals(List.of(todayPending), snapshot.todayTasks());
+        assertNull(snapshot.todayNext());
+        assertEquals(List.of(todayPending, laterPending), snapshot.pendingTasks());
+        assertNull(snapshot.pendingNext());
+        verify(taskRepository, times(1)).countByStatus(today);
+        verify(taskService, times(1)).getTaskPage(TaskFilter.TODAY, TaskSort.ID, null, 1);
+        verify(taskService, times(1)).getTaskPage(TaskFilter.PENDING, TaskSort.ID, null, 2);
+        verify(taskRepository, never()).findByCompletedAndDueDate(anyBoolean(), any());
+        verify(taskRepository, never()).findByCompleted(anyBoolean());
+        verify(taskRepository, never()).findAll();
+    }
+
+    @Test
+    void getSnapshot_MorePendingThanLimit_ReturnsFirstPageAndCursor() {
+        LocalDate today = LocalDate.now();
+        Task first = new Task("First", "Desc", false, today.plusDays(1));
+        Task second = new Task("Second", "Desc", false, today.plusDays(2));
+
+        when(taskRepository.countByStatus(today)).thenReturn(new TaskCounts(0, 75_000, 25_000, 0));
+        when(taskService.getTaskPage(TaskFilter.TODAY, TaskSort.ID, null, 1)).thenReturn(new TaskPage(List.of(), null));
+        when(taskService.getTaskPage(TaskFilter.PENDING, TaskSort.ID, null, 2))
+                .thenReturn(new TaskPage(List.of(first, second), "cursor"));
+
+        DashboardSnapshot snapshot = dashboardService.getSnapshot();
+
+        assertEquals(75_000, snapshot.totalPending());
+        assertEquals(List.of(first, second), snapshot.pendingTasks());
+        assertEquals("cursor", snapshot.pendingNext());
+    }
+
+    @Test
+    void getSnapshot_MoreDueTodayThanLimit_ReturnsFirstPageAndCursor() {
+        LocalDate today = LocalDate.now();
+        Task first = new Task("First", "Desc", false, today);
+
+        when(taskRepository.countByStatus(today)).thenReturn(new TaskCounts(40_000, 40_000, 0, 0));
+        when(taskService.getTaskPage(TaskFilter.TODAY, TaskSort.ID, null, 1))
+                .thenReturn(new TaskPage(List.of(first), "today-cursor"));
+        when(taskService.getTaskPage(TaskFilter.PENDING, TaskSort.ID, null, 2))
+                .thenReturn(new TaskPage(List.of(first), "cursor"));
+
+        DashboardSnapshot snapshot = dashboardService.getSnapshot();
+
+        assertEquals(40_000, snapshot.totalPendingToday());
+        assertEquals(List.of(first), snapshot.todayTasks());
+        assertEquals("today-cursor", snapshot.todayNext());
+    }
+
+    @Test
+    void getSnapshot_EmptyTable() {
+        LocalDate today = LocalDate.now();
+        when(taskRepository.countByStatus(today)).thenReturn(new TaskCounts(0, 0, 0, 0));
+        when(taskService.getTaskPage(TaskFilter.TODAY, TaskSort.ID, null, 1)).thenReturn(new TaskPage(List.of(), null));
+        when(taskService.getTaskPage(TaskFilter.PENDING, TaskSort.ID, null, 2)).thenReturn(new TaskPage(List.of(), null));
+
+        DashboardSnapshot snapshot = dashboardService.getSnapshot();
+
+        assertEquals(0, snapshot.totalPending());
+        assertTrue(snapshot.todayTasks().isEmpty());
+        assertTrue(snapshot.pendingTasks().isEmpty());
+    }
+}
@@ -0,0 +1,279 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.rails.elite.starter.code.controller.DashboardController;
+import com.todo.rails.elite.starter.code.model.DashboardCounters;
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.TaskBulkChangedEvent;
+import com.todo.rails.elite.starter.code.model.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.model.TaskCounts;
+import com.todo.rails.elite.starter.code.model.TasksImportedEvent;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardStreamServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private DashboardService dashboardService;
+
+    @Mock
+    private TaskCommitService taskCommitService;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    // every change commits right away, with the next commit number
+    private final AtomicLong commits = new AtomicLong();
+
+    private DashboardStreamService streamService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        streamService = new DashboardStreamService(
+                taskRepository, taskCommitService, new ObjectMapper().findAndRegisterModules(), Duration.ofMinutes(1), 2, 16, registry
+        );
+        lenient().doAnswer(invocation -> {
+            invocation.<LongConsumer>getArgument(0).accept(commits.incrementAndGet());
+            return null;
+        }).when(taskCommitService).afterCommit(any());
+        mockMvc = MockMvcBuilders.standaloneSetup(new DashboardController(dashboardService, streamService)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.destroy();
+    }
+
+    private MockHttpServletResponse open() throws Exception {
+        return mockMvc.perform(get("/api/dashboard/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    // events are written by the sender thread, so wait for the expected text to arrive
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        String content = response.getContentAsString();
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            content = response.getContentAsString();
+        }
+        assertTrue(content.contains(expected), "Expected " + expected + " in " + content);
+        return content;
+    }
+
+    private static Task task(boolean completed, LocalDate dueDate) {
+        Task task = new Task("Task", "Desc", completed, dueDate);
+        task.setId(1L);
+        return task;
+    }
+
+    @Test
+    void subscribe_SendsSnapshot() throws Exception {
+        when(taskRepository.countByStatus(TODAY)).thenReturn(new TaskCounts(1, 3, 7, 0));
+
+        MockHttpServletResponse response = open();
+
+        awaitContent(response, "event: snapshot\ndata: {\"totalPendingToday\":1,\"totalPending\":3,\"totalCompleted\":7}\n\n");
+        assertEquals(1, registry.get("todo.dashboard.stream.subscribers").gauge().value());
+    }
+
+    @Test
+    void subscribe_SecondSubscriberReusesCounters() throws Exception {
+        when(taskRepository.countByStatus(TODAY)).thenReturn(new TaskCounts(1, 3, 7, 0));
+
+        open();
+        awaitContent(open(), "event: snapshot");
+
+        verify(taskRepository, times(1)).countByStatus(TODAY);
+    }
+
+    @Test
+    void subscribe_AtLimit_Throws() throws Exception {
+        when(taskRepository.countByStatus(TODAY)).thenReturn(new TaskCounts(0, 0, 0, 0));
+        open();
+        open();
+
+        assertThrows(IllegalStateException.class, () -> streamService.subscribe());
+    }
+
+    @Test
+    void onTaskChanged_CompletedTask_SendsDeltaAndTask() throws Exception {
+        when(taskRepository.countByStatus(TODAY)).thenReturn(new TaskCounts(1, 3, 7, 0));
+        MockHttpServletResponse response = open();
+
+        streamService.onTaskChanged(TaskChangedEvent.updated(task(true, TODAY), false, TODAY));
+
+        String content = awaitContent(response, "event: task\n");
+        assertTrue(content.contains(
+                "event: counters\ndata: {\"totalPendingToday\":-1,\"totalPending\":-1,\"totalCompleted\":1}\n\n"
+        ));
+        assertTrue(content.indexOf("event: counters") < content.indexOf("event: task"));
+        verify(taskRepository, times(1)).countByStatus(any());
+    }
+
+    @Test
+    void onTaskChanged_TitleOnly_SendsTaskWithoutDelta() throws Exception {
+        when(taskRepository.countByStatus(TODAY)).thenReturn(new TaskCounts(0, 1, 0, 0));
+        MockHttpServletResponse response = open();
+
+        streamService.onTaskChanged(TaskChangedEvent.updated(task(false, TODAY.plusDays(2)), false, TODAY.plusDays(1)));
+
+        String content = awaitContent(response, "event: task\n");
+        assertFalse(content.contains("event: counters"));
+    }
+
+    @Test
+    void onTaskChanged_CommittedBeforeSnapshot_IsNotCountedTwice() throws Exception {
+        // the snapshot was read after commit 5, whose listener only runs now
+        when(taskRepository.countByStatus(TODAY)).thenReturn(new TaskCounts(1, 1, 0, 5));
+        commits.set(4);
+        MockHttpServletResponse response = open();
+
+        streamService.onTaskChanged(TaskChangedEvent.created(task(false, TODAY)));
+        streamService.onTaskChanged(TaskChangedEvent.created(task(false, TODAY.plusDays(1))));
+
+        String content = awaitContent(response, "event: counters\ndata: {\"totalPendingToday\":0,\"totalPending\":1,\"totalCompleted\":0}\n\n");
+        // the first change is forwarded as a task only; the snapshot already counts it
+        assertEquals(2, content.split("event: counters\n", -1).length);
+        assertTrue(content.indexOf("event: task\n") < content.indexOf("event: counters\n"));
+    }
+
+    @Test
+    void onTaskChanged_WithoutSubscribers_DoesNothing() {
+        streamService.onTaskChanged(TaskChangedEvent.created(task(false, TODAY)));
+
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void onTasksChangedInBulk_RereadsCounters() throws Exception {
+        when(taskRepository.countByStatus(TODAY)).thenReturn(new TaskCounts(2, 5, 1, 0), new TaskCounts(2, 3, 3, 0));
+        MockHttpServletResponse response = open();
+
+        streamService.onTasksChangedInBulk(new TaskBulkChangedEvent(TaskBulkChangedEvent.Type.COMPLETED_OVERDUE, 2));
+
+        String content = awaitContent(response, "event: bulk\n");
+        assertTrue(content.contains(
+                "event: counters\ndata: {\"totalPendingToday\":0,\"totalPending\":-2,\"totalCompleted\":2}\n\n"
+        ));
+    }
+
+    @Test
+    void onTasksImported_MoreRowsThanQueueCapacity_SendsOneSummaryPerBatchAndKeepsSubscribers() throws Exception {
+        when(taskRepository.countByStatus(TODAY)).thenReturn(new TaskCounts(0, 0, 0, 0));
+        MockHttpServletResponse response = open();
+        awaitContent(response, "event: snapshot");
+
+        // 3 batches of 50 rows: 150 rows against a queue of 16 frames
+        for (int batch = 0; batch < 3; batch++) {
+            List<TaskChangedEvent> changes = new ArrayList<>();
+            for (int row = 0; row < 50; row++) {
+                changes.add(TaskChangedEvent.created(task(row % 2 == 0, TODAY)));
+            }
+            streamService.onTasksImported(new TasksImportedEvent(changes));
+        }
+
+        String counters = "event: counters\ndata: {\"totalPendingToday\":25,\"totalPending\":25,\"totalCompleted\":25}\n\n";
+        String bulk = "event: bulk\ndata: {\"type\":\"IMPORTED\",\"affected\":50}\n\n";
+        String content = awaitContent(response, counters + bulk + counters + bulk + counters + bulk);
+        assertFalse(content.contains("event: task\n"));
+        assertEquals(0, registry.get("todo.dashboard.stream.overflows").counter().count());
+        assertEquals(1, registry.get("todo.dashboard.stream.subscribers").gauge().value());
+    }
+
+    @Test
+    void slowSubscriber_IsDisconnectedAlone() throws Exception {
+        when(taskRepository.countByStatus(TODAY)).thenReturn(new TaskCounts(0, 0, 0, 0));
+        MockHttpServletResponse fast = open();
+        awaitContent(fast, "event: snapshot");
+        SseEmitter slow = streamService.subscribe();
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // emitters write while holding their own monitor; holding it stands in for a client that stopped reading
+        Thread client = Thread.ofPlatform().start(() -> {
+            synchronized (slow) {
+                stalled.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        try {
+            stalled.await();
+
+            // 20 changes of 2 frames each against queues of 16 frames, at the pace the fast client reads them
+            String content = "";
+            for (long id = 1; id <= 20; id++) {
+                Task task = task(false, TODAY);
+                task.setId(id);
+                streamService.onTaskChanged(TaskChangedEvent.created(task));
+                content = awaitContent(fast, "\"id\":" + id + ",");
+            }
+
+            assertEquals(21, content.split("event: task\n", -1).length);
+            assertEquals(1, registry.get("todo.dashboard.stream.overflows").counter().count());
+            assertEquals(1, registry.get("todo.dashboard.stream.subscribers").gauge().value());
+        } finally {
+            release.countDown();
+            client.join();
+        }
+    }
+
+    @Test
+    void heartbeat_Unchanged_SendsComment() throws Exception {
+        when(taskRepository.countByStatus(TODAY)).thenReturn(new TaskCounts(1, 1, 1, 0));
+        MockHttpServletResponse response = open();
+        awaitContent(response, "event: snapshot");
+
+        streamService.heartbeat();
+
+        awaitContent(response, "\n\n:\n\n");
+    }
+
+    @Test
+    void delta_CoversEventTypes() {
+        assertEquals(new DashboardCounters(1, 1, 0),
+                DashboardCounters.delta(TaskChangedEvent.created(task(false, TODAY)), TODAY));
+        assertEquals(new DashboardCounters(0, 0, -1),
+                DashboardCounters.delta(TaskChangedEvent.deleted(task(true, TODAY)), TODAY));
+        assertEquals(new DashboardCounters(1, 0, 0),
+                DashboardCounters.delta(TaskChangedEvent.updated(task(false, TODAY), false, TODAY.plusDays(1)), TODAY));
+        assertEquals(new DashboardCounters(0, 1, -1),
+                DashboardCounters.delta(TaskChangedEvent.updated(task(false, TODAY.minusDays(1)), true, TODAY), TODAY));
+    }
+}
@@ -0,0 +1,129 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.User;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import com.todo.rails.elite.starter.code.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoadTestDataSeederTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private LoadTestDataSeeder seeder;
+
+    @BeforeEach
+    void setUp() {
+        seeder = new LoadTestDataSeeder(
+                taskRepository, userRepository, entityManager, transactionManager, passwordEncoder,
+                3, 5, 42L, "secret", 2
+        );
+    }
+
+    @Test
+    void seed_EmptyDatabase_CreatesUsersWithOneHashAndPersistsTasksInBatches() {
+        when(passwordEncoder.encode("secret")).thenReturn("hash");
+
+        seeder.seed();
+
+        verify(passwordEncoder, times(1)).encode(anyString());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> users = ArgumentCaptor.forClass(List.class);
+        verify(userRepository).saveAll(users.capture());
+        assertEquals(3, users.getValue().size());
+        assertEquals("user-0", users.getValue().get(0).getUsername());
+        assertEquals("USER, ADMIN", users.getValue().get(0).getRoles());
+        assertEquals("USER", users.getValue().get(2).getRoles());
+        assertTrue(users.getValue().stream().allMatch(user -> "hash".equals(user.getPassword())));
+        verify(entityManager, times(5)).persist(any(Task.class));
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    void seed_ExistingData_LeavesDatabaseUntouched() {
+        when(userRepository.count()).thenReturn(1L);
+
+        seeder.seed();
+
+        verify(userRepository, never()).saveAll(any());
+        verifyNoInteractions(entityManager, passwordEncoder);
+    }
+
+    @Test
+    void generateTask_SameSeed_YieldsSameDatasetWithUniqueTitles() {
+        Random first = new Random(7);
+        Random second = new Random(7);
+        Set<String> titles = new HashSet<>();
+        for (int index = 0; index < 1000; index++) {
+            Task task = LoadTestDataSeeder.generateTask(index, first, TODAY);
+            Task again = LoadTestDataSeeder.generateTask(index, second, TODAY);
+            assertEquals(task.getTitle(), again.getTitle());
+            assertEquals(task.getDueDate(), again.getDueDate());
+            assertEquals(task.isCompleted(), again.isCompleted());
+            assertTrue(titles.add(task.getTitle()));
+        }
+    }
+
+    @Test
+    void generateTask_SpreadsDueDatesAroundToday() {
+        Random random = new Random(42);
+        List<Task> tasks = new ArrayList<>();
+        for (int index = 0; index < 10_000; index++) {
+            tasks.add(LoadTestDataSeeder.generateTask(index, random, TODAY));
+        }
+
+        long completed = tasks.stream().filter(Task::isCompleted).count();
+        long overdue = tasks.stream().filter(task -> !task.isCompleted() && task.getDueDate().isBefore(TODAY)).count();
+        long dueToday = tasks.stream().filter(task -> !task.isCompleted() && task.getDueDate().isEqual(TODAY)).count();
+        long upcoming = tasks.stream().filter(task -> !task.isCompleted() && task.getDueDate().isAfter(TODAY)).count();
+        assertEquals(2500, completed, 200);
+        assertEquals(1000, overdue, 150);
+        assertEquals(300, dueToday, 80);
+        assertEquals(6200, upcoming, 250);
+        assertTrue(tasks.stream().allMatch(task -> !task.getDueDate().isAfter(TODAY.plusDays(365))));
+        assertTrue(tasks.stream().filter(Task::isCompleted).noneMatch(task -> task.getDueDate().isAfter(TODAY)));
+        // most upcoming work is due within the next month
+        long nextMonth = tasks.stream()
+                .filter(task -> !task.isCompleted() && task.getDueDate().isAfter(TODAY))
+                .filter(task -> !task.getDueDate().isAfter(TODAY.plusDays(30)))
+                .count();
+        assertTrue(nextMonth > upcoming * 3 / 4);
+    }
+}
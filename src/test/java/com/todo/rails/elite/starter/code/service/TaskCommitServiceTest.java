@@ -0,0 +1,180 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.config.HibernateCacheConfig;
+import com.todo.rails.elite.starter.code.model.TaskChange;
+import com.todo.rails.elite.starter.code.model.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.model.TaskChangesRelayedEvent;
+import com.todo.rails.elite.starter.code.model.TaskCollectionStamp;
+import com.todo.rails.elite.starter.code.repository.TaskChangeRepository;
+import com.todo.rails.elite.starter.code.repository.TaskCommitCounterRepository;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// real transactions on an embedded database: the counter is only useful if it survives interleaved commits;
+// the context is closed afterwards since its JCache manager is shared by the whole JVM
+@DataJpaTest
+@Import({HibernateCacheConfig.class, TaskCommitService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+class TaskCommitServiceTest {
+
+    @Autowired
+    private TaskCommitService taskCommitService;
+
+    @Autowired
+    private TaskCommitCounterRepository taskCommitCounterRepository;
+
+    @Autowired
+    private TaskChangeRepository taskChangeRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private TransactionTemplate otherTransaction;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        otherTransaction = new TransactionTemplate(transactionManager);
+        otherTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // what TaskService does for a deletion: enlist and record the change; nothing in the tasks table moves
+    private long recordDeletion(long taskId) {
+        long pendingCommit = taskCommitService.enlist();
+        return taskChangeRepository.save(new TaskChange(
+                TaskChangedEvent.Type.DELETED, taskId, "Task " + taskId, "Desc", true, LocalDate.now(), pendingCommit, Instant.now()
+        )).getId();
+    }
+
+    private TaskChange change(long id) {
+        return taskChangeRepository.findById(id).orElseThrow();
+    }
+
+    private TaskCollectionStamp stamp() {
+        return otherTransaction.execute(status -> taskCommitCounterRepository.findCollectionStamp());
+    }
+
+    @Test
+    void changesCommittingOutOfIdOrder_EachMoveTheStamp() {
+        TaskCollectionStamp initial = stamp();
+        long[] ids = new long[2];
+        TaskCollectionStamp[] seenBeforeFirstCommits = new TaskCollectionStamp[1];
+
+        transaction.executeWithoutResult(first -> {
+            ids[0] = recordDeletion(1L);
+            // a second writer takes a higher outbox id but commits first, and a client polls in between
+            ids[1] = otherTransaction.execute(second -> recordDeletion(2L));
+            seenBeforeFirstCommits[0] = stamp();
+        });
+
+        assertTrue(ids[0] < ids[1]);
+        assertNotEquals(initial, seenBeforeFirstCommits[0]);
+        assertNotEquals(seenBeforeFirstCommits[0], stamp());
+        assertEquals(initial.commits() + 2, stamp().commits());
+        // the outbox follows the commits, not the ids
+        assertEquals(initial.commits() + 1, change(ids[1]).getCommitNumber());
+        assertEquals(initial.commits() + 2, change(ids[0]).getCommitNumber());
+        assertEquals(
+                List.of(ids[1], ids[0]),
+                taskChangeRepository.findCommittedAfter(initial.commits(), Long.MAX_VALUE, Limit.of(10)).stream().map(TaskChange::getId).toList()
+        );
+    }
+
+    @Test
+    void relay_PermanentIdGap_PublishesChangesBehindItRightAway() {
+        List<Object> published = new ArrayList<>();
+        TaskOutboxService relay = new TaskOutboxService(
+                taskChangeRepository, published::add, 500, Duration.ofSeconds(10), Duration.ofHours(24), new SimpleMeterRegistry()
+        );
+        relay.relay();
+
+        // the rolled back id is never used again, as after an INSERT ... SELECT that reserved more ids than it wrote
+        transaction.executeWithoutResult(status -> {
+            recordDeletion(6L);
+            status.setRollbackOnly();
+        });
+        long id = transaction.execute(status -> recordDeletion(7L));
+        relay.relay();
+
+        assertEquals(1, published.size());
+        TaskChangesRelayedEvent event = (TaskChangesRelayedEvent) published.get(0);
+        assertEquals(List.of(id), event.changes().stream().map(TaskChange::getId).toList());
+    }
+
+    @Test
+    void severalChangesInOneTransaction_CountOnce() {
+        TaskCollectionStamp initial = stamp();
+
+        transaction.executeWithoutResult(status -> {
+            recordDeletion(3L);
+            recordDeletion(4L);
+        });
+
+        assertEquals(initial.commits() + 1, stamp().commits());
+        assertEquals(
+                2,
+                taskChangeRepository.findCommittedAfter(initial.commits(), Long.MAX_VALUE, Limit.of(10)).stream()
+                        .filter(change -> change.getCommitNumber() == initial.commits() + 1)
+                        .count()
+        );
+    }
+
+    @Test
+    void rolledBackTransaction_IsNotCounted() {
+        TaskCollectionStamp initial = stamp();
+
+        transaction.executeWithoutResult(status -> {
+            recordDeletion(5L);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(initial, stamp());
+    }
+
+    @Test
+    void afterCommit_ReceivesTheCommitReadWithTheCounts() {
+        List<Long> received = new ArrayList<>();
+
+        transaction.executeWithoutResult(status -> {
+            recordDeletion(8L);
+            taskCommitService.afterCommit(received::add);
+        });
+        transaction.executeWithoutResult(status -> {
+            taskCommitService.afterCommit(received::add);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(List.of(stamp().commits()), received);
+        assertEquals(stamp().commits(), taskRepository.countByStatus(LocalDate.now()).commits());
+    }
+
+    @Test
+    void enlist_OutsideTransaction_IsRejected() {
+        assertThrows(IllegalStateException.class, () -> taskCommitService.enlist());
+    }
+}
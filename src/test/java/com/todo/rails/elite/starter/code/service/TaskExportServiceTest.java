@@ -0,0 +1,102 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.TaskExportFormat;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskExportServiceTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TypedQuery<Task> query;
+
+    private TaskExportService taskExportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        taskExportService = new TaskExportService(entityManager, transactionManager, objectMapper, 2);
+        when(entityManager.createQuery(anyString(), eq(Task.class))).thenReturn(query);
+        when(query.setHint(anyString(), any())).thenReturn(query);
+    }
+
+    @Test
+    void export_Ndjson_WritesOneObjectPerLineAndDetachesEachRow() throws Exception {
+        Task first = new Task("First", "Desc 1", false, LocalDate.of(2025, 1, 2));
+        first.setId(1L);
+        Task second = new Task("Second", "Desc 2", true, LocalDate.of(2025, 1, 3));
+        second.setId(2L);
+        Task third = new Task("Third", "Desc 3", false, LocalDate.of(2025, 1, 4));
+        third.setId(3L);
+        when(query.getResultStream()).thenReturn(Stream.of(first, second, third));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = taskExportService.export(TaskExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, exported);
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,\"title\":\"First\""));
+        assertTrue(lines[2].contains("\"dueDate\":\"2025-01-04\""));
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+        verify(entityManager).detach(third);
+        verify(query).setHint("org.hibernate.fetchSize", 2);
+        verify(query).setHint("org.hibernate.readOnly", true);
+    }
+
+    @Test
+    void export_Csv_QuotesSpecialCharacters() throws Exception {
+        Task task = new Task("Buy milk, eggs", "Say \"hi\"\nto the cashier", true, LocalDate.of(2025, 2, 1));
+        task.setId(7L);
+        when(query.getResultStream()).thenReturn(Stream.of(task));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = taskExportService.export(TaskExportFormat.CSV, out);
+
+        assertEquals(1, exported);
+        assertEquals(
+                "id,title,description,completed,dueDate\r\n"
+                        + "7,\"Buy milk, eggs\",\"Say \"\"hi\"\"\nto the cashier\",true,2025-02-01\r\n",
+                out.toString(StandardCharsets.UTF_8)
+        );
+        verify(entityManager).detach(task);
+    }
+
+    @Test
+    void export_EmptyTable() throws Exception {
+        when(query.getResultStream()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, taskExportService.export(TaskExportFormat.NDJSON, out));
+        assertEquals(0, out.size());
+    }
+}
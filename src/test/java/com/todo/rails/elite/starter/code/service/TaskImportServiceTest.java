@@ -0,0 +1,191 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.model.TaskExportFormat;
+import com.todo.rails.elite.starter.code.model.TaskImportResult;
+import com.todo.rails.elite.starter.code.model.TasksImportedEvent;
+import com.todo.rails.elite.starter.code.repository.TaskChangeRepository;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskImportServiceTest {
+
+    private static jakarta.validation.ValidatorFactory validatorFactory;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskChangeRepository taskChangeRepository;
+
+    @Mock
+    private TaskCommitService taskCommitService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private TaskImportService taskImportService;
+
+    @BeforeAll
+    static void createValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        Validator validator = validatorFactory.getValidator();
+        taskImportService = new TaskImportService(
+                taskRepository,
+                taskChangeRepository,
+                taskCommitService,
+                entityManager,
+                transactionManager,
+                new ObjectMapper().findAndRegisterModules(),
+                validator,
+                eventPublisher,
+                2
+        );
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void importTasks_Csv_BatchesInsertsAndChecksTitlesPerBatch() throws Exception {
+        when(taskRepository.findExistingTitles(anyCollection())).thenReturn(Set.of());
+        String csv = "title,description,completed,dueDate\r\n"
+                + "One,Desc,false,2025-01-01\r\n"
+                + "Two,Desc,true,2025-01-02\r\n"
+                + "Three,\"Desc, with comma\",false,2025-01-03\r\n";
+
+        TaskImportResult result = taskImportService.importTasks(TaskExportFormat.CSV, body(csv));
+
+        assertEquals(3, result.imported());
+        assertEquals(0, result.duplicates());
+        assertEquals(0, result.rejected());
+        assertEquals(2, result.batches());
+        verify(taskRepository, times(2)).findExistingTitles(anyCollection());
+        verify(taskRepository, never()).findByTitle(any());
+        ArgumentCaptor<Task> persisted = ArgumentCaptor.forClass(Task.class);
+        verify(entityManager, times(3)).persist(persisted.capture());
+        assertEquals("Desc, with comma", persisted.getAllValues().get(2).getDescription());
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        // one event per committed batch, none per row
+        ArgumentCaptor<TasksImportedEvent> published = ArgumentCaptor.forClass(TasksImportedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(published.capture());
+        assertEquals(2, published.getAllValues().get(0).changes().size());
+        assertEquals("Three", published.getAllValues().get(1).changes().get(0).title());
+        verify(eventPublisher, never()).publishEvent(any(TaskChangedEvent.class));
+        verify(taskChangeRepository, times(2)).recordChanges(eq(TaskChangedEvent.Type.CREATED), anyCollection(), anyLong(), any());
+        verify(taskCommitService, times(2)).enlist();
+    }
+
+    @Test
+    void importTasks_Ndjson_SkipsDuplicatesAndRejectsInvalidRows() throws Exception {
+        // Titles already in the table; persisted rows join them as each batch commits.
+        Set<String> stored = new HashSet<>(Set.of("Existing"));
+        when(taskRepository.findExistingTitles(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> titles = invocation.getArgument(0);
+            Set<String> existing = new HashSet<>(titles);
+            existing.retainAll(stored);
+            return existing;
+        });
+        doAnswer(invocation -> stored.add(invocation.<Task>getArgument(0).getTitle()))
+                .when(entityManager).persist(any(Task.class));
+        String ndjson = """
+                {"id":99,"title":"Existing","description":"Desc","completed":false,"dueDate":"2025-01-01"}
+                {"title":"Fresh","description":"Desc","completed":false,"dueDate":"2025-01-01"}
+                {"title":"Fresh","description":"Repeated in file","completed":true,"dueDate":"2025-01-02"}
+                {"title":"No due date","description":"Desc","completed":false}
+                {"title":"","description":"Blank title","completed":false,"dueDate":"2025-01-01"}
+                """;
+
+        TaskImportResult result = taskImportService.importTasks(TaskExportFormat.NDJSON, body(ndjson));
+
+        assertEquals(1, result.imported());
+        assertEquals(2, result.duplicates());
+        assertEquals(2, result.rejected());
+        ArgumentCaptor<Task> persisted = ArgumentCaptor.forClass(Task.class);
+        verify(entityManager, times(1)).persist(persisted.capture());
+        assertEquals("Fresh", persisted.getValue().getTitle());
+        assertNull(persisted.getValue().getId()); // ids always come from the sequence
+    }
+
+    @Test
+    void importTasks_Csv_MissingColumn() {
+        assertThrows(IOException.class,
+                () -> taskImportService.importTasks(TaskExportFormat.CSV, body("title,description\r\nA,B\r\n")));
+        verifyNoInteractions(taskRepository, entityManager);
+    }
+
+    @Test
+    void importTasks_Ndjson_Malformed() {
+        assertThrows(IOException.class,
+                () -> taskImportService.importTasks(TaskExportFormat.NDJSON, body("{\"title\":")));
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void importTasks_EmptyUpload() throws Exception {
+        TaskImportResult result = taskImportService.importTasks(TaskExportFormat.CSV, body(""));
+
+        assertEquals(0, result.imported());
+        assertEquals(0, result.batches());
+        verifyNoInteractions(taskRepository, entityManager);
+    }
+
+    @Test
+    void importTasks_ParsesDueDateAndCompleted() throws Exception {
+        when(taskRepository.findExistingTitles(anyCollection())).thenReturn(Set.of());
+
+        taskImportService.importTasks(TaskExportFormat.CSV, body("dueDate,completed,title,description\n2025-03-04,true,T,D\n"));
+
+        ArgumentCaptor<Task> persisted = ArgumentCaptor.forClass(Task.class);
+        verify(entityManager).persist(persisted.capture());
+        assertEquals(LocalDate.of(2025, 3, 4), persisted.getValue().getDueDate());
+        assertTrue(persisted.getValue().isCompleted());
+        assertEquals("T", persisted.getValue().getTitle());
+    }
+}
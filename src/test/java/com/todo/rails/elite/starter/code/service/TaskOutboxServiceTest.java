@@ -0,0 +1,185 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.exceptions.CursorExpiredException;
+import com.todo.rails.elite.starter.code.model.TaskChange;
+import com.todo.rails.elite.starter.code.model.TaskChangeCursor;
+import com.todo.rails.elite.starter.code.model.TaskChangeFeed;
+import com.todo.rails.elite.starter.code.model.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.model.TaskChangesRelayedEvent;
+import com.todo.rails.elite.starter.code.repository.TaskChangeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskOutboxServiceTest {
+
+    @Mock
+    private TaskChangeRepository taskChangeRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private TaskOutboxService taskOutboxService;
+
+    @BeforeEach
+    void setUp() {
+        taskOutboxService = new TaskOutboxService(
+                taskChangeRepository, eventPublisher, 2, Duration.ofSeconds(10), Duration.ofHours(24), registry
+        );
+    }
+
+    private static TaskChange change(long commit, long id) {
+        TaskChange change = new TaskChange(
+                TaskChangedEvent.Type.UPDATED, id * 10, "Task " + id, "Desc", false, LocalDate.now(), commit, Instant.now()
+        );
+        change.setId(id);
+        return change;
+    }
+
+    private static String cursor(long commit, long id) {
+        return new TaskChangeCursor(commit, id, Instant.now()).encode();
+    }
+
+    @Test
+    void getChanges_WithoutCursor_StartsAtEnd() throws Exception {
+        when(taskChangeRepository.findFirstByOrderByCommitNumberDescIdDesc()).thenReturn(Optional.of(change(4, 41)));
+
+        TaskChangeFeed feed = taskOutboxService.getChanges(null, 50);
+
+        assertTrue(feed.changes().isEmpty());
+        assertFalse(feed.hasMore());
+        TaskChangeCursor end = TaskChangeCursor.decode(feed.cursor());
+        assertEquals(4L, end.commit());
+        assertEquals(41L, end.id());
+        verify(taskChangeRepository, never()).findCommittedAfter(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void getChanges_EmptyOutbox_StartsAtZero() throws Exception {
+        when(taskChangeRepository.findFirstByOrderByCommitNumberDescIdDesc()).thenReturn(Optional.empty());
+
+        TaskChangeFeed feed = taskOutboxService.getChanges(null, 50);
+
+        assertEquals(0L, TaskChangeCursor.decode(feed.cursor()).commit());
+    }
+
+    @Test
+    void getChanges_ReturnsChangesAfterCursor() throws Exception {
+        when(taskChangeRepository.findCommittedAfter(3L, 5L, Limit.of(2)))
+                .thenReturn(List.of(change(3, 6), change(4, 9)));
+
+        TaskChangeFeed feed = taskOutboxService.getChanges(cursor(3, 5), 2);
+
+        assertEquals(List.of(6L, 9L), feed.changes().stream().map(TaskChange::getId).toList());
+        TaskChangeCursor next = TaskChangeCursor.decode(feed.cursor());
+        assertEquals(4L, next.commit());
+        assertEquals(9L, next.id());
+        assertTrue(feed.hasMore());
+    }
+
+    @Test
+    void getChanges_LateCommitOfLowerId_FollowsInCommitOrder() throws Exception {
+        // change 7 was inserted before 8 but committed after it: it comes with the later commit, not behind the cursor
+        when(taskChangeRepository.findCommittedAfter(4L, 8L, Limit.of(50))).thenReturn(List.of(change(5, 7)));
+
+        TaskChangeFeed feed = taskOutboxService.getChanges(cursor(4, 8), 50);
+
+        assertEquals(List.of(7L), feed.changes().stream().map(TaskChange::getId).toList());
+        assertEquals(5L, TaskChangeCursor.decode(feed.cursor()).commit());
+        assertFalse(feed.hasMore());
+    }
+
+    @Test
+    void getChanges_NothingNew_KeepsPosition() throws Exception {
+        when(taskChangeRepository.findCommittedAfter(3L, 5L, Limit.of(50))).thenReturn(List.of());
+
+        TaskChangeFeed feed = taskOutboxService.getChanges(cursor(3, 5), 50);
+
+        TaskChangeCursor next = TaskChangeCursor.decode(feed.cursor());
+        assertEquals(3L, next.commit());
+        assertEquals(5L, next.id());
+        assertFalse(feed.hasMore());
+    }
+
+    @Test
+    void getChanges_ExpiredCursor() {
+        String expired = new TaskChangeCursor(3, 5, Instant.now().minus(Duration.ofHours(24))).encode();
+
+        assertThrows(CursorExpiredException.class, () -> taskOutboxService.getChanges(expired, 50));
+        verifyNoInteractions(taskChangeRepository);
+    }
+
+    @Test
+    void getChanges_MalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> taskOutboxService.getChanges("not-a-cursor", 50));
+    }
+
+    @Test
+    void relay_PublishesBatchesInOrderAndPrunes() {
+        when(taskChangeRepository.findFirstByOrderByCommitNumberDescIdDesc()).thenReturn(Optional.of(change(2, 5)));
+        when(taskChangeRepository.findCommittedAfter(2L, 5L, Limit.of(2)))
+                .thenReturn(List.of(change(3, 6), change(3, 7)));
+        when(taskChangeRepository.findCommittedAfter(3L, 7L, Limit.of(2)))
+                .thenReturn(List.of(change(4, 8)));
+
+        taskOutboxService.relay();
+
+        ArgumentCaptor<TaskChangesRelayedEvent> events = ArgumentCaptor.forClass(TaskChangesRelayedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(List.of(6L, 7L), events.getAllValues().get(0).changes().stream().map(TaskChange::getId).toList());
+        assertEquals(List.of(8L), events.getAllValues().get(1).changes().stream().map(TaskChange::getId).toList());
+        verify(taskChangeRepository).deleteRelayedBefore(eq(4L), any());
+        assertEquals(3, registry.get("todo.tasks.outbox.relayed").counter().count());
+    }
+
+    @Test
+    void relay_PermanentIdGap_IsRelayedRightAway() {
+        // INSERT ... SELECT can leave ids 7 and 8 unused for good; nothing waits for them
+        when(taskChangeRepository.findFirstByOrderByCommitNumberDescIdDesc()).thenReturn(Optional.of(change(2, 5)));
+        when(taskChangeRepository.findCommittedAfter(2L, 5L, Limit.of(2)))
+                .thenReturn(List.of(change(3, 6), change(3, 9)));
+        when(taskChangeRepository.findCommittedAfter(3L, 9L, Limit.of(2))).thenReturn(List.of());
+
+        taskOutboxService.relay();
+
+        ArgumentCaptor<TaskChangesRelayedEvent> events = ArgumentCaptor.forClass(TaskChangesRelayedEvent.class);
+        verify(eventPublisher).publishEvent(events.capture());
+        assertEquals(List.of(6L, 9L), events.getValue().changes().stream().map(TaskChange::getId).toList());
+        verify(taskChangeRepository).deleteRelayedBefore(eq(3L), any());
+    }
+
+    @Test
+    void relay_ListenerFailure_RetriesSameBatch() {
+        when(taskChangeRepository.findFirstByOrderByCommitNumberDescIdDesc()).thenReturn(Optional.of(change(2, 5)));
+        when(taskChangeRepository.findCommittedAfter(2L, 5L, Limit.of(2)))
+                .thenReturn(List.of(change(3, 6)));
+        doThrow(new IllegalStateException("listener failed")).doNothing()
+                .when(eventPublisher).publishEvent(any(TaskChangesRelayedEvent.class));
+
+        taskOutboxService.relay();
+        taskOutboxService.relay();
+
+        verify(taskChangeRepository, times(2)).findCommittedAfter(2L, 5L, Limit.of(2));
+        verify(taskChangeRepository, times(1)).deleteRelayedBefore(eq(3L), any());
+        verify(taskChangeRepository, times(1)).findFirstByOrderByCommitNumberDescIdDesc();
+    }
+}
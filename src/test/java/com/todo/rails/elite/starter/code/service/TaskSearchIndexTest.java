@@ -0,0 +1,106 @@
+package com.todo.rails.elite.starter.code.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskSearchIndexTest {
+
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskSearchIndex();
+        index.index(1L, "Write release notes", "Summarize the changes of version 2.1");
+        index.index(2L, "Review budget", "Check the release budget with finance");
+        index.index(3L, "Plan team meeting", "Agenda: release planning, budget review");
+        index.index(4L, "Call supplier", "Ask about the Café delivery");
+    }
+
+    @Test
+    void tokenize_FoldsCaseAndAccentsAndDropsStopWords() {
+        assertEquals(List.of("review", "cafe", "menu", "2025", "q1"), TaskSearchIndex.tokenize("Review the Café-menu (2025/Q1)"));
+        assertEquals(List.of(), TaskSearchIndex.tokenize("  -- of the --  "));
+        assertEquals(List.of(), TaskSearchIndex.tokenize(null));
+    }
+
+    @Test
+    void search_RequiresEveryTermAndRanksTitleMatchesFirst() {
+        TaskSearchIndex.Hits hits = index.search("release budget", 0, 10);
+
+        assertEquals(2, hits.total());
+        // "budget" is in the title of task 2 but only in the description of task 3
+        assertEquals(List.of(2L, 3L), hits.ids());
+    }
+
+    @Test
+    void search_MatchesAccentInsensitively() {
+        assertEquals(List.of(4L), index.search("cafe", 0, 10).ids());
+        assertEquals(List.of(4L), index.search("CAFÉ", 0, 10).ids());
+    }
+
+    @Test
+    void search_UnknownTermOrOnlyStopWords_ReturnsNothing() {
+        assertEquals(0, index.search("release unicorn", 0, 10).total());
+        assertEquals(0, index.search("the of", 0, 10).total());
+    }
+
+    @Test
+    void search_PagesThroughRankedMatches() {
+        TaskSearchIndex.Hits all = index.search("release", 0, 10);
+        TaskSearchIndex.Hits second = index.search("release", 1, 1);
+        TaskSearchIndex.Hits beyond = index.search("release", 5, 10);
+
+        assertEquals(3, all.total());
+        assertEquals(1L, all.ids().get(0)); // the only title match
+        assertEquals(List.of(all.ids().get(1)), second.ids());
+        assertEquals(3, second.total());
+        assertEquals(List.of(), beyond.ids());
+        assertEquals(3, beyond.total());
+    }
+
+    @Test
+    void index_ReplacesPreviousTextAndRemoveForgetsTask() {
+        index.index(1L, "Write changelog", "For version 2.2");
+        assertEquals(List.of(1L), index.search("changelog", 0, 10).ids());
+        assertEquals(2, index.search("release", 0, 10).total());
+
+        index.remove(3L);
+        index.remove(99L);
+        assertEquals(List.of(2L), index.search("release", 0, 10).ids());
+        assertEquals(0, index.search("agenda", 0, 10).total());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void index_ManyReplacements_CompactsAndKeepsResults() {
+        for (int round = 0; round < 3; round++) {
+            for (long id = 10; id < 1010; id++) {
+                index.index(id, "Bulk item " + id, round == 2 ? "final release" : "draft");
+            }
+        }
+
+        assertEquals(1004, index.size());
+        assertEquals(1000, index.search("bulk final", 0, 10).total());
+        assertEquals(List.of(10L, 11L), index.search("bulk final", 0, 2).ids());
+        assertEquals(0, index.search("draft", 0, 10).total());
+        assertEquals(List.of(2L, 3L), index.search("release budget", 0, 10).ids());
+    }
+
+    @Test
+    void addAll_MergesIndexesBuiltSeparately() {
+        TaskSearchIndex part = new TaskSearchIndex();
+        part.index(5L, "Release party", "Book a venue");
+        part.index(2L, "Review invoices", "Nothing about money");
+
+        index.addAll(part);
+
+        assertEquals(5, index.size());
+        assertEquals(List.of(5L), index.search("party", 0, 10).ids());
+        // task 2 was replaced by its new text, so only task 3 still mentions both words
+        assertEquals(List.of(3L), index.search("review budget", 0, 10).ids());
+    }
+}
@@ -0,0 +1,200 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.TaskChange;
+import com.todo.rails.elite.starter.code.model.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.model.TaskChangesRelayedEvent;
+import com.todo.rails.elite.starter.code.model.TaskSearchResult;
+import com.todo.rails.elite.starter.code.model.TaskText;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSearchServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private TaskSearchService taskSearchService;
+
+    @BeforeEach
+    void setUp() {
+        taskSearchService = new TaskSearchService(taskRepository, 2, 3);
+    }
+
+    private static Task task(long id, String title) {
+        Task task = new Task(title, "Desc", false, LocalDate.now());
+        task.setId(id);
+        return task;
+    }
+
+    private void givenTable(TaskText... rows) {
+        when(taskRepository.findMinId()).thenReturn(rows.length == 0 ? null : rows[0].id());
+        when(taskRepository.findMaxId()).thenReturn(rows.length == 0 ? null : rows[rows.length - 1].id());
+        lenient().when(taskRepository.findTextByIdRange(anyLong(), anyLong())).thenAnswer(invocation -> {
+            long from = invocation.getArgument(0);
+            long to = invocation.getArgument(1);
+            List<TaskText> range = new ArrayList<>();
+            for (TaskText row : rows) {
+                if (row.id() >= from && row.id() < to) {
+                    range.add(row);
+                }
+            }
+            return range;
+        });
+    }
+
+    @Test
+    void search_BeforeFirstBuild_IsUnavailable() {
+        assertThrows(IllegalStateException.class, () -> taskSearchService.search("report", 0, 10));
+    }
+
+    @Test
+    void search_QueryWithoutWords_IsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> taskSearchService.search(" - ", 0, 10));
+    }
+
+    @Test
+    void rebuild_ReadsIdRangesAndIndexesEveryTask() throws Exception {
+        givenTable(
+                new TaskText(1L, "Quarterly report", "Desc"),
+                new TaskText(2L, "Team meeting", "Desc"),
+                new TaskText(3L, "Annual report", "Desc"),
+                new TaskText(7L, "Report bug", "Desc")
+        );
+
+        assertEquals(4, taskSearchService.rebuild());
+
+        verify(taskRepository).findTextByIdRange(1L, 3L);
+        verify(taskRepository).findTextByIdRange(3L, 5L);
+        verify(taskRepository).findTextByIdRange(5L, 7L);
+        verify(taskRepository).findTextByIdRange(7L, 8L);
+        when(taskRepository.findAllByIdInOrder(List.of(1L, 3L, 7L)))
+                .thenReturn(List.of(task(1L, "Quarterly report"), task(3L, "Annual report"), task(7L, "Report bug")));
+        TaskSearchResult result = taskSearchService.search("report", 0, 10);
+        assertEquals(3, result.total());
+        assertEquals(3, result.items().size());
+        assertFalse(result.hasNext());
+    }
+
+    @Test
+    void rebuild_EmptyTable_IsReadyWithNoMatches() throws Exception {
+        givenTable();
+
+        assertEquals(0, taskSearchService.rebuild());
+
+        assertEquals(0, taskSearchService.search("report", 0, 10).total());
+        verify(taskRepository, never()).findTextByIdRange(anyLong(), anyLong());
+        verify(taskRepository, never()).findAllByIdInOrder(any());
+    }
+
+    @Test
+    void onTaskChanged_FollowsCreatesUpdatesAndDeletes() throws Exception {
+        givenTable(new TaskText(1L, "Quarterly report", "Desc"));
+        taskSearchService.rebuild();
+
+        taskSearchService.onTaskChanged(TaskChangedEvent.created(task(2L, "Budget report")));
+        taskSearchService.onTaskChanged(TaskChangedEvent.updated(task(1L, "Quarterly summary"), false, LocalDate.now()));
+        when(taskRepository.findAllByIdInOrder(List.of(2L))).thenReturn(List.of(task(2L, "Budget report")));
+        assertEquals(1, taskSearchService.search("report", 0, 10).total());
+
+        taskSearchService.onTaskChanged(TaskChangedEvent.deleted(task(2L, "Budget report")));
+        assertEquals(0, taskSearchService.search("report", 0, 10).total());
+    }
+
+    // a change as another instance recorded it; what it says is outdated by the time it is relayed
+    private static TaskChange relayed(TaskChangedEvent.Type type, long taskId) {
+        return new TaskChange(type, taskId, "Stale title", "Desc", false, LocalDate.now(), 1L, Instant.now());
+    }
+
+    @Test
+    void onTaskChangesRelayed_AppliesChangesFromOtherInstancesAsStoredNow() throws Exception {
+        givenTable(new TaskText(1L, "Quarterly report", "Desc"), new TaskText(2L, "Budget report", "Desc"));
+        taskSearchService.rebuild();
+        when(taskRepository.findTextByIds(Set.of(1L, 2L, 3L))).thenReturn(List.of(
+                new TaskText(1L, "Quarterly summary", "Desc"),
+                new TaskText(3L, "Annual report", "Desc")
+        ));
+
+        // task 3 was created and task 1 renamed on another instance, task 2 deleted by a bulk statement
+        taskSearchService.onTaskChangesRelayed(new TaskChangesRelayedEvent(List.of(
+                relayed(TaskChangedEvent.Type.CREATED, 3L),
+                relayed(TaskChangedEvent.Type.UPDATED, 1L),
+                relayed(TaskChangedEvent.Type.DELETED, 2L),
+                relayed(TaskChangedEvent.Type.UPDATED, 1L)
+        )));
+
+        when(taskRepository.findAllByIdInOrder(List.of(3L))).thenReturn(List.of(task(3L, "Annual report")));
+        TaskSearchResult result = taskSearchService.search("report", 0, 10);
+        assertEquals(1, result.total());
+        assertEquals(3L, result.items().get(0).getId());
+        assertEquals(0, taskSearchService.search("stale", 0, 10).total());
+        verify(taskRepository, times(1)).findTextByIds(any());
+    }
+
+    @Test
+    void rebuild_ReplaysChangesCommittedWhileReading() throws Exception {
+        givenTable(new TaskText(1L, "Quarterly report", "Desc"));
+        // a task is created and the first one deleted after its range was read
+        when(taskRepository.findTextByIdRange(1L, 2L)).thenAnswer(invocation -> {
+            taskSearchService.onTaskChanged(TaskChangedEvent.created(task(5L, "Annual report")));
+            taskSearchService.onTaskChanged(TaskChangedEvent.deleted(task(1L, "Quarterly report")));
+            return List.of(new TaskText(1L, "Quarterly report", "Desc"));
+        });
+
+        assertEquals(1, taskSearchService.rebuild());
+
+        when(taskRepository.findAllByIdInOrder(List.of(5L))).thenReturn(List.of(task(5L, "Annual report")));
+        TaskSearchResult result = taskSearchService.search("report", 0, 10);
+        assertEquals(1, result.total());
+        assertEquals(5L, result.items().get(0).getId());
+    }
+
+    @Test
+    void search_DropsTasksDeletedBehindTheIndex() throws Exception {
+        givenTable(new TaskText(1L, "Quarterly report", "Desc"), new TaskText(2L, "Annual report", "Desc"));
+        taskSearchService.rebuild();
+        // task 2 was removed by a bulk delete, which publishes no event
+        when(taskRepository.findAllByIdInOrder(List.of(1L, 2L))).thenReturn(List.of(task(1L, "Quarterly report")));
+
+        TaskSearchResult first = taskSearchService.search("report", 0, 10);
+        TaskSearchResult second = taskSearchService.search("annual", 0, 10);
+
+        assertEquals(1, first.total());
+        assertEquals(1, first.items().size());
+        assertEquals(0, second.total());
+        verify(taskRepository, never()).findAllByIdInOrder(eq(List.of(2L)));
+    }
+
+    @Test
+    void search_ClampsPaging() throws Exception {
+        givenTable(new TaskText(1L, "Quarterly report", "Desc"), new TaskText(2L, "Annual report", "Desc"));
+        taskSearchService.rebuild();
+        when(taskRepository.findAllByIdInOrder(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> task(id, "Report " + id)).toList();
+        });
+
+        TaskSearchResult page = taskSearchService.search("report", -5, 1);
+
+        assertEquals(0, page.offset());
+        assertEquals(1, page.items().size());
+        assertTrue(page.hasNext());
+        assertEquals(1, taskSearchService.search("report", 1, 0).items().size());
+    }
+}
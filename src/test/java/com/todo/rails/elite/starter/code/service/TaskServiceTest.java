@@ -1,18 +1,38 @@
 package com.todo.rails.elite.starter.code.service;
 
+import com.todo.rails.elite.starter.code.exceptions.ResourceConflictException;
+import com.todo.rails.elite.starter.code.exceptions.ResourceNotFoundException;
 import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.TaskBulkChangedEvent;
+import com.todo.rails.elite.starter.code.model.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.model.TaskCursor;
+import com.todo.rails.elite.starter.code.model.TaskFilter;
+import com.todo.rails.elite.starter.code.model.TaskPage;
+import com.todo.rails.elite.starter.code.model.TaskSort;
+import com.todo.rails.elite.starter.code.repository.TaskChangeRepository;
 import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import com.todo.rails.elite.starter.code.repository.TaskTombstoneRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
 import java.time.LocalDate;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 
@@ -22,6 +42,18 @@ class TaskServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private TaskChangeRepository taskChangeRepository;
+
+    @Mock
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Mock
+    private TaskCommitService taskCommitService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -34,6 +66,7 @@ class TaskServiceTest {
 
         when(taskRepository.findByTitle("Test title")).thenReturn(Optional.empty());
         when(taskRepository.save(any(Task.class))).thenReturn(savedTask);
+        when(taskCommitService.enlist()).thenReturn(-7L);
 
         Task resultTask = taskService.addTask(taskToAdd);
 
@@ -42,6 +75,12 @@ class TaskServiceTest {
         assertEquals("Test title", resultTask.getTitle());
         verify(taskRepository, times(1)).findByTitle("Test title");
         verify(taskRepository, times(1)).save(taskToAdd);
+        verify(eventPublisher).publishEvent(new TaskChangedEvent(
+                TaskChangedEvent.Type.CREATED, 1L, "Test title", "Test Desc", false, savedTask.getDueDate(), null, null));
+        verify(taskChangeRepository).save(argThat(change ->
+                change.getType() == TaskChangedEvent.Type.CREATED && change.getTaskId() == 1L
+                        && change.getCommitNumber() == -7L));
+        verify(taskCommitService).enlist();
     }
 
     @Test
@@ -205,6 +244,11 @@ class TaskServiceTest {
 
         verify(taskRepository).findByTitle(title);
         verify(taskRepository).delete(taskToDelete);
+        verify(eventPublisher).publishEvent(new TaskChangedEvent(
+                TaskChangedEvent.Type.DELETED, 1L, title, "Desc", false, taskToDelete.getDueDate(), null, null));
+        verify(taskChangeRepository).save(argThat(change ->
+                change.getType() == TaskChangedEvent.Type.DELETED && change.getTaskId() == 1L));
+        verify(taskTombstoneRepository).save(argThat(tombstone -> tombstone.getTaskId() == 1L && tombstone.isNew()));
     }
 
     @Test
@@ -222,11 +266,10 @@ class TaskServiceTest {
     @Test
     void getPendingTasks_ReturnsPendingOnly() {
         Task pending1 = new Task("Pending 1", "Desc", false, LocalDate.now());
-        Task completed1 = new Task("Completed 1", "Desc", true, LocalDate.now());
         Task pending2 = new Task("Pending 2", "Desc", false, LocalDate.now().plusDays(1));
-        List<Task> allTasks = Arrays.asList(pending1, completed1, pending2);
+        List<Task> expectedTasks = Arrays.asList(pending1, pending2);
 
-        when(taskRepository.findAll()).thenReturn(allTasks);
+        when(taskRepository.findByCompleted(false)).thenReturn(expectedTasks);
 
         List<Task> pendingTasks = taskService.getPendingTasks();
 
@@ -234,33 +277,28 @@ class TaskServiceTest {
         assertEquals(2, pendingTasks.size());
         assertTrue(pendingTasks.contains(pending1));
         assertTrue(pendingTasks.contains(pending2));
-        assertFalse(pendingTasks.contains(completed1));
-        verify(taskRepository, times(1)).findAll();
+        verify(taskRepository, times(1)).findByCompleted(false);
+        verify(taskRepository, never()).findAll(); // Filtering must not load the whole table
     }
 
     @Test
     void getPendingTasks_ReturnsEmptyWhenNonePending() {
-        Task completed1 = new Task("Completed 1", "Desc", true, LocalDate.now());
-        Task completed2 = new Task("Completed 2", "Desc", true, LocalDate.now());
-        List<Task> allTasks = Arrays.asList(completed1, completed2);
-
-        when(taskRepository.findAll()).thenReturn(allTasks);
+        when(taskRepository.findByCompleted(false)).thenReturn(Collections.emptyList());
 
         List<Task> pendingTasks = taskService.getPendingTasks();
 
         assertNotNull(pendingTasks);
         assertTrue(pendingTasks.isEmpty());
-        verify(taskRepository, times(1)).findAll(); // Called by getAllTasks
+        verify(taskRepository, times(1)).findByCompleted(false);
     }
 
     @Test
     void getCompletedTasks_ReturnsCompletedOnly() {
-        Task pending1 = new Task("Pending 1", "Desc", false, LocalDate.now());
         Task completed1 = new Task("Completed 1", "Desc", true, LocalDate.now());
         Task completed2 = new Task("Completed 2", "Desc", true, LocalDate.now().minusDays(1));
-        List<Task> allTasks = Arrays.asList(pending1, completed1, completed2);
+        List<Task> expectedTasks = Arrays.asList(completed1, completed2);
 
-        when(taskRepository.findAll()).thenReturn(allTasks);
+        when(taskRepository.findByCompleted(true)).thenReturn(expectedTasks);
 
         List<Task> completedTasks = taskService.getCompletedTasks();
 
@@ -268,23 +306,19 @@ class TaskServiceTest {
         assertEquals(2, completedTasks.size());
         assertTrue(completedTasks.contains(completed1));
         assertTrue(completedTasks.contains(completed2));
-        assertFalse(completedTasks.contains(pending1));
-        verify(taskRepository, times(1)).findAll();
+        verify(taskRepository, times(1)).findByCompleted(true);
+        verify(taskRepository, never()).findAll();
     }
 
     @Test
     void getCompletedTasks_ReturnsEmptyWhenNoneCompleted() {
-        Task pending1 = new Task("Pending 1", "Desc", false, LocalDate.now());
-        Task pending2 = new Task("Pending 2", "Desc", false, LocalDate.now());
-        List<Task> allTasks = Arrays.asList(pending1, pending2);
-
-        when(taskRepository.findAll()).thenReturn(allTasks);
+        when(taskRepository.findByCompleted(true)).thenReturn(Collections.emptyList());
 
         List<Task> completedTasks = taskService.getCompletedTasks();
 
         assertNotNull(completedTasks);
         assertTrue(completedTasks.isEmpty());
-        verify(taskRepository, times(1)).findAll();
+        verify(taskRepository, times(1)).findByCompleted(true);
     }
 
 
@@ -293,38 +327,332 @@ class TaskServiceTest {
 
         LocalDate today = LocalDate.now();
         Task todayPending = new Task("Today Pending", "Desc", false, today);
-        Task todayCompleted = new Task("Today Completed", "Desc", true, today);
-        Task tomorrowPending = new Task("Tomorrow Pending", "Desc", false, today.plusDays(1));
-        Task yesterdayPending = new Task("Yesterday Pending", "Desc", false, today.minusDays(1));
 
-        List<Task> allTasks = Arrays.asList(todayPending, todayCompleted, tomorrowPending, yesterdayPending);
-        when(taskRepository.findAll()).thenReturn(allTasks);
+        when(taskRepository.findByCompletedAndDueDate(false, today)).thenReturn(List.of(todayPending));
 
         List<Task> todayTasksResult = taskService.getTodayTasks();
 
         assertNotNull(todayTasksResult);
         assertEquals(1, todayTasksResult.size());
         assertTrue(todayTasksResult.contains(todayPending));
-        assertFalse(todayTasksResult.contains(todayCompleted));
-        assertFalse(todayTasksResult.contains(tomorrowPending));
-        assertFalse(todayTasksResult.contains(yesterdayPending));
-        verify(taskRepository, times(1)).findAll();
+        verify(taskRepository, times(1)).findByCompletedAndDueDate(false, today);
+        verify(taskRepository, never()).findAll();
     }
 
     @Test
     void getTodayTasks_ReturnsEmptyWhenNoneDueTodayOrPending() {
         LocalDate today = LocalDate.now();
-        Task todayCompleted = new Task("Today Completed", "Desc", true, today);
-        Task tomorrowPending = new Task("Tomorrow Pending", "Desc", false, today.plusDays(1));
-        Task yesterdayPending = new Task("Yesterday Pending", "Desc", false, today.minusDays(1));
-
-        List<Task> allTasks = Arrays.asList(todayCompleted, tomorrowPending, yesterdayPending);
-        when(taskRepository.findAll()).thenReturn(allTasks);
+        when(taskRepository.findByCompletedAndDueDate(false, today)).thenReturn(Collections.emptyList());
 
         List<Task> todayTasksResult = taskService.getTodayTasks();
 
         assertNotNull(todayTasksResult);
         assertTrue(todayTasksResult.isEmpty());
-        verify(taskRepository, times(1)).findAll(); // Called by getAllTasks
+        verify(taskRepository, times(1)).findByCompletedAndDueDate(false, today);
+    }
+
+    @Test
+    void getTaskPage_FirstPageReturnsNextCursor() {
+        Task first = new Task("First", "Desc", false, LocalDate.now());
+        first.setId(1L);
+        Task second = new Task("Second", "Desc", false, LocalDate.now().plusDays(1));
+        second.setId(2L);
+        Window<Task> window = Window.from(List.of(first, second), ScrollPosition::offset, true);
+
+        when(taskRepository.findByCompleted(false, ScrollPosition.keyset(), TaskSort.DUE_DATE.getSort(), Limit.of(2)))
+                .thenReturn(window);
+
+        TaskPage page = taskService.getTaskPage(TaskFilter.PENDING, TaskSort.DUE_DATE, null, 2);
+
+        assertEquals(List.of(first, second), page.items());
+        assertTrue(page.hasNext());
+        TaskCursor next = TaskCursor.decode(page.next(), TaskSort.DUE_DATE);
+        assertEquals(second.getDueDate(), next.dueDate());
+        assertEquals(2L, next.id());
+        verify(taskRepository, never()).findAll();
+    }
+
+    @Test
+    void getTaskPage_ResumesFromCursor() {
+        LocalDate dueDate = LocalDate.now();
+        String cursor = new TaskCursor(TaskSort.DUE_DATE, dueDate, 7L).encode();
+        when(taskRepository.findAllBy(any(ScrollPosition.class), eq(TaskSort.DUE_DATE.getSort()), eq(Limit.of(50))))
+                .thenReturn(Window.from(List.of(), ScrollPosition::offset));
+
+        TaskPage page = taskService.getTaskPage(TaskFilter.ALL, TaskSort.DUE_DATE, cursor, 50);
+
+        assertTrue(page.items().isEmpty());
+        assertFalse(page.hasNext());
+        verify(taskRepository).findAllBy(
+                argThat(position -> position instanceof KeysetScrollPosition keyset
+                        && keyset.getKeys().equals(Map.of("dueDate", dueDate, "id", 7L))),
+                eq(TaskSort.DUE_DATE.getSort()),
+                eq(Limit.of(50))
+        );
+    }
+
+    @Test
+    void getTaskPage_ClampsLimit() {
+        when(taskRepository.findByCompletedAndDueDate(eq(false), eq(LocalDate.now()), any(ScrollPosition.class), eq(TaskSort.ID.getSort()), any(Limit.class)))
+                .thenReturn(Window.from(List.of(), ScrollPosition::offset));
+
+        taskService.getTaskPage(TaskFilter.TODAY, TaskSort.ID, null, 100_000);
+        taskService.getTaskPage(TaskFilter.TODAY, TaskSort.ID, null, 0);
+
+        verify(taskRepository).findByCompletedAndDueDate(eq(false), eq(LocalDate.now()), any(ScrollPosition.class), eq(TaskSort.ID.getSort()), eq(Limit.of(TaskService.MAX_PAGE_LIMIT)));
+        verify(taskRepository).findByCompletedAndDueDate(eq(false), eq(LocalDate.now()), any(ScrollPosition.class), eq(TaskSort.ID.getSort()), eq(Limit.of(1)));
+    }
+
+    @Test
+    void getTaskPage_RejectsCursorFromOtherSort() {
+        String cursor = new TaskCursor(TaskSort.ID, null, 3L).encode();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.getTaskPage(TaskFilter.ALL, TaskSort.DUE_DATE, cursor, 10));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void getTaskPage_RejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.getTaskPage(TaskFilter.COMPLETED, TaskSort.ID, "not-a-cursor!", 10));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void getOverdueTasks_ScansPendingTasksDueBeforeToday() {
+        Task overdue = new Task("Overdue", "Desc", false, LocalDate.now().minusDays(3));
+        overdue.setId(4L);
+        when(taskRepository.findByCompletedAndDueDateBefore(
+                false, LocalDate.now(), ScrollPosition.keyset(), TaskSort.DUE_DATE.getSort(), Limit.of(1)))
+                .thenReturn(Window.from(List.of(overdue), ScrollPosition::offset, true));
+
+        TaskPage page = taskService.getOverdueTasks(null, 1);
+
+        assertEquals(List.of(overdue), page.items());
+        TaskCursor next = TaskCursor.decode(page.next(), TaskSort.DUE_DATE);
+        assertEquals(overdue.getDueDate(), next.dueDate());
+        assertEquals(4L, next.id());
+        verify(taskRepository, never()).findByCompleted(anyBoolean());
+    }
+
+    @Test
+    void getTasksDueWithin_ScansFromTodayForTheGivenDays() {
+        LocalDate today = LocalDate.now();
+        when(taskRepository.findByCompletedAndDueDateGreaterThanEqualAndDueDateBefore(
+                eq(false), eq(today), eq(today.plusDays(7)), any(ScrollPosition.class),
+                eq(TaskSort.DUE_DATE.getSort()), eq(Limit.of(TaskService.DEFAULT_PAGE_LIMIT))))
+                .thenReturn(Window.from(List.of(), ScrollPosition::offset));
+
+        TaskPage page = taskService.getTasksDueWithin(7, null, TaskService.DEFAULT_PAGE_LIMIT);
+
+        assertTrue(page.items().isEmpty());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void getTasksDueWithin_RejectsDaysOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasksDueWithin(0, null, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.getTasksDueWithin(TaskService.MAX_DUE_WITHIN_DAYS + 1, null, 10));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void getTasksDueBetween_PicksTheRangeScanForTheFilter() {
+        LocalDate from = LocalDate.of(2025, 3, 1);
+        LocalDate to = LocalDate.of(2025, 4, 1);
+        String cursor = new TaskCursor(TaskSort.DUE_DATE, LocalDate.of(2025, 3, 9), 12L).encode();
+        when(taskRepository.findByDueDateGreaterThanEqualAndDueDateBefore(
+                eq(from), eq(to), any(ScrollPosition.class), eq(TaskSort.DUE_DATE.getSort()), eq(Limit.of(20))))
+                .thenReturn(Window.from(List.of(), ScrollPosition::offset));
+        when(taskRepository.findByCompletedAndDueDateGreaterThanEqualAndDueDateBefore(
+                eq(true), eq(from), eq(to), any(ScrollPosition.class), eq(TaskSort.DUE_DATE.getSort()), eq(Limit.of(20))))
+                .thenReturn(Window.from(List.of(), ScrollPosition::offset));
+
+        taskService.getTasksDueBetween(from, to, TaskFilter.ALL, cursor, 20);
+        taskService.getTasksDueBetween(from, to, TaskFilter.COMPLETED, null, 20);
+
+        verify(taskRepository).findByDueDateGreaterThanEqualAndDueDateBefore(
+                eq(from), eq(to),
+                argThat(position -> position instanceof KeysetScrollPosition keyset
+                        && keyset.getKeys().equals(Map.of("dueDate", LocalDate.of(2025, 3, 9), "id", 12L))),
+                eq(TaskSort.DUE_DATE.getSort()), eq(Limit.of(20))
+        );
+    }
+
+    @Test
+    void getTasksDueBetween_RejectsEmptyWindowAndTodayFilter() {
+        LocalDate day = LocalDate.of(2025, 3, 1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.getTasksDueBetween(day, day, TaskFilter.ALL, null, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.getTasksDueBetween(day, day.minusDays(1), TaskFilter.PENDING, null, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.getTasksDueBetween(day, day.plusDays(1), TaskFilter.TODAY, null, 10));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void completeOverdueTasks_RunsSingleUpdate() {
+        when(taskRepository.completeOverdue(eq(LocalDate.now()), any())).thenReturn(4);
+
+        assertEquals(4, taskService.completeOverdueTasks());
+        verify(taskRepository, never()).findAll();
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    void deleteCompletedTasksDueBefore_RunsSingleDelete() {
+        LocalDate before = LocalDate.of(2025, 1, 1);
+        when(taskRepository.deleteCompletedDueBefore(before)).thenReturn(2);
+
+        assertEquals(2, taskService.deleteCompletedTasksDueBefore(before));
+        verify(taskRepository, never()).delete(any(Task.class));
+    }
+
+    @Test
+    void rescheduleTasks_ShiftsSelectedIds() {
+        List<Long> ids = List.of(1L, 2L, 3L);
+        when(taskRepository.shiftDueDates(eq(ids), eq(-2L), any())).thenReturn(3);
+
+        assertEquals(3, taskService.rescheduleTasks(ids, -2));
+    }
+
+    @Test
+    void bulkOperations_PublishOneBulkEvent() {
+        LocalDate before = LocalDate.of(2025, 1, 1);
+        List<Long> ids = List.of(1L, 2L);
+        when(taskRepository.completeOverdue(eq(LocalDate.now()), any())).thenReturn(4);
+        when(taskRepository.deleteCompletedDueBefore(before)).thenReturn(2);
+        when(taskRepository.shiftDueDates(eq(ids), eq(1L), any())).thenReturn(1);
+
+        taskService.completeOverdueTasks();
+        taskService.deleteCompletedTasksDueBefore(before);
+        taskService.rescheduleTasks(ids, 1);
+
+        verify(eventPublisher).publishEvent(new TaskBulkChangedEvent(TaskBulkChangedEvent.Type.COMPLETED_OVERDUE, 4));
+        verify(eventPublisher).publishEvent(new TaskBulkChangedEvent(TaskBulkChangedEvent.Type.DELETED_COMPLETED, 2));
+        verify(eventPublisher).publishEvent(new TaskBulkChangedEvent(TaskBulkChangedEvent.Type.RESCHEDULED, 1));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    void bulkOperations_RecordChangesInOutbox() {
+        LocalDate today = LocalDate.now();
+        LocalDate before = LocalDate.of(2025, 1, 1);
+        List<Long> ids = List.of(1L, 2L);
+        when(taskCommitService.enlist()).thenReturn(-7L, -8L, -9L);
+
+        taskService.completeOverdueTasks();
+        taskService.deleteCompletedTasksDueBefore(before);
+        taskService.rescheduleTasks(ids, 1);
+
+        // completions and deletions are recorded from the rows before the statement, reschedules from the rows after;
+        // deletions also leave tombstones
+        InOrder inOrder = inOrder(taskChangeRepository, taskTombstoneRepository, taskRepository);
+        inOrder.verify(taskChangeRepository).recordOverdueCompletion(eq(TaskChangedEvent.Type.UPDATED), eq(today), eq(-7L), any());
+        inOrder.verify(taskRepository).completeOverdue(eq(today), any());
+        inOrder.verify(taskChangeRepository).recordCompletedDeletion(eq(TaskChangedEvent.Type.DELETED), eq(before), eq(-8L), any());
+        inOrder.verify(taskTombstoneRepository).recordCompletedDeletion(eq(before), any());
+        inOrder.verify(taskRepository).deleteCompletedDueBefore(before);
+        inOrder.verify(taskRepository).shiftDueDates(eq(ids), eq(1L), any());
+        inOrder.verify(taskChangeRepository).recordChanges(eq(TaskChangedEvent.Type.UPDATED), eq(ids), eq(-9L), any());
+        // each of the three transactions is counted as it commits, and its rows carry its pending commit number
+        verify(taskCommitService, times(3)).enlist();
+    }
+
+    @Test
+    void bulkOperations_NothingAffected_PublishNoEvent() {
+        when(taskRepository.completeOverdue(eq(LocalDate.now()), any())).thenReturn(0);
+
+        assertEquals(0, taskService.completeOverdueTasks());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void rescheduleTasks_ZeroDays() {
+        assertEquals(0, taskService.rescheduleTasks(List.of(1L), 0));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void rescheduleTasks_RejectsEmptyOrOversizedSelection() {
+        List<Long> tooMany = new ArrayList<>();
+        for (long id = 0; id <= TaskService.MAX_BULK_IDS; id++) {
+            tooMany.add(id);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.rescheduleTasks(List.of(), 1));
+        assertThrows(IllegalArgumentException.class, () -> taskService.rescheduleTasks(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> taskService.rescheduleTasks(tooMany, 1));
+        verifyNoInteractions(taskRepository);
+    }
+
+    private static Task taskAtVersion(long version) {
+        Task task = new Task("Task", "Desc", false, LocalDate.now());
+        task.setId(1L);
+        task.setVersion(version);
+        return task;
+    }
+
+    @Test
+    void completeTask_CurrentVersion() throws Exception {
+        Task task = taskAtVersion(5L);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.saveAndFlush(task)).thenAnswer(invocation -> {
+            task.setVersion(6L);
+            return task;
+        });
+
+        assertEquals(6L, taskService.completeTask(1L, 5L));
+        assertTrue(task.isCompleted());
+        verify(eventPublisher).publishEvent(TaskChangedEvent.updated(task, false, task.getDueDate()));
+    }
+
+    @Test
+    void reopenTask_StaleVersion() {
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(taskAtVersion(6L)));
+
+        assertThrows(ResourceConflictException.class, () -> taskService.reopenTask(1L, 5L));
+        verify(taskRepository, never()).saveAndFlush(any(Task.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void reopenTask_ConcurrentWriteBeforeFlush() {
+        Task task = taskAtVersion(5L);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.saveAndFlush(task)).thenThrow(new ObjectOptimisticLockingFailureException(Task.class, 1L));
+
+        assertThrows(ResourceConflictException.class, () -> taskService.reopenTask(1L, 5L));
+    }
+
+    @Test
+    void rescheduleTask_UnknownTask() {
+        when(taskRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> taskService.rescheduleTask(9L, 0L, LocalDate.of(2030, 1, 1)));
+    }
+
+    @Test
+    void retitleTask_TitleTaken() {
+        Task task = taskAtVersion(0L);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.saveAndFlush(task)).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        ResourceConflictException exception = assertThrows(ResourceConflictException.class,
+                () -> taskService.retitleTask(1L, 0L, "Taken"));
+        assertEquals("Task already exists with title: Taken", exception.getMessage());
+    }
+
+    @Test
+    void transitions_RejectMissingVersionOrValue() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.completeTask(1L, null));
+        assertThrows(IllegalArgumentException.class, () -> taskService.rescheduleTask(1L, 0L, null));
+        assertThrows(IllegalArgumentException.class, () -> taskService.retitleTask(1L, 0L, " "));
+        verifyNoInteractions(taskRepository);
     }
-}
\ No newline at end of file
+}
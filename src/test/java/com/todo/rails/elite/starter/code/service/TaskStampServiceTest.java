@@ -0,0 +1,138 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.TaskBulkChangedEvent;
+import com.todo.rails.elite.starter.code.model.TaskChange;
+import com.todo.rails.elite.starter.code.model.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.model.TaskChangesRelayedEvent;
+import com.todo.rails.elite.starter.code.model.TaskCollectionStamp;
+import com.todo.rails.elite.starter.code.model.TaskStamp;
+import com.todo.rails.elite.starter.code.repository.TaskCommitCounterRepository;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskStampServiceTest {
+
+    private static final TaskCollectionStamp BEFORE = new TaskCollectionStamp(2);
+    private static final TaskCollectionStamp AFTER = new TaskCollectionStamp(3);
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskCommitCounterRepository taskCommitCounterRepository;
+
+    @Test
+    void getCollectionStamp_WithinTtl_ReadsOnce() {
+        TaskStampService taskStampService = new TaskStampService(taskRepository, taskCommitCounterRepository, Duration.ofHours(1));
+        when(taskCommitCounterRepository.findCollectionStamp()).thenReturn(BEFORE);
+
+        assertEquals(BEFORE, taskStampService.getCollectionStamp());
+        assertEquals(BEFORE, taskStampService.getCollectionStamp());
+        verify(taskCommitCounterRepository, times(1)).findCollectionStamp();
+    }
+
+    @Test
+    void getCollectionStamp_AfterTaskChange_ReadsAgain() {
+        TaskStampService taskStampService = new TaskStampService(taskRepository, taskCommitCounterRepository, Duration.ofHours(1));
+        when(taskCommitCounterRepository.findCollectionStamp()).thenReturn(BEFORE, AFTER);
+        taskStampService.getCollectionStamp();
+
+        Task task = new Task("Task", "Desc", false, LocalDate.now());
+        task.setId(3L);
+        taskStampService.onTaskChanged(TaskChangedEvent.created(task));
+
+        assertEquals(AFTER, taskStampService.getCollectionStamp());
+        verify(taskCommitCounterRepository, times(2)).findCollectionStamp();
+    }
+
+    @Test
+    void getCollectionStamp_AfterBulkChange_ReadsAgain() {
+        TaskStampService taskStampService = new TaskStampService(taskRepository, taskCommitCounterRepository, Duration.ofHours(1));
+        when(taskCommitCounterRepository.findCollectionStamp()).thenReturn(BEFORE, AFTER);
+        taskStampService.getCollectionStamp();
+
+        taskStampService.onTasksChangedInBulk(new TaskBulkChangedEvent(TaskBulkChangedEvent.Type.RESCHEDULED, 2));
+
+        assertEquals(AFTER, taskStampService.getCollectionStamp());
+    }
+
+    @Test
+    void getCollectionStamp_AfterRelayedChanges_ReadsAgain() {
+        TaskStampService taskStampService = new TaskStampService(taskRepository, taskCommitCounterRepository, Duration.ofHours(1));
+        when(taskCommitCounterRepository.findCollectionStamp()).thenReturn(BEFORE, AFTER);
+        taskStampService.getCollectionStamp();
+
+        TaskChange change = new TaskChange(
+                TaskChangedEvent.Type.CREATED, 3L, "Task", "Desc", false, LocalDate.now(), 1L, Instant.now()
+        );
+        taskStampService.onTaskChangesRelayed(new TaskChangesRelayedEvent(List.of(change)));
+
+        assertEquals(AFTER, taskStampService.getCollectionStamp());
+    }
+
+    @Test
+    void getCollectionStamp_ChangeWhileReading_IsNotCached() {
+        TaskStampService taskStampService = new TaskStampService(taskRepository, taskCommitCounterRepository, Duration.ofHours(1));
+        when(taskCommitCounterRepository.findCollectionStamp())
+                .thenAnswer(invocation -> {
+                    // commits after the counter was read, so the stamp may already be outdated
+                    taskStampService.onTasksChangedInBulk(
+                            new TaskBulkChangedEvent(TaskBulkChangedEvent.Type.COMPLETED_OVERDUE, 1)
+                    );
+                    return BEFORE;
+                })
+                .thenReturn(AFTER);
+
+        assertEquals(BEFORE, taskStampService.getCollectionStamp());
+        assertEquals(AFTER, taskStampService.getCollectionStamp());
+    }
+
+    @Test
+    void getCollectionStamp_ZeroTtl_ReadsEveryTime() {
+        TaskStampService taskStampService = new TaskStampService(taskRepository, taskCommitCounterRepository, Duration.ZERO);
+        when(taskCommitCounterRepository.findCollectionStamp()).thenReturn(BEFORE);
+
+        taskStampService.getCollectionStamp();
+        taskStampService.getCollectionStamp();
+
+        verify(taskCommitCounterRepository, times(2)).findCollectionStamp();
+    }
+
+    @Test
+    void readCollection_ReadsStampWithTheBodyPastTheCache() {
+        TaskStampService taskStampService = new TaskStampService(taskRepository, taskCommitCounterRepository, Duration.ofHours(1));
+        when(taskCommitCounterRepository.findCollectionStamp()).thenReturn(AFTER, BEFORE);
+        taskStampService.getCollectionStamp();
+
+        // the cached stamp may come from another database than the transaction the body is read in
+        assertEquals(BEFORE, taskStampService.readCollection(stamp -> stamp));
+        assertEquals(AFTER, taskStampService.getCollectionStamp());
+        verify(taskCommitCounterRepository, times(2)).findCollectionStamp();
+    }
+
+    @Test
+    void getTaskStamp_ReadsProjectionOnly() {
+        TaskStampService taskStampService = new TaskStampService(taskRepository, taskCommitCounterRepository, Duration.ofSeconds(1));
+        TaskStamp stamp = new TaskStamp(1L, 4L, Instant.parse("2030-01-01T10:00:00Z"));
+        when(taskRepository.findStampById(1L)).thenReturn(Optional.of(stamp));
+        when(taskRepository.findStampByTitle("Missing")).thenReturn(Optional.empty());
+
+        assertEquals(Optional.of(stamp), taskStampService.getTaskStamp(1L));
+        assertTrue(taskStampService.getTaskStampByTitle("Missing").isEmpty());
+        verify(taskRepository, never()).findById(anyLong());
+    }
+}
@@ -0,0 +1,114 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.TaskSuggestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskSuggestionIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 10);
+
+    private TaskSuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskSuggestionIndex();
+        index.putAll(List.of(
+                task(1L, "Review budget", false, 5),
+                task(2L, "Review release notes", false, 1),
+                task(3L, "Reviewer onboarding", true, 0),
+                task(4L, "Révise the   Café plan", false, 3),
+                task(5L, "Call supplier", false, 2)
+        ));
+    }
+
+    private static TaskSuggestion task(long id, String title, boolean completed, int dueInDays) {
+        return new TaskSuggestion(id, title, completed, TODAY.plusDays(dueInDays));
+    }
+
+    private List<Long> ids(String typed, int limit) {
+        return index.suggest(TaskSuggestionIndex.prefixOf(typed), limit).stream().map(TaskSuggestion::id).toList();
+    }
+
+    @Test
+    void prefixOf_FoldsCaseAccentsAndWhitespace() {
+        assertEquals("revise the cafe plan", TaskSuggestionIndex.fold("  Révise the   CAFÉ plan"));
+        assertEquals("review ", TaskSuggestionIndex.prefixOf(" Review  "));
+        assertEquals("", TaskSuggestionIndex.prefixOf("   "));
+    }
+
+    @Test
+    void suggest_MatchesTitlePrefixesRankedByStatusThenDueDate() {
+        // pending before completed, then the nearest due date
+        assertEquals(List.of(2L, 4L, 1L, 3L), ids("rev", 10));
+        assertEquals(List.of(2L, 1L), ids("review ", 10));
+        assertEquals(List.of(4L), ids("REVISE THE CAFE", 10));
+        assertEquals(List.of(2L, 4L), ids("rev", 2));
+        assertEquals(List.of(), ids("revx", 10));
+        assertEquals(List.of(), ids("budget", 10));
+        assertEquals(List.of(), ids("review budgets", 10));
+    }
+
+    @Test
+    void put_ReplacesTaskAndReordersSuggestions() {
+        index.put(task(1L, "Review budget", false, 0));
+        index.put(task(2L, "Release notes", true, 1));
+
+        assertEquals(List.of(1L, 4L, 3L), ids("rev", 10));
+        assertEquals(List.of(2L), ids("rel", 10));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void remove_DropsTaskAndKeepsSiblings() {
+        index.remove(3L);
+        index.remove(99L);
+
+        assertEquals(List.of(2L, 4L, 1L), ids("rev", 10));
+        assertEquals(List.of(), ids("reviewer", 10));
+        assertEquals(List.of(1L), ids("review b", 10));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void suggest_KeepsBestTasksAmongManySharingAPrefix() {
+        List<TaskSuggestion> many = new ArrayList<>();
+        for (long id = 100; id < 400; id++) {
+            many.add(task(id, "Report " + id, id % 2 == 0, (int) (id % 50)));
+        }
+        index.putAll(many);
+        for (long id = 100; id < 400; id += 3) {
+            index.remove(id);
+        }
+        index.put(task(1000L, "Report urgent", false, -1));
+
+        List<TaskSuggestion> expected = new ArrayList<>();
+        for (long id = 100; id < 400; id++) {
+            if ((id - 100) % 3 != 0) {
+                expected.add(task(id, "Report " + id, id % 2 == 0, (int) (id % 50)));
+            }
+        }
+        expected.add(task(1000L, "Report urgent", false, -1));
+        expected.sort(TaskSuggestionIndex.RANKING);
+        assertEquals(expected.subList(0, TaskSuggestionIndex.MAX_SUGGESTIONS),
+                index.suggest("rep", TaskSuggestionIndex.MAX_SUGGESTIONS));
+        assertEquals(List.of(1000L), ids("report u", 10));
+    }
+
+    @Test
+    void estimatedBytes_GrowsWithTheIndex() {
+        long before = index.estimatedBytes();
+        index.put(task(6L, "Write quarterly report", false, 4));
+
+        assertTrue(before > 0);
+        assertTrue(index.estimatedBytes() > before);
+        index.remove(6L);
+        assertEquals(before, index.estimatedBytes());
+    }
+}
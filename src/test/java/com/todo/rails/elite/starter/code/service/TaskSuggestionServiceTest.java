@@ -0,0 +1,174 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.Task;
+import com.todo.rails.elite.starter.code.model.TaskChange;
+import com.todo.rails.elite.starter.code.model.TaskChangedEvent;
+import com.todo.rails.elite.starter.code.model.TaskChangesRelayedEvent;
+import com.todo.rails.elite.starter.code.model.TaskSuggestion;
+import com.todo.rails.elite.starter.code.model.TasksImportedEvent;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSuggestionServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private TaskSuggestionService taskSuggestionService;
+
+    @BeforeEach
+    void setUp() {
+        taskSuggestionService = new TaskSuggestionService(taskRepository);
+    }
+
+    private static Task task(long id, String title, boolean completed, LocalDate dueDate) {
+        Task task = new Task(title, "Desc", completed, dueDate);
+        task.setId(id);
+        return task;
+    }
+
+    private List<Long> suggestedIds(String typed) {
+        return taskSuggestionService.suggest(typed, 10).stream().map(TaskSuggestion::id).toList();
+    }
+
+    @Test
+    void suggest_BeforeFirstBuild_IsUnavailable() {
+        assertThrows(IllegalStateException.class, () -> taskSuggestionService.suggest("rev", 10));
+    }
+
+    @Test
+    void suggest_BlankPrefix_IsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> taskSuggestionService.suggest("  ", 10));
+    }
+
+    @Test
+    void rebuild_LoadsEveryTaskWithOneQuery() {
+        when(taskRepository.findAllSuggestions()).thenReturn(List.of(
+                new TaskSuggestion(1L, "Review budget", false, TODAY.plusDays(3)),
+                new TaskSuggestion(2L, "Review notes", true, TODAY),
+                new TaskSuggestion(3L, "Revise plan", false, TODAY.plusDays(1))
+        ));
+
+        assertEquals(3, taskSuggestionService.rebuild());
+
+        assertEquals(List.of(3L, 1L, 2L), suggestedIds("rev"));
+        assertEquals(1, taskSuggestionService.suggest("rev", 0).size());
+        verify(taskRepository, times(1)).findAllSuggestions();
+    }
+
+    @Test
+    void onTaskChanged_FollowsCreatesUpdatesAndDeletes() {
+        when(taskRepository.findAllSuggestions())
+                .thenReturn(List.of(new TaskSuggestion(1L, "Review budget", false, TODAY.plusDays(3))));
+        taskSuggestionService.rebuild();
+
+        taskSuggestionService.onTaskChanged(TaskChangedEvent.created(task(2L, "Review notes", false, TODAY)));
+        assertEquals(List.of(2L, 1L), suggestedIds("rev"));
+
+        taskSuggestionService.onTaskChanged(TaskChangedEvent.updated(task(2L, "Review notes", true, TODAY), false, TODAY));
+        assertEquals(List.of(1L, 2L), suggestedIds("rev"));
+
+        taskSuggestionService.onTaskChanged(TaskChangedEvent.updated(task(1L, "Budget check", false, TODAY), false, TODAY));
+        taskSuggestionService.onTaskChanged(TaskChangedEvent.deleted(task(2L, "Review notes", true, TODAY)));
+        assertEquals(List.of(), suggestedIds("rev"));
+        assertEquals(List.of(1L), suggestedIds("budget"));
+    }
+
+    @Test
+    void onTasksImported_AddsEveryTaskOfTheBatch() {
+        when(taskRepository.findAllSuggestions()).thenReturn(List.of());
+        taskSuggestionService.rebuild();
+
+        taskSuggestionService.onTasksImported(new TasksImportedEvent(List.of(
+                TaskChangedEvent.created(task(1L, "Review budget", false, TODAY.plusDays(3))),
+                TaskChangedEvent.created(task(2L, "Review notes", false, TODAY))
+        )));
+
+        assertEquals(List.of(2L, 1L), suggestedIds("rev"));
+    }
+
+    @Test
+    void onTaskChangesRelayed_AppliesChangesFromOtherInstancesAsStoredNow() {
+        when(taskRepository.findAllSuggestions()).thenReturn(List.of(
+                new TaskSuggestion(1L, "Review budget", false, TODAY.plusDays(3)),
+                new TaskSuggestion(2L, "Review notes", false, TODAY)
+        ));
+        taskSuggestionService.rebuild();
+        when(taskRepository.findSuggestionsByIds(Set.of(1L, 2L, 3L))).thenReturn(List.of(
+                new TaskSuggestion(1L, "Review budget", true, TODAY.plusDays(3)),
+                new TaskSuggestion(3L, "Review later", false, TODAY.plusDays(1))
+        ));
+
+        // changed on another instance; the outbox rows only say which tasks to read again
+        taskSuggestionService.onTaskChangesRelayed(new TaskChangesRelayedEvent(List.of(
+                new TaskChange(TaskChangedEvent.Type.CREATED, 3L, "Review later", "Desc", false, TODAY, 1L, Instant.now()),
+                new TaskChange(TaskChangedEvent.Type.UPDATED, 1L, "Review budget", "Desc", false, TODAY, 1L, Instant.now()),
+                new TaskChange(TaskChangedEvent.Type.DELETED, 2L, "Review notes", "Desc", false, TODAY, 1L, Instant.now())
+        )));
+
+        assertEquals(List.of(3L, 1L), suggestedIds("review"));
+    }
+
+    @Test
+    void rebuild_ReplaysChangesCommittedWhileLoading() {
+        when(taskRepository.findAllSuggestions()).thenAnswer(invocation -> {
+            taskSuggestionService.onTaskChanged(TaskChangedEvent.created(task(5L, "Review later", false, TODAY)));
+            return List.of(new TaskSuggestion(1L, "Review budget", false, TODAY.plusDays(3)));
+        });
+
+        taskSuggestionService.rebuild();
+
+        assertEquals(List.of(5L, 1L), suggestedIds("review"));
+    }
+
+    @Test
+    void bindTo_ReportsSizeAndFootprint() {
+        when(taskRepository.findAllSuggestions())
+                .thenReturn(List.of(new TaskSuggestion(1L, "Review budget", false, TODAY)));
+        taskSuggestionService.rebuild();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        taskSuggestionService.bindTo(registry);
+
+        assertEquals(1.0, registry.get("todo.suggest.index.tasks").gauge().value());
+        assertTrue(registry.get("todo.suggest.index.memory").gauge().value() > 0);
+    }
+
+    @Test
+    void bindTo_FootprintIsEstimatedAtRebuildNotPerScrape() {
+        when(taskRepository.findAllSuggestions())
+                .thenReturn(List.of(new TaskSuggestion(1L, "Review budget", false, TODAY)));
+        taskSuggestionService.rebuild();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        taskSuggestionService.bindTo(registry);
+        double built = registry.get("todo.suggest.index.memory").gauge().value();
+
+        taskSuggestionService.onTaskChanged(TaskChangedEvent.created(task(2L, "Review the whole quarterly plan", false, TODAY)));
+
+        // the change is counted right away; its bytes show once the estimate is due again
+        assertEquals(2.0, registry.get("todo.suggest.index.tasks").gauge().value());
+        assertEquals(built, registry.get("todo.suggest.index.memory").gauge().value());
+        when(taskRepository.findAllSuggestions()).thenReturn(List.of(
+                new TaskSuggestion(1L, "Review budget", false, TODAY),
+                new TaskSuggestion(2L, "Review the whole quarterly plan", false, TODAY)
+        ));
+        taskSuggestionService.rebuild();
+        assertTrue(registry.get("todo.suggest.index.memory").gauge().value() > built);
+    }
+}
@@ -0,0 +1,155 @@
+package com.todo.rails.elite.starter.code.service;
+
+import com.todo.rails.elite.starter.code.model.TaskSync;
+import com.todo.rails.elite.starter.code.model.TaskSyncItem;
+import com.todo.rails.elite.starter.code.model.TaskSyncWatermark;
+import com.todo.rails.elite.starter.code.model.TaskTombstone;
+import com.todo.rails.elite.starter.code.repository.TaskRepository;
+import com.todo.rails.elite.starter.code.repository.TaskTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSyncServiceTest {
+
+    private static final Duration SETTLE_WINDOW = Duration.ofSeconds(10);
+    private static final Instant T0 = Instant.now().minus(Duration.ofHours(1));
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    private TaskSyncService taskSyncService;
+
+    @BeforeEach
+    void setUp() {
+        taskSyncService = new TaskSyncService(taskRepository, taskTombstoneRepository, SETTLE_WINDOW, Duration.ofDays(30));
+    }
+
+    private static TaskSyncItem item(long id, Instant updatedAt) {
+        return new TaskSyncItem(id, "Task " + id, "Desc", false, LocalDate.now(), 0, updatedAt);
+    }
+
+    @Test
+    void sync_WithoutWatermark_IsFullAndSkipsTombstones() {
+        when(taskRepository.findChangedAfter(Instant.EPOCH, 0, Limit.of(2)))
+                .thenReturn(List.of(item(1, T0), item(2, T0)));
+
+        TaskSync sync = taskSyncService.sync(null, 2);
+
+        assertTrue(sync.full());
+        assertEquals(List.of(1L, 2L), sync.changed().stream().map(TaskSyncItem::id).toList());
+        assertTrue(sync.hasMore());
+        assertEquals(new TaskSyncWatermark(T0, 2), TaskSyncWatermark.decode(sync.watermark()));
+        verifyNoInteractions(taskTombstoneRepository);
+    }
+
+    @Test
+    void sync_MergesChangesAndDeletionsInWriteOrder() {
+        TaskSyncWatermark since = new TaskSyncWatermark(T0, 5);
+        when(taskRepository.findChangedAfter(T0, 5, Limit.of(3)))
+                .thenReturn(List.of(item(6, T0), item(3, T0.plusSeconds(2))));
+        when(taskTombstoneRepository.findDeletedAfter(T0, 5, Limit.of(3)))
+                .thenReturn(List.of(new TaskTombstone(9L, T0.plusSeconds(1)), new TaskTombstone(4L, T0.plusSeconds(3))));
+
+        TaskSync sync = taskSyncService.sync(since.encode(), 3);
+
+        // 6 at T0, 9 deleted at T0+1s, 3 at T0+2s; the deletion of 4 follows on the next page
+        assertFalse(sync.full());
+        assertEquals(List.of(6L, 3L), sync.changed().stream().map(TaskSyncItem::id).toList());
+        assertEquals(List.of(9L), sync.deleted());
+        assertTrue(sync.hasMore());
+        assertEquals(new TaskSyncWatermark(T0.plusSeconds(2), 3), TaskSyncWatermark.decode(sync.watermark()));
+    }
+
+    @Test
+    void sync_CaughtUp_HoldsWatermarkBackBySettleWindow() {
+        Instant recent = Instant.now();
+        when(taskRepository.findChangedAfter(any(), anyLong(), any())).thenReturn(List.of(item(7, recent)));
+        when(taskTombstoneRepository.findDeletedAfter(any(), anyLong(), any())).thenReturn(List.of());
+
+        TaskSync sync = taskSyncService.sync(new TaskSyncWatermark(T0, 1).encode(), 50);
+
+        assertFalse(sync.hasMore());
+        TaskSyncWatermark next = TaskSyncWatermark.decode(sync.watermark());
+        assertTrue(next.writtenAt().isBefore(recent));
+        assertFalse(next.writtenAt().isAfter(Instant.now().minus(SETTLE_WINDOW)));
+        assertEquals(0, next.id());
+    }
+
+    @Test
+    void sync_PagingPastSettlePoint_SettlesThereOnceCaughtUp() {
+        Instant recent = Instant.now();
+        when(taskRepository.findChangedAfter(T0, 1, Limit.of(2))).thenReturn(List.of(item(7, recent), item(8, recent)));
+        when(taskTombstoneRepository.findDeletedAfter(T0, 1, Limit.of(2))).thenReturn(List.of());
+
+        TaskSync first = taskSyncService.sync(new TaskSyncWatermark(T0, 1).encode(), 2);
+
+        // the next page reads on from the last task sent, but the pass has only settled up to before it
+        assertTrue(first.hasMore());
+        TaskSyncWatermark paging = TaskSyncWatermark.decode(first.watermark());
+        assertEquals(recent, paging.writtenAt());
+        assertEquals(8, paging.id());
+        assertFalse(paging.settledAt().isAfter(Instant.now().minus(SETTLE_WINDOW)));
+
+        when(taskRepository.findChangedAfter(recent, 8, Limit.of(2))).thenReturn(List.of(item(9, recent)));
+        when(taskTombstoneRepository.findDeletedAfter(recent, 8, Limit.of(2))).thenReturn(List.of());
+
+        TaskSync last = taskSyncService.sync(first.watermark(), 2);
+
+        // a write of the first page's window that commits late is still ahead of the settled watermark
+        assertFalse(last.hasMore());
+        assertEquals(List.of(9L), last.changed().stream().map(TaskSyncItem::id).toList());
+        assertEquals(new TaskSyncWatermark(paging.settledAt(), 0), TaskSyncWatermark.decode(last.watermark()));
+    }
+
+    @Test
+    void sync_CaughtUpOnOldWrites_KeepsLastPosition() {
+        when(taskRepository.findChangedAfter(any(), anyLong(), any())).thenReturn(List.of(item(7, T0)));
+        when(taskTombstoneRepository.findDeletedAfter(any(), anyLong(), any())).thenReturn(List.of());
+
+        TaskSync sync = taskSyncService.sync(new TaskSyncWatermark(T0, 1).encode(), 50);
+
+        assertEquals(new TaskSyncWatermark(T0, 7), TaskSyncWatermark.decode(sync.watermark()));
+    }
+
+    @Test
+    void sync_WatermarkOlderThanTombstones_IsFull() {
+        when(taskRepository.findChangedAfter(Instant.EPOCH, 0, Limit.of(50))).thenReturn(List.of());
+
+        TaskSync sync = taskSyncService.sync(new TaskSyncWatermark(Instant.now().minus(Duration.ofDays(31)), 4).encode(), 50);
+
+        assertTrue(sync.full());
+        verifyNoInteractions(taskTombstoneRepository);
+    }
+
+    @Test
+    void sync_MalformedWatermark() {
+        assertThrows(IllegalArgumentException.class, () -> taskSyncService.sync("%%%", 50));
+        verifyNoInteractions(taskRepository, taskTombstoneRepository);
+    }
+
+    @Test
+    void purgeTombstones_DeletesOlderThanRetention() {
+        taskSyncService.purgeTombstones();
+
+        verify(taskTombstoneRepository).deleteDeletedBefore(argThat(before ->
+                before.isBefore(Instant.now().minus(Duration.ofDays(30)).plusSeconds(1))));
+    }
+}
@@ -4,12 +4,14 @@ import com.todo.rails.elite.starter.code.exceptions.ResourceAlreadyExistsExcepti
 import com.todo.rails.elite.starter.code.exceptions.ResourceNotFoundException;
 import com.todo.rails.elite.starter.code.model.User;
 import com.todo.rails.elite.starter.code.repository.UserRepository;
+import com.todo.rails.elite.starter.code.service.security.JpaUserDetailsService;
+import com.todo.rails.elite.starter.code.service.security.RefreshTokenService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -25,7 +27,13 @@ class UserServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private JpaUserDetailsService userDetailsService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
 
     @InjectMocks
     private UserService userService;
@@ -201,6 +209,8 @@ class UserServiceTest {
 
         verify(userRepository, times(1)).findByUsername("New username");
         verify(userRepository, times(1)).save(updatedUser);
+        verify(userDetailsService, times(1)).evict("New username");
+        verify(refreshTokenService, times(1)).revokeAll("New username");
     }
 
     @Test
@@ -214,6 +224,7 @@ class UserServiceTest {
         assertEquals("User not found for update with username: NonExistentUser", exception.getMessage());
         verify(userRepository, times(1)).findByUsername("NonExistentUser");
         verify(userRepository, never()).save(any(User.class));
+        verifyNoInteractions(userDetailsService, refreshTokenService);
     }
 
     @Test
@@ -228,6 +239,8 @@ class UserServiceTest {
 
         verify(userRepository, times(1)).findByUsername("Test username");
         verify(userRepository, times(1)).delete(userToDelete);
+        verify(userDetailsService, times(1)).evict("Test username");
+        verify(refreshTokenService, times(1)).revokeAll("Test username");
     }
 
     @Test
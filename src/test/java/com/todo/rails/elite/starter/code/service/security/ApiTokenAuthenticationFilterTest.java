@@ -0,0 +1,80 @@
+package com.todo.rails.elite.starter.code.service.security;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApiTokenAuthenticationFilterTest {
+
+    @Mock
+    private ApiTokenService apiTokenService;
+
+    @Mock
+    private FilterChain chain;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validBearerToken_AuthenticatesRequest() throws Exception {
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated("alice", null, List.of());
+        when(apiTokenService.authenticate("token")).thenReturn(authentication);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader("Authorization", "Bearer token");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        doAnswer(invocation -> {
+            assertSame(authentication, SecurityContextHolder.getContext().getAuthentication());
+            return null;
+        }).when(chain).doFilter(request, response);
+
+        new ApiTokenAuthenticationFilter(apiTokenService).doFilter(request, response, chain);
+
+        verify(chain).doFilter(request, response);
+        assertNull(request.getSession(false));
+    }
+
+    @Test
+    void invalidBearerToken_Returns401() throws Exception {
+        when(apiTokenService.authenticate("forged")).thenThrow(new BadCredentialsException("Invalid access token signature"));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader("Authorization", "Bearer forged");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new ApiTokenAuthenticationFilter(apiTokenService).doFilter(request, response, chain);
+
+        assertEquals(401, response.getStatus());
+        assertEquals("Bearer error=\"invalid_token\"", response.getHeader("WWW-Authenticate"));
+        verifyNoInteractions(chain);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void noBearerToken_PassesThrough() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader("Authorization", "Basic dXNlcjpwYXNz");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new ApiTokenAuthenticationFilter(apiTokenService).doFilter(request, response, chain);
+
+        verify(chain).doFilter(request, response);
+        verifyNoInteractions(apiTokenService);
+    }
+}
@@ -0,0 +1,100 @@
+package com.todo.rails.elite.starter.code.service.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.rails.elite.starter.code.model.User;
+import com.todo.rails.elite.starter.code.model.security.SecurityUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiTokenServiceTest {
+
+    private static final String OLD_KEY = "old:" + secret('a');
+    private static final String NEW_KEY = "new:" + secret('b');
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SecurityUser alice = new SecurityUser(new User("alice", "$2a$04$hash", "alice@example.com", "USER,ADMIN"));
+
+    private static String secret(char fill) {
+        return Base64.getEncoder().encodeToString(String.valueOf(fill).repeat(32).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private ApiTokenService service(List<String> keys, String activeKey, Duration ttl) {
+        return new ApiTokenService(new ObjectMapper(), keys, activeKey, ttl, registry);
+    }
+
+    @Test
+    void issueAndAuthenticate_RoundTrip() {
+        ApiTokenService service = service(List.of(NEW_KEY), "", Duration.ofMinutes(15));
+
+        Authentication authentication = service.authenticate(service.issue(alice));
+
+        assertTrue(authentication.isAuthenticated());
+        assertEquals("alice", authentication.getName());
+        assertEquals(List.of("USER", "ADMIN"),
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        assertEquals(1, registry.get("api.token").tag("result", "accepted").counter().count());
+    }
+
+    @Test
+    void authenticate_TamperedClaims() {
+        ApiTokenService service = service(List.of(NEW_KEY), "", Duration.ofMinutes(15));
+        String[] parts = service.issue(alice).split("\\.");
+        String forged = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "{\"sub\":\"mallory\",\"roles\":[\"ADMIN\"],\"exp\":9999999999}".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(BadCredentialsException.class, () -> service.authenticate(parts[0] + "." + forged + "." + parts[2]));
+        assertEquals(1, registry.get("api.token").tag("result", "rejected").counter().count());
+    }
+
+    @Test
+    void authenticate_Expired() {
+        ApiTokenService service = service(List.of(NEW_KEY), "", Duration.ofSeconds(-1));
+
+        assertThrows(BadCredentialsException.class, () -> service.authenticate(service.issue(alice)));
+    }
+
+    @Test
+    void authenticate_Malformed() {
+        ApiTokenService service = service(List.of(NEW_KEY), "", Duration.ofMinutes(15));
+
+        assertThrows(BadCredentialsException.class, () -> service.authenticate("not-a-token"));
+        assertThrows(BadCredentialsException.class, () -> service.authenticate("a.b.c"));
+    }
+
+    @Test
+    void authenticate_RotatedKeys() {
+        String issuedWithOldKey = service(List.of(OLD_KEY), "", Duration.ofMinutes(15)).issue(alice);
+        ApiTokenService rotated = service(List.of(OLD_KEY, NEW_KEY), "new", Duration.ofMinutes(15));
+        ApiTokenService oldKeyRemoved = service(List.of(NEW_KEY), "", Duration.ofMinutes(15));
+
+        assertEquals("alice", rotated.authenticate(issuedWithOldKey).getName());
+        assertEquals("alice", oldKeyRemoved.authenticate(rotated.issue(alice)).getName());
+        assertThrows(BadCredentialsException.class, () -> oldKeyRemoved.authenticate(issuedWithOldKey));
+    }
+
+    @Test
+    void authenticate_OtherNodesRandomKey() {
+        String token = service(List.of(), "", Duration.ofMinutes(15)).issue(alice);
+
+        assertThrows(BadCredentialsException.class,
+                () -> service(List.of(), "", Duration.ofMinutes(15)).authenticate(token));
+    }
+
+    @Test
+    void constructor_RejectsShortOrUnknownKeys() {
+        String shortKey = "short:" + Base64.getEncoder().encodeToString(new byte[16]);
+
+        assertThrows(IllegalStateException.class, () -> service(List.of(shortKey), "", Duration.ofMinutes(15)));
+        assertThrows(IllegalStateException.class, () -> service(List.of(NEW_KEY), "missing", Duration.ofMinutes(15)));
+    }
+}
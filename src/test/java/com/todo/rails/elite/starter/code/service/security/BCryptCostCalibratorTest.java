@@ -0,0 +1,55 @@
+package com.todo.rails.elite.starter.code.service.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BCryptCostCalibratorTest {
+
+    /**
+     * Simulated hardware where cost 4 takes 1 ms and every further cost doubles it.
+     */
+    private static long simulatedNanos(int cost) {
+        return Duration.ofMillis(1).toNanos() << (cost - 4);
+    }
+
+    @Test
+    void calibrate_PicksHighestCostWithinTarget() {
+        BCryptCostCalibrator calibrator = new BCryptCostCalibrator(BCryptCostCalibratorTest::simulatedNanos, 4, 31);
+
+        assertEquals(10, calibrator.calibrate(Duration.ofMillis(100))); // 64 ms; cost 11 would take 128 ms
+        assertEquals(4, calibrator.calibrate(Duration.ofMillis(1)));
+    }
+
+    @Test
+    void calibrate_RespectsBounds() {
+        assertEquals(8, new BCryptCostCalibrator(BCryptCostCalibratorTest::simulatedNanos, 4, 8)
+                .calibrate(Duration.ofSeconds(10)));
+        assertEquals(12, new BCryptCostCalibrator(BCryptCostCalibratorTest::simulatedNanos, 12, 14)
+                .calibrate(Duration.ofMillis(1)));
+    }
+
+    @Test
+    void calibrate_StopsMeasuringOnceTargetIsOutOfReach() {
+        List<Integer> measured = new ArrayList<>();
+        BCryptCostCalibrator calibrator = new BCryptCostCalibrator(cost -> {
+            measured.add(cost);
+            return simulatedNanos(cost);
+        }, 4, 31);
+
+        calibrator.calibrate(Duration.ofMillis(100));
+
+        assertEquals(10, measured.stream().mapToInt(Integer::intValue).max().orElseThrow());
+    }
+
+    @Test
+    void constructor_RejectsInvalidRange() {
+        assertThrows(IllegalArgumentException.class, () -> BCryptCostCalibrator.forBCrypt(3, 10));
+        assertThrows(IllegalArgumentException.class, () -> BCryptCostCalibrator.forBCrypt(12, 10));
+        assertThrows(IllegalArgumentException.class, () -> BCryptCostCalibrator.forBCrypt(4, 32));
+    }
+}
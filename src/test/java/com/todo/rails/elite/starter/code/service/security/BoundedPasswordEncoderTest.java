@@ -0,0 +1,109 @@
+package com.todo.rails.elite.starter.code.service.security;
+
+import com.todo.rails.elite.starter.code.exceptions.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private BoundedPasswordEncoder encoder;
+
+    /**
+     * Reversing encoder whose hashing of "block" parks its thread until the test releases it.
+     * Like BCrypt, it does not stop when interrupted.
+     */
+    private final PasswordEncoder delegate = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if ("block".contentEquals(rawPassword)) {
+                started.countDown();
+                boolean interrupted = false;
+                while (release.getCount() > 0) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException exception) {
+                        interrupted = true;
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new StringBuilder(rawPassword).reverse().toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (encoder != null) {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    void encodeAndMatches_RunOnExecutorAndRecordLatency() {
+        encoder = new BoundedPasswordEncoder(delegate, 2, 4, Duration.ofSeconds(5), registry);
+
+        assertEquals("terces", encoder.encode("secret"));
+        assertTrue(encoder.matches("secret", "terces"));
+        assertFalse(encoder.matches("secret", "wrong"));
+
+        assertEquals(1, registry.get("password.hashing.duration").tag("operation", "encode").timer().count());
+        assertEquals(2, registry.get("password.hashing.duration").tag("operation", "matches").timer().count());
+        assertEquals(3, registry.get("password.hashing.wait").timer().count());
+        assertNotNull(registry.find("executor.queued").tag("name", "password-hashing").gauge());
+    }
+
+    @Test
+    void encode_RejectsWhenQueueIsFull() throws Exception {
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1, Duration.ofSeconds(5), registry);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("block"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("queued"));
+        while (registry.get("executor.queued").tag("name", "password-hashing").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("rejected"));
+        assertEquals(1, registry.get("password.hashing.rejected").tag("reason", "queue-full").counter().count());
+
+        release.countDown();
+        assertEquals("kcolb", running.get(5, TimeUnit.SECONDS));
+        assertEquals("deueuq", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void matches_RejectsWhenWaitExceedsLimit() throws Exception {
+        encoder = new BoundedPasswordEncoder(delegate, 1, 4, Duration.ofMillis(50), registry);
+        CompletableFuture.runAsync(() -> {
+            try {
+                encoder.encode("block");
+            } catch (PasswordHashingRejectedException ignored) {
+                // this caller times out as well; only the second one is asserted
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(PasswordHashingRejectedException.class, () -> encoder.matches("secret", "terces"));
+        assertTrue(registry.get("password.hashing.rejected").tag("reason", "timeout").counter().count() >= 1);
+    }
+}
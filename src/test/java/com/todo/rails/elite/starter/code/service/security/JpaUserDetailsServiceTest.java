@@ -0,0 +1,106 @@
+package com.todo.rails.elite.starter.code.service.security;
+
+import com.todo.rails.elite.starter.code.model.User;
+import com.todo.rails.elite.starter.code.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JpaUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private JpaUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = new JpaUserDetailsService(userRepository, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void loadUserByUsername_ParsesAuthoritiesOnce() {
+        when(userRepository.findByUsername("alice"))
+                .thenReturn(Optional.of(new User("alice", "hash", "alice@example.com", "USER, ADMIN")));
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername("alice");
+
+        assertEquals("alice", userDetails.getUsername());
+        assertEquals("hash", userDetails.getPassword());
+        assertEquals(List.of("USER", "ADMIN"),
+                userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        assertSame(userDetails.getAuthorities(), userDetails.getAuthorities());
+    }
+
+    @Test
+    void loadUserByUsername_ServesRepeatedLookupsFromCache() {
+        when(userRepository.findByUsername("alice"))
+                .thenReturn(Optional.of(new User("alice", "hash", "alice@example.com", "USER")));
+
+        UserDetails first = userDetailsService.loadUserByUsername("alice");
+        UserDetails second = userDetailsService.loadUserByUsername("alice");
+
+        assertSame(first, second);
+        verify(userRepository, times(1)).findByUsername("alice");
+    }
+
+    @Test
+    void evict_ReloadsChangedUser() {
+        when(userRepository.findByUsername("alice"))
+                .thenReturn(Optional.of(new User("alice", "old", "alice@example.com", "USER")))
+                .thenReturn(Optional.of(new User("alice", "new", "alice@example.com", "USER")));
+
+        userDetailsService.loadUserByUsername("alice");
+        userDetailsService.evict("alice");
+
+        assertEquals("new", userDetailsService.loadUserByUsername("alice").getPassword());
+        verify(userRepository, times(2)).findByUsername("alice");
+    }
+
+    @Test
+    void loadUserByUsername_UnknownUserIsNotCached() {
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+        verify(userRepository, times(2)).findByUsername("ghost");
+    }
+
+    @Test
+    void evict_DuringLoad_IsNotUndoneByIt() throws Exception {
+        CountDownLatch evicting = new CountDownLatch(1);
+        Thread[] evictor = new Thread[1];
+        when(userRepository.findByUsername("alice"))
+                .thenAnswer(invocation -> {
+                    // the credentials change and are evicted while the old row is being read
+                    evictor[0] = Thread.ofPlatform().start(() -> {
+                        evicting.countDown();
+                        userDetailsService.evict("alice");
+                    });
+                    assertTrue(evicting.await(5, TimeUnit.SECONDS));
+                    Thread.sleep(100);
+                    return Optional.of(new User("alice", "old", "alice@example.com", "USER"));
+                })
+                .thenReturn(Optional.of(new User("alice", "new", "alice@example.com", "USER")));
+
+        assertEquals("old", userDetailsService.loadUserByUsername("alice").getPassword());
+        evictor[0].join(5000);
+
+        assertEquals("new", userDetailsService.loadUserByUsername("alice").getPassword());
+    }
+}
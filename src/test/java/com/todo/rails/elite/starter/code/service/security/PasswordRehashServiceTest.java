@@ -0,0 +1,89 @@
+package com.todo.rails.elite.starter.code.service.security;
+
+import com.todo.rails.elite.starter.code.exceptions.PasswordHashingRejectedException;
+import com.todo.rails.elite.starter.code.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PasswordRehashServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private JpaUserDetailsService userDetailsService;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private PasswordRehashService rehashService;
+
+    @BeforeEach
+    void setUp() {
+        rehashService = new PasswordRehashService(userRepository, passwordEncoder, userDetailsService, 4, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        rehashService.destroy();
+    }
+
+    private double count(String result) {
+        return registry.get("password.rehash").tag("result", result).counter().count();
+    }
+
+    @Test
+    void rehash_StoresNewHashAndEvictsPrincipal() {
+        when(passwordEncoder.encode("secret")).thenReturn("$2a$12$new");
+        when(userRepository.updatePasswordIfUnchanged("alice", "$2a$04$old", "$2a$12$new")).thenReturn(1);
+
+        rehashService.rehash("alice", "$2a$04$old", "secret");
+
+        verify(userDetailsService).evict("alice");
+        assertEquals(1, count("rehashed"));
+    }
+
+    @Test
+    void rehash_LeavesPasswordChangedMeanwhile() {
+        when(passwordEncoder.encode("secret")).thenReturn("$2a$12$new");
+        when(userRepository.updatePasswordIfUnchanged("alice", "$2a$04$old", "$2a$12$new")).thenReturn(0);
+
+        rehashService.rehash("alice", "$2a$04$old", "secret");
+
+        verifyNoInteractions(userDetailsService);
+        assertEquals(1, count("changed-meanwhile"));
+    }
+
+    @Test
+    void rehash_GivesUpWhenHashingIsSaturated() {
+        when(passwordEncoder.encode("secret")).thenThrow(new PasswordHashingRejectedException("saturated"));
+
+        rehashService.rehash("alice", "$2a$04$old", "secret");
+
+        verify(userRepository, never()).updatePasswordIfUnchanged(anyString(), anyString(), anyString());
+        assertEquals(1, count("failed"));
+    }
+
+    @Test
+    void rehashLater_RunsInBackground() {
+        when(passwordEncoder.encode("secret")).thenReturn("$2a$12$new");
+        when(userRepository.updatePasswordIfUnchanged("alice", "$2a$04$old", "$2a$12$new")).thenReturn(1);
+
+        rehashService.rehashLater("alice", "$2a$04$old", "secret");
+
+        verify(userDetailsService, timeout(5000)).evict("alice");
+    }
+}
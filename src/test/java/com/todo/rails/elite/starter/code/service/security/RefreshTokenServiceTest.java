@@ -0,0 +1,102 @@
+package com.todo.rails.elite.starter.code.service.security;
+
+import com.todo.rails.elite.starter.code.model.RefreshToken;
+import com.todo.rails.elite.starter.code.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, Duration.ofDays(30));
+    }
+
+    // issues a token and lets the repository find it again; returns the token as the client holds it
+    private String issued(String username) {
+        String token = refreshTokenService.issue(username);
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        RefreshToken row = saved.getValue();
+        row.setId(7L);
+        when(refreshTokenRepository.findByTokenHash(row.getTokenHash())).thenReturn(Optional.of(row));
+        return token;
+    }
+
+    @Test
+    void issue_StoresHashOnly() {
+        String token = refreshTokenService.issue("alice");
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertEquals("alice", saved.getValue().getUsername());
+        assertEquals(64, saved.getValue().getTokenHash().length());
+        assertNotEquals(token, saved.getValue().getTokenHash());
+        assertEquals(Duration.ofDays(30), Duration.between(saved.getValue().getIssuedAt(), saved.getValue().getExpiresAt()));
+    }
+
+    @Test
+    void consume_ReturnsUsernameOnce() {
+        String token = issued("alice");
+        when(refreshTokenRepository.consume(7L)).thenReturn(1).thenReturn(0);
+
+        assertEquals("alice", refreshTokenService.consume(token));
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.consume(token));
+    }
+
+    @Test
+    void consume_Expired() {
+        RefreshToken row = new RefreshToken("hash", "alice", Instant.now().minusSeconds(60), Instant.now().minusSeconds(1));
+        row.setId(8L);
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.of(row));
+        when(refreshTokenRepository.consume(8L)).thenReturn(1);
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.consume("expired"));
+    }
+
+    @Test
+    void consume_UnknownOrMissing() {
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.empty());
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.consume("unknown"));
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.consume(null));
+        verify(refreshTokenRepository, never()).consume(anyLong());
+    }
+
+    @Test
+    void revoke_DeletesByHash() {
+        refreshTokenService.revoke("token");
+        refreshTokenService.revoke(" ");
+
+        verify(refreshTokenRepository, times(1)).deleteByHash(argThat(hash -> hash.length() == 64));
+    }
+
+    @Test
+    void revokeAllAndPurge() {
+        refreshTokenService.revokeAll("alice");
+        refreshTokenService.purgeExpired();
+
+        verify(refreshTokenRepository).deleteAllOf("alice");
+        verify(refreshTokenRepository).deleteExpiredBefore(any(Instant.class));
+    }
+}
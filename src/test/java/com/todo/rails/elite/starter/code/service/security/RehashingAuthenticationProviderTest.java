@@ -0,0 +1,71 @@
+package com.todo.rails.elite.starter.code.service.security;
+
+import com.todo.rails.elite.starter.code.model.User;
+import com.todo.rails.elite.starter.code.model.security.SecurityUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RehashingAuthenticationProviderTest {
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private PasswordRehashService rehashService;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private RehashingAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        provider = new RehashingAuthenticationProvider(passwordEncoder, rehashService);
+        provider.setUserDetailsService(userDetailsService);
+        when(userDetailsService.loadUserByUsername("alice"))
+                .thenReturn(new SecurityUser(new User("alice", "$2a$04$old", "alice@example.com", "USER")));
+    }
+
+    @Test
+    void authenticate_SchedulesRehashOfOutdatedHash() {
+        when(passwordEncoder.matches("secret", "$2a$04$old")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("$2a$04$old")).thenReturn(true);
+
+        Authentication result = provider.authenticate(new UsernamePasswordAuthenticationToken("alice", "secret"));
+
+        assertTrue(result.isAuthenticated());
+        verify(rehashService).rehashLater("alice", "$2a$04$old", "secret");
+        verify(passwordEncoder, never()).encode("secret"); // the new hash is computed in the background
+    }
+
+    @Test
+    void authenticate_CurrentHashIsLeftAlone() {
+        when(passwordEncoder.matches("secret", "$2a$04$old")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("$2a$04$old")).thenReturn(false);
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken("alice", "secret"));
+
+        verifyNoInteractions(rehashService);
+    }
+
+    @Test
+    void authenticate_WrongPasswordIsNeverRehashed() {
+        when(passwordEncoder.matches("wrong", "$2a$04$old")).thenReturn(false);
+
+        assertThrows(BadCredentialsException.class,
+                () -> provider.authenticate(new UsernamePasswordAuthenticationToken("alice", "wrong")));
+        verifyNoInteractions(rehashService);
+    }
+}